@@ -17,8 +17,11 @@
  */
 package uk.ac.manchester.tornado.annotation;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -58,7 +61,8 @@ public class ASMClassVisitor extends ClassVisitor implements ASMClassVisitorProv
     @Override
     public ParallelAnnotationProvider[] getParallelAnnotations(ResolvedJavaMethod method) {
         String methodClassFile = method.getDeclaringClass().getName().replaceFirst("L", "").replaceFirst(";", ".class");
-        InputStream inputStream = ClassLoader.getSystemClassLoader().getResourceAsStream(methodClassFile);
+        byte[] generatedClassFile = TaskMethodFuser.getClassFile(methodClassFile);
+        InputStream inputStream = generatedClassFile != null ? new ByteArrayInputStream(generatedClassFile) : ClassLoader.getSystemClassLoader().getResourceAsStream(methodClassFile);
         try {
             ClassReader classReader = new ClassReader(inputStream);
             ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
@@ -72,4 +76,14 @@ public class ASMClassVisitor extends ClassVisitor implements ASMClassVisitorProv
             throw new TornadoRuntimeException("[ERROR] Class reader could not be instantiated for class file: " + methodClassFile);
         }
     }
+
+    @Override
+    public MethodHandle createPartitionedMethod(Method method) {
+        return ParallelMethodPartitioner.createPartitionedMethod(method);
+    }
+
+    @Override
+    public Method createFusedMethod(String name, Method[] methods, Class<?>[] parameterTypes, int[][] parameterMap) {
+        return TaskMethodFuser.createFusedMethod(name, methods, parameterTypes, parameterMap);
+    }
 }
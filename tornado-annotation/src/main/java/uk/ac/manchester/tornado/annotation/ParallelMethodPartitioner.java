@@ -0,0 +1,692 @@
+/*
+ * Copyright (c) 2013-2023, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.annotation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.TypePath;
+
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.runtime.JVMParallelExecutor;
+
+/**
+ * Builds the partitioned copies of the task methods that the JVM device runs
+ * with several Java threads. The copy is defined in the package of the task
+ * method, and it takes an extra {@code int[]} parameter that selects the
+ * partition to run (see {@link JVMParallelExecutor}).
+ *
+ * <p>
+ * For methods with {@code @Parallel} loops, the outermost parallel loop is
+ * rewritten from {@code for (i = init; i < bound; i += stride)} into
+ * {@code for (i = max(init, lower); i < min(bound, upper); i += stride)}. The
+ * loop must have the shape generated by javac: a condition {@code <} or
+ * {@code <=} at the loop header and a single constant, positive increment of
+ * the induction variable. For methods that use the {@link KernelContext}, the
+ * reads of the thread identifiers are replaced by reads of the extra parameter.
+ * </p>
+ *
+ * <p>
+ * Every partition runs the code outside the parallel loop, so a method is only
+ * partitioned if it has a single top-level parallel loop, the loop is not
+ * nested in a sequential loop, and the code outside the loop has no side
+ * effects other than writes to its {@link Reduce} parameters.
+ * </p>
+ *
+ * <p>
+ * Methods that synchronise threads, use local memory or atomics of the
+ * {@link KernelContext}, create lambdas, or access private members of other
+ * classes are not partitioned.
+ * </p>
+ */
+final class ParallelMethodPartitioner {
+
+    private static final String KERNEL_CONTEXT = Type.getInternalName(KernelContext.class);
+    private static final String STRING_CONCAT_FACTORY = "java/lang/invoke/StringConcatFactory";
+    private static final String TORNADO_TYPES = "uk/ac/manchester/tornado/api/types/";
+    private static final Set<String> PURE_CLASSES = Set.of("java/lang/Math", "java/lang/StrictMath", "uk/ac/manchester/tornado/api/math/TornadoMath");
+    private static final Set<String> BOXED_CLASSES = Set.of("java/lang/Integer", "java/lang/Long", "java/lang/Float", "java/lang/Double", "java/lang/Short", "java/lang/Byte",
+            "java/lang/Character", "java/lang/Boolean");
+    private static final String PARTITIONED_METHOD_NAME = "partition";
+    private static final AtomicInteger classCounter = new AtomicInteger();
+
+    private ParallelMethodPartitioner() {
+    }
+
+    /**
+     * Outermost parallel loop of a method. Instructions are identified by their
+     * position among the labels and the jumps of the method, which is the same
+     * every time the method is read with the same {@link ClassReader} flags.
+     */
+    private record ParallelLoop(int variable, int startLabel, int conditionJump, int conditionOpcode, int stride) {
+    }
+
+    static MethodHandle createPartitionedMethod(Method method) {
+        final Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isStatic(method.getModifiers())) {
+            return null;
+        }
+
+        final byte[] classFile;
+        try (InputStream inputStream = declaringClass.getResourceAsStream(STR."/\{Type.getInternalName(declaringClass)}.class")) {
+            if (inputStream == null) {
+                return null;
+            }
+            classFile = inputStream.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+
+        final String descriptor = Type.getMethodDescriptor(method);
+        final boolean kernelContext = Arrays.asList(method.getParameterTypes()).contains(KernelContext.class);
+        final ClassReader classReader = new ClassReader(classFile);
+
+        ParallelLoop parallelLoop = null;
+        if (!kernelContext) {
+            parallelLoop = findParallelLoop(classReader, method.getName(), descriptor, getReduceSlots(method));
+            if (parallelLoop == null) {
+                return null;
+            }
+        }
+
+        // Copy the method into a new class of the same package
+        final Type[] argumentTypes = Type.getArgumentTypes(descriptor);
+        final Type[] partitionedArgumentTypes = Arrays.copyOf(argumentTypes, argumentTypes.length + 1);
+        partitionedArgumentTypes[argumentTypes.length] = Type.getType(int[].class);
+        final String partitionedDescriptor = Type.getMethodDescriptor(Type.getReturnType(descriptor), partitionedArgumentTypes);
+        final String className = STR."\{Type.getInternalName(declaringClass)}$TornadoJVM\{classCounter.incrementAndGet()}";
+
+        final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected ClassLoader getClassLoader() {
+                return declaringClass.getClassLoader();
+            }
+        };
+        final boolean[] unsupported = new boolean[1];
+        final ParallelLoop loop = parallelLoop;
+        classReader.accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                classWriter.visit(version, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, "java/lang/Object", null);
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String methodDescriptor, String signature, String[] exceptions) {
+                if (name.equals(method.getName()) && methodDescriptor.equals(descriptor)) {
+                    MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, PARTITIONED_METHOD_NAME, partitionedDescriptor, null, exceptions);
+                    return new PartitionRewriter(methodVisitor, declaringClass, argumentTypes, kernelContext, loop, unsupported);
+                }
+                return null;
+            }
+
+            @Override
+            public void visitEnd() {
+                classWriter.visitEnd();
+            }
+        }, ClassReader.SKIP_FRAMES);
+
+        if (unsupported[0]) {
+            return null;
+        }
+
+        try {
+            ParallelMethodPartitioner.class.getModule().addReads(declaringClass.getModule());
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            Class<?> partitionedClass = lookup.defineClass(classWriter.toByteArray());
+            List<Class<?>> parameterTypes = new ArrayList<>(Arrays.asList(method.getParameterTypes()));
+            parameterTypes.add(int[].class);
+            return lookup.findStatic(partitionedClass, PARTITIONED_METHOD_NAME, MethodType.methodType(method.getReturnType(), parameterTypes));
+        } catch (IllegalAccessException | NoSuchMethodException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Local variable slots of the parameters annotated with {@link Reduce}. Each
+     * partition receives a private copy of them.
+     */
+    private static Set<Integer> getReduceSlots(Method method) {
+        final Set<Integer> reduceSlots = new HashSet<>();
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        final Annotation[][] annotations = method.getParameterAnnotations();
+        int slot = 0;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (Arrays.stream(annotations[i]).anyMatch(annotation -> annotation instanceof Reduce)) {
+                reduceSlots.add(slot);
+            }
+            slot += Type.getType(parameterTypes[i]).getSize();
+        }
+        return reduceSlots;
+    }
+
+    private static ParallelLoop findParallelLoop(ClassReader classReader, String methodName, String descriptor, Set<Integer> reduceSlots) {
+        final LoopAnalysis[] analysis = new LoopAnalysis[1];
+        // The method is written into a class writer so that the labels are resolved to their offsets
+        classReader.accept(new ClassVisitor(Opcodes.ASM9, new ClassWriter(0)) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String methodDescriptor, String signature, String[] exceptions) {
+                MethodVisitor methodVisitor = super.visitMethod(access, name, methodDescriptor, signature, exceptions);
+                if (name.equals(methodName) && methodDescriptor.equals(descriptor)) {
+                    analysis[0] = new LoopAnalysis(methodVisitor, reduceSlots);
+                    return analysis[0];
+                }
+                return methodVisitor;
+            }
+        }, ClassReader.SKIP_FRAMES);
+        return analysis[0] != null ? analysis[0].getParallelLoop() : null;
+    }
+
+    private static void pushInt(MethodVisitor methodVisitor, int value) {
+        if (value >= -1 && value <= 5) {
+            methodVisitor.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            methodVisitor.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            methodVisitor.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            methodVisitor.visitLdcInsn(value);
+        }
+    }
+
+    /**
+     * Finds the outermost parallel loop of a method, its increment and the jump
+     * of its condition, and checks that the code outside the loop can run in
+     * every partition.
+     *
+     * <p>
+     * A write outside the loop is allowed if it is a statement that stores into a
+     * {@link Reduce} parameter, such as {@code result.set(0, 0)}: the statement
+     * starts by loading the parameter, which javac emits right after the line
+     * number of the statement.
+     * </p>
+     */
+    private static final class LoopAnalysis extends MethodVisitor {
+
+        private record Increment(int variable, int increment, int previousLabel) {
+        }
+
+        private record Jump(int opcode, Label target, int previousLabel) {
+        }
+
+        private record SideEffect(boolean reduction, int previousLabel) {
+        }
+
+        private final Set<Integer> reduceSlots;
+        private final List<Label> labels = new ArrayList<>();
+        private final List<Increment> increments = new ArrayList<>();
+        private final List<Jump> jumps = new ArrayList<>();
+        private final List<SideEffect> sideEffects = new ArrayList<>();
+        private final List<Label[]> parallelRanges = new ArrayList<>();
+        private Label loopStart;
+        private Label loopEnd;
+        private int loopVariable = -1;
+
+        private boolean statementStart = true;
+        private int statementReceiver = -1;
+
+        LoopAnalysis(MethodVisitor methodVisitor, Set<Integer> reduceSlots) {
+            super(Opcodes.ASM9, methodVisitor);
+            this.reduceSlots = reduceSlots;
+        }
+
+        /**
+         * Records the variable loaded by the first instruction of each statement.
+         */
+        private void instruction(int opcode, int variable) {
+            if (statementStart) {
+                statementReceiver = opcode == Opcodes.ALOAD ? variable : -1;
+                statementStart = false;
+            }
+        }
+
+        private void sideEffect(boolean reduction) {
+            sideEffects.add(new SideEffect(reduction && reduceSlots.contains(statementReceiver), labels.size() - 1));
+            statementStart = true;
+        }
+
+        private static boolean isPure(String owner, String name) {
+            return PURE_CLASSES.contains(owner) || (BOXED_CLASSES.contains(owner) && (name.equals("valueOf") || name.endsWith("Value"))) || (owner.startsWith(TORNADO_TYPES) && name.startsWith(
+                    "get"));
+        }
+
+        @Override
+        public void visitLabel(Label label) {
+            super.visitLabel(label);
+            labels.add(label);
+        }
+
+        @Override
+        public void visitLineNumber(int line, Label start) {
+            super.visitLineNumber(line, start);
+            statementStart = true;
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            instruction(opcode, -1);
+            super.visitInsn(opcode);
+            if (opcode >= Opcodes.IASTORE && opcode <= Opcodes.SASTORE) {
+                sideEffect(true);
+            } else if (opcode == Opcodes.MONITORENTER || opcode == Opcodes.MONITOREXIT) {
+                sideEffect(false);
+            } else if (opcode == Opcodes.POP || opcode == Opcodes.POP2) {
+                statementStart = true;
+            }
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            instruction(opcode, -1);
+            super.visitIntInsn(opcode, operand);
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int variable) {
+            instruction(opcode, variable);
+            super.visitVarInsn(opcode, variable);
+            if (opcode >= Opcodes.ISTORE && opcode <= Opcodes.ASTORE) {
+                statementStart = true;
+            }
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            instruction(opcode, -1);
+            super.visitTypeInsn(opcode, type);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            instruction(opcode, -1);
+            super.visitFieldInsn(opcode, owner, name, descriptor);
+            if (opcode == Opcodes.PUTFIELD || opcode == Opcodes.PUTSTATIC) {
+                sideEffect(false);
+            }
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            instruction(opcode, -1);
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+            if (!isPure(owner, name)) {
+                sideEffect(opcode == Opcodes.INVOKEVIRTUAL && owner.startsWith(TORNADO_TYPES) && Type.getReturnType(descriptor) == Type.VOID_TYPE);
+            }
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+            instruction(Opcodes.INVOKEDYNAMIC, -1);
+            super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+            sideEffect(false);
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            instruction(Opcodes.LDC, -1);
+            super.visitLdcInsn(value);
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label defaultLabel, Label... labels) {
+            instruction(Opcodes.TABLESWITCH, -1);
+            super.visitTableSwitchInsn(min, max, defaultLabel, labels);
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label defaultLabel, int[] keys, Label[] labels) {
+            instruction(Opcodes.LOOKUPSWITCH, -1);
+            super.visitLookupSwitchInsn(defaultLabel, keys, labels);
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            instruction(Opcodes.MULTIANEWARRAY, -1);
+            super.visitMultiANewArrayInsn(descriptor, numDimensions);
+        }
+
+        @Override
+        public void visitIincInsn(int variable, int increment) {
+            instruction(Opcodes.IINC, variable);
+            super.visitIincInsn(variable, increment);
+            increments.add(new Increment(variable, increment, labels.size() - 1));
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            instruction(opcode, -1);
+            super.visitJumpInsn(opcode, label);
+            jumps.add(new Jump(opcode, label, labels.size() - 1));
+        }
+
+        @Override
+        public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible) {
+            String annotationName = descriptor.replaceFirst("L", "").replace(";", "").replace("/", ".");
+            if (annotationName.equals(ASMMethodVisitor.parallelAnnotationClassPath)) {
+                parallelRanges.add(new Label[] { start[0], end[0] });
+                if (loopStart == null || start[0].getOffset() < loopStart.getOffset()) {
+                    loopStart = start[0];
+                    loopEnd = end[0];
+                    loopVariable = index[0];
+                }
+            }
+            return super.visitLocalVariableAnnotation(typeRef, typePath, start, end, index, descriptor, visible);
+        }
+
+        /**
+         * Checks that all the parallel loops are nested in the outermost one.
+         */
+        private boolean hasSingleTopLevelLoop() {
+            for (Label[] range : parallelRanges) {
+                if (range[0].getOffset() < loopStart.getOffset() || range[1].getOffset() > loopEnd.getOffset()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Checks for a backward jump from after the parallel loop to its start or
+         * before, which means that the loop is nested in a sequential loop.
+         */
+        private boolean isInSequentialLoop() {
+            for (Jump jump : jumps) {
+                if (jump.previousLabel() >= 0 && labels.get(jump.previousLabel()).getOffset() >= loopEnd.getOffset() && jump.target().getOffset() <= loopStart.getOffset()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean hasSideEffectsOutsideLoop() {
+            return sideEffects.stream().anyMatch(sideEffect -> !sideEffect.reduction() && !isInLoop(sideEffect.previousLabel()));
+        }
+
+        private boolean isInLoop(int labelIndex) {
+            if (labelIndex < 0) {
+                return false;
+            }
+            int offset = labels.get(labelIndex).getOffset();
+            return offset >= loopStart.getOffset() && offset < loopEnd.getOffset();
+        }
+
+        ParallelLoop getParallelLoop() {
+            if (loopStart == null || !hasSingleTopLevelLoop() || isInSequentialLoop() || hasSideEffectsOutsideLoop()) {
+                return null;
+            }
+            final int startLabel = labels.indexOf(loopStart);
+
+            // A single, positive and constant increment of the induction variable
+            final List<Increment> loopIncrements = increments.stream().filter(i -> i.variable() == loopVariable && isInLoop(i.previousLabel())).toList();
+            if (startLabel < 0 || loopIncrements.size() != 1 || loopIncrements.getFirst().increment() <= 0) {
+                return null;
+            }
+
+            // The first jump of the loop is the condition, which exits the loop
+            for (int i = 0; i < jumps.size(); i++) {
+                Jump jump = jumps.get(i);
+                if (jump.previousLabel() >= startLabel) {
+                    boolean isCondition = (jump.opcode() == Opcodes.IF_ICMPGE || jump.opcode() == Opcodes.IF_ICMPGT) && jump.target().getOffset() == loopEnd.getOffset();
+                    return isCondition ? new ParallelLoop(loopVariable, startLabel, i, jump.opcode(), loopIncrements.getFirst().increment()) : null;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Rewrites a copy of the task method: it shifts the local variables to make
+     * room for the extra parameter, restricts the range of the parallel loop and
+     * replaces the thread identifiers of the {@link KernelContext}.
+     */
+    private static final class PartitionRewriter extends MethodVisitor {
+
+        private final Class<?> declaringClass;
+        private final int partitionSlot;
+        private final boolean kernelContext;
+        private final ParallelLoop loop;
+        private final boolean[] unsupported;
+        private int labelIndex;
+        private int jumpIndex;
+
+        PartitionRewriter(MethodVisitor methodVisitor, Class<?> declaringClass, Type[] argumentTypes, boolean kernelContext, ParallelLoop loop, boolean[] unsupported) {
+            super(Opcodes.ASM9, methodVisitor);
+            this.declaringClass = declaringClass;
+            this.partitionSlot = Arrays.stream(argumentTypes).mapToInt(Type::getSize).sum();
+            this.kernelContext = kernelContext;
+            this.loop = loop;
+            this.unsupported = unsupported;
+        }
+
+        private int remap(int variable) {
+            return variable >= partitionSlot ? variable + 1 : variable;
+        }
+
+        @Override
+        public void visitLabel(Label label) {
+            if (loop != null && labelIndex == loop.startLabel()) {
+                // Fall-through from the initialisation of the induction variable
+                final int variable = remap(loop.variable());
+                super.visitVarInsn(Opcodes.ALOAD, partitionSlot);
+                pushInt(mv, JVMParallelExecutor.ENTRIES);
+                super.visitInsn(Opcodes.DUP2);
+                super.visitInsn(Opcodes.IALOAD);
+                super.visitInsn(Opcodes.ICONST_1);
+                super.visitInsn(Opcodes.IADD);
+                super.visitInsn(Opcodes.IASTORE);
+                super.visitVarInsn(Opcodes.ALOAD, partitionSlot);
+                pushInt(mv, JVMParallelExecutor.INIT);
+                super.visitVarInsn(Opcodes.ILOAD, variable);
+                super.visitInsn(Opcodes.IASTORE);
+                super.visitVarInsn(Opcodes.ALOAD, partitionSlot);
+                pushInt(mv, JVMParallelExecutor.STRIDE);
+                pushInt(mv, loop.stride());
+                super.visitInsn(Opcodes.IASTORE);
+                super.visitVarInsn(Opcodes.ILOAD, variable);
+                super.visitVarInsn(Opcodes.ALOAD, partitionSlot);
+                pushInt(mv, JVMParallelExecutor.LOWER);
+                super.visitInsn(Opcodes.IALOAD);
+                super.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "max", "(II)I", false);
+                super.visitVarInsn(Opcodes.ISTORE, variable);
+            }
+            labelIndex++;
+            super.visitLabel(label);
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            if (loop != null && jumpIndex == loop.conditionJump()) {
+                // Stack: [i, bound]. Record the exclusive bound and restrict it to the partition
+                final boolean inclusive = loop.conditionOpcode() == Opcodes.IF_ICMPGT;
+                super.visitInsn(Opcodes.DUP);
+                if (inclusive) {
+                    super.visitInsn(Opcodes.ICONST_1);
+                    super.visitInsn(Opcodes.IADD);
+                }
+                super.visitVarInsn(Opcodes.ALOAD, partitionSlot);
+                super.visitInsn(Opcodes.SWAP);
+                pushInt(mv, JVMParallelExecutor.BOUND);
+                super.visitInsn(Opcodes.SWAP);
+                super.visitInsn(Opcodes.IASTORE);
+                super.visitVarInsn(Opcodes.ALOAD, partitionSlot);
+                pushInt(mv, JVMParallelExecutor.UPPER);
+                super.visitInsn(Opcodes.IALOAD);
+                if (inclusive) {
+                    super.visitInsn(Opcodes.ICONST_1);
+                    super.visitInsn(Opcodes.ISUB);
+                }
+                super.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "min", "(II)I", false);
+            }
+            jumpIndex++;
+            super.visitJumpInsn(opcode, label);
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int variable) {
+            super.visitVarInsn(opcode, remap(variable));
+        }
+
+        @Override
+        public void visitIincInsn(int variable, int increment) {
+            super.visitIincInsn(remap(variable), increment);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            if (owner.equals(KERNEL_CONTEXT)) {
+                final int index = JVMParallelExecutor.KERNEL_CONTEXT_FIELDS.indexOf(name);
+                if (!kernelContext || opcode != Opcodes.GETFIELD || index < 0) {
+                    unsupported[0] = true;
+                } else {
+                    super.visitInsn(Opcodes.POP);
+                    super.visitVarInsn(Opcodes.ALOAD, partitionSlot);
+                    pushInt(mv, index);
+                    super.visitInsn(Opcodes.IALOAD);
+                    super.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;", false);
+                    return;
+                }
+            } else if (isPrivateMember(owner, name, descriptor, true)) {
+                unsupported[0] = true;
+            }
+            super.visitFieldInsn(opcode, owner, name, descriptor);
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            // Barriers, local memory and atomics of the KernelContext need a real work-group
+            if (owner.equals(KERNEL_CONTEXT) || isPrivateMember(owner, name, descriptor, false)) {
+                unsupported[0] = true;
+            }
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+            if (!bootstrapMethodHandle.getOwner().equals(STRING_CONCAT_FACTORY)) {
+                unsupported[0] = true;
+            }
+            super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+        }
+
+        /**
+         * The partitioned method is not a nest-mate of the classes of the task, so
+         * it cannot access their private members.
+         */
+        private boolean isPrivateMember(String owner, String name, String descriptor, boolean isField) {
+            if (owner.startsWith("[")) {
+                return false;
+            }
+            try {
+                Class<?> ownerClass = Class.forName(Type.getObjectType(owner).getClassName(), false, declaringClass.getClassLoader());
+                if (isField) {
+                    for (Field field : ownerClass.getDeclaredFields()) {
+                        if (field.getName().equals(name)) {
+                            return Modifier.isPrivate(field.getModifiers());
+                        }
+                    }
+                } else if (name.equals("<init>")) {
+                    for (Constructor<?> constructor : ownerClass.getDeclaredConstructors()) {
+                        if (Type.getConstructorDescriptor(constructor).equals(descriptor)) {
+                            return Modifier.isPrivate(constructor.getModifiers());
+                        }
+                    }
+                } else {
+                    for (Method method : ownerClass.getDeclaredMethods()) {
+                        if (method.getName().equals(name) && Type.getMethodDescriptor(method).equals(descriptor)) {
+                            return Modifier.isPrivate(method.getModifiers());
+                        }
+                    }
+                }
+                return false;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return true;
+            }
+        }
+
+        @Override
+        public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index) {
+            // The local variables are shifted, so the debug information is not copied
+        }
+
+        @Override
+        public void visitParameter(String name, int access) {
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotationDefault() {
+            return null;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public void visitAnnotableParameterCount(int parameterCount, boolean visible) {
+        }
+
+        @Override
+        public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public AnnotationVisitor visitInsnAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public AnnotationVisitor visitTryCatchAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            return null;
+        }
+
+        @Override
+        public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible) {
+            return null;
+        }
+    }
+}
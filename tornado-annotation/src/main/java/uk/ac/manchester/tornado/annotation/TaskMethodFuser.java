@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2013-2023, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.annotation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Builds the methods of the fused tasks of a task-graph. A fused method takes
+ * the union of the parameters of the fused task methods and calls each of them
+ * in order, so that the sketcher inlines all of them into a single kernel.
+ *
+ * <p>
+ * The fused method is defined in a new class of the package of the first task
+ * method. The class file is kept in memory, because the sketcher reads the
+ * class file of the method it compiles to look for {@code @Parallel}
+ * annotations.
+ * </p>
+ */
+final class TaskMethodFuser {
+
+    private static final Map<String, byte[]> classFiles = new ConcurrentHashMap<>();
+    private static final AtomicInteger classCounter = new AtomicInteger();
+
+    private TaskMethodFuser() {
+    }
+
+    /**
+     * Class file of a class generated by {@link #createFusedMethod}.
+     *
+     * @param resourceName
+     *     Name of the class file, such as {@code a/b/C$TornadoFused1.class}.
+     * @return Class file, or null if the class was not generated by this class.
+     */
+    static byte[] getClassFile(String resourceName) {
+        return classFiles.get(resourceName);
+    }
+
+    static Method createFusedMethod(String name, Method[] methods, Class<?>[] parameterTypes, int[][] parameterMap) {
+        final Class<?> hostClass = methods[0].getDeclaringClass();
+        final String className = STR."\{Type.getInternalName(hostClass)}$TornadoFused\{classCounter.incrementAndGet()}";
+        final Type[] argumentTypes = new Type[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            argumentTypes[i] = Type.getType(parameterTypes[i]);
+        }
+
+        final int[] slots = new int[parameterTypes.length];
+        int slot = 0;
+        for (int i = 0; i < argumentTypes.length; i++) {
+            slots[i] = slot;
+            slot += argumentTypes[i].getSize();
+        }
+
+        final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected ClassLoader getClassLoader() {
+                return hostClass.getClassLoader();
+            }
+        };
+        classWriter.visit(Opcodes.V21, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, "java/lang/Object", null);
+
+        final MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, name, Type.getMethodDescriptor(Type.VOID_TYPE, argumentTypes), null, null);
+        methodVisitor.visitCode();
+        final Label start = new Label();
+        methodVisitor.visitLabel(start);
+        for (int i = 0; i < methods.length; i++) {
+            final Method method = methods[i];
+            final Class<?>[] methodParameterTypes = method.getParameterTypes();
+            for (int j = 0; j < methodParameterTypes.length; j++) {
+                final int parameter = parameterMap[i][j];
+                methodVisitor.visitVarInsn(argumentTypes[parameter].getOpcode(Opcodes.ILOAD), slots[parameter]);
+                if (!methodParameterTypes[j].isPrimitive() && !methodParameterTypes[j].isAssignableFrom(parameterTypes[parameter])) {
+                    methodVisitor.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(methodParameterTypes[j]));
+                }
+            }
+            final Class<?> declaringClass = method.getDeclaringClass();
+            methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(declaringClass), method.getName(), Type.getMethodDescriptor(method), declaringClass.isInterface());
+            final Type returnType = Type.getReturnType(method);
+            if (returnType.getSize() == 1) {
+                methodVisitor.visitInsn(Opcodes.POP);
+            } else if (returnType.getSize() == 2) {
+                methodVisitor.visitInsn(Opcodes.POP2);
+            }
+        }
+        methodVisitor.visitInsn(Opcodes.RETURN);
+        final Label end = new Label();
+        methodVisitor.visitLabel(end);
+        // The backends name the kernel parameters after the local variable table
+        for (int i = 0; i < argumentTypes.length; i++) {
+            methodVisitor.visitLocalVariable(STR."arg\{i}", argumentTypes[i].getDescriptor(), null, start, end, slots[i]);
+        }
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+        classWriter.visitEnd();
+
+        final byte[] classFile = classWriter.toByteArray();
+        final String resourceName = STR."\{className}.class";
+        classFiles.put(resourceName, classFile);
+        try {
+            TaskMethodFuser.class.getModule().addReads(hostClass.getModule());
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(hostClass, MethodHandles.lookup());
+            return lookup.defineClass(classFile).getMethod(name, parameterTypes);
+        } catch (IllegalAccessException | NoSuchMethodException | LinkageError e) {
+            classFiles.remove(resourceName);
+            return null;
+        }
+    }
+}
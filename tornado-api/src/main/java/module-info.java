@@ -29,6 +29,8 @@ module tornado.api {
 
     opens uk.ac.manchester.tornado.api;
     exports uk.ac.manchester.tornado.api.math;
+    exports uk.ac.manchester.tornado.api.primitives;
+    opens uk.ac.manchester.tornado.api.primitives;
     exports uk.ac.manchester.tornado.api.types.arrays;
     opens uk.ac.manchester.tornado.api.types.arrays;
     exports uk.ac.manchester.tornado.api.types.collections;
@@ -87,4 +87,24 @@ public interface ExecutionContext {
      * @return double[]
      */
     double[] allocateDoubleLocalArray(int size);
+
+    /**
+     * Atomically increments an element of an array in global memory and returns
+     * its previous value.
+     *
+     * <p>
+     * Similar the OpenCL construct:
+     * </p>
+     *
+     * <code>
+     * atomic_inc(&amp;array[index]);
+     * </code>
+     *
+     * @param array
+     *     array in global memory.
+     * @param index
+     *     index of the element to increment.
+     * @return int: the value of the element before the increment.
+     */
+    int atomicIncrement(int[] array, int index);
 }
@@ -21,6 +21,8 @@ import java.util.Collection;
 
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 
 /**
@@ -65,6 +67,10 @@ public class ImmutableTaskGraph {
         taskGraph.freeDeviceMemory();
     }
 
+    void close() {
+        taskGraph.close();
+    }
+
     void transferToHost(Object... objects) {
         taskGraph.syncRuntimeTransferToHost(objects);
     }
@@ -117,6 +123,10 @@ public class ImmutableTaskGraph {
         return taskGraph.getProfileLog();
     }
 
+    LatencyHistogram getLatencyHistogram(ProfilerType type, String taskName) {
+        return taskGraph.getLatencyHistogram(type, taskName);
+    }
+
     boolean isFinished() {
         return taskGraph.isFinished();
     }
@@ -141,6 +151,10 @@ public class ImmutableTaskGraph {
         taskGraph.batch(batchSize);
     }
 
+    void withBatch(String batchSize, int numBuffers) {
+        taskGraph.batch(batchSize, numBuffers);
+    }
+
     void withMemoryLimit(String memoryLimit) {
         taskGraph.withMemoryLimit(memoryLimit);
     }
@@ -173,6 +187,22 @@ public class ImmutableTaskGraph {
         taskGraph.withoutConcurrentDevices();
     }
 
+    void withTieredExecution() {
+        taskGraph.withTieredExecution();
+    }
+
+    void withoutTieredExecution() {
+        taskGraph.withoutTieredExecution();
+    }
+
+    long getJavaTierExecutions() {
+        return taskGraph.getJavaTierExecutions();
+    }
+
+    long getDeviceTierExecutions() {
+        return taskGraph.getDeviceTierExecutions();
+    }
+
     void withThreadInfo() {
         taskGraph.withThreadInfo();
     }
@@ -180,4 +180,21 @@ public class KernelContext implements ExecutionContext {
     public double[] allocateDoubleLocalArray(int size) {
         return new double[size];
     }
+
+    /**
+     * Atomically increments an element of an array in global memory and returns
+     * its previous value. It is currently supported by the OpenCL backend.
+     * <p>
+     * OpenCL equivalent: atomic_inc(&amp;array[index]);
+     *
+     * @param array
+     *     array in global memory
+     * @param index
+     *     index of the element to increment
+     * @return int: the value of the element before the increment
+     */
+    @Override
+    public synchronized int atomicIncrement(int[] array, int index) {
+        return array[index]++;
+    }
 }
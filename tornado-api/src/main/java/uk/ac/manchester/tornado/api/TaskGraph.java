@@ -43,6 +43,8 @@ import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task8;
 import uk.ac.manchester.tornado.api.common.TornadoFunctions.Task9;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.exceptions.TornadoTaskRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 import uk.ac.manchester.tornado.api.runtime.TornadoAPIProvider;
 
@@ -764,6 +766,11 @@ public class TaskGraph implements TaskGraphInterface {
         return this;
     }
 
+    TaskGraph batch(String batchSize, int numBuffers) {
+        taskGraphImpl.withBatch(batchSize, numBuffers);
+        return this;
+    }
+
     TaskGraph withMemoryLimit(String memoryLimit) {
         taskGraphImpl.withMemoryLimit(memoryLimit);
         return this;
@@ -802,6 +809,10 @@ public class TaskGraph implements TaskGraphInterface {
         return this;
     }
 
+    void close() {
+        taskGraphImpl.close();
+    }
+
     void syncRuntimeTransferToHost(Object... objects) {
         taskGraphImpl.syncRuntimeTransferToHost(objects);
     }
@@ -874,6 +885,10 @@ public class TaskGraph implements TaskGraphInterface {
         return taskGraphImpl.getProfileLog();
     }
 
+    LatencyHistogram getLatencyHistogram(ProfilerType type, String taskName) {
+        return taskGraphImpl.getLatencyHistogram(type, taskName);
+    }
+
     public Collection<?> getOutputs() {
         return taskGraphImpl.getOutputs();
     }
@@ -894,6 +909,22 @@ public class TaskGraph implements TaskGraphInterface {
         taskGraphImpl.withoutConcurrentDevices();
     }
 
+    void withTieredExecution() {
+        taskGraphImpl.withTieredExecution();
+    }
+
+    void withoutTieredExecution() {
+        taskGraphImpl.withoutTieredExecution();
+    }
+
+    long getJavaTierExecutions() {
+        return taskGraphImpl.getJavaTierExecutions();
+    }
+
+    long getDeviceTierExecutions() {
+        return taskGraphImpl.getDeviceTierExecutions();
+    }
+
     void withThreadInfo() {
         taskGraphImpl.withThreadInfo();
     }
@@ -20,7 +20,11 @@ package uk.ac.manchester.tornado.api;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
@@ -28,6 +32,8 @@ import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBackendNotFound;
 import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
 
@@ -55,6 +61,16 @@ public class TornadoExecutionPlan implements AutoCloseable {
 
     private final ExecutorFrame executionPackage;
 
+    private ExecutorService asyncExecutor;
+    private Thread asyncThread;
+    private CompletableFuture<TornadoExecutionResult> lastAsyncExecution;
+
+    /**
+     * Held while the task-graphs of the plan run, so that synchronous and
+     * asynchronous executions never overlap.
+     */
+    private final ReentrantLock executionLock = new ReentrantLock();
+
     /**
      * Create an Execution Plan: Object to create and optimize an execution plan for
      * running a set of immutable tasks-graphs. An executor plan contains an
@@ -92,6 +108,17 @@ public class TornadoExecutionPlan implements AutoCloseable {
         return TornadoRuntime.getTornadoRuntime().getBackend(driverIndex).getDevice(deviceIndex);
     }
 
+    /**
+     * It returns the device that runs task-graphs in the JVM. The tasks are
+     * partitioned across a pool of Java threads, which can be configured with the
+     * {@code tornado.jvm.threads} option.
+     *
+     * @return {@link TornadoDevice}
+     */
+    public static TornadoDevice getJVMDevice() {
+        return TornadoRuntime.getTornadoRuntime().getJVMDevice();
+    }
+
     public static int getTotalPlans() {
         return globalExecutionPlanCounter.intValue();
     }
@@ -110,12 +137,83 @@ public class TornadoExecutionPlan implements AutoCloseable {
      * further build different optimization after the execution as well as obtain
      * the profiler results.
      *
+     * <p>
+     * If asynchronous executions of the plan are pending, the call first waits
+     * for them to finish, so executions run in the order in which they were
+     * requested.
+     * </p>
+     *
      * @return {@link TornadoExecutionPlan}
      */
     public TornadoExecutionResult execute() {
-        checkProfilerEnabled();
-        tornadoExecutor.execute(executionPackage);
-        return new TornadoExecutionResult(new TornadoProfilerResult(tornadoExecutor));
+        awaitAsyncExecutions();
+        return executeInOrder();
+    }
+
+    private TornadoExecutionResult executeInOrder() {
+        executionLock.lock();
+        try {
+            checkProfilerEnabled();
+            tornadoExecutor.execute(executionPackage);
+            return new TornadoExecutionResult(new TornadoProfilerResult(tornadoExecutor));
+        } finally {
+            executionLock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the asynchronous executions submitted so far. Their failures are
+     * reported through their own futures. Actions chained to a future may run on
+     * the thread of the plan, which must not wait for its own queue.
+     */
+    private void awaitAsyncExecutions() {
+        CompletableFuture<TornadoExecutionResult> pending;
+        synchronized (this) {
+            if (Thread.currentThread() == asyncThread) {
+                return;
+            }
+            pending = lastAsyncExecution;
+        }
+        if (pending != null) {
+            pending.handle((result, error) -> null).join();
+        }
+    }
+
+    /**
+     * Execute an execution plan asynchronously. The call returns immediately, and
+     * the plan is executed on a platform thread owned by the execution plan. The
+     * returned future completes with the {@link TornadoExecutionResult} once all
+     * task-graphs have finished, or exceptionally if the execution fails.
+     *
+     * <p>
+     * Asynchronous executions of the same plan run one at a time, in submission
+     * order, and a later call to {@link #execute()} waits for them. The host
+     * thread, including a virtual thread, can overlap its own work with the
+     * device execution and chain further actions to the future. The plan should
+     * not be reconfigured while an execution is pending.
+     * </p>
+     *
+     * @return {@link CompletableFuture} of {@link TornadoExecutionResult}
+     */
+    public synchronized CompletableFuture<TornadoExecutionResult> executeAsync() {
+        lastAsyncExecution = CompletableFuture.supplyAsync(this::executeInOrder, getAsyncExecutor());
+        return lastAsyncExecution;
+    }
+
+    private synchronized ExecutorService getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            // Device work goes through native calls, which pin virtual threads to
+            // their carrier. Executions run on a dedicated daemon platform thread.
+            String name = STR."tornadovm-plan-\{executionPackage.getExecutionPlanId()}";
+            asyncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = Thread.ofPlatform().daemon().name(name).unstarted(runnable);
+                synchronized (this) {
+                    asyncThread = thread;
+                }
+                return thread;
+            });
+        }
+        return asyncExecutor;
     }
 
     private void checkProfilerEnabled() {
@@ -190,6 +288,47 @@ public class TornadoExecutionPlan implements AutoCloseable {
         return this;
     }
 
+    /**
+     * It enables tiered execution. The first call to {@link #execute()} starts
+     * the compilation of the task-graphs in a background thread, and the
+     * executions run the Java code of the tasks on the host until the compiled
+     * code is installed. The following executions run on the device.
+     *
+     * <p>
+     * While the Java code runs, the results are in the host objects, and the
+     * device buffers are not updated. The data of the task-graphs must be
+     * transferred to the device when the compiled code runs for the first time
+     * (e.g., with {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#FIRST_EXECUTION}
+     * or {@link uk.ac.manchester.tornado.api.enums.DataTransferMode#EVERY_EXECUTION}).
+     * The number of executions in each tier is reported by
+     * {@link TornadoProfilerResult#getJavaTierExecutions()} and
+     * {@link TornadoProfilerResult#getDeviceTierExecutions()}.
+     * </p>
+     *
+     * <p>
+     * Task-graphs with tasks that use the {@link KernelContext} API, or that
+     * are launched with a {@link GridScheduler}, do not run in the Java tier:
+     * their executions wait for the compilation.
+     * </p>
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withTieredExecution() {
+        tornadoExecutor.withTieredExecution();
+        return this;
+    }
+
+    /**
+     * It disables tiered execution. If a background compilation is in progress,
+     * the next execution waits for it.
+     *
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withoutTieredExecution() {
+        tornadoExecutor.withoutTieredExecution();
+        return this;
+    }
+
     /**
      * It obtains the device for a specific immutable task-graph. Note that,
      * ideally, different task immutable task-graph could be executed on different
@@ -275,6 +414,26 @@ public class TornadoExecutionPlan implements AutoCloseable {
         return this;
     }
 
+    /**
+     * Enable pipelined batch processing. As in {@link #withBatch(String)},
+     * TornadoVM splits the iteration space in batches. In addition, it keeps
+     * several batches in flight, each one in its own set of device buffers, so
+     * that the copy-in of the next batch and the copy-out of the previous batch do
+     * not wait for the kernel of the current batch. The host does not block
+     * between batches.
+     *
+     * @param batchSize
+     *     String in the format a number + "MB" Example "512MB".
+     * @param numBuffers
+     *     Number of batches in flight (e.g., 2 for double buffering). The device
+     *     memory used is numBuffers * batchSize per object.
+     * @return {@link TornadoExecutionPlan}
+     */
+    public TornadoExecutionPlan withBatch(String batchSize, int numBuffers) {
+        tornadoExecutor.withBatch(batchSize, numBuffers);
+        return this;
+    }
+
     /**
      * Enables the profiler. The profiler includes options to query device kernel
      * time, data transfers and compilation at different stages (JIT, driver
@@ -388,9 +547,26 @@ public class TornadoExecutionPlan implements AutoCloseable {
         return this;
     }
 
+    /**
+     * It releases all device buffers and the runtime resources (e.g., the Java
+     * threads used to run concurrent devices) associated with the current
+     * execution plan.
+     */
     @Override
     public void close() throws TornadoExecutionPlanException {
-        tornadoExecutor.freeDeviceMemory();
+        ExecutorService executor;
+        synchronized (this) {
+            executor = asyncExecutor;
+            asyncExecutor = null;
+            asyncThread = null;
+            lastAsyncExecution = null;
+        }
+        if (executor != null) {
+            // Wait for the pending asynchronous executions before releasing resources.
+            // The lock of the plan is not held, so chained actions can still run.
+            executor.close();
+        }
+        tornadoExecutor.close();
     }
 
     static class TornadoExecutor {
@@ -418,6 +594,10 @@ public class TornadoExecutionPlan implements AutoCloseable {
             immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withBatch(batchSize));
         }
 
+        void withBatch(String batchSize, int numBuffers) {
+            immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withBatch(batchSize, numBuffers));
+        }
+
         void withMemoryLimit(String memoryLimit) {
             immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.withMemoryLimit(memoryLimit));
         }
@@ -448,10 +628,22 @@ public class TornadoExecutionPlan implements AutoCloseable {
             immutableTaskGraphList.forEach(ImmutableTaskGraph::withoutConcurrentDevices);
         }
 
+        void withTieredExecution() {
+            immutableTaskGraphList.forEach(ImmutableTaskGraph::withTieredExecution);
+        }
+
+        void withoutTieredExecution() {
+            immutableTaskGraphList.forEach(ImmutableTaskGraph::withoutTieredExecution);
+        }
+
         void freeDeviceMemory() {
             immutableTaskGraphList.forEach(ImmutableTaskGraph::freeDeviceMemory);
         }
 
+        void close() {
+            immutableTaskGraphList.forEach(ImmutableTaskGraph::close);
+        }
+
         void transferToHost(Object... objects) {
             immutableTaskGraphList.forEach(immutableTaskGraph -> immutableTaskGraph.transferToHost(objects));
         }
@@ -518,6 +710,20 @@ public class TornadoExecutionPlan implements AutoCloseable {
             return immutableTaskGraphList.stream().map(ImmutableTaskGraph::getProfileLog).collect(Collectors.joining());
         }
 
+        LatencyHistogram getLatencyHistogram(ProfilerType type, String taskName) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            immutableTaskGraphList.forEach(immutableTaskGraph -> histogram.add(immutableTaskGraph.getLatencyHistogram(type, taskName)));
+            return histogram;
+        }
+
+        long getJavaTierExecutions() {
+            return immutableTaskGraphList.stream().mapToLong(ImmutableTaskGraph::getJavaTierExecutions).sum();
+        }
+
+        long getDeviceTierExecutions() {
+            return immutableTaskGraphList.stream().mapToLong(ImmutableTaskGraph::getDeviceTierExecutions).sum();
+        }
+
         void dumpProfiles() {
             immutableTaskGraphList.forEach(ImmutableTaskGraph::dumpProfiles);
         }
@@ -19,7 +19,9 @@ package uk.ac.manchester.tornado.api;
 
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan.TornadoExecutor;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
 import uk.ac.manchester.tornado.api.profiler.ProfileInterface;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 
 /**
  * Object that stores all information related to profiling an executor. To be
@@ -168,6 +170,112 @@ public class TornadoProfilerResult implements ProfileInterface {
         return executor.getProfileLog();
     }
 
+    /**
+     * Returns the distribution of a timer across all executions of the
+     * immutable task-graphs since the profiler was enabled, or since the last
+     * call to {@link TornadoExecutionPlan#clearProfiles()}. Percentiles can be
+     * queried with {@link LatencyHistogram#getValueAtPercentile(double)}.
+     *
+     * @param type
+     *     Timer to query (e.g., {@link ProfilerType#TASK_KERNEL_TIME},
+     *     {@link ProfilerType#COPY_IN_TIME}).
+     * @param taskName
+     *     Task identifier in the form {@code "taskGraphName.taskName"} for
+     *     per-task timers, or null for the timers of the task-graphs.
+     * @return {@link LatencyHistogram}
+     */
+    public LatencyHistogram getLatencyHistogram(ProfilerType type, String taskName) {
+        return executor.getLatencyHistogram(type, taskName);
+    }
+
+    /**
+     * Returns the distribution of the kernel time (in ns) of a task, with one
+     * value per kernel launch.
+     *
+     * @param taskName
+     *     Task identifier in the form {@code "taskGraphName.taskName"}.
+     * @return {@link LatencyHistogram}
+     */
+    public LatencyHistogram getDeviceKernelTimeHistogram(String taskName) {
+        return getLatencyHistogram(ProfilerType.TASK_KERNEL_TIME, taskName);
+    }
+
+    /**
+     * Returns the distribution of the time (in ns) of each host to device copy.
+     *
+     * @return {@link LatencyHistogram}
+     */
+    public LatencyHistogram getDeviceWriteTimeHistogram() {
+        return getLatencyHistogram(ProfilerType.COPY_IN_TIME, null);
+    }
+
+    /**
+     * Returns the distribution of the time (in ns) of each device to host copy.
+     *
+     * @return {@link LatencyHistogram}
+     */
+    public LatencyHistogram getDeviceReadTimeHistogram() {
+        return getLatencyHistogram(ProfilerType.COPY_OUT_TIME, null);
+    }
+
+    /**
+     * Returns the distribution of the time (in ns) that the driver took to
+     * dispatch each kernel.
+     *
+     * @return {@link LatencyHistogram}
+     */
+    public LatencyHistogram getKernelDispatchTimeHistogram() {
+        return getLatencyHistogram(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, null);
+    }
+
+    /**
+     * Returns the Tornado JIT compilation time (in ns) of a task, from Java
+     * bytecode to the generated code. {@link #getTornadoCompilerTime()} is the
+     * sum across tasks; when the tasks are compiled concurrently, the task-graph
+     * waits less than that sum.
+     *
+     * @param taskName
+     *     Task identifier in the form {@code "taskGraphName.taskName"}.
+     * @return long
+     */
+    public long getTaskTornadoCompilerTime(String taskName) {
+        return getLatencyHistogram(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskName).getTotal();
+    }
+
+    /**
+     * Returns the time (in ns) that the device driver took to build the binary
+     * of a task.
+     *
+     * @param taskName
+     *     Task identifier in the form {@code "taskGraphName.taskName"}.
+     * @return long
+     */
+    public long getTaskDriverInstallTime(String taskName) {
+        return getLatencyHistogram(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskName).getTotal();
+    }
+
+    /**
+     * Returns the number of executions that ran the Java code of the tasks while
+     * the task-graphs were compiled in the background. It is counted only when
+     * the execution plan enables tiered execution, and it does not require the
+     * profiler.
+     *
+     * @return long
+     */
+    public long getJavaTierExecutions() {
+        return executor.getJavaTierExecutions();
+    }
+
+    /**
+     * Returns the number of executions that ran the compiled code on the device
+     * since the execution plan enabled tiered execution.
+     *
+     * @return long
+     */
+    public long getDeviceTierExecutions() {
+        return executor.getDeviceTierExecutions();
+    }
+
     TornadoExecutor getExecutor() {
         return executor;
     }
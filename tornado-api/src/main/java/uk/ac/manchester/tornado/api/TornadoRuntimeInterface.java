@@ -34,6 +34,14 @@ public interface TornadoRuntimeInterface {
 
     TornadoDevice getDefaultDevice();
 
+    /**
+     * Device that runs the tasks of a task-graph in the JVM, with a pool of Java
+     * threads.
+     *
+     * @return {@link TornadoDevice}
+     */
+    TornadoDevice getJVMDevice();
+
     <D extends TornadoBackend> int getBackendIndex(Class<D> driverClass);
 
     boolean isProfilerEnabled();
@@ -26,7 +26,9 @@ import uk.ac.manchester.tornado.api.common.TaskPackage;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.memory.TaskMetaDataInterface;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
 import uk.ac.manchester.tornado.api.profiler.ProfileInterface;
+import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
 
 public interface TornadoTaskGraphInterface extends ProfileInterface {
@@ -49,6 +51,8 @@ public interface TornadoTaskGraphInterface extends ProfileInterface {
 
     void withBatch(String batchSize);
 
+    void withBatch(String batchSize, int numBuffers);
+
     void withMemoryLimit(String memoryLimit);
 
     void withoutMemoryLimit();
@@ -65,6 +69,8 @@ public interface TornadoTaskGraphInterface extends ProfileInterface {
 
     void clearProfiles();
 
+    LatencyHistogram getLatencyHistogram(ProfilerType type, String taskName);
+
     void waitOn();
 
     void transferToDevice(int mode, Object... objects);
@@ -77,6 +83,8 @@ public interface TornadoTaskGraphInterface extends ProfileInterface {
 
     void freeDeviceMemory();
 
+    void close();
+
     void syncRuntimeTransferToHost(Object... objects);
 
     void syncRuntimeTransferToHost(Object objects, long offset, long partialCopySize);
@@ -111,6 +119,14 @@ public interface TornadoTaskGraphInterface extends ProfileInterface {
 
     void withoutConcurrentDevices();
 
+    void withTieredExecution();
+
+    void withoutTieredExecution();
+
+    long getJavaTierExecutions();
+
+    long getDeviceTierExecutions();
+
     void withThreadInfo();
 
     void withoutThreadInfo();
@@ -53,6 +53,10 @@ public interface SchedulableTask {
 
     long getBatchSize();
 
+    void setBatchNumElements(long batchNumElements);
+
+    long getBatchNumElements();
+
     void attachProfiler(TornadoProfiler tornadoProfiler);
 
     TornadoProfiler getProfiler();
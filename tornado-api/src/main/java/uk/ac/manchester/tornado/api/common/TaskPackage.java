@@ -40,6 +40,8 @@ public class TaskPackage {
     private final int taskType;
     private final Object[] taskParameters;
     private long numThreadsToRun;
+    private Object combineFunction;
+    private boolean reduceSingleLaunch;
 
     private boolean isPrebuiltTask;
 
@@ -239,6 +241,38 @@ public class TaskPackage {
         this.numThreadsToRun = numThreads;
     }
 
+    public Object getCombineFunction() {
+        return combineFunction;
+    }
+
+    /**
+     * Sets the combine function of a user-defined reduction. The compiler replaces the calls to the combine
+     * placeholders of {@link uk.ac.manchester.tornado.api.primitives.Reduction} in the task with calls to this
+     * function, which must be a static method reference or a non-capturing lambda.
+     *
+     * @param combineFunction
+     *     Functional object whose {@code apply} method is the combine function.
+     */
+    public void setCombineFunction(Object combineFunction) {
+        this.combineFunction = combineFunction;
+    }
+
+    public boolean isReduceSingleLaunch() {
+        return reduceSingleLaunch;
+    }
+
+    /**
+     * Marks a task whose reduce arrays have been extended with the counter of the work-groups, so that the reduction
+     * kernel also combines the partial results of the work-groups. It is set when the task-graph is rewritten for the
+     * reductions.
+     *
+     * @param reduceSingleLaunch
+     *     Whether the reduction kernel finishes the reduction.
+     */
+    public void setReduceSingleLaunch(boolean reduceSingleLaunch) {
+        this.reduceSingleLaunch = reduceSingleLaunch;
+    }
+
     /**
      * Get all parameters to the lambda expression. First parameter is reserved to the input code.
      *
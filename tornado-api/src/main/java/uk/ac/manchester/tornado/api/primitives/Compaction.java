@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.primitives;
+
+import static uk.ac.manchester.tornado.api.primitives.Scan.BLOCK_SIZE;
+
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Stream compaction (filter) operations that can be added to a {@link TaskGraph}.
+ *
+ * <p>
+ * A compaction copies the elements of the input for which the flag is non-zero into the first positions of the
+ * output, preserving their order, and stores the number of elements copied in {@code count[0]}. The flags are
+ * usually computed by a previous task of the same task-graph that evaluates the predicate of the filter, so the
+ * whole filter runs on the device without host round-trips.
+ * </p>
+ *
+ * <p>
+ * The compaction is an exclusive {@link Scan} of the flags, which gives the position of each selected element in the
+ * output, followed by a scatter. It adds the tasks {@code <id>_blocks}, {@code <id>_sums}, {@code <id>_offsets} and
+ * {@code <id>_scatter} to the task-graph, and registers their worker grids in the given {@link GridScheduler}.
+ * </p>
+ */
+public final class Compaction {
+
+    private Compaction() {
+    }
+
+    /**
+     * Adds the compaction of {@code input} into {@code output}.
+     *
+     * @param taskGraph
+     *     Task-graph to add the compaction to.
+     * @param gridScheduler
+     *     Grid scheduler in which the worker grids of the compaction are registered.
+     * @param id
+     *     Prefix of the names of the tasks of the compaction.
+     * @param input
+     *     Input array.
+     * @param flags
+     *     Selection flags, with the same size as the input.
+     * @param output
+     *     Output array, with the same size as the input. Only the first {@code count[0]} elements are written.
+     * @param count
+     *     Array of one element that receives the number of selected elements.
+     * @return The task-graph.
+     */
+    public static TaskGraph compact(TaskGraph taskGraph, GridScheduler gridScheduler, String id, IntArray input, IntArray flags, IntArray output, IntArray count) {
+        IntArray positions = scanFlags(taskGraph, gridScheduler, id, flags);
+        taskGraph.task(id + "_scatter", Compaction::scatter, new KernelContext(), input, flags, positions, output, count);
+        registerScatterGrid(taskGraph, gridScheduler, id, input.getSize());
+        return taskGraph;
+    }
+
+    /**
+     * Adds the compaction of {@code input} into {@code output}. See {@link #compact(TaskGraph, GridScheduler, String, IntArray, IntArray, IntArray, IntArray)}.
+     *
+     * @return The task-graph.
+     */
+    public static TaskGraph compact(TaskGraph taskGraph, GridScheduler gridScheduler, String id, FloatArray input, IntArray flags, FloatArray output, IntArray count) {
+        IntArray positions = scanFlags(taskGraph, gridScheduler, id, flags);
+        taskGraph.task(id + "_scatter", Compaction::scatter, new KernelContext(), input, flags, positions, output, count);
+        registerScatterGrid(taskGraph, gridScheduler, id, input.getSize());
+        return taskGraph;
+    }
+
+    private static IntArray scanFlags(TaskGraph taskGraph, GridScheduler gridScheduler, String id, IntArray flags) {
+        IntArray positions = new IntArray(flags.getSize());
+        IntArray blockSums = Scan.newBlockArray(taskGraph, flags.getSize());
+        taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, positions) //
+                .task(id + "_blocks", Compaction::scanFlagBlocks, new KernelContext(), flags, positions, blockSums) //
+                .task(id + "_sums", Scan::scanBlockSums, new KernelContext(), blockSums) //
+                .task(id + "_offsets", Scan::addBlockOffsets, new KernelContext(), positions, blockSums);
+        Scan.registerGrids(taskGraph, gridScheduler, id, flags.getSize());
+        return positions;
+    }
+
+    private static void registerScatterGrid(TaskGraph taskGraph, GridScheduler gridScheduler, String id, int size) {
+        WorkerGrid scatterGrid = new WorkerGrid1D(Scan.numBlocks(size) * BLOCK_SIZE);
+        scatterGrid.setLocalWork(BLOCK_SIZE, 1, 1);
+        gridScheduler.setWorkerGrid(taskGraph.getTaskGraphName() + "." + id + "_scatter", scatterGrid);
+    }
+
+    /**
+     * Exclusive scan of the blocks of flags, counting every non-zero flag as one.
+     */
+    static void scanFlagBlocks(KernelContext context, IntArray flags, IntArray positions, IntArray blockSums) {
+        int[] localScan = context.allocateIntLocalArray(BLOCK_SIZE);
+        int localIdx = context.localIdx;
+        int globalIdx = context.globalIdx;
+        int size = flags.getSize();
+
+        localScan[localIdx] = globalIdx < size && flags.get(globalIdx) != 0 ? 1 : 0;
+        for (int offset = 1; offset < BLOCK_SIZE; offset *= 2) {
+            context.localBarrier();
+            int value = localIdx >= offset ? localScan[localIdx - offset] : 0;
+            context.localBarrier();
+            localScan[localIdx] += value;
+        }
+        context.localBarrier();
+
+        if (globalIdx < size) {
+            positions.set(globalIdx, localIdx > 0 ? localScan[localIdx - 1] : 0);
+        }
+        if (localIdx == BLOCK_SIZE - 1) {
+            blockSums.set(context.groupIdx, localScan[localIdx]);
+        }
+    }
+
+    static void scatter(KernelContext context, IntArray input, IntArray flags, IntArray positions, IntArray output, IntArray count) {
+        int globalIdx = context.globalIdx;
+        int size = input.getSize();
+        if (globalIdx < size) {
+            int selected = flags.get(globalIdx) != 0 ? 1 : 0;
+            if (selected == 1) {
+                output.set(positions.get(globalIdx), input.get(globalIdx));
+            }
+            if (globalIdx == size - 1) {
+                count.set(0, positions.get(globalIdx) + selected);
+            }
+        }
+    }
+
+    static void scatter(KernelContext context, FloatArray input, IntArray flags, IntArray positions, FloatArray output, IntArray count) {
+        int globalIdx = context.globalIdx;
+        int size = input.getSize();
+        if (globalIdx < size) {
+            int selected = flags.get(globalIdx) != 0 ? 1 : 0;
+            if (selected == 1) {
+                output.set(positions.get(globalIdx), input.get(globalIdx));
+            }
+            if (globalIdx == size - 1) {
+                count.set(0, positions.get(globalIdx) + selected);
+            }
+        }
+    }
+}
@@ -0,0 +1,551 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.primitives;
+
+import static uk.ac.manchester.tornado.api.primitives.Scan.BLOCK_SIZE;
+
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.common.TaskPackage;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.collections.VectorFloat2;
+import uk.ac.manchester.tornado.api.types.collections.VectorInt2;
+import uk.ac.manchester.tornado.api.types.vectors.Float2;
+import uk.ac.manchester.tornado.api.types.vectors.Int2;
+
+/**
+ * Reductions with multi-field associative operators that cannot be expressed with {@code @Reduce}: the value and
+ * position of the minimum or maximum element, the minimum and maximum in one pass, the mean and variance with
+ * Welford's combine, and reductions of pairs with a user-supplied combine function.
+ *
+ * <p>
+ * Each reduction is a single kernel. Every work-group of {@link Scan#BLOCK_SIZE} threads combines its elements in a
+ * tree in local memory and stores its partial result. The work-groups then count themselves with
+ * {@link KernelContext#atomicIncrement}, and the last one combines the partial results of all the work-groups into the
+ * final result (last-block-done), so the result is produced on the device with one launch and no host round-trips.
+ * The atomic counter is currently supported by the OpenCL backend. The methods add the task {@code <id>} to the
+ * task-graph and register its worker grid in the given {@link GridScheduler}, which must be passed to the execution
+ * plan with {@code withGridScheduler}.
+ * </p>
+ *
+ * <p>
+ * The {@code reduce} methods take the combine function as a static method reference or a non-capturing lambda. The
+ * function must be associative and commutative, and {@code identity} must be its identity element. Kernels can only
+ * call methods that are bound statically, so the reduction kernel calls a placeholder {@code combine} method, which the
+ * compiler replaces with the combine function of the task.
+ * </p>
+ */
+public final class Reduction {
+
+    private Reduction() {
+    }
+
+    /**
+     * Combine function of {@link #reduce(TaskGraph, GridScheduler, String, VectorFloat2, Float2, Float2Combine,
+     * VectorFloat2)}.
+     */
+    @FunctionalInterface
+    public interface Float2Combine {
+        Float2 apply(Float2 a, Float2 b);
+    }
+
+    /**
+     * Combine function of {@link #reduce(TaskGraph, GridScheduler, String, VectorInt2, Int2, Int2Combine, VectorInt2)}.
+     */
+    @FunctionalInterface
+    public interface Int2Combine {
+        Int2 apply(Int2 a, Int2 b);
+    }
+
+    /**
+     * Adds the reduction that finds the maximum element of {@code input} and its index. Ties resolve to the lowest
+     * index.
+     *
+     * @param taskGraph
+     *     Task-graph to add the reduction to.
+     * @param gridScheduler
+     *     Grid scheduler in which the worker grid of the reduction is registered.
+     * @param id
+     *     Name of the task of the reduction.
+     * @param input
+     *     Input array.
+     * @param value
+     *     Array of one element that receives the maximum value.
+     * @param index
+     *     Array of one element that receives the index of the maximum value.
+     * @return The task-graph.
+     */
+    public static TaskGraph argMax(TaskGraph taskGraph, GridScheduler gridScheduler, String id, FloatArray input, FloatArray value, IntArray index) {
+        return argReduction(taskGraph, gridScheduler, id, input, value, index, 1);
+    }
+
+    /**
+     * Adds the reduction that finds the minimum element of {@code input} and its index. Ties resolve to the lowest
+     * index.
+     *
+     * @return The task-graph.
+     * @see #argMax(TaskGraph, GridScheduler, String, FloatArray, FloatArray, IntArray)
+     */
+    public static TaskGraph argMin(TaskGraph taskGraph, GridScheduler gridScheduler, String id, FloatArray input, FloatArray value, IntArray index) {
+        return argReduction(taskGraph, gridScheduler, id, input, value, index, 0);
+    }
+
+    /**
+     * Adds the reduction that computes the minimum and the maximum of {@code input} in a single pass.
+     *
+     * @param taskGraph
+     *     Task-graph to add the reduction to.
+     * @param gridScheduler
+     *     Grid scheduler in which the worker grid of the reduction is registered.
+     * @param id
+     *     Name of the task of the reduction.
+     * @param input
+     *     Input array.
+     * @param result
+     *     Array of two elements that receives the minimum and the maximum.
+     * @return The task-graph.
+     */
+    public static TaskGraph minMax(TaskGraph taskGraph, GridScheduler gridScheduler, String id, FloatArray input, FloatArray result) {
+        int numBlocks = Scan.numBlocks(input.getSize());
+        FloatArray partialMin = new FloatArray(numBlocks);
+        FloatArray partialMax = new FloatArray(numBlocks);
+        int[] counter = new int[1];
+        taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, partialMin, partialMax, counter) //
+                .task(id, Reduction::minMaxReduce, new KernelContext(), input, partialMin, partialMax, counter, result);
+        registerGrid(taskGraph, gridScheduler, id, input.getSize());
+        return taskGraph;
+    }
+
+    /**
+     * Adds the reduction that computes the mean and the population variance of {@code input} in a single pass, using
+     * Welford's algorithm to combine the partial results.
+     *
+     * @param taskGraph
+     *     Task-graph to add the reduction to.
+     * @param gridScheduler
+     *     Grid scheduler in which the worker grid of the reduction is registered.
+     * @param id
+     *     Name of the task of the reduction.
+     * @param input
+     *     Input array.
+     * @param result
+     *     Array of two elements that receives the mean and the variance.
+     * @return The task-graph.
+     */
+    public static TaskGraph meanVariance(TaskGraph taskGraph, GridScheduler gridScheduler, String id, FloatArray input, FloatArray result) {
+        int numBlocks = Scan.numBlocks(input.getSize());
+        IntArray partialCount = new IntArray(numBlocks);
+        FloatArray partialMean = new FloatArray(numBlocks);
+        FloatArray partialM2 = new FloatArray(numBlocks);
+        int[] counter = new int[1];
+        taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, partialCount, partialMean, partialM2, counter) //
+                .task(id, Reduction::welfordReduce, new KernelContext(), input, partialCount, partialMean, partialM2, counter, result);
+        registerGrid(taskGraph, gridScheduler, id, input.getSize());
+        return taskGraph;
+    }
+
+    /**
+     * Adds the reduction of the pairs of {@code input} with a user-supplied combine function.
+     *
+     * @param taskGraph
+     *     Task-graph to add the reduction to.
+     * @param gridScheduler
+     *     Grid scheduler in which the worker grid of the reduction is registered.
+     * @param id
+     *     Name of the task of the reduction.
+     * @param input
+     *     Input pairs.
+     * @param identity
+     *     Identity element of {@code combine}.
+     * @param combine
+     *     Associative and commutative combine function, as a static method reference or a non-capturing lambda.
+     * @param result
+     *     Vector of one element that receives the result.
+     * @return The task-graph.
+     */
+    public static TaskGraph reduce(TaskGraph taskGraph, GridScheduler gridScheduler, String id, VectorFloat2 input, Float2 identity, Float2Combine combine, VectorFloat2 result) {
+        VectorFloat2 partials = new VectorFloat2(Scan.numBlocks(input.getLength()));
+        int[] counter = new int[1];
+        TaskPackage taskPackage = TaskPackage.createPackage(id, Reduction::reduceFloat2, new KernelContext(), input, partials, counter, identity.getX(), identity.getY(), result);
+        taskPackage.setCombineFunction(combine);
+        taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, partials, counter).addTask(taskPackage);
+        registerGrid(taskGraph, gridScheduler, id, input.getLength());
+        return taskGraph;
+    }
+
+    /**
+     * Adds the reduction of the pairs of {@code input} with a user-supplied combine function.
+     *
+     * @return The task-graph.
+     * @see #reduce(TaskGraph, GridScheduler, String, VectorFloat2, Float2, Float2Combine, VectorFloat2)
+     */
+    public static TaskGraph reduce(TaskGraph taskGraph, GridScheduler gridScheduler, String id, VectorInt2 input, Int2 identity, Int2Combine combine, VectorInt2 result) {
+        VectorInt2 partials = new VectorInt2(Scan.numBlocks(input.getLength()));
+        int[] counter = new int[1];
+        TaskPackage taskPackage = TaskPackage.createPackage(id, Reduction::reduceInt2, new KernelContext(), input, partials, counter, identity.getX(), identity.getY(), result);
+        taskPackage.setCombineFunction(combine);
+        taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, partials, counter).addTask(taskPackage);
+        registerGrid(taskGraph, gridScheduler, id, input.getLength());
+        return taskGraph;
+    }
+
+    private static TaskGraph argReduction(TaskGraph taskGraph, GridScheduler gridScheduler, String id, FloatArray input, FloatArray value, IntArray index, int max) {
+        int numBlocks = Scan.numBlocks(input.getSize());
+        FloatArray partialValues = new FloatArray(numBlocks);
+        IntArray partialIndexes = new IntArray(numBlocks);
+        int[] counter = new int[1];
+        taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, partialValues, partialIndexes, counter) //
+                .task(id, Reduction::argReduce, new KernelContext(), input, partialValues, partialIndexes, counter, value, index, max);
+        registerGrid(taskGraph, gridScheduler, id, input.getSize());
+        return taskGraph;
+    }
+
+    private static void registerGrid(TaskGraph taskGraph, GridScheduler gridScheduler, String id, int size) {
+        WorkerGrid grid = new WorkerGrid1D(Scan.numBlocks(size) * BLOCK_SIZE);
+        grid.setLocalWork(BLOCK_SIZE, 1, 1);
+        gridScheduler.setWorkerGrid(taskGraph.getTaskGraphName() + "." + id, grid);
+    }
+
+    /**
+     * Placeholder for the combine function of the task. The compiler replaces the calls with calls to the function
+     * given to {@link #reduce(TaskGraph, GridScheduler, String, VectorFloat2, Float2, Float2Combine, VectorFloat2)}.
+     */
+    static Float2 combine(Float2 a, Float2 b) {
+        return a;
+    }
+
+    /**
+     * Placeholder for the combine function of the task.
+     *
+     * @see #combine(Float2, Float2)
+     */
+    static Int2 combine(Int2 a, Int2 b) {
+        return a;
+    }
+
+    /**
+     * Combine operator of argmin and argmax: whether the candidate (value, index) replaces the current one. A negative
+     * index is the identity of the operator.
+     */
+    private static boolean replaces(float currentValue, int currentIndex, float candidateValue, int candidateIndex, int max) {
+        if (candidateIndex < 0) {
+            return false;
+        }
+        if (currentIndex < 0) {
+            return true;
+        }
+        boolean better = max == 1 ? candidateValue > currentValue : candidateValue < currentValue;
+        return better || (candidateValue == currentValue && candidateIndex < currentIndex);
+    }
+
+    static void argReduce(KernelContext context, FloatArray input, FloatArray partialValues, IntArray partialIndexes, int[] counter, FloatArray value, IntArray index, int max) {
+        float[] localValues = context.allocateFloatLocalArray(BLOCK_SIZE);
+        int[] localIndexes = context.allocateIntLocalArray(BLOCK_SIZE);
+        int[] ticket = context.allocateIntLocalArray(1);
+        int localIdx = context.localIdx;
+        int globalIdx = context.globalIdx;
+
+        localValues[localIdx] = globalIdx < input.getSize() ? input.get(globalIdx) : 0.0f;
+        localIndexes[localIdx] = globalIdx < input.getSize() ? globalIdx : -1;
+        for (int stride = BLOCK_SIZE / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localIdx < stride && replaces(localValues[localIdx], localIndexes[localIdx], localValues[localIdx + stride], localIndexes[localIdx + stride], max)) {
+                localValues[localIdx] = localValues[localIdx + stride];
+                localIndexes[localIdx] = localIndexes[localIdx + stride];
+            }
+        }
+        context.localBarrier();
+        if (localIdx == 0) {
+            partialValues.set(context.groupIdx, localValues[0]);
+            partialIndexes.set(context.groupIdx, localIndexes[0]);
+        }
+
+        // The last work-group to store its partial result combines the partial results of all the work-groups
+        context.globalBarrier();
+        if (localIdx == 0) {
+            ticket[0] = context.atomicIncrement(counter, 0);
+        }
+        context.localBarrier();
+        if (ticket[0] == partialValues.getSize() - 1) {
+            // Each thread combines the partial results of the groups localIdx, localIdx + BLOCK_SIZE, ...
+            float accValue = 0.0f;
+            int accIndex = -1;
+            for (int i = localIdx; i < partialValues.getSize(); i += BLOCK_SIZE) {
+                if (replaces(accValue, accIndex, partialValues.get(i), partialIndexes.get(i), max)) {
+                    accValue = partialValues.get(i);
+                    accIndex = partialIndexes.get(i);
+                }
+            }
+            localValues[localIdx] = accValue;
+            localIndexes[localIdx] = accIndex;
+            for (int stride = BLOCK_SIZE / 2; stride > 0; stride /= 2) {
+                context.localBarrier();
+                if (localIdx < stride && replaces(localValues[localIdx], localIndexes[localIdx], localValues[localIdx + stride], localIndexes[localIdx + stride], max)) {
+                    localValues[localIdx] = localValues[localIdx + stride];
+                    localIndexes[localIdx] = localIndexes[localIdx + stride];
+                }
+            }
+            context.localBarrier();
+            if (localIdx == 0) {
+                value.set(0, localValues[0]);
+                index.set(0, localIndexes[0]);
+                counter[0] = 0;
+            }
+        }
+    }
+
+    static void minMaxReduce(KernelContext context, FloatArray input, FloatArray partialMin, FloatArray partialMax, int[] counter, FloatArray result) {
+        float[] localMin = context.allocateFloatLocalArray(BLOCK_SIZE);
+        float[] localMax = context.allocateFloatLocalArray(BLOCK_SIZE);
+        int[] ticket = context.allocateIntLocalArray(1);
+        int localIdx = context.localIdx;
+        int globalIdx = context.globalIdx;
+
+        localMin[localIdx] = globalIdx < input.getSize() ? input.get(globalIdx) : Float.MAX_VALUE;
+        localMax[localIdx] = globalIdx < input.getSize() ? input.get(globalIdx) : -Float.MAX_VALUE;
+        for (int stride = BLOCK_SIZE / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localIdx < stride) {
+                localMin[localIdx] = Math.min(localMin[localIdx], localMin[localIdx + stride]);
+                localMax[localIdx] = Math.max(localMax[localIdx], localMax[localIdx + stride]);
+            }
+        }
+        context.localBarrier();
+        if (localIdx == 0) {
+            partialMin.set(context.groupIdx, localMin[0]);
+            partialMax.set(context.groupIdx, localMax[0]);
+        }
+
+        context.globalBarrier();
+        if (localIdx == 0) {
+            ticket[0] = context.atomicIncrement(counter, 0);
+        }
+        context.localBarrier();
+        if (ticket[0] == partialMin.getSize() - 1) {
+            float accMin = Float.MAX_VALUE;
+            float accMax = -Float.MAX_VALUE;
+            for (int i = localIdx; i < partialMin.getSize(); i += BLOCK_SIZE) {
+                accMin = Math.min(accMin, partialMin.get(i));
+                accMax = Math.max(accMax, partialMax.get(i));
+            }
+            localMin[localIdx] = accMin;
+            localMax[localIdx] = accMax;
+            for (int stride = BLOCK_SIZE / 2; stride > 0; stride /= 2) {
+                context.localBarrier();
+                if (localIdx < stride) {
+                    localMin[localIdx] = Math.min(localMin[localIdx], localMin[localIdx + stride]);
+                    localMax[localIdx] = Math.max(localMax[localIdx], localMax[localIdx + stride]);
+                }
+            }
+            context.localBarrier();
+            if (localIdx == 0) {
+                result.set(0, localMin[0]);
+                result.set(1, localMax[0]);
+                counter[0] = 0;
+            }
+        }
+    }
+
+    /**
+     * Welford's combine of the partial results (count, mean, M2) of two sets of elements, stored in place of the
+     * first one. The counts are integers so that they stay exact beyond 2^24 elements.
+     */
+    private static void welfordCombine(int[] count, float[] mean, float[] m2, int into, int countB, float meanB, float m2B) {
+        int countA = count[into];
+        int total = countA + countB;
+        if (total > 0) {
+            float delta = meanB - mean[into];
+            float weightB = (float) countB / total;
+            mean[into] = mean[into] + delta * weightB;
+            m2[into] = m2[into] + m2B + delta * delta * countA * weightB;
+            count[into] = total;
+        }
+    }
+
+    static void welfordReduce(KernelContext context, FloatArray input, IntArray partialCount, FloatArray partialMean, FloatArray partialM2, int[] counter, FloatArray result) {
+        int[] localCount = context.allocateIntLocalArray(BLOCK_SIZE);
+        float[] localMean = context.allocateFloatLocalArray(BLOCK_SIZE);
+        float[] localM2 = context.allocateFloatLocalArray(BLOCK_SIZE);
+        int[] ticket = context.allocateIntLocalArray(1);
+        int localIdx = context.localIdx;
+        int globalIdx = context.globalIdx;
+
+        localCount[localIdx] = globalIdx < input.getSize() ? 1 : 0;
+        localMean[localIdx] = globalIdx < input.getSize() ? input.get(globalIdx) : 0.0f;
+        localM2[localIdx] = 0.0f;
+        for (int stride = BLOCK_SIZE / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localIdx < stride) {
+                welfordCombine(localCount, localMean, localM2, localIdx, localCount[localIdx + stride], localMean[localIdx + stride], localM2[localIdx + stride]);
+            }
+        }
+        context.localBarrier();
+        if (localIdx == 0) {
+            partialCount.set(context.groupIdx, localCount[0]);
+            partialMean.set(context.groupIdx, localMean[0]);
+            partialM2.set(context.groupIdx, localM2[0]);
+        }
+
+        context.globalBarrier();
+        if (localIdx == 0) {
+            ticket[0] = context.atomicIncrement(counter, 0);
+        }
+        context.localBarrier();
+        if (ticket[0] == partialCount.getSize() - 1) {
+            localCount[localIdx] = 0;
+            localMean[localIdx] = 0.0f;
+            localM2[localIdx] = 0.0f;
+            for (int i = localIdx; i < partialCount.getSize(); i += BLOCK_SIZE) {
+                welfordCombine(localCount, localMean, localM2, localIdx, partialCount.get(i), partialMean.get(i), partialM2.get(i));
+            }
+            for (int stride = BLOCK_SIZE / 2; stride > 0; stride /= 2) {
+                context.localBarrier();
+                if (localIdx < stride) {
+                    welfordCombine(localCount, localMean, localM2, localIdx, localCount[localIdx + stride], localMean[localIdx + stride], localM2[localIdx + stride]);
+                }
+            }
+            context.localBarrier();
+            if (localIdx == 0) {
+                result.set(0, localMean[0]);
+                result.set(1, localCount[0] > 0 ? localM2[0] / localCount[0] : 0.0f);
+                counter[0] = 0;
+            }
+        }
+    }
+
+    static void reduceFloat2(KernelContext context, VectorFloat2 input, VectorFloat2 partials, int[] counter, float identityX, float identityY, VectorFloat2 result) {
+        float[] localX = context.allocateFloatLocalArray(BLOCK_SIZE);
+        float[] localY = context.allocateFloatLocalArray(BLOCK_SIZE);
+        int[] ticket = context.allocateIntLocalArray(1);
+        int localIdx = context.localIdx;
+        int globalIdx = context.globalIdx;
+
+        localX[localIdx] = identityX;
+        localY[localIdx] = identityY;
+        if (globalIdx < input.getLength()) {
+            Float2 element = input.get(globalIdx);
+            localX[localIdx] = element.getX();
+            localY[localIdx] = element.getY();
+        }
+        for (int stride = BLOCK_SIZE / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localIdx < stride) {
+                Float2 combined = combine(new Float2(localX[localIdx], localY[localIdx]), new Float2(localX[localIdx + stride], localY[localIdx + stride]));
+                localX[localIdx] = combined.getX();
+                localY[localIdx] = combined.getY();
+            }
+        }
+        context.localBarrier();
+        if (localIdx == 0) {
+            partials.set(context.groupIdx, new Float2(localX[0], localY[0]));
+        }
+
+        context.globalBarrier();
+        if (localIdx == 0) {
+            ticket[0] = context.atomicIncrement(counter, 0);
+        }
+        context.localBarrier();
+        if (ticket[0] == partials.getLength() - 1) {
+            float accX = identityX;
+            float accY = identityY;
+            for (int i = localIdx; i < partials.getLength(); i += BLOCK_SIZE) {
+                Float2 acc = combine(new Float2(accX, accY), partials.get(i));
+                accX = acc.getX();
+                accY = acc.getY();
+            }
+            localX[localIdx] = accX;
+            localY[localIdx] = accY;
+            for (int stride = BLOCK_SIZE / 2; stride > 0; stride /= 2) {
+                context.localBarrier();
+                if (localIdx < stride) {
+                    Float2 combined = combine(new Float2(localX[localIdx], localY[localIdx]), new Float2(localX[localIdx + stride], localY[localIdx + stride]));
+                    localX[localIdx] = combined.getX();
+                    localY[localIdx] = combined.getY();
+                }
+            }
+            context.localBarrier();
+            if (localIdx == 0) {
+                result.set(0, new Float2(localX[0], localY[0]));
+                counter[0] = 0;
+            }
+        }
+    }
+
+    static void reduceInt2(KernelContext context, VectorInt2 input, VectorInt2 partials, int[] counter, int identityX, int identityY, VectorInt2 result) {
+        int[] localX = context.allocateIntLocalArray(BLOCK_SIZE);
+        int[] localY = context.allocateIntLocalArray(BLOCK_SIZE);
+        int[] ticket = context.allocateIntLocalArray(1);
+        int localIdx = context.localIdx;
+        int globalIdx = context.globalIdx;
+
+        localX[localIdx] = identityX;
+        localY[localIdx] = identityY;
+        if (globalIdx < input.getLength()) {
+            Int2 element = input.get(globalIdx);
+            localX[localIdx] = element.getX();
+            localY[localIdx] = element.getY();
+        }
+        for (int stride = BLOCK_SIZE / 2; stride > 0; stride /= 2) {
+            context.localBarrier();
+            if (localIdx < stride) {
+                Int2 combined = combine(new Int2(localX[localIdx], localY[localIdx]), new Int2(localX[localIdx + stride], localY[localIdx + stride]));
+                localX[localIdx] = combined.getX();
+                localY[localIdx] = combined.getY();
+            }
+        }
+        context.localBarrier();
+        if (localIdx == 0) {
+            partials.set(context.groupIdx, new Int2(localX[0], localY[0]));
+        }
+
+        context.globalBarrier();
+        if (localIdx == 0) {
+            ticket[0] = context.atomicIncrement(counter, 0);
+        }
+        context.localBarrier();
+        if (ticket[0] == partials.getLength() - 1) {
+            int accX = identityX;
+            int accY = identityY;
+            for (int i = localIdx; i < partials.getLength(); i += BLOCK_SIZE) {
+                Int2 acc = combine(new Int2(accX, accY), partials.get(i));
+                accX = acc.getX();
+                accY = acc.getY();
+            }
+            localX[localIdx] = accX;
+            localY[localIdx] = accY;
+            for (int stride = BLOCK_SIZE / 2; stride > 0; stride /= 2) {
+                context.localBarrier();
+                if (localIdx < stride) {
+                    Int2 combined = combine(new Int2(localX[localIdx], localY[localIdx]), new Int2(localX[localIdx + stride], localY[localIdx + stride]));
+                    localX[localIdx] = combined.getX();
+                    localY[localIdx] = combined.getY();
+                }
+            }
+            context.localBarrier();
+            if (localIdx == 0) {
+                result.set(0, new Int2(localX[0], localY[0]));
+                counter[0] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,499 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.primitives;
+
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+
+/**
+ * Parallel prefix-sum (scan) operations that can be added to a {@link TaskGraph}.
+ *
+ * <p>
+ * Each scan is built from three kernels written with the {@link KernelContext} API, so it runs on all backends:
+ * every work-group of {@link #BLOCK_SIZE} threads scans its block in local memory and stores the sum of the block,
+ * a single work-group turns the block sums into the offset of each block, and a last kernel adds the offsets to the
+ * elements of each block. The scan methods add these three tasks, named {@code <id>_blocks}, {@code <id>_sums} and
+ * {@code <id>_offsets}, to the task-graph and register their worker grids in the given {@link GridScheduler}, which
+ * must be passed to the execution plan with {@code withGridScheduler}.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>{@code
+ * GridScheduler gridScheduler = new GridScheduler();
+ * TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+ * Scan.inclusive(taskGraph, gridScheduler, "scan", input, output);
+ * taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+ *
+ * TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot());
+ * executionPlan.withGridScheduler(gridScheduler).execute();
+ * }</pre>
+ */
+public final class Scan {
+
+    /**
+     * Number of elements scanned by each work-group.
+     */
+    public static final int BLOCK_SIZE = 256;
+
+    private Scan() {
+    }
+
+    /**
+     * Adds an inclusive scan of {@code input} into {@code output}: {@code output[i] = input[0] + ... + input[i]}.
+     *
+     * @param taskGraph
+     *     Task-graph to add the scan to.
+     * @param gridScheduler
+     *     Grid scheduler in which the worker grids of the scan are registered.
+     * @param id
+     *     Prefix of the names of the tasks of the scan.
+     * @param input
+     *     Input array.
+     * @param output
+     *     Output array, with the same size as the input.
+     * @return The task-graph.
+     */
+    public static TaskGraph inclusive(TaskGraph taskGraph, GridScheduler gridScheduler, String id, IntArray input, IntArray output) {
+        IntArray blockSums = newBlockArray(taskGraph, input.getSize());
+        taskGraph.task(id + "_blocks", Scan::scanBlocks, new KernelContext(), input, output, blockSums, 0) //
+                .task(id + "_sums", Scan::scanBlockSums, new KernelContext(), blockSums) //
+                .task(id + "_offsets", Scan::addBlockOffsets, new KernelContext(), output, blockSums);
+        registerGrids(taskGraph, gridScheduler, id, input.getSize());
+        return taskGraph;
+    }
+
+    /**
+     * Adds an exclusive scan of {@code input} into {@code output}: {@code output[0] = 0} and
+     * {@code output[i] = input[0] + ... + input[i - 1]}.
+     *
+     * @param taskGraph
+     *     Task-graph to add the scan to.
+     * @param gridScheduler
+     *     Grid scheduler in which the worker grids of the scan are registered.
+     * @param id
+     *     Prefix of the names of the tasks of the scan.
+     * @param input
+     *     Input array.
+     * @param output
+     *     Output array, with the same size as the input.
+     * @return The task-graph.
+     */
+    public static TaskGraph exclusive(TaskGraph taskGraph, GridScheduler gridScheduler, String id, IntArray input, IntArray output) {
+        IntArray blockSums = newBlockArray(taskGraph, input.getSize());
+        taskGraph.task(id + "_blocks", Scan::scanBlocks, new KernelContext(), input, output, blockSums, 1) //
+                .task(id + "_sums", Scan::scanBlockSums, new KernelContext(), blockSums) //
+                .task(id + "_offsets", Scan::addBlockOffsets, new KernelContext(), output, blockSums);
+        registerGrids(taskGraph, gridScheduler, id, input.getSize());
+        return taskGraph;
+    }
+
+    /**
+     * Adds an inclusive scan of {@code input} into {@code output}. See {@link #inclusive(TaskGraph, GridScheduler, String, IntArray, IntArray)}.
+     *
+     * @return The task-graph.
+     */
+    public static TaskGraph inclusive(TaskGraph taskGraph, GridScheduler gridScheduler, String id, FloatArray input, FloatArray output) {
+        FloatArray blockSums = newFloatBlockArray(taskGraph, input.getSize());
+        taskGraph.task(id + "_blocks", Scan::scanBlocks, new KernelContext(), input, output, blockSums, 0) //
+                .task(id + "_sums", Scan::scanBlockSums, new KernelContext(), blockSums) //
+                .task(id + "_offsets", Scan::addBlockOffsets, new KernelContext(), output, blockSums);
+        registerGrids(taskGraph, gridScheduler, id, input.getSize());
+        return taskGraph;
+    }
+
+    /**
+     * Adds an exclusive scan of {@code input} into {@code output}. See {@link #exclusive(TaskGraph, GridScheduler, String, IntArray, IntArray)}.
+     *
+     * @return The task-graph.
+     */
+    public static TaskGraph exclusive(TaskGraph taskGraph, GridScheduler gridScheduler, String id, FloatArray input, FloatArray output) {
+        FloatArray blockSums = newFloatBlockArray(taskGraph, input.getSize());
+        taskGraph.task(id + "_blocks", Scan::scanBlocks, new KernelContext(), input, output, blockSums, 1) //
+                .task(id + "_sums", Scan::scanBlockSums, new KernelContext(), blockSums) //
+                .task(id + "_offsets", Scan::addBlockOffsets, new KernelContext(), output, blockSums);
+        registerGrids(taskGraph, gridScheduler, id, input.getSize());
+        return taskGraph;
+    }
+
+    /**
+     * Adds a segmented inclusive scan of {@code input} into {@code output}. A non-zero value in {@code flags} marks the
+     * first element of a segment, and the scan restarts at the beginning of each segment.
+     *
+     * @param taskGraph
+     *     Task-graph to add the scan to.
+     * @param gridScheduler
+     *     Grid scheduler in which the worker grids of the scan are registered.
+     * @param id
+     *     Prefix of the names of the tasks of the scan.
+     * @param input
+     *     Input array.
+     * @param flags
+     *     Head flags of the segments, with the same size as the input.
+     * @param output
+     *     Output array, with the same size as the input.
+     * @return The task-graph.
+     */
+    public static TaskGraph segmented(TaskGraph taskGraph, GridScheduler gridScheduler, String id, IntArray input, IntArray flags, IntArray output) {
+        IntArray blockSums = newBlockArray(taskGraph, input.getSize());
+        IntArray blockFlags = newBlockArray(taskGraph, input.getSize());
+        IntArray openSegments = new IntArray(input.getSize());
+        taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, openSegments) //
+                .task(id + "_blocks", Scan::segmentedScanBlocks, new KernelContext(), input, flags, output, openSegments, blockSums, blockFlags) //
+                .task(id + "_sums", Scan::segmentedScanBlockSums, new KernelContext(), blockSums, blockFlags) //
+                .task(id + "_offsets", Scan::addSegmentedBlockOffsets, new KernelContext(), output, openSegments, blockSums);
+        registerGrids(taskGraph, gridScheduler, id, input.getSize());
+        return taskGraph;
+    }
+
+    /**
+     * Adds a segmented inclusive scan of {@code input} into {@code output}. See {@link #segmented(TaskGraph, GridScheduler, String, IntArray, IntArray, IntArray)}.
+     *
+     * @return The task-graph.
+     */
+    public static TaskGraph segmented(TaskGraph taskGraph, GridScheduler gridScheduler, String id, FloatArray input, IntArray flags, FloatArray output) {
+        FloatArray blockSums = newFloatBlockArray(taskGraph, input.getSize());
+        IntArray blockFlags = newBlockArray(taskGraph, input.getSize());
+        IntArray openSegments = new IntArray(input.getSize());
+        taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, openSegments) //
+                .task(id + "_blocks", Scan::segmentedScanBlocks, new KernelContext(), input, flags, output, openSegments, blockSums, blockFlags) //
+                .task(id + "_sums", Scan::segmentedScanBlockSums, new KernelContext(), blockSums, blockFlags) //
+                .task(id + "_offsets", Scan::addSegmentedBlockOffsets, new KernelContext(), output, openSegments, blockSums);
+        registerGrids(taskGraph, gridScheduler, id, input.getSize());
+        return taskGraph;
+    }
+
+    static int numBlocks(int size) {
+        return Math.max(1, (size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+    }
+
+    static IntArray newBlockArray(TaskGraph taskGraph, int size) {
+        IntArray blockArray = new IntArray(numBlocks(size));
+        taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, blockArray);
+        return blockArray;
+    }
+
+    private static FloatArray newFloatBlockArray(TaskGraph taskGraph, int size) {
+        FloatArray blockArray = new FloatArray(numBlocks(size));
+        taskGraph.transferToDevice(DataTransferMode.FIRST_EXECUTION, blockArray);
+        return blockArray;
+    }
+
+    /**
+     * Registers the worker grids of the {@code <id>_blocks}, {@code <id>_sums} and {@code <id>_offsets} tasks. The
+     * block kernels run one work-group per block, and the kernel of the block sums runs in a single work-group.
+     */
+    static void registerGrids(TaskGraph taskGraph, GridScheduler gridScheduler, String id, int size) {
+        String prefix = taskGraph.getTaskGraphName() + "." + id;
+        WorkerGrid blocksGrid = new WorkerGrid1D(numBlocks(size) * BLOCK_SIZE);
+        blocksGrid.setLocalWork(BLOCK_SIZE, 1, 1);
+        WorkerGrid sumsGrid = new WorkerGrid1D(BLOCK_SIZE);
+        sumsGrid.setLocalWork(BLOCK_SIZE, 1, 1);
+        gridScheduler.setWorkerGrid(prefix + "_blocks", blocksGrid);
+        gridScheduler.setWorkerGrid(prefix + "_sums", sumsGrid);
+        gridScheduler.setWorkerGrid(prefix + "_offsets", blocksGrid);
+    }
+
+    /**
+     * Scans the block of each work-group in local memory (Hillis-Steele) and stores the sum of the block.
+     */
+    static void scanBlocks(KernelContext context, IntArray input, IntArray output, IntArray blockSums, int exclusive) {
+        int[] localScan = context.allocateIntLocalArray(BLOCK_SIZE);
+        int localIdx = context.localIdx;
+        int globalIdx = context.globalIdx;
+        int size = input.getSize();
+
+        localScan[localIdx] = globalIdx < size ? input.get(globalIdx) : 0;
+        for (int offset = 1; offset < BLOCK_SIZE; offset *= 2) {
+            context.localBarrier();
+            int value = localIdx >= offset ? localScan[localIdx - offset] : 0;
+            context.localBarrier();
+            localScan[localIdx] += value;
+        }
+        context.localBarrier();
+
+        if (globalIdx < size) {
+            if (exclusive == 0) {
+                output.set(globalIdx, localScan[localIdx]);
+            } else {
+                output.set(globalIdx, localIdx > 0 ? localScan[localIdx - 1] : 0);
+            }
+        }
+        if (localIdx == BLOCK_SIZE - 1) {
+            blockSums.set(context.groupIdx, localScan[localIdx]);
+        }
+    }
+
+    static void scanBlocks(KernelContext context, FloatArray input, FloatArray output, FloatArray blockSums, int exclusive) {
+        float[] localScan = context.allocateFloatLocalArray(BLOCK_SIZE);
+        int localIdx = context.localIdx;
+        int globalIdx = context.globalIdx;
+        int size = input.getSize();
+
+        localScan[localIdx] = globalIdx < size ? input.get(globalIdx) : 0.0f;
+        for (int offset = 1; offset < BLOCK_SIZE; offset *= 2) {
+            context.localBarrier();
+            float value = localIdx >= offset ? localScan[localIdx - offset] : 0.0f;
+            context.localBarrier();
+            localScan[localIdx] += value;
+        }
+        context.localBarrier();
+
+        if (globalIdx < size) {
+            if (exclusive == 0) {
+                output.set(globalIdx, localScan[localIdx]);
+            } else {
+                output.set(globalIdx, localIdx > 0 ? localScan[localIdx - 1] : 0.0f);
+            }
+        }
+        if (localIdx == BLOCK_SIZE - 1) {
+            blockSums.set(context.groupIdx, localScan[localIdx]);
+        }
+    }
+
+    /**
+     * Replaces the sum of each block by the sum of all the blocks before it. The blocks are scanned in chunks of
+     * {@link #BLOCK_SIZE} by a single work-group, carrying the total of each chunk into the next one.
+     */
+    static void scanBlockSums(KernelContext context, IntArray blockSums) {
+        int[] localScan = context.allocateIntLocalArray(BLOCK_SIZE);
+        int localIdx = context.localIdx;
+        int numBlocks = blockSums.getSize();
+        int carry = 0;
+
+        for (int base = 0; base < numBlocks; base += BLOCK_SIZE) {
+            int idx = base + localIdx;
+            localScan[localIdx] = idx < numBlocks ? blockSums.get(idx) : 0;
+            for (int offset = 1; offset < BLOCK_SIZE; offset *= 2) {
+                context.localBarrier();
+                int value = localIdx >= offset ? localScan[localIdx - offset] : 0;
+                context.localBarrier();
+                localScan[localIdx] += value;
+            }
+            context.localBarrier();
+            if (idx < numBlocks) {
+                blockSums.set(idx, carry + (localIdx > 0 ? localScan[localIdx - 1] : 0));
+            }
+            carry += localScan[BLOCK_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    static void scanBlockSums(KernelContext context, FloatArray blockSums) {
+        float[] localScan = context.allocateFloatLocalArray(BLOCK_SIZE);
+        int localIdx = context.localIdx;
+        int numBlocks = blockSums.getSize();
+        float carry = 0.0f;
+
+        for (int base = 0; base < numBlocks; base += BLOCK_SIZE) {
+            int idx = base + localIdx;
+            localScan[localIdx] = idx < numBlocks ? blockSums.get(idx) : 0.0f;
+            for (int offset = 1; offset < BLOCK_SIZE; offset *= 2) {
+                context.localBarrier();
+                float value = localIdx >= offset ? localScan[localIdx - offset] : 0.0f;
+                context.localBarrier();
+                localScan[localIdx] += value;
+            }
+            context.localBarrier();
+            if (idx < numBlocks) {
+                blockSums.set(idx, carry + (localIdx > 0 ? localScan[localIdx - 1] : 0.0f));
+            }
+            carry += localScan[BLOCK_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    static void addBlockOffsets(KernelContext context, IntArray output, IntArray blockOffsets) {
+        int globalIdx = context.globalIdx;
+        if (globalIdx < output.getSize()) {
+            output.set(globalIdx, output.get(globalIdx) + blockOffsets.get(context.groupIdx));
+        }
+    }
+
+    static void addBlockOffsets(KernelContext context, FloatArray output, FloatArray blockOffsets) {
+        int globalIdx = context.globalIdx;
+        if (globalIdx < output.getSize()) {
+            output.set(globalIdx, output.get(globalIdx) + blockOffsets.get(context.groupIdx));
+        }
+    }
+
+    /**
+     * Segmented version of {@link #scanBlocks}. Besides the sum of the block, it stores whether a segment starts in
+     * the block, and for each element whether a segment starts between the beginning of the block and the element,
+     * in which case the element does not depend on the previous blocks.
+     */
+    static void segmentedScanBlocks(KernelContext context, IntArray input, IntArray flags, IntArray output, IntArray openSegments, IntArray blockSums, IntArray blockFlags) {
+        int[] localScan = context.allocateIntLocalArray(BLOCK_SIZE);
+        int[] localFlags = context.allocateIntLocalArray(BLOCK_SIZE);
+        int localIdx = context.localIdx;
+        int globalIdx = context.globalIdx;
+        int size = input.getSize();
+
+        localScan[localIdx] = globalIdx < size ? input.get(globalIdx) : 0;
+        localFlags[localIdx] = globalIdx < size && flags.get(globalIdx) != 0 ? 1 : 0;
+        for (int offset = 1; offset < BLOCK_SIZE; offset *= 2) {
+            context.localBarrier();
+            int value = localIdx >= offset ? localScan[localIdx - offset] : 0;
+            int flag = localIdx >= offset ? localFlags[localIdx - offset] : 0;
+            context.localBarrier();
+            if (localFlags[localIdx] == 0) {
+                localScan[localIdx] += value;
+            }
+            localFlags[localIdx] |= flag;
+        }
+        context.localBarrier();
+
+        if (globalIdx < size) {
+            output.set(globalIdx, localScan[localIdx]);
+            openSegments.set(globalIdx, localFlags[localIdx]);
+        }
+        if (localIdx == BLOCK_SIZE - 1) {
+            blockSums.set(context.groupIdx, localScan[localIdx]);
+            blockFlags.set(context.groupIdx, localFlags[localIdx]);
+        }
+    }
+
+    static void segmentedScanBlocks(KernelContext context, FloatArray input, IntArray flags, FloatArray output, IntArray openSegments, FloatArray blockSums, IntArray blockFlags) {
+        float[] localScan = context.allocateFloatLocalArray(BLOCK_SIZE);
+        int[] localFlags = context.allocateIntLocalArray(BLOCK_SIZE);
+        int localIdx = context.localIdx;
+        int globalIdx = context.globalIdx;
+        int size = input.getSize();
+
+        localScan[localIdx] = globalIdx < size ? input.get(globalIdx) : 0.0f;
+        localFlags[localIdx] = globalIdx < size && flags.get(globalIdx) != 0 ? 1 : 0;
+        for (int offset = 1; offset < BLOCK_SIZE; offset *= 2) {
+            context.localBarrier();
+            float value = localIdx >= offset ? localScan[localIdx - offset] : 0.0f;
+            int flag = localIdx >= offset ? localFlags[localIdx - offset] : 0;
+            context.localBarrier();
+            if (localFlags[localIdx] == 0) {
+                localScan[localIdx] += value;
+            }
+            localFlags[localIdx] |= flag;
+        }
+        context.localBarrier();
+
+        if (globalIdx < size) {
+            output.set(globalIdx, localScan[localIdx]);
+            openSegments.set(globalIdx, localFlags[localIdx]);
+        }
+        if (localIdx == BLOCK_SIZE - 1) {
+            blockSums.set(context.groupIdx, localScan[localIdx]);
+            blockFlags.set(context.groupIdx, localFlags[localIdx]);
+        }
+    }
+
+    /**
+     * Segmented version of {@link #scanBlockSums}: replaces the sum of each block by the value that the scan carries
+     * into the block, which is the running sum of the segment that is open at the end of the previous block.
+     */
+    static void segmentedScanBlockSums(KernelContext context, IntArray blockSums, IntArray blockFlags) {
+        int[] localScan = context.allocateIntLocalArray(BLOCK_SIZE);
+        int[] localFlags = context.allocateIntLocalArray(BLOCK_SIZE);
+        int localIdx = context.localIdx;
+        int numBlocks = blockSums.getSize();
+        int carry = 0;
+
+        for (int base = 0; base < numBlocks; base += BLOCK_SIZE) {
+            int idx = base + localIdx;
+            localScan[localIdx] = idx < numBlocks ? blockSums.get(idx) : 0;
+            localFlags[localIdx] = idx < numBlocks ? blockFlags.get(idx) : 0;
+            for (int offset = 1; offset < BLOCK_SIZE; offset *= 2) {
+                context.localBarrier();
+                int value = localIdx >= offset ? localScan[localIdx - offset] : 0;
+                int flag = localIdx >= offset ? localFlags[localIdx - offset] : 0;
+                context.localBarrier();
+                if (localFlags[localIdx] == 0) {
+                    localScan[localIdx] += value;
+                }
+                localFlags[localIdx] |= flag;
+            }
+            context.localBarrier();
+
+            // Running value at the end of each block, including the carry of the previous chunks
+            if (localFlags[localIdx] == 0) {
+                localScan[localIdx] += carry;
+            }
+            context.localBarrier();
+            if (idx < numBlocks) {
+                blockSums.set(idx, localIdx > 0 ? localScan[localIdx - 1] : carry);
+            }
+            carry = localScan[BLOCK_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    static void segmentedScanBlockSums(KernelContext context, FloatArray blockSums, IntArray blockFlags) {
+        float[] localScan = context.allocateFloatLocalArray(BLOCK_SIZE);
+        int[] localFlags = context.allocateIntLocalArray(BLOCK_SIZE);
+        int localIdx = context.localIdx;
+        int numBlocks = blockSums.getSize();
+        float carry = 0.0f;
+
+        for (int base = 0; base < numBlocks; base += BLOCK_SIZE) {
+            int idx = base + localIdx;
+            localScan[localIdx] = idx < numBlocks ? blockSums.get(idx) : 0.0f;
+            localFlags[localIdx] = idx < numBlocks ? blockFlags.get(idx) : 0;
+            for (int offset = 1; offset < BLOCK_SIZE; offset *= 2) {
+                context.localBarrier();
+                float value = localIdx >= offset ? localScan[localIdx - offset] : 0.0f;
+                int flag = localIdx >= offset ? localFlags[localIdx - offset] : 0;
+                context.localBarrier();
+                if (localFlags[localIdx] == 0) {
+                    localScan[localIdx] += value;
+                }
+                localFlags[localIdx] |= flag;
+            }
+            context.localBarrier();
+
+            // Running value at the end of each block, including the carry of the previous chunks
+            if (localFlags[localIdx] == 0) {
+                localScan[localIdx] += carry;
+            }
+            context.localBarrier();
+            if (idx < numBlocks) {
+                blockSums.set(idx, localIdx > 0 ? localScan[localIdx - 1] : carry);
+            }
+            carry = localScan[BLOCK_SIZE - 1];
+            context.localBarrier();
+        }
+    }
+
+    static void addSegmentedBlockOffsets(KernelContext context, IntArray output, IntArray openSegments, IntArray blockOffsets) {
+        int globalIdx = context.globalIdx;
+        if (globalIdx < output.getSize() && openSegments.get(globalIdx) == 0) {
+            output.set(globalIdx, output.get(globalIdx) + blockOffsets.get(context.groupIdx));
+        }
+    }
+
+    static void addSegmentedBlockOffsets(KernelContext context, FloatArray output, IntArray openSegments, FloatArray blockOffsets) {
+        int globalIdx = context.globalIdx;
+        if (globalIdx < output.getSize() && openSegments.get(globalIdx) == 0) {
+            output.set(globalIdx, output.get(globalIdx) + blockOffsets.get(context.groupIdx));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.profiler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies, in nanoseconds. Values are recorded into
+ * log-linear buckets: each power of two is split into 16 sub-buckets, so a
+ * percentile is reported with a relative error below 6.25% while the whole
+ * range of a {@code long} is covered with 960 counters.
+ *
+ * <p>
+ * Recording a value updates one atomic counter and two striped adders, and it
+ * never blocks. Threads can record while others read percentiles; a reader
+ * observes a consistent view once all recorders have finished.
+ * </p>
+ *
+ * @since TornadoVM-1.0.5
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder total;
+    private final AtomicLong min;
+    private final AtomicLong max;
+
+    public LatencyHistogram() {
+        buckets = new AtomicLongArray(NUM_BUCKETS);
+        count = new LongAdder();
+        total = new LongAdder();
+        min = new AtomicLong(Long.MAX_VALUE);
+        max = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    /**
+     * Records a latency. Negative values, which some drivers report for events
+     * without timestamps, are recorded as zero.
+     *
+     * @param value
+     *     Latency in nanoseconds.
+     */
+    public void record(long value) {
+        long latency = Math.max(value, 0);
+        buckets.incrementAndGet(bucketIndex(latency));
+        count.increment();
+        total.add(latency);
+        if (latency < min.get()) {
+            min.accumulateAndGet(latency, Math::min);
+        }
+        if (latency > max.get()) {
+            max.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * Adds all the values recorded by another histogram into this one.
+     *
+     * @param other
+     *     {@link LatencyHistogram}
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            long bucketCount = other.buckets.get(i);
+            if (bucketCount != 0) {
+                buckets.addAndGet(i, bucketCount);
+            }
+        }
+        count.add(other.count.sum());
+        total.add(other.total.sum());
+        min.accumulateAndGet(other.min.get(), Math::min);
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    /**
+     * Returns a copy of the histogram that is not affected by values recorded
+     * afterwards.
+     *
+     * @return {@link LatencyHistogram}
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.add(this);
+        return histogram;
+    }
+
+    /**
+     * Removes all recorded values. It must not run concurrently with
+     * {@link #record(long)}.
+     */
+    public void reset() {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return long
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum, in ns, of all recorded values.
+     *
+     * @return long
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the lowest recorded value in ns, or 0 if the histogram is empty.
+     *
+     * @return long
+     */
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    /**
+     * Returns the highest recorded value in ns, or 0 if the histogram is empty.
+     *
+     * @return long
+     */
+    public long getMax() {
+        return getCount() == 0 ? 0 : max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded values in ns, or 0 if the histogram is
+     * empty.
+     *
+     * @return double
+     */
+    public double getMean() {
+        long samples = getCount();
+        return samples == 0 ? 0 : (double) getTotal() / samples;
+    }
+
+    /**
+     * Returns the value, in ns, below which the given percentage of the recorded
+     * values fall. The value is the upper bound of the bucket that contains the
+     * percentile, clamped to the recorded minimum and maximum.
+     *
+     * @param percentile
+     *     Percentile in the range [0, 100], e.g. 99.9 for the p999 latency.
+     * @return long, or 0 if the histogram is empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in the range [0, 100]: " + percentile);
+        }
+        long samples = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            samples += buckets.get(i);
+        }
+        if (samples == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * samples));
+        long accumulated = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            accumulated += buckets.get(i);
+            if (accumulated >= rank) {
+                return Math.max(getMin(), Math.min(bucketUpperBound(i), getMax()));
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, min=%d, mean=%.1f, p50=%d, p90=%d, p99=%d, p999=%d, max=%d (ns)", getCount(), getMin(), getMean(), getValueAtPercentile(50), getValueAtPercentile(90),
+                getValueAtPercentile(99), getValueAtPercentile(99.9), getMax());
+    }
+}
@@ -35,6 +35,8 @@ public enum ProfilerType {
     DEVICE("Device"),
     TOTAL_COPY_IN_SIZE_BYTES("CopyIn-Size-(Bytes)"),
     TOTAL_COPY_OUT_SIZE_BYTES("CopyOut-Size-(Bytes)"),
+    TOTAL_COPY_IN_SKIPPED_SIZE_BYTES("CopyIn-Skipped-Size-(Bytes)"),
+    TOTAL_COPY_OUT_SKIPPED_SIZE_BYTES("CopyOut-Skipped-Size-(Bytes)"),
     TASK_COMPILE_DRIVER_TIME("Task-Compile-Driver"),
     TASK_COMPILE_GRAAL_TIME("Task-Compile-Graal"),
 
@@ -57,4 +57,22 @@ public interface TornadoProfiler {
 
     void sum(ProfilerType type, long timer);
 
+    /**
+     * Returns the distribution of the values recorded for a timer. Histograms
+     * are kept across executions, and they are only removed with
+     * {@link #clearHistograms()}. Per-task timers (e.g.,
+     * {@link ProfilerType#TASK_KERNEL_TIME}) are recorded every time the task
+     * sets them. Accumulated timers (e.g., {@link ProfilerType#COPY_IN_TIME})
+     * record each value added with {@link #sum(ProfilerType, long)}.
+     *
+     * @param type
+     *     Timer to query.
+     * @param taskName
+     *     Task identifier, or null for the timers of the task-graph.
+     * @return {@link LatencyHistogram}
+     */
+    LatencyHistogram getHistogram(ProfilerType type, String taskName);
+
+    void clearHistograms();
+
 }
@@ -18,10 +18,11 @@
 package uk.ac.manchester.tornado.api.types.arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_BYTE;
-import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
@@ -38,7 +39,7 @@ import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 public final class ByteArray extends TornadoNativeArray {
     private static final int BYTE_BYTES = 1;
     private MemorySegment segment;
-    private int numberOfElements;
+    private long numberOfElements;
     private int arrayHeaderSize;
 
     private int baseIndex;
@@ -51,14 +52,51 @@ public final class ByteArray extends TornadoNativeArray {
      * @param numberOfElements
      *     The number of elements in the array.
      */
-    public ByteArray(int numberOfElements) {
+    public ByteArray(long numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    /**
+     * Constructs a new instance of the {@link ByteArray} that will store a user-specified number of elements, allocated
+     * with the given {@link SegmentAllocator}. The allocator can be an {@link Arena}, in which case the memory of the
+     * array is freed when the arena is closed, or a {@link NativeArrayPool}, in which case the memory returns to the
+     * pool when the array is {@link #release() released}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The {@link SegmentAllocator} that allocates the memory of the array.
+     */
+    public ByteArray(long numberOfElements, SegmentAllocator allocator) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / BYTE_BYTES;
         segmentByteSize = numberOfElements * BYTE_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment = allocator.allocate(segmentByteSize, 1);
+        segment.set(JAVA_LONG, 0, numberOfElements);
+        if (allocator instanceof NativeArrayPool pool) {
+            setPool(pool);
+        }
+    }
+
+    /**
+     * Constructs a view of {@code numberOfElements} elements over the segment of
+     * another {@link ByteArray}.
+     *
+     * @param segmentWithHeader
+     *     Slice of the segment of the parent array that starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the
+     *     first element of the view.
+     * @param numberOfElements
+     *     The number of elements in the view.
+     */
+    private ByteArray(MemorySegment segmentWithHeader, long numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / BYTE_BYTES;
+        segmentByteSize = segmentWithHeader.byteSize();
+        segment = segmentWithHeader;
+        markAsView(numberOfElements);
     }
 
     /**
@@ -80,9 +118,7 @@ public final class ByteArray extends TornadoNativeArray {
      */
     private static ByteArray createSegment(byte[] values) {
         ByteArray array = new ByteArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        MemorySegment.copy(values, 0, array.segment, JAVA_BYTE, TornadoNativeArray.ARRAY_HEADER, values.length);
         return array;
     }
 
@@ -117,7 +153,7 @@ public final class ByteArray extends TornadoNativeArray {
      */
     public static ByteArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / BYTE_BYTES);
+        long numElements = byteSize / BYTE_BYTES;
         ByteArray byteArray = new ByteArray(numElements);
         MemorySegment.copy(segment, 0, byteArray.segment, byteArray.baseIndex * BYTE_BYTES, byteSize);
         return byteArray;
@@ -144,10 +180,8 @@ public final class ByteArray extends TornadoNativeArray {
      * @return A new on-heap byte array, initialized with the values stored in the {@link ByteArray} instance.
      */
     public byte[] toHeapArray() {
-        byte[] outputArray = new byte[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        byte[] outputArray = new byte[Math.toIntExact(numberOfElements)];
+        MemorySegment.copy(segment, JAVA_BYTE, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
         return outputArray;
     }
 
@@ -160,6 +194,7 @@ public final class ByteArray extends TornadoNativeArray {
      *     The byte value to store at the specified index.
      */
     public void set(int index, byte value) {
+        markAsModified();
         segment.setAtIndex(JAVA_BYTE, baseIndex + index, value);
     }
 
@@ -174,6 +209,30 @@ public final class ByteArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_BYTE, baseIndex + index);
     }
 
+    /**
+     * Sets the byte value at a specified 64-bit index of the {@link ByteArray} instance.
+     *
+     * @param index
+     *     The index at which to set the byte value.
+     * @param value
+     *     The byte value to store at the specified index.
+     */
+    public void set(long index, byte value) {
+        markAsModified();
+        segment.setAtIndex(JAVA_BYTE, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the byte value stored at the specified 64-bit index of the {@link ByteArray} instance.
+     *
+     * @param index
+     *     The index of which to retrieve the byte value.
+     * @return The byte value at the specified index.
+     */
+    public byte get(long index) {
+        return segment.getAtIndex(JAVA_BYTE, baseIndex + index);
+    }
+
     /**
      * Sets all the values of the {@link ByteArray} instance to zero.
      */
@@ -194,17 +253,33 @@ public final class ByteArray extends TornadoNativeArray {
      *     The byte value to initialize the {@link ByteArray} instance with.
      */
     public void init(byte value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             segment.setAtIndex(JAVA_BYTE, baseIndex + i, value);
         }
     }
 
     /**
-     * @return Returns the number of byte elements stored in the {@link ByteArray} instance.
+     * Returns the number of byte elements stored in the {@link ByteArray} instance. Arrays of more than
+     * {@link Integer#MAX_VALUE} elements must use {@link #getSizeAsLong()} instead.
      *
+     * @return The number of elements of the {@link ByteArray} instance.
+     * @throws ArithmeticException
+     *     if the number of elements does not fit in an int.
      */
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    /**
+     * Returns the number of byte elements stored in the {@link ByteArray} instance as a long, which
+     * is required for arrays of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @return The number of elements of the {@link ByteArray} instance.
+     */
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -228,6 +303,11 @@ public final class ByteArray extends TornadoNativeArray {
         return segment;
     }
 
+    @Override
+    void detachSegment() {
+        segment = MemorySegment.NULL;
+    }
+
     /**
      * Returns the total number of bytes that the {@link MemorySegment}, associated with the {@link ByteArray} instance, occupies.
      *
@@ -272,7 +352,7 @@ public final class ByteArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static ByteArray concat(ByteArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(ByteArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(ByteArray::getSizeAsLong).sum();
         ByteArray concatArray = new ByteArray(newSize);
         long currentPositionBytes = 0;
         for (ByteArray array : arrays) {
@@ -283,26 +363,26 @@ public final class ByteArray extends TornadoNativeArray {
     }
 
     /**
-     * Extracts a slice of elements from a given {@link ByteArray}, creating a new {@link ByteArray} instance.
-     *
+     * Extracts a slice of elements from a given {@link ByteArray}. The slice is a view that shares the memory of
+     * the original array, so no elements are copied and updates to either array are visible in the other.
      *
      * @param offset
      *     The starting index from which to begin the slice, inclusive.
      * @param length
      *     The number of elements to include in the slice.
-     * @return A new {@link ByteArray} instance representing the specified slice of the original array.
+     * @return A {@link ByteArray} view of the specified slice of the original array.
      * @throws IllegalArgumentException
      *     if the specified slice is out of the bounds of the original array.
      */
     public ByteArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || (long) offset + length > numberOfElements) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * BYTE_BYTES;
-        long sliceByteLength = length * BYTE_BYTES;
-        MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
-        ByteArray slice = fromSegment(sliceSegment);
-        return slice;
+        // The view starts ARRAY_HEADER bytes before its first element, which is always within the parent segment
+        long sliceOffsetInBytes = (long) offset * BYTE_BYTES;
+        long sliceByteLength = TornadoNativeArray.ARRAY_HEADER + (long) length * BYTE_BYTES;
+        markAsSliced();
+        return new ByteArray(segment.asSlice(sliceOffsetInBytes, sliceByteLength), length);
     }
 }
@@ -18,10 +18,11 @@
 package uk.ac.manchester.tornado.api.types.arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_CHAR;
-import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.CharBuffer;
 import java.util.Arrays;
 
@@ -38,7 +39,7 @@ import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 public final class CharArray extends TornadoNativeArray {
     private static final int CHAR_BYTES = 2;
     private MemorySegment segment;
-    private int numberOfElements;
+    private long numberOfElements;
     private int arrayHeaderSize;
 
     private int baseIndex;
@@ -51,14 +52,51 @@ public final class CharArray extends TornadoNativeArray {
      * @param numberOfElements
      *     The number of elements in the array.
      */
-    public CharArray(int numberOfElements) {
+    public CharArray(long numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    /**
+     * Constructs a new instance of the {@link CharArray} that will store a user-specified number of elements, allocated
+     * with the given {@link SegmentAllocator}. The allocator can be an {@link Arena}, in which case the memory of the
+     * array is freed when the arena is closed, or a {@link NativeArrayPool}, in which case the memory returns to the
+     * pool when the array is {@link #release() released}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The {@link SegmentAllocator} that allocates the memory of the array.
+     */
+    public CharArray(long numberOfElements, SegmentAllocator allocator) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / CHAR_BYTES;
         segmentByteSize = numberOfElements * CHAR_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment = allocator.allocate(segmentByteSize, 1);
+        segment.set(JAVA_LONG, 0, numberOfElements);
+        if (allocator instanceof NativeArrayPool pool) {
+            setPool(pool);
+        }
+    }
+
+    /**
+     * Constructs a view of {@code numberOfElements} elements over the segment of
+     * another {@link CharArray}.
+     *
+     * @param segmentWithHeader
+     *     Slice of the segment of the parent array that starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the
+     *     first element of the view.
+     * @param numberOfElements
+     *     The number of elements in the view.
+     */
+    private CharArray(MemorySegment segmentWithHeader, long numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / CHAR_BYTES;
+        segmentByteSize = segmentWithHeader.byteSize();
+        segment = segmentWithHeader;
+        markAsView(numberOfElements);
     }
 
     /**
@@ -80,9 +118,7 @@ public final class CharArray extends TornadoNativeArray {
      */
     private static CharArray createSegment(char[] values) {
         CharArray array = new CharArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        MemorySegment.copy(values, 0, array.segment, JAVA_CHAR, TornadoNativeArray.ARRAY_HEADER, values.length);
         return array;
     }
 
@@ -117,7 +153,7 @@ public final class CharArray extends TornadoNativeArray {
      */
     public static CharArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / CHAR_BYTES);
+        long numElements = byteSize / CHAR_BYTES;
         CharArray charArray = new CharArray(numElements);
         MemorySegment.copy(segment, 0, charArray.segment, charArray.baseIndex * CHAR_BYTES, byteSize);
         return charArray;
@@ -157,10 +193,8 @@ public final class CharArray extends TornadoNativeArray {
      * @return A new on-heap char array, initialized with the values stored in the {@link CharArray} instance.
      */
     public char[] toHeapArray() {
-        char[] outputArray = new char[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        char[] outputArray = new char[Math.toIntExact(numberOfElements)];
+        MemorySegment.copy(segment, JAVA_CHAR, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
         return outputArray;
     }
 
@@ -173,6 +207,7 @@ public final class CharArray extends TornadoNativeArray {
      *     The char value to store at the specified index.
      */
     public void set(int index, char value) {
+        markAsModified();
         segment.setAtIndex(JAVA_CHAR, baseIndex + index, value);
     }
 
@@ -187,6 +222,30 @@ public final class CharArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_CHAR, baseIndex + index);
     }
 
+    /**
+     * Sets the char value at a specified 64-bit index of the {@link CharArray} instance.
+     *
+     * @param index
+     *     The index at which to set the char value.
+     * @param value
+     *     The char value to store at the specified index.
+     */
+    public void set(long index, char value) {
+        markAsModified();
+        segment.setAtIndex(JAVA_CHAR, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the char value stored at the specified 64-bit index of the {@link CharArray} instance.
+     *
+     * @param index
+     *     The index of which to retrieve the char value.
+     * @return The char value at the specified index.
+     */
+    public char get(long index) {
+        return segment.getAtIndex(JAVA_CHAR, baseIndex + index);
+    }
+
     /**
      * Initializes all the elements of the {@link CharArray} instance with a specified value.
      *
@@ -194,18 +253,33 @@ public final class CharArray extends TornadoNativeArray {
      *     The char value to initialize the {@link ByteArray} instance with.
      */
     public void init(char value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             segment.setAtIndex(JAVA_CHAR, baseIndex + i, value);
         }
     }
 
     /**
-     * Returns the number of char elements stored in the {@link CharArray} instance.
+     * Returns the number of char elements stored in the {@link CharArray} instance. Arrays of more than
+     * {@link Integer#MAX_VALUE} elements must use {@link #getSizeAsLong()} instead.
      *
-     * @return
+     * @return The number of elements of the {@link CharArray} instance.
+     * @throws ArithmeticException
+     *     if the number of elements does not fit in an int.
      */
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    /**
+     * Returns the number of char elements stored in the {@link CharArray} instance as a long, which
+     * is required for arrays of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @return The number of elements of the {@link CharArray} instance.
+     */
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -229,6 +303,11 @@ public final class CharArray extends TornadoNativeArray {
         return segment;
     }
 
+    @Override
+    void detachSegment() {
+        segment = MemorySegment.NULL;
+    }
+
     /**
      * Returns the total number of bytes that the {@link MemorySegment}, associated with the {@link CharArray} instance, occupies.
      *
@@ -273,7 +352,7 @@ public final class CharArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static CharArray concat(CharArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(CharArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(CharArray::getSizeAsLong).sum();
         CharArray concatArray = new CharArray(newSize);
         long currentPositionBytes = 0;
         for (CharArray array : arrays) {
@@ -284,26 +363,26 @@ public final class CharArray extends TornadoNativeArray {
     }
 
     /**
-     * Extracts a slice of elements from a given {@link CharArray}, creating a new {@link CharArray} instance.
-     *
+     * Extracts a slice of elements from a given {@link CharArray}. The slice is a view that shares the memory of
+     * the original array, so no elements are copied and updates to either array are visible in the other.
      *
      * @param offset
      *     The starting index from which to begin the slice, inclusive.
      * @param length
      *     The number of elements to include in the slice.
-     * @return A new {@link CharArray} instance representing the specified slice of the original array.
+     * @return A {@link CharArray} view of the specified slice of the original array.
      * @throws IllegalArgumentException
      *     if the specified slice is out of the bounds of the original array.
      */
     public CharArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || (long) offset + length > numberOfElements) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * CHAR_BYTES;
-        long sliceByteLength = length * CHAR_BYTES;
-        MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
-        CharArray slice = fromSegment(sliceSegment);
-        return slice;
+        // The view starts ARRAY_HEADER bytes before its first element, which is always within the parent segment
+        long sliceOffsetInBytes = (long) offset * CHAR_BYTES;
+        long sliceByteLength = TornadoNativeArray.ARRAY_HEADER + (long) length * CHAR_BYTES;
+        markAsSliced();
+        return new CharArray(segment.asSlice(sliceOffsetInBytes, sliceByteLength), length);
     }
 }
@@ -18,10 +18,11 @@
 package uk.ac.manchester.tornado.api.types.arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_DOUBLE;
-import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.DoubleBuffer;
 import java.util.Arrays;
 
@@ -38,7 +39,7 @@ import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 public final class DoubleArray extends TornadoNativeArray {
     private static final int DOUBLE_BYTES = 8;
     private MemorySegment segment;
-    private int numberOfElements;
+    private long numberOfElements;
 
     private int arrayHeaderSize;
 
@@ -52,15 +53,52 @@ public final class DoubleArray extends TornadoNativeArray {
      * @param numberOfElements
      *     The number of elements in the array.
      */
-    public DoubleArray(int numberOfElements) {
+    public DoubleArray(long numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    /**
+     * Constructs a new instance of the {@link DoubleArray} that will store a user-specified number of elements, allocated
+     * with the given {@link SegmentAllocator}. The allocator can be an {@link Arena}, in which case the memory of the
+     * array is freed when the arena is closed, or a {@link NativeArrayPool}, in which case the memory returns to the
+     * pool when the array is {@link #release() released}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The {@link SegmentAllocator} that allocates the memory of the array.
+     */
+    public DoubleArray(long numberOfElements, SegmentAllocator allocator) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         assert arrayHeaderSize >= 8;
         baseIndex = arrayHeaderSize / DOUBLE_BYTES;
         segmentByteSize = numberOfElements * DOUBLE_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment = allocator.allocate(segmentByteSize, 1);
+        segment.set(JAVA_LONG, 0, numberOfElements);
+        if (allocator instanceof NativeArrayPool pool) {
+            setPool(pool);
+        }
+    }
+
+    /**
+     * Constructs a view of {@code numberOfElements} elements over the segment of
+     * another {@link DoubleArray}.
+     *
+     * @param segmentWithHeader
+     *     Slice of the segment of the parent array that starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the
+     *     first element of the view.
+     * @param numberOfElements
+     *     The number of elements in the view.
+     */
+    private DoubleArray(MemorySegment segmentWithHeader, long numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / DOUBLE_BYTES;
+        segmentByteSize = segmentWithHeader.byteSize();
+        segment = segmentWithHeader;
+        markAsView(numberOfElements);
     }
 
     /**
@@ -82,9 +120,7 @@ public final class DoubleArray extends TornadoNativeArray {
      */
     private static DoubleArray createSegment(double[] values) {
         DoubleArray array = new DoubleArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        MemorySegment.copy(values, 0, array.segment, JAVA_DOUBLE, TornadoNativeArray.ARRAY_HEADER, values.length);
         return array;
     }
 
@@ -119,7 +155,7 @@ public final class DoubleArray extends TornadoNativeArray {
      */
     public static DoubleArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / DOUBLE_BYTES);
+        long numElements = byteSize / DOUBLE_BYTES;
         DoubleArray doubleArray = new DoubleArray(numElements);
         MemorySegment.copy(segment, 0, doubleArray.segment, doubleArray.baseIndex * DOUBLE_BYTES, byteSize);
         return doubleArray;
@@ -146,10 +182,8 @@ public final class DoubleArray extends TornadoNativeArray {
      * @return A new on-heap double array, initialized with the values stored in the {@link DoubleArray} instance.
      */
     public double[] toHeapArray() {
-        double[] outputArray = new double[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        double[] outputArray = new double[Math.toIntExact(numberOfElements)];
+        MemorySegment.copy(segment, JAVA_DOUBLE, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
         return outputArray;
     }
 
@@ -162,6 +196,7 @@ public final class DoubleArray extends TornadoNativeArray {
      *     The double value to store at the specified index.
      */
     public void set(int index, double value) {
+        markAsModified();
         segment.setAtIndex(JAVA_DOUBLE, baseIndex + index, value);
     }
 
@@ -176,6 +211,30 @@ public final class DoubleArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_DOUBLE, baseIndex + index);
     }
 
+    /**
+     * Sets the double value at a specified 64-bit index of the {@link DoubleArray} instance.
+     *
+     * @param index
+     *     The index at which to set the double value.
+     * @param value
+     *     The double value to store at the specified index.
+     */
+    public void set(long index, double value) {
+        markAsModified();
+        segment.setAtIndex(JAVA_DOUBLE, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the double value stored at the specified 64-bit index of the {@link DoubleArray} instance.
+     *
+     * @param index
+     *     The index of which to retrieve the double value.
+     * @return The double value at the specified index.
+     */
+    public double get(long index) {
+        return segment.getAtIndex(JAVA_DOUBLE, baseIndex + index);
+    }
+
     /**
      * Sets all the values of the {@link DoubleArray} instance to zero.
      */
@@ -196,18 +255,33 @@ public final class DoubleArray extends TornadoNativeArray {
      *     The double value to initialize the {@link DoubleArray} instance with.
      */
     public void init(double value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             segment.setAtIndex(JAVA_DOUBLE, baseIndex + i, value);
         }
     }
 
     /**
-     * Returns the number of double elements stored in the {@link DoubleArray} instance.
+     * Returns the number of double elements stored in the {@link DoubleArray} instance. Arrays of more than
+     * {@link Integer#MAX_VALUE} elements must use {@link #getSizeAsLong()} instead.
      *
-     * @return
+     * @return The number of elements of the {@link DoubleArray} instance.
+     * @throws ArithmeticException
+     *     if the number of elements does not fit in an int.
      */
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    /**
+     * Returns the number of double elements stored in the {@link DoubleArray} instance as a long, which
+     * is required for arrays of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @return The number of elements of the {@link DoubleArray} instance.
+     */
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -231,6 +305,11 @@ public final class DoubleArray extends TornadoNativeArray {
         return segment;
     }
 
+    @Override
+    void detachSegment() {
+        segment = MemorySegment.NULL;
+    }
+
     /**
      * Returns the total number of bytes that the {@link MemorySegment}, associated with the {@link DoubleArray} instance, occupies.
      *
@@ -275,7 +354,7 @@ public final class DoubleArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static DoubleArray concat(DoubleArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(DoubleArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(DoubleArray::getSizeAsLong).sum();
         DoubleArray concatArray = new DoubleArray(newSize);
         long currentPositionBytes = 0;
         for (DoubleArray array : arrays) {
@@ -286,26 +365,26 @@ public final class DoubleArray extends TornadoNativeArray {
     }
 
     /**
-     * Extracts a slice of elements from a given {@link DoubleArray}, creating a new {@link DoubleArray} instance.
-     *
+     * Extracts a slice of elements from a given {@link DoubleArray}. The slice is a view that shares the memory of
+     * the original array, so no elements are copied and updates to either array are visible in the other.
      *
      * @param offset
      *     The starting index from which to begin the slice, inclusive.
      * @param length
      *     The number of elements to include in the slice.
-     * @return A new {@link DoubleArray} instance representing the specified slice of the original array.
+     * @return A {@link DoubleArray} view of the specified slice of the original array.
      * @throws IllegalArgumentException
      *     if the specified slice is out of the bounds of the original array.
      */
     public DoubleArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || (long) offset + length > numberOfElements) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * DOUBLE_BYTES;
-        long sliceByteLength = length * DOUBLE_BYTES;
-        MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
-        DoubleArray slice = fromSegment(sliceSegment);
-        return slice;
+        // The view starts ARRAY_HEADER bytes before its first element, which is always within the parent segment
+        long sliceOffsetInBytes = (long) offset * DOUBLE_BYTES;
+        long sliceByteLength = TornadoNativeArray.ARRAY_HEADER + (long) length * DOUBLE_BYTES;
+        markAsSliced();
+        return new DoubleArray(segment.asSlice(sliceOffsetInBytes, sliceByteLength), length);
     }
 }
@@ -18,10 +18,11 @@
 package uk.ac.manchester.tornado.api.types.arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
-import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.FloatBuffer;
 import java.util.Arrays;
 
@@ -39,7 +40,7 @@ public final class FloatArray extends TornadoNativeArray {
     private static final int FLOAT_BYTES = 4;
     private MemorySegment segment;
 
-    private int numberOfElements;
+    private long numberOfElements;
 
     private int arrayHeaderSize;
 
@@ -53,14 +54,51 @@ public final class FloatArray extends TornadoNativeArray {
      * @param numberOfElements
      *     The number of elements in the array.
      */
-    public FloatArray(int numberOfElements) {
+    public FloatArray(long numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    /**
+     * Constructs a new instance of the {@link FloatArray} that will store a user-specified number of elements, allocated
+     * with the given {@link SegmentAllocator}. The allocator can be an {@link Arena}, in which case the memory of the
+     * array is freed when the arena is closed, or a {@link NativeArrayPool}, in which case the memory returns to the
+     * pool when the array is {@link #release() released}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The {@link SegmentAllocator} that allocates the memory of the array.
+     */
+    public FloatArray(long numberOfElements, SegmentAllocator allocator) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / FLOAT_BYTES;
         segmentByteSize = numberOfElements * FLOAT_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment = allocator.allocate(segmentByteSize, 1);
+        segment.set(JAVA_LONG, 0, numberOfElements);
+        if (allocator instanceof NativeArrayPool pool) {
+            setPool(pool);
+        }
+    }
+
+    /**
+     * Constructs a view of {@code numberOfElements} elements over the segment of
+     * another {@link FloatArray}.
+     *
+     * @param segmentWithHeader
+     *     Slice of the segment of the parent array that starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the
+     *     first element of the view.
+     * @param numberOfElements
+     *     The number of elements in the view.
+     */
+    private FloatArray(MemorySegment segmentWithHeader, long numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / FLOAT_BYTES;
+        segmentByteSize = segmentWithHeader.byteSize();
+        segment = segmentWithHeader;
+        markAsView(numberOfElements);
     }
 
     /**
@@ -82,9 +120,7 @@ public final class FloatArray extends TornadoNativeArray {
      */
     private static FloatArray createSegment(float[] values) {
         FloatArray array = new FloatArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        MemorySegment.copy(values, 0, array.segment, JAVA_FLOAT, TornadoNativeArray.ARRAY_HEADER, values.length);
         return array;
     }
 
@@ -119,7 +155,7 @@ public final class FloatArray extends TornadoNativeArray {
      */
     public static FloatArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / FLOAT_BYTES);
+        long numElements = byteSize / FLOAT_BYTES;
         FloatArray floatArray = new FloatArray(numElements);
         MemorySegment.copy(segment, 0, floatArray.segment, floatArray.baseIndex * FLOAT_BYTES, byteSize);
         return floatArray;
@@ -146,10 +182,8 @@ public final class FloatArray extends TornadoNativeArray {
      * @return A new on-heap float array, initialized with the values stored in the {@link FloatArray} instance.
      */
     public float[] toHeapArray() {
-        float[] outputArray = new float[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        float[] outputArray = new float[Math.toIntExact(numberOfElements)];
+        MemorySegment.copy(segment, JAVA_FLOAT, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
         return outputArray;
     }
 
@@ -162,6 +196,7 @@ public final class FloatArray extends TornadoNativeArray {
      *     The float value to store at the specified index.
      */
     public void set(int index, float value) {
+        markAsModified();
         segment.setAtIndex(JAVA_FLOAT, baseIndex + index, value);
     }
 
@@ -176,6 +211,30 @@ public final class FloatArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_FLOAT, baseIndex + index);
     }
 
+    /**
+     * Sets the float value at a specified 64-bit index of the {@link FloatArray} instance.
+     *
+     * @param index
+     *     The index at which to set the float value.
+     * @param value
+     *     The float value to store at the specified index.
+     */
+    public void set(long index, float value) {
+        markAsModified();
+        segment.setAtIndex(JAVA_FLOAT, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the float value stored at the specified 64-bit index of the {@link FloatArray} instance.
+     *
+     * @param index
+     *     The index of which to retrieve the float value.
+     * @return The float value at the specified index.
+     */
+    public float get(long index) {
+        return segment.getAtIndex(JAVA_FLOAT, baseIndex + index);
+    }
+
     /**
      * Sets all the values of the {@link FloatArray} instance to zero.
      */
@@ -196,18 +255,33 @@ public final class FloatArray extends TornadoNativeArray {
      *     The float value to initialize the {@link FloatArray} instance with.
      */
     public void init(float value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             segment.setAtIndex(JAVA_FLOAT, baseIndex + i, value);
         }
     }
 
     /**
-     * Returns the number of float elements stored in the {@link FloatArray} instance.
+     * Returns the number of float elements stored in the {@link FloatArray} instance. Arrays of more than
+     * {@link Integer#MAX_VALUE} elements must use {@link #getSizeAsLong()} instead.
      *
-     * @return
+     * @return The number of elements of the {@link FloatArray} instance.
+     * @throws ArithmeticException
+     *     if the number of elements does not fit in an int.
      */
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    /**
+     * Returns the number of float elements stored in the {@link FloatArray} instance as a long, which
+     * is required for arrays of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @return The number of elements of the {@link FloatArray} instance.
+     */
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -231,6 +305,11 @@ public final class FloatArray extends TornadoNativeArray {
         return segment;
     }
 
+    @Override
+    void detachSegment() {
+        segment = MemorySegment.NULL;
+    }
+
     /**
      * Returns the total number of bytes that the {@link MemorySegment}, associated with the {@link FloatArray} instance, occupies.
      *
@@ -275,7 +354,7 @@ public final class FloatArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static FloatArray concat(FloatArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(FloatArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(FloatArray::getSizeAsLong).sum();
         FloatArray concatArray = new FloatArray(newSize);
         long currentPositionBytes = 0;
         for (FloatArray array : arrays) {
@@ -286,26 +365,26 @@ public final class FloatArray extends TornadoNativeArray {
     }
 
     /**
-     * Extracts a slice of elements from a given {@link FloatArray}, creating a new {@link FloatArray} instance.
-     *
+     * Extracts a slice of elements from a given {@link FloatArray}. The slice is a view that shares the memory of
+     * the original array, so no elements are copied and updates to either array are visible in the other.
      *
      * @param offset
      *     The starting index from which to begin the slice, inclusive.
      * @param length
      *     The number of elements to include in the slice.
-     * @return A new {@link FloatArray} instance representing the specified slice of the original array.
+     * @return A {@link FloatArray} view of the specified slice of the original array.
      * @throws IllegalArgumentException
      *     if the specified slice is out of the bounds of the original array.
      */
     public FloatArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || (long) offset + length > numberOfElements) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * FLOAT_BYTES;
-        long sliceByteLength = length * FLOAT_BYTES;
-        MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
-        FloatArray slice = fromSegment(sliceSegment);
-        return slice;
+        // The view starts ARRAY_HEADER bytes before its first element, which is always within the parent segment
+        long sliceOffsetInBytes = (long) offset * FLOAT_BYTES;
+        long sliceByteLength = TornadoNativeArray.ARRAY_HEADER + (long) length * FLOAT_BYTES;
+        markAsSliced();
+        return new FloatArray(segment.asSlice(sliceOffsetInBytes, sliceByteLength), length);
     }
 }
@@ -17,11 +17,12 @@
  */
 package uk.ac.manchester.tornado.api.types.arrays;
 
-import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
 import static java.lang.foreign.ValueLayout.JAVA_SHORT;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.annotations.Parallel;
@@ -40,7 +41,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
     private static final int HALF_FLOAT_BYTES = 2;
     private MemorySegment segment;
 
-    private int numberOfElements;
+    private long numberOfElements;
 
     private int arrayHeaderSize;
 
@@ -54,14 +55,51 @@ public final class HalfFloatArray extends TornadoNativeArray {
      * @param numberOfElements
      *     The number of elements in the array.
      */
-    public HalfFloatArray(int numberOfElements) {
+    public HalfFloatArray(long numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    /**
+     * Constructs a new instance of the {@link HalfFloatArray} that will store a user-specified number of elements, allocated
+     * with the given {@link SegmentAllocator}. The allocator can be an {@link Arena}, in which case the memory of the
+     * array is freed when the arena is closed, or a {@link NativeArrayPool}, in which case the memory returns to the
+     * pool when the array is {@link #release() released}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The {@link SegmentAllocator} that allocates the memory of the array.
+     */
+    public HalfFloatArray(long numberOfElements, SegmentAllocator allocator) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / HALF_FLOAT_BYTES;
         segmentByteSize = numberOfElements * HALF_FLOAT_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment = allocator.allocate(segmentByteSize, 1);
+        segment.set(JAVA_LONG, 0, numberOfElements);
+        if (allocator instanceof NativeArrayPool pool) {
+            setPool(pool);
+        }
+    }
+
+    /**
+     * Constructs a view of {@code numberOfElements} elements over the segment of
+     * another {@link HalfFloatArray}.
+     *
+     * @param segmentWithHeader
+     *     Slice of the segment of the parent array that starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the
+     *     first element of the view.
+     * @param numberOfElements
+     *     The number of elements in the view.
+     */
+    private HalfFloatArray(MemorySegment segmentWithHeader, long numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / HALF_FLOAT_BYTES;
+        segmentByteSize = segmentWithHeader.byteSize();
+        segment = segmentWithHeader;
+        markAsView(numberOfElements);
     }
 
     /**
@@ -100,6 +138,20 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return createSegment(values);
     }
 
+    /**
+     * Creates a new instance of the {@link HalfFloatArray} class from an on-heap short array that stores the
+     * half-float values in their 16-bit representation.
+     *
+     * @param values
+     *     The on-heap short array to create the instance from.
+     * @return A new {@link HalfFloatArray} instance, initialized with values of the on-heap short array.
+     */
+    public static HalfFloatArray fromShortArray(short[] values) {
+        HalfFloatArray array = new HalfFloatArray(values.length);
+        MemorySegment.copy(values, 0, array.segment, JAVA_SHORT, TornadoNativeArray.ARRAY_HEADER, values.length);
+        return array;
+    }
+
     /**
      * Creates a new instance of the {@link HalfFloatArray} class from a set of {@link HalfFloat} values.
      *
@@ -120,7 +172,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      */
     public static HalfFloatArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / HALF_FLOAT_BYTES);
+        long numElements = byteSize / HALF_FLOAT_BYTES;
         HalfFloatArray halfFloatArray = new HalfFloatArray(numElements);
         MemorySegment.copy(segment, 0, halfFloatArray.segment, (long) halfFloatArray.baseIndex * HALF_FLOAT_BYTES, byteSize);
         return halfFloatArray;
@@ -133,7 +185,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      * @return A new on-heap {@link HalfFloat} array, initialized with the values stored in the {@link HalfFloatArray} instance.
      */
     public HalfFloat[] toHeapArray() {
-        HalfFloat[] outputArray = new HalfFloat[getSize()];
+        HalfFloat[] outputArray = new HalfFloat[Math.toIntExact(numberOfElements)];
         for (int i = 0; i < getSize(); i++) {
             outputArray[i] = get(i);
         }
@@ -148,10 +200,8 @@ public final class HalfFloatArray extends TornadoNativeArray {
      * @return A new on-heap short array, initialized with the values stored in the {@link HalfFloatArray} instance.
      */
     public short[] toShortArray() {
-        short[] outputArray = new short[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i).getHalfFloatValue();
-        }
+        short[] outputArray = new short[Math.toIntExact(numberOfElements)];
+        MemorySegment.copy(segment, JAVA_SHORT, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
         return outputArray;
     }
 
@@ -164,6 +214,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      *     The {@link HalfFloat} value to store at the specified index.
      */
     public void set(int index, HalfFloat value) {
+        markAsModified();
         segment.setAtIndex(JAVA_SHORT, baseIndex + index, value.getHalfFloatValue());
     }
 
@@ -179,6 +230,31 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return new HalfFloat(halfFloatValue);
     }
 
+    /**
+     * Sets the {@link HalfFloat} value at a specified 64-bit index of the {@link HalfFloatArray} instance.
+     *
+     * @param index
+     *     The index at which to set the {@link HalfFloat} value.
+     * @param value
+     *     The {@link HalfFloat} value to store at the specified index.
+     */
+    public void set(long index, HalfFloat value) {
+        markAsModified();
+        segment.setAtIndex(JAVA_SHORT, baseIndex + index, value.getHalfFloatValue());
+    }
+
+    /**
+     * Gets the {@link HalfFloat} value stored at the specified 64-bit index of the {@link HalfFloatArray} instance.
+     *
+     * @param index
+     *     The index of which to retrieve the {@link HalfFloat} value.
+     * @return The {@link HalfFloat} value at the specified index.
+     */
+    public HalfFloat get(long index) {
+        short halfFloatValue = segment.getAtIndex(JAVA_SHORT, baseIndex + index);
+        return new HalfFloat(halfFloatValue);
+    }
+
     /**
      * Sets all the values of the {@link HalfFloatArray} instance to zero.
      */
@@ -199,18 +275,33 @@ public final class HalfFloatArray extends TornadoNativeArray {
      *     The {@link HalfFloat} value to initialize the {@link HalfFloatArray} instance with.
      */
     public void init(HalfFloat value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             segment.setAtIndex(JAVA_SHORT, baseIndex + i, value.getHalfFloatValue());
         }
     }
 
     /**
-     * Returns the number of half float elements stored in the {@link HalfFloatArray} instance.
+     * Returns the number of half float elements stored in the {@link HalfFloatArray} instance. Arrays of more than
+     * {@link Integer#MAX_VALUE} elements must use {@link #getSizeAsLong()} instead.
      *
-     * @return
+     * @return The number of elements of the {@link HalfFloatArray} instance.
+     * @throws ArithmeticException
+     *     if the number of elements does not fit in an int.
      */
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    /**
+     * Returns the number of half float elements stored in the {@link HalfFloatArray} instance as a long, which
+     * is required for arrays of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @return The number of elements of the {@link HalfFloatArray} instance.
+     */
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -234,6 +325,11 @@ public final class HalfFloatArray extends TornadoNativeArray {
         return segment;
     }
 
+    @Override
+    void detachSegment() {
+        segment = MemorySegment.NULL;
+    }
+
     /**
      * Returns the total number of bytes that the {@link MemorySegment}, associated with the {@link HalfFloatArray} instance, occupies.
      *
@@ -278,7 +374,7 @@ public final class HalfFloatArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static HalfFloatArray concat(HalfFloatArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(HalfFloatArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(HalfFloatArray::getSizeAsLong).sum();
         HalfFloatArray concatArray = new HalfFloatArray(newSize);
         long currentPositionBytes = 0;
         for (HalfFloatArray array : arrays) {
@@ -289,27 +385,27 @@ public final class HalfFloatArray extends TornadoNativeArray {
     }
 
     /**
-     * Extracts a slice of elements from a given {@linkHalfFloatArray}, creating a new {@linkHalfFloatArray} instance.
-     *
+     * Extracts a slice of elements from a given {@link HalfFloatArray}. The slice is a view that shares the memory of
+     * the original array, so no elements are copied and updates to either array are visible in the other.
      *
      * @param offset
      *     The starting index from which to begin the slice, inclusive.
      * @param length
      *     The number of elements to include in the slice.
-     * @return A new {@linkHalfFloatArray} instance representing the specified slice of the original array.
+     * @return A {@link HalfFloatArray} view of the specified slice of the original array.
      * @throws IllegalArgumentException
      *     if the specified slice is out of the bounds of the original array.
      */
     public HalfFloatArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || (long) offset + length > numberOfElements) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * HALF_FLOAT_BYTES;
-        long sliceByteLength = length * HALF_FLOAT_BYTES;
-        MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
-        HalfFloatArray slice = fromSegment(sliceSegment);
-        return slice;
+        // The view starts ARRAY_HEADER bytes before its first element, which is always within the parent segment
+        long sliceOffsetInBytes = (long) offset * HALF_FLOAT_BYTES;
+        long sliceByteLength = TornadoNativeArray.ARRAY_HEADER + (long) length * HALF_FLOAT_BYTES;
+        markAsSliced();
+        return new HalfFloatArray(segment.asSlice(sliceOffsetInBytes, sliceByteLength), length);
     }
 
 }
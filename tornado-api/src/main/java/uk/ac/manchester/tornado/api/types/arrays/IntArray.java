@@ -18,9 +18,11 @@
 package uk.ac.manchester.tornado.api.types.arrays;
 
 import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.IntBuffer;
 import java.util.Arrays;
 
@@ -36,7 +38,7 @@ import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 @SegmentElementSize(size = 4)
 public final class IntArray extends TornadoNativeArray {
     private static final int INT_BYTES = 4;
-    private int numberOfElements;
+    private long numberOfElements;
     private MemorySegment segment;
     private int arrayHeaderSize;
 
@@ -50,14 +52,51 @@ public final class IntArray extends TornadoNativeArray {
      * @param numberOfElements
      *     The number of elements in the array.
      */
-    public IntArray(int numberOfElements) {
+    public IntArray(long numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    /**
+     * Constructs a new instance of the {@link IntArray} that will store a user-specified number of elements, allocated
+     * with the given {@link SegmentAllocator}. The allocator can be an {@link Arena}, in which case the memory of the
+     * array is freed when the arena is closed, or a {@link NativeArrayPool}, in which case the memory returns to the
+     * pool when the array is {@link #release() released}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The {@link SegmentAllocator} that allocates the memory of the array.
+     */
+    public IntArray(long numberOfElements, SegmentAllocator allocator) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / INT_BYTES;
         segmentByteSize = numberOfElements * INT_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment = allocator.allocate(segmentByteSize, 1);
+        segment.set(JAVA_LONG, 0, numberOfElements);
+        if (allocator instanceof NativeArrayPool pool) {
+            setPool(pool);
+        }
+    }
+
+    /**
+     * Constructs a view of {@code numberOfElements} elements over the segment of
+     * another {@link IntArray}.
+     *
+     * @param segmentWithHeader
+     *     Slice of the segment of the parent array that starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the
+     *     first element of the view.
+     * @param numberOfElements
+     *     The number of elements in the view.
+     */
+    private IntArray(MemorySegment segmentWithHeader, long numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / INT_BYTES;
+        segmentByteSize = segmentWithHeader.byteSize();
+        segment = segmentWithHeader;
+        markAsView(numberOfElements);
     }
 
     /**
@@ -79,9 +118,7 @@ public final class IntArray extends TornadoNativeArray {
      */
     private static IntArray createSegment(int[] values) {
         IntArray array = new IntArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        MemorySegment.copy(values, 0, array.segment, JAVA_INT, TornadoNativeArray.ARRAY_HEADER, values.length);
         return array;
     }
 
@@ -116,7 +153,7 @@ public final class IntArray extends TornadoNativeArray {
      */
     public static IntArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / INT_BYTES);
+        long numElements = byteSize / INT_BYTES;
         IntArray intArray = new IntArray(numElements);
         MemorySegment.copy(segment, 0, intArray.segment, intArray.baseIndex * INT_BYTES, byteSize);
         return intArray;
@@ -143,10 +180,8 @@ public final class IntArray extends TornadoNativeArray {
      * @return A new on-heap int array, initialized with the values stored in the {@link IntArray} instance.
      */
     public int[] toHeapArray() {
-        int[] outputArray = new int[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        int[] outputArray = new int[Math.toIntExact(numberOfElements)];
+        MemorySegment.copy(segment, JAVA_INT, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
         return outputArray;
     }
 
@@ -159,6 +194,7 @@ public final class IntArray extends TornadoNativeArray {
      *     The int value to store at the specified index.
      */
     public void set(int index, int value) {
+        markAsModified();
         segment.setAtIndex(JAVA_INT, baseIndex + index, value);
     }
 
@@ -173,6 +209,30 @@ public final class IntArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_INT, baseIndex + index);
     }
 
+    /**
+     * Sets the int value at a specified 64-bit index of the {@link IntArray} instance.
+     *
+     * @param index
+     *     The index at which to set the int value.
+     * @param value
+     *     The int value to store at the specified index.
+     */
+    public void set(long index, int value) {
+        markAsModified();
+        segment.setAtIndex(JAVA_INT, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the int value stored at the specified 64-bit index of the {@link IntArray} instance.
+     *
+     * @param index
+     *     The index of which to retrieve the int value.
+     * @return The int value at the specified index.
+     */
+    public int get(long index) {
+        return segment.getAtIndex(JAVA_INT, baseIndex + index);
+    }
+
     /**
      * Sets all the values of the {@link IntArray} instance to zero.
      */
@@ -193,18 +253,33 @@ public final class IntArray extends TornadoNativeArray {
      *     The int value to initialize the {@link IntArray} instance with.
      */
     public void init(int value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             segment.setAtIndex(JAVA_INT, baseIndex + i, value);
         }
     }
 
     /**
-     * Returns the number of int elements stored in the {@link IntArray} instance.
+     * Returns the number of int elements stored in the {@link IntArray} instance. Arrays of more than
+     * {@link Integer#MAX_VALUE} elements must use {@link #getSizeAsLong()} instead.
      *
-     * @return
+     * @return The number of elements of the {@link IntArray} instance.
+     * @throws ArithmeticException
+     *     if the number of elements does not fit in an int.
      */
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    /**
+     * Returns the number of int elements stored in the {@link IntArray} instance as a long, which
+     * is required for arrays of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @return The number of elements of the {@link IntArray} instance.
+     */
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -249,6 +324,11 @@ public final class IntArray extends TornadoNativeArray {
         return segment;
     }
 
+    @Override
+    void detachSegment() {
+        segment = MemorySegment.NULL;
+    }
+
     /**
      * Factory method to initialize a {@link IntArray}. This method can be invoked from a Task-Graph.
      *
@@ -272,7 +352,7 @@ public final class IntArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static IntArray concat(IntArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(IntArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(IntArray::getSizeAsLong).sum();
         IntArray concatArray = new IntArray(newSize);
         long currentPositionBytes = 0;
         for (IntArray array : arrays) {
@@ -283,26 +363,26 @@ public final class IntArray extends TornadoNativeArray {
     }
 
     /**
-     * Extracts a slice of elements from a given {@linkIntArray}, creating a new {@linkIntArray} instance.
-     *
+     * Extracts a slice of elements from a given {@link IntArray}. The slice is a view that shares the memory of
+     * the original array, so no elements are copied and updates to either array are visible in the other.
      *
      * @param offset
      *     The starting index from which to begin the slice, inclusive.
      * @param length
      *     The number of elements to include in the slice.
-     * @return A new {@linkIntArray} instance representing the specified slice of the original array.
+     * @return A {@link IntArray} view of the specified slice of the original array.
      * @throws IllegalArgumentException
      *     if the specified slice is out of the bounds of the original array.
      */
     public IntArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || (long) offset + length > numberOfElements) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * INT_BYTES;
-        long sliceByteLength = length * INT_BYTES;
-        MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
-        IntArray slice = fromSegment(sliceSegment);
-        return slice;
+        // The view starts ARRAY_HEADER bytes before its first element, which is always within the parent segment
+        long sliceOffsetInBytes = (long) offset * INT_BYTES;
+        long sliceByteLength = TornadoNativeArray.ARRAY_HEADER + (long) length * INT_BYTES;
+        markAsSliced();
+        return new IntArray(segment.asSlice(sliceOffsetInBytes, sliceByteLength), length);
     }
 }
@@ -17,11 +17,11 @@
  */
 package uk.ac.manchester.tornado.api.types.arrays;
 
-import static java.lang.foreign.ValueLayout.JAVA_INT;
 import static java.lang.foreign.ValueLayout.JAVA_LONG;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.LongBuffer;
 import java.util.Arrays;
 
@@ -38,7 +38,7 @@ import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 public final class LongArray extends TornadoNativeArray {
     private static final int LONG_BYTES = 8;
     private MemorySegment segment;
-    private int numberOfElements;
+    private long numberOfElements;
     private int arrayHeaderSize;
 
     private int baseIndex;
@@ -51,14 +51,51 @@ public final class LongArray extends TornadoNativeArray {
      * @param numberOfElements
      *     The number of elements in the array.
      */
-    public LongArray(int numberOfElements) {
+    public LongArray(long numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    /**
+     * Constructs a new instance of the {@link LongArray} that will store a user-specified number of elements, allocated
+     * with the given {@link SegmentAllocator}. The allocator can be an {@link Arena}, in which case the memory of the
+     * array is freed when the arena is closed, or a {@link NativeArrayPool}, in which case the memory returns to the
+     * pool when the array is {@link #release() released}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The {@link SegmentAllocator} that allocates the memory of the array.
+     */
+    public LongArray(long numberOfElements, SegmentAllocator allocator) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         baseIndex = arrayHeaderSize / LONG_BYTES;
 
         segmentByteSize = numberOfElements * LONG_BYTES + arrayHeaderSize;
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment = allocator.allocate(segmentByteSize, 1);
+        segment.set(JAVA_LONG, 0, numberOfElements);
+        if (allocator instanceof NativeArrayPool pool) {
+            setPool(pool);
+        }
+    }
+
+    /**
+     * Constructs a view of {@code numberOfElements} elements over the segment of
+     * another {@link LongArray}.
+     *
+     * @param segmentWithHeader
+     *     Slice of the segment of the parent array that starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the
+     *     first element of the view.
+     * @param numberOfElements
+     *     The number of elements in the view.
+     */
+    private LongArray(MemorySegment segmentWithHeader, long numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / LONG_BYTES;
+        segmentByteSize = segmentWithHeader.byteSize();
+        segment = segmentWithHeader;
+        markAsView(numberOfElements);
     }
 
     /**
@@ -80,9 +117,7 @@ public final class LongArray extends TornadoNativeArray {
      */
     private static LongArray createSegment(long[] values) {
         LongArray array = new LongArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        MemorySegment.copy(values, 0, array.segment, JAVA_LONG, TornadoNativeArray.ARRAY_HEADER, values.length);
         return array;
     }
 
@@ -117,7 +152,7 @@ public final class LongArray extends TornadoNativeArray {
      */
     public static LongArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / LONG_BYTES);
+        long numElements = byteSize / LONG_BYTES;
         LongArray longArray = new LongArray(numElements);
         MemorySegment.copy(segment, 0, longArray.segment, longArray.baseIndex * LONG_BYTES, byteSize);
         return longArray;
@@ -144,10 +179,8 @@ public final class LongArray extends TornadoNativeArray {
      * @return A new on-heap long array, initialized with the values stored in the {@link LongArray} instance.
      */
     public long[] toHeapArray() {
-        long[] outputArray = new long[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        long[] outputArray = new long[Math.toIntExact(numberOfElements)];
+        MemorySegment.copy(segment, JAVA_LONG, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
         return outputArray;
     }
 
@@ -160,6 +193,7 @@ public final class LongArray extends TornadoNativeArray {
      *     The long value to store at the specified index.
      */
     public void set(int index, long value) {
+        markAsModified();
         segment.setAtIndex(JAVA_LONG, baseIndex + index, value);
     }
 
@@ -174,6 +208,30 @@ public final class LongArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_LONG, baseIndex + index);
     }
 
+    /**
+     * Sets the long value at a specified 64-bit index of the {@link LongArray} instance.
+     *
+     * @param index
+     *     The index at which to set the long value.
+     * @param value
+     *     The long value to store at the specified index.
+     */
+    public void set(long index, long value) {
+        markAsModified();
+        segment.setAtIndex(JAVA_LONG, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the long value stored at the specified 64-bit index of the {@link LongArray} instance.
+     *
+     * @param index
+     *     The index of which to retrieve the long value.
+     * @return The long value at the specified index.
+     */
+    public long get(long index) {
+        return segment.getAtIndex(JAVA_LONG, baseIndex + index);
+    }
+
     /**
      * Sets all the values of the {@link LongArray} instance to zero.
      */
@@ -194,18 +252,33 @@ public final class LongArray extends TornadoNativeArray {
      *     The long value to initialize the {@link LongArray} instance with.
      */
     public void init(long value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             segment.setAtIndex(JAVA_LONG, baseIndex + i, value);
         }
     }
 
     /**
-     * Returns the number of long elements stored in the {@link LongArray} instance.
+     * Returns the number of long elements stored in the {@link LongArray} instance. Arrays of more than
+     * {@link Integer#MAX_VALUE} elements must use {@link #getSizeAsLong()} instead.
      *
-     * @return
+     * @return The number of elements of the {@link LongArray} instance.
+     * @throws ArithmeticException
+     *     if the number of elements does not fit in an int.
      */
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    /**
+     * Returns the number of long elements stored in the {@link LongArray} instance as a long, which
+     * is required for arrays of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @return The number of elements of the {@link LongArray} instance.
+     */
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -229,6 +302,11 @@ public final class LongArray extends TornadoNativeArray {
         return segment;
     }
 
+    @Override
+    void detachSegment() {
+        segment = MemorySegment.NULL;
+    }
+
     /**
      * Returns the total number of bytes that the {@link MemorySegment}, associated with the {@link LongArray} instance, occupies.
      *
@@ -273,7 +351,7 @@ public final class LongArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static LongArray concat(LongArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(LongArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(LongArray::getSizeAsLong).sum();
         LongArray concatArray = new LongArray(newSize);
         long currentPositionBytes = 0;
         for (LongArray array : arrays) {
@@ -284,26 +362,26 @@ public final class LongArray extends TornadoNativeArray {
     }
 
     /**
-     * Extracts a slice of elements from a given {@link LongArray}, creating a new {@link LongArray} instance.
-     *
+     * Extracts a slice of elements from a given {@link LongArray}. The slice is a view that shares the memory of
+     * the original array, so no elements are copied and updates to either array are visible in the other.
      *
      * @param offset
      *     The starting index from which to begin the slice, inclusive.
      * @param length
      *     The number of elements to include in the slice.
-     * @return A new {@link LongArray} instance representing the specified slice of the original array.
+     * @return A {@link LongArray} view of the specified slice of the original array.
      * @throws IllegalArgumentException
      *     if the specified slice is out of the bounds of the original array.
      */
     public LongArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || (long) offset + length > numberOfElements) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * LONG_BYTES;
-        long sliceByteLength = length * LONG_BYTES;
-        MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
-        LongArray slice = fromSegment(sliceSegment);
-        return slice;
+        // The view starts ARRAY_HEADER bytes before its first element, which is always within the parent segment
+        long sliceOffsetInBytes = (long) offset * LONG_BYTES;
+        long sliceByteLength = TornadoNativeArray.ARRAY_HEADER + (long) length * LONG_BYTES;
+        markAsSliced();
+        return new LongArray(segment.asSlice(sliceOffsetInBytes, sliceByteLength), length);
     }
 }
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.api.types.arrays;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of off-heap memory blocks for the TornadoVM native arrays. Memory is
+ * allocated in blocks whose size is a power of two, and blocks that are
+ * released are kept by the pool and reused by later allocations of the same
+ * size class, so short-lived arrays of common sizes do not allocate and free
+ * native memory every time.
+ *
+ * <p>
+ * Unlike arrays allocated with {@link Arena#ofAuto()}, whose memory is freed
+ * when the garbage collector reclaims them, the memory of a pooled array is
+ * returned to the pool as soon as {@link TornadoNativeArray#release()} is
+ * called. The pool keeps up to a maximum number of bytes in released blocks,
+ * and frees the blocks that do not fit. Closing the pool frees all the blocks
+ * it keeps; blocks still in use are freed when they are released.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * try (NativeArrayPool pool = new NativeArrayPool()) {
+ *     FloatArray array = new FloatArray(1024, pool);
+ *     ...
+ *     array.release();
+ * }
+ * </pre>
+ */
+public final class NativeArrayPool implements SegmentAllocator, AutoCloseable {
+
+    /**
+     * Default number of bytes that a pool keeps in released blocks.
+     */
+    public static final long DEFAULT_MAX_CACHED_BYTES = 256L * 1024 * 1024;
+
+    /**
+     * Size class of the smallest block (4 KB). Blocks are aligned to this size.
+     */
+    private static final int MIN_SIZE_CLASS = 12;
+
+    private static final long BLOCK_ALIGNMENT = 1L << MIN_SIZE_CLASS;
+
+    private final long maxCachedBytes;
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentLinkedDeque<Block>[] freeBlocks = new ConcurrentLinkedDeque[Long.SIZE];
+
+    /**
+     * Blocks in use, indexed by the address of their segment.
+     */
+    private final ConcurrentHashMap<Long, Block> usedBlocks = new ConcurrentHashMap<>();
+
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private volatile boolean closed;
+
+    private record Block(Arena arena, MemorySegment segment, int sizeClass) {
+    }
+
+    /**
+     * Creates a pool that keeps up to {@link #DEFAULT_MAX_CACHED_BYTES} bytes in
+     * released blocks.
+     */
+    public NativeArrayPool() {
+        this(DEFAULT_MAX_CACHED_BYTES);
+    }
+
+    /**
+     * Creates a pool that keeps up to {@code maxCachedBytes} bytes in released
+     * blocks.
+     *
+     * @param maxCachedBytes
+     *     Maximum number of bytes kept in released blocks.
+     */
+    public NativeArrayPool(long maxCachedBytes) {
+        if (maxCachedBytes < 0) {
+            throw new IllegalArgumentException("The maximum number of cached bytes must be positive");
+        }
+        this.maxCachedBytes = maxCachedBytes;
+        for (int i = 0; i < freeBlocks.length; i++) {
+            freeBlocks[i] = new ConcurrentLinkedDeque<>();
+        }
+    }
+
+    private static int sizeClass(long byteSize) {
+        return Math.max(MIN_SIZE_CLASS, Long.SIZE - Long.numberOfLeadingZeros(Math.max(byteSize, 1) - 1));
+    }
+
+    /**
+     * Allocates a zero-initialized segment of {@code byteSize} bytes from a block
+     * of the pool. The segment must be returned to the pool with
+     * {@link #free(MemorySegment)}, which {@link TornadoNativeArray#release()} does
+     * for the native arrays.
+     *
+     * @param byteSize
+     *     Size of the segment in bytes.
+     * @param byteAlignment
+     *     Alignment of the segment. Up to 4096 bytes are supported.
+     * @return A {@link MemorySegment}.
+     */
+    @Override
+    public MemorySegment allocate(long byteSize, long byteAlignment) {
+        if (closed) {
+            throw new IllegalStateException("The pool is closed");
+        }
+        if (byteAlignment > BLOCK_ALIGNMENT) {
+            throw new IllegalArgumentException(STR."Alignments larger than \{BLOCK_ALIGNMENT} bytes are not supported");
+        }
+        final int sizeClass = sizeClass(byteSize);
+        Block block = freeBlocks[sizeClass].pollFirst();
+        if (block != null) {
+            cachedBytes.addAndGet(-block.segment().byteSize());
+            block.segment().fill((byte) 0);
+        } else {
+            Arena arena = Arena.ofShared();
+            block = new Block(arena, arena.allocate(1L << sizeClass, BLOCK_ALIGNMENT), sizeClass);
+            allocatedBytes.addAndGet(block.segment().byteSize());
+        }
+        usedBlocks.put(block.segment().address(), block);
+        return block.segment().asSlice(0, byteSize);
+    }
+
+    /**
+     * Returns a segment allocated by this pool. The segment must not be used
+     * after this call.
+     *
+     * @param segment
+     *     Segment returned by {@link #allocate(long, long)}.
+     * @return true if the segment was allocated by this pool and is now free.
+     */
+    public boolean free(MemorySegment segment) {
+        final Block block = usedBlocks.remove(segment.address());
+        if (block == null) {
+            return false;
+        }
+        final long size = block.segment().byteSize();
+        boolean cached = false;
+        if (!closed) {
+            if (cachedBytes.addAndGet(size) <= maxCachedBytes) {
+                freeBlocks[block.sizeClass()].offerFirst(block);
+                cached = true;
+            } else {
+                cachedBytes.addAndGet(-size);
+            }
+        }
+        if (!cached) {
+            freeBlock(block);
+        } else if (closed) {
+            // The pool was closed while the block was returned
+            trim();
+        }
+        return true;
+    }
+
+    private void freeBlock(Block block) {
+        allocatedBytes.addAndGet(-block.segment().byteSize());
+        block.arena().close();
+    }
+
+    /**
+     * Frees all the released blocks kept by the pool.
+     */
+    public void trim() {
+        for (ConcurrentLinkedDeque<Block> blocks : freeBlocks) {
+            Block block;
+            while ((block = blocks.pollFirst()) != null) {
+                cachedBytes.addAndGet(-block.segment().byteSize());
+                freeBlock(block);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes of native memory allocated by the pool, both in
+     * use and kept in released blocks.
+     *
+     * @return Number of bytes.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    /**
+     * Returns the number of bytes kept by the pool in released blocks.
+     *
+     * @return Number of bytes.
+     */
+    public long getCachedBytes() {
+        return cachedBytes.get();
+    }
+
+    /**
+     * Closes the pool and frees all the released blocks it keeps. Blocks in use
+     * are freed when their arrays are released. No further allocations are
+     * allowed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        trim();
+    }
+}
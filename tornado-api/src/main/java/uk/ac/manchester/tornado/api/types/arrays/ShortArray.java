@@ -17,11 +17,12 @@
  */
 package uk.ac.manchester.tornado.api.types.arrays;
 
-import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
 import static java.lang.foreign.ValueLayout.JAVA_SHORT;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.nio.ShortBuffer;
 import java.util.Arrays;
 
@@ -38,7 +39,7 @@ import uk.ac.manchester.tornado.api.internal.annotations.SegmentElementSize;
 public final class ShortArray extends TornadoNativeArray {
     private static final int SHORT_BYTES = 2;
     private MemorySegment segment;
-    private int numberOfElements;
+    private long numberOfElements;
     private int arrayHeaderSize;
 
     private int baseIndex;
@@ -51,15 +52,52 @@ public final class ShortArray extends TornadoNativeArray {
      * @param numberOfElements
      *     The number of elements in the array.
      */
-    public ShortArray(int numberOfElements) {
+    public ShortArray(long numberOfElements) {
+        this(numberOfElements, Arena.ofAuto());
+    }
+
+    /**
+     * Constructs a new instance of the {@link ShortArray} that will store a user-specified number of elements, allocated
+     * with the given {@link SegmentAllocator}. The allocator can be an {@link Arena}, in which case the memory of the
+     * array is freed when the arena is closed, or a {@link NativeArrayPool}, in which case the memory returns to the
+     * pool when the array is {@link #release() released}.
+     *
+     * @param numberOfElements
+     *     The number of elements in the array.
+     * @param allocator
+     *     The {@link SegmentAllocator} that allocates the memory of the array.
+     */
+    public ShortArray(long numberOfElements, SegmentAllocator allocator) {
         this.numberOfElements = numberOfElements;
         arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
         assert arrayHeaderSize >= 4;
         baseIndex = arrayHeaderSize / SHORT_BYTES;
         segmentByteSize = numberOfElements * SHORT_BYTES + arrayHeaderSize;
 
-        segment = Arena.ofAuto().allocate(segmentByteSize, 1);
-        segment.setAtIndex(JAVA_INT, 0, numberOfElements);
+        segment = allocator.allocate(segmentByteSize, 1);
+        segment.set(JAVA_LONG, 0, numberOfElements);
+        if (allocator instanceof NativeArrayPool pool) {
+            setPool(pool);
+        }
+    }
+
+    /**
+     * Constructs a view of {@code numberOfElements} elements over the segment of
+     * another {@link ShortArray}.
+     *
+     * @param segmentWithHeader
+     *     Slice of the segment of the parent array that starts {@link TornadoNativeArray#ARRAY_HEADER} bytes before the
+     *     first element of the view.
+     * @param numberOfElements
+     *     The number of elements in the view.
+     */
+    private ShortArray(MemorySegment segmentWithHeader, long numberOfElements) {
+        this.numberOfElements = numberOfElements;
+        arrayHeaderSize = (int) TornadoNativeArray.ARRAY_HEADER;
+        baseIndex = arrayHeaderSize / SHORT_BYTES;
+        segmentByteSize = segmentWithHeader.byteSize();
+        segment = segmentWithHeader;
+        markAsView(numberOfElements);
     }
 
     /**
@@ -81,9 +119,7 @@ public final class ShortArray extends TornadoNativeArray {
      */
     private static ShortArray createSegment(short[] values) {
         ShortArray array = new ShortArray(values.length);
-        for (int i = 0; i < values.length; i++) {
-            array.set(i, values[i]);
-        }
+        MemorySegment.copy(values, 0, array.segment, JAVA_SHORT, TornadoNativeArray.ARRAY_HEADER, values.length);
         return array;
     }
 
@@ -118,7 +154,7 @@ public final class ShortArray extends TornadoNativeArray {
      */
     public static ShortArray fromSegment(MemorySegment segment) {
         long byteSize = segment.byteSize();
-        int numElements = (int) (byteSize / SHORT_BYTES);
+        long numElements = byteSize / SHORT_BYTES;
         ShortArray shortArray = new ShortArray(numElements);
         MemorySegment.copy(segment, 0, shortArray.segment, shortArray.baseIndex * SHORT_BYTES, byteSize);
         return shortArray;
@@ -145,10 +181,8 @@ public final class ShortArray extends TornadoNativeArray {
      * @return A new on-heap short array, initialized with the values stored in the {@link ShortArray} instance.
      */
     public short[] toHeapArray() {
-        short[] outputArray = new short[getSize()];
-        for (int i = 0; i < getSize(); i++) {
-            outputArray[i] = get(i);
-        }
+        short[] outputArray = new short[Math.toIntExact(numberOfElements)];
+        MemorySegment.copy(segment, JAVA_SHORT, TornadoNativeArray.ARRAY_HEADER, outputArray, 0, outputArray.length);
         return outputArray;
     }
 
@@ -161,6 +195,7 @@ public final class ShortArray extends TornadoNativeArray {
      *     The short value to store at the specified index.
      */
     public void set(int index, short value) {
+        markAsModified();
         segment.setAtIndex(JAVA_SHORT, baseIndex + index, value);
     }
 
@@ -175,6 +210,30 @@ public final class ShortArray extends TornadoNativeArray {
         return segment.getAtIndex(JAVA_SHORT, baseIndex + index);
     }
 
+    /**
+     * Sets the short value at a specified 64-bit index of the {@link ShortArray} instance.
+     *
+     * @param index
+     *     The index at which to set the short value.
+     * @param value
+     *     The short value to store at the specified index.
+     */
+    public void set(long index, short value) {
+        markAsModified();
+        segment.setAtIndex(JAVA_SHORT, baseIndex + index, value);
+    }
+
+    /**
+     * Gets the short value stored at the specified 64-bit index of the {@link ShortArray} instance.
+     *
+     * @param index
+     *     The index of which to retrieve the short value.
+     * @return The short value at the specified index.
+     */
+    public short get(long index) {
+        return segment.getAtIndex(JAVA_SHORT, baseIndex + index);
+    }
+
     /**
      * Sets all the values of the {@link ShortArray} instance to zero.
      */
@@ -195,18 +254,33 @@ public final class ShortArray extends TornadoNativeArray {
      *     The short value to initialize the {@link ShortArray} instance with.
      */
     public void init(short value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             segment.setAtIndex(JAVA_SHORT, baseIndex + i, value);
         }
     }
 
     /**
-     * Returns the number of short elements stored in the {@link ShortArray} instance.
+     * Returns the number of short elements stored in the {@link ShortArray} instance. Arrays of more than
+     * {@link Integer#MAX_VALUE} elements must use {@link #getSizeAsLong()} instead.
      *
-     * @return
+     * @return The number of elements of the {@link ShortArray} instance.
+     * @throws ArithmeticException
+     *     if the number of elements does not fit in an int.
      */
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    /**
+     * Returns the number of short elements stored in the {@link ShortArray} instance as a long, which
+     * is required for arrays of more than {@link Integer#MAX_VALUE} elements.
+     *
+     * @return The number of elements of the {@link ShortArray} instance.
+     */
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -230,6 +304,11 @@ public final class ShortArray extends TornadoNativeArray {
         return segment;
     }
 
+    @Override
+    void detachSegment() {
+        segment = MemorySegment.NULL;
+    }
+
     /**
      * Returns the total number of bytes that the {@link MemorySegment}, associated with the {@link ShortArray} instance, occupies.
      *
@@ -274,7 +353,7 @@ public final class ShortArray extends TornadoNativeArray {
      *     concatenated in the order they were provided.
      */
     public static ShortArray concat(ShortArray... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(ShortArray::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(ShortArray::getSizeAsLong).sum();
         ShortArray concatArray = new ShortArray(newSize);
         long currentPositionBytes = 0;
         for (ShortArray array : arrays) {
@@ -285,25 +364,26 @@ public final class ShortArray extends TornadoNativeArray {
     }
 
     /**
-     * Extracts a slice of elements from a given {@link ShortArray}, creating a new {@link ShortArray} instance.
+     * Extracts a slice of elements from a given {@link ShortArray}. The slice is a view that shares the memory of
+     * the original array, so no elements are copied and updates to either array are visible in the other.
      *
      * @param offset
      *     The starting index from which to begin the slice, inclusive.
      * @param length
      *     The number of elements to include in the slice.
-     * @return A new {@link ShortArray} instance representing the specified slice of the original array.
+     * @return A {@link ShortArray} view of the specified slice of the original array.
      * @throws IllegalArgumentException
      *     if the specified slice is out of the bounds of the original array.
      */
     public ShortArray slice(int offset, int length) {
-        if (offset < 0 || length < 0 || offset + length > getSize()) {
+        if (offset < 0 || length < 0 || (long) offset + length > numberOfElements) {
             throw new IllegalArgumentException("Slice out of bounds");
         }
 
-        long sliceOffsetInBytes = TornadoNativeArray.ARRAY_HEADER + offset * SHORT_BYTES;
-        long sliceByteLength = length * SHORT_BYTES;
-        MemorySegment sliceSegment = segment.asSlice(sliceOffsetInBytes, sliceByteLength);
-        ShortArray slice = fromSegment(sliceSegment);
-        return slice;
+        // The view starts ARRAY_HEADER bytes before its first element, which is always within the parent segment
+        long sliceOffsetInBytes = (long) offset * SHORT_BYTES;
+        long sliceByteLength = TornadoNativeArray.ARRAY_HEADER + (long) length * SHORT_BYTES;
+        markAsSliced();
+        return new ShortArray(segment.asSlice(sliceOffsetInBytes, sliceByteLength), length);
     }
 }
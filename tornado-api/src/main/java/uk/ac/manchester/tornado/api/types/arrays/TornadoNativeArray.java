@@ -17,6 +17,9 @@
  */
 package uk.ac.manchester.tornado.api.types.arrays;
 
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+
+import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 
 import uk.ac.manchester.tornado.api.types.tensors.Tensor;
@@ -42,17 +45,60 @@ public abstract sealed class TornadoNativeArray //
 
     /**
      * The size of the header in bytes. The default value is 24, but it can be configurable through
-     * the "tornado.panama.objectHeader" system property.
+     * the "tornado.panama.objectHeader" system property. The first 8 bytes of the header store the
+     * number of elements of the array as a long.
      */
     public static final long ARRAY_HEADER = Long.parseLong(System.getProperty("tornado.panama.objectHeader", "24"));
 
     /**
-     * Returns the number of elements stored in the native array.
+     * Whether writes to native arrays are counted. They are only used by the
+     * runtime to skip the copies of unmodified arrays, enabled with the
+     * "tornado.transfer.skip.unmodified" system property.
+     */
+    private static final boolean TRACK_MODIFICATIONS = Boolean.parseBoolean(System.getProperty("tornado.transfer.skip.unmodified", "False"));
+
+    /**
+     * Header of the array if it is a view of the segment of another array, or
+     * null otherwise.
+     */
+    private MemorySegment viewHeader;
+
+    /**
+     * Number of writes made to the array through its API.
+     */
+    private long modificationCount;
+
+    /**
+     * Whether views of the segment of this array have been created.
+     */
+    private boolean sliced;
+
+    /**
+     * Pool that allocated the segment of the array, or null.
+     */
+    private NativeArrayPool pool;
+
+    private boolean released;
+
+    private boolean releaseWithDeviceMemory;
+
+    /**
+     * Returns the number of elements stored in the native array. Arrays of more than
+     * {@link Integer#MAX_VALUE} elements must use {@link #getSizeAsLong()} instead.
      *
      * @return The number of elements of the native data array.
+     * @throws ArithmeticException
+     *     if the number of elements does not fit in an int.
      */
     public abstract int getSize();
 
+    /**
+     * Returns the number of elements stored in the native array as a long.
+     *
+     * @return The number of elements of the native data array.
+     */
+    public abstract long getSizeAsLong();
+
     /**
      * Returns the underlying {@link MemorySegment} of the native array, without the Tornado Array header.
      *
@@ -88,4 +134,143 @@ public abstract sealed class TornadoNativeArray //
 
     public abstract int getElementSize();
 
+    /**
+     * Marks the array as a view of the segment of another array. The first
+     * {@link #ARRAY_HEADER} bytes of the segment of a view belong to the parent
+     * array, so the header of the view is kept in its own segment.
+     *
+     * @param numberOfElements
+     *     The number of elements of the view.
+     */
+    protected final void markAsView(long numberOfElements) {
+        viewHeader = Arena.ofAuto().allocate(ARRAY_HEADER, JAVA_LONG.byteAlignment());
+        viewHeader.set(JAVA_LONG, 0, numberOfElements);
+    }
+
+    /**
+     * Returns whether the array is a view that shares the segment of another
+     * array, as created by the {@code slice} methods. The first
+     * {@link #ARRAY_HEADER} bytes of the {@link #getSegmentWithHeader()} of a view
+     * belong to the parent array: the runtime copies the header of a view from
+     * {@link #getHeaderSegment()}, and it never copies data back into those bytes.
+     *
+     * @return true if the array is a view of another array.
+     */
+    public final boolean isView() {
+        return viewHeader != null;
+    }
+
+    /**
+     * Marks that views of the segment of the array have been created. Writes
+     * through a view are not tracked by the parent array.
+     */
+    protected final void markAsSliced() {
+        sliced = true;
+    }
+
+    /**
+     * Records a write to the array. The {@code set} and {@code init} methods call
+     * it, so it only has to be called after writing the array through its
+     * {@link MemorySegment} or through a buffer view of it. When the option
+     * {@code tornado.transfer.skip.unmodified} is enabled, the runtime skips the
+     * copies of arrays that have not been modified since the last copy between
+     * the host and the device. Otherwise, the call does nothing. The call is
+     * removed from the code compiled for the device.
+     */
+    public final void markAsModified() {
+        if (TRACK_MODIFICATIONS) {
+            modificationCount++;
+        }
+    }
+
+    /**
+     * Returns the number of writes recorded by {@link #markAsModified()}.
+     *
+     * @return The modification count of the array.
+     */
+    public final long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Returns whether the writes to the array are tracked by
+     * {@link #getModificationCount()}. Views and arrays with views share their
+     * memory with other arrays, so their writes are not tracked.
+     *
+     * @return true if the modification count tracks all writes of the array.
+     */
+    public final boolean isModificationTracked() {
+        return viewHeader == null && !sliced;
+    }
+
+    final void setPool(NativeArrayPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Drops the reference of the array to its segment. Called when the array is
+     * released.
+     */
+    void detachSegment() {
+    }
+
+    /**
+     * Releases the memory of the array. If the array was allocated from a
+     * {@link NativeArrayPool}, its memory returns to the pool, and it can be reused
+     * by other arrays. If it was allocated from an {@link Arena}, the memory is
+     * freed when the arena is closed. The array, and any view created from it with
+     * {@code slice}, must not be used after this call.
+     */
+    public final void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        final MemorySegment segment = pool != null ? getSegmentWithHeader() : null;
+        detachSegment();
+        if (pool != null) {
+            pool.free(segment);
+        }
+    }
+
+    /**
+     * Returns whether the array has been released.
+     *
+     * @return true if {@link #release()} has been called.
+     */
+    public final boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * Sets whether the memory of the array is released when the device memory of
+     * the execution plans that use it is freed, with
+     * {@code TornadoExecutionPlan::freeDeviceMemory} or when the plan is closed.
+     *
+     * @param releaseWithDeviceMemory
+     *     true to release the array with the device memory.
+     */
+    public final void setReleaseWithDeviceMemory(boolean releaseWithDeviceMemory) {
+        this.releaseWithDeviceMemory = releaseWithDeviceMemory;
+    }
+
+    /**
+     * Returns whether the memory of the array is released when the device memory
+     * of the execution plans that use it is freed.
+     *
+     * @return true if the array is released with the device memory.
+     */
+    public final boolean isReleasedWithDeviceMemory() {
+        return releaseWithDeviceMemory;
+    }
+
+    /**
+     * Returns the {@link MemorySegment} of the header of the native array.
+     *
+     * @return The {@link MemorySegment} of the header.
+     */
+    public final MemorySegment getHeaderSegment() {
+        return viewHeader != null ? viewHeader : getSegmentWithHeader().asSlice(0, ARRAY_HEADER);
+    }
+
 }
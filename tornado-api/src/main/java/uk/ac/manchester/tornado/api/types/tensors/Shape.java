@@ -43,9 +43,21 @@ public record Shape(long... dimensions) {
      * Calculates and returns the size of the shape, which is the product of all its dimensions.
      *
      * @return the total size of the shape as an int
+     * @throws ArithmeticException
+     *     if the size does not fit in an int, in which case {@link #getSizeAsLong()} must be used.
      */
     public int getSize() {
-        return (int) Arrays.stream(dimensions).reduce(1, (a, b) -> a * b);
+        return Math.toIntExact(getSizeAsLong());
+    }
+
+    /**
+     * Calculates and returns the size of the shape as a long, which is required for shapes of more than
+     * {@link Integer#MAX_VALUE} elements.
+     *
+     * @return the total size of the shape as a long
+     */
+    public long getSizeAsLong() {
+        return Arrays.stream(dimensions).reduce(1, (a, b) -> a * b);
     }
 
     @Override
@@ -41,7 +41,7 @@ public final class TensorByte extends Tensor {
     /**
      * The total number of elements in the tensor.
      */
-    private int numberOfElements;
+    private long numberOfElements;
 
     /**
      * The memory segment representing the tensor data in native memory.
@@ -50,18 +50,25 @@ public final class TensorByte extends Tensor {
     public TensorByte(Shape shape) {
         super(DType.BOOL, shape);
         this.shape = shape;
-        this.numberOfElements = shape.getSize();
+        this.numberOfElements = shape.getSizeAsLong();
         this.dType = DType.BOOL;
         this.tensorStorage = new ByteArray(numberOfElements);
     }
 
     public void init(byte value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_BYTE, getBaseIndex() + i, value);
         }
     }
 
     public void set(int index, byte value) {
+        markAsModified();
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_BYTE, getBaseIndex() + index, value);
+    }
+
+    public void set(long index, byte value) {
+        markAsModified();
         tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_BYTE, getBaseIndex() + index, value);
     }
 
@@ -80,8 +87,17 @@ public final class TensorByte extends Tensor {
         return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_BYTE, getBaseIndex() + index);
     }
 
+    public byte get(long index) {
+        return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_BYTE, getBaseIndex() + index);
+    }
+
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -139,7 +155,7 @@ public final class TensorByte extends Tensor {
      *     concatenated in the order they were provided.
      */
     public static TensorByte concat(TensorByte... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(TensorByte::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(TensorByte::getSizeAsLong).sum();
         TensorByte concatArray = new TensorByte(new Shape(newSize));
         long currentPositionBytes = 0;
         for (TensorByte array : arrays) {
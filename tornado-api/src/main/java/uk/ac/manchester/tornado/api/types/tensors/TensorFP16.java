@@ -42,7 +42,7 @@ public final class TensorFP16 extends Tensor {
     /**
      * The total number of elements in the tensor.
      */
-    private int numberOfElements;
+    private long numberOfElements;
 
     /**
      * The memory segment representing the tensor data in native memory.
@@ -51,18 +51,25 @@ public final class TensorFP16 extends Tensor {
     public TensorFP16(Shape shape) {
         super(DType.HALF_FLOAT, shape);
         this.shape = shape;
-        this.numberOfElements = shape.getSize();
+        this.numberOfElements = shape.getSizeAsLong();
         this.dType = DType.HALF_FLOAT;
         this.tensorStorage = new HalfFloatArray(numberOfElements);
     }
 
     public void init(HalfFloat value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + i, value.getHalfFloatValue());
         }
     }
 
     public void set(int index, HalfFloat value) {
+        markAsModified();
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + index, value.getHalfFloatValue());
+    }
+
+    public void set(long index, HalfFloat value) {
+        markAsModified();
         tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + index, value.getHalfFloatValue());
     }
 
@@ -82,8 +89,18 @@ public final class TensorFP16 extends Tensor {
         return new HalfFloat(halfFloatValue);
     }
 
+    public HalfFloat get(long index) {
+        short halfFloatValue = tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_SHORT, getBaseIndex() + index);
+        return new HalfFloat(halfFloatValue);
+    }
+
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -147,7 +164,7 @@ public final class TensorFP16 extends Tensor {
      *     concatenated in the order they were provided.
      */
     public static TensorFP16 concat(TensorFP16... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(TensorFP16::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(TensorFP16::getSizeAsLong).sum();
         TensorFP16 concatArray = new TensorFP16(new Shape(newSize));
         long currentPositionBytes = 0;
         for (TensorFP16 array : arrays) {
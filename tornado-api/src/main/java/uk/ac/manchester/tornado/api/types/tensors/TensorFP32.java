@@ -43,7 +43,7 @@ public final class TensorFP32 extends Tensor {
     /**
      * The total number of elements in the tensor.
      */
-    private int numberOfElements;
+    private long numberOfElements;
 
     /**
      * The memory segment representing the tensor data in native memory.
@@ -52,18 +52,25 @@ public final class TensorFP32 extends Tensor {
     public TensorFP32(Shape shape) {
         super(DType.FLOAT, shape);
         this.shape = shape;
-        this.numberOfElements = shape.getSize();
+        this.numberOfElements = shape.getSizeAsLong();
         this.dType = DType.FLOAT;
         this.tensorStorage = new FloatArray(numberOfElements);
     }
 
     public void init(float value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_FLOAT, getBaseIndex() + i, value);
         }
     }
 
     public void set(int index, float value) {
+        markAsModified();
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_FLOAT, getBaseIndex() + index, value);
+    }
+
+    public void set(long index, float value) {
+        markAsModified();
         tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_FLOAT, getBaseIndex() + index, value);
     }
 
@@ -82,8 +89,17 @@ public final class TensorFP32 extends Tensor {
         return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_FLOAT, getBaseIndex() + index);
     }
 
+    public float get(long index) {
+        return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_FLOAT, getBaseIndex() + index);
+    }
+
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -133,7 +149,7 @@ public final class TensorFP32 extends Tensor {
     }
 
     public float[] toHeapArray() {
-        float[] outputArray = new float[getSize()];
+        float[] outputArray = new float[Math.toIntExact(numberOfElements)];
         for (int i = 0; i < getSize(); i++) {
             outputArray[i] = get(i);
         }
@@ -159,7 +175,7 @@ public final class TensorFP32 extends Tensor {
      *     concatenated in the order they were provided.
      */
     public static TensorFP32 concat(TensorFP32... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(TensorFP32::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(TensorFP32::getSizeAsLong).sum();
         TensorFP32 concatArray = new TensorFP32(new Shape(newSize));
         long currentPositionBytes = 0;
         for (TensorFP32 array : arrays) {
@@ -43,7 +43,7 @@ public final class TensorFP64 extends Tensor {
     /**
      * The total number of elements in the tensor.
      */
-    private int numberOfElements;
+    private long numberOfElements;
 
     /**
      * The memory segment representing the tensor data in native memory.
@@ -52,18 +52,25 @@ public final class TensorFP64 extends Tensor {
     public TensorFP64(Shape shape) {
         super(DType.DOUBLE, shape);
         this.shape = shape;
-        this.numberOfElements = shape.getSize();
+        this.numberOfElements = shape.getSizeAsLong();
         this.dType = DType.DOUBLE;
         this.tensorStorage = new DoubleArray(numberOfElements);
     }
 
     public void init(double value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_DOUBLE, getBaseIndex() + i, value);
         }
     }
 
     public void set(int index, double value) {
+        markAsModified();
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_DOUBLE, getBaseIndex() + index, value);
+    }
+
+    public void set(long index, double value) {
+        markAsModified();
         tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_DOUBLE, getBaseIndex() + index, value);
     }
 
@@ -82,8 +89,17 @@ public final class TensorFP64 extends Tensor {
         return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_DOUBLE, getBaseIndex() + index);
     }
 
+    public double get(long index) {
+        return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_DOUBLE, getBaseIndex() + index);
+    }
+
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -151,7 +167,7 @@ public final class TensorFP64 extends Tensor {
      *     concatenated in the order they were provided.
      */
     public static TensorFP64 concat(TensorFP64... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(TensorFP64::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(TensorFP64::getSizeAsLong).sum();
         TensorFP64 concatArray = new TensorFP64(new Shape(newSize));
         long currentPositionBytes = 0;
         for (TensorFP64 array : arrays) {
@@ -44,7 +44,7 @@ public final class TensorInt16 extends Tensor {
     /**
      * The total number of elements in the tensor.
      */
-    private int numberOfElements;
+    private long numberOfElements;
 
     /**
      * The memory segment representing the tensor data in native memory.
@@ -53,18 +53,25 @@ public final class TensorInt16 extends Tensor {
     public TensorInt16(Shape shape) {
         super(DType.HALF_FLOAT, shape);
         this.shape = shape;
-        this.numberOfElements = shape.getSize();
+        this.numberOfElements = shape.getSizeAsLong();
         this.dType = DType.HALF_FLOAT;
         this.tensorStorage = new ShortArray(numberOfElements);
     }
 
     public void init(short value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + i, value);
         }
     }
 
     public void set(int index, short value) {
+        markAsModified();
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + index, value);
+    }
+
+    public void set(long index, short value) {
+        markAsModified();
         tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_SHORT, getBaseIndex() + index, value);
     }
 
@@ -83,8 +90,17 @@ public final class TensorInt16 extends Tensor {
         return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_SHORT, getBaseIndex() + index);
     }
 
+    public short get(long index) {
+        return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_SHORT, getBaseIndex() + index);
+    }
+
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -152,7 +168,7 @@ public final class TensorInt16 extends Tensor {
      *     concatenated in the order they were provided.
      */
     public static TensorInt16 concat(TensorInt16... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(TensorInt16::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(TensorInt16::getSizeAsLong).sum();
         TensorInt16 concatArray = new TensorInt16(new Shape(newSize));
         long currentPositionBytes = 0;
         for (TensorInt16 array : arrays) {
@@ -44,7 +44,7 @@ public final class TensorInt32 extends Tensor {
     /**
      * The total number of elements in the tensor.
      */
-    private int numberOfElements;
+    private long numberOfElements;
 
     /**
      * The memory segment representing the tensor data in native memory.
@@ -53,18 +53,25 @@ public final class TensorInt32 extends Tensor {
     public TensorInt32(Shape shape) {
         super(DType.INT32, shape);
         this.shape = shape;
-        this.numberOfElements = shape.getSize();
+        this.numberOfElements = shape.getSizeAsLong();
         this.dType = DType.INT32;
         this.tensorStorage = new IntArray(numberOfElements);
     }
 
     public void init(int value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_INT, getBaseIndex() + i, value);
         }
     }
 
     public void set(int index, int value) {
+        markAsModified();
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_INT, getBaseIndex() + index, value);
+    }
+
+    public void set(long index, int value) {
+        markAsModified();
         tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_INT, getBaseIndex() + index, value);
     }
 
@@ -83,8 +90,17 @@ public final class TensorInt32 extends Tensor {
         return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_INT, getBaseIndex() + index);
     }
 
+    public int get(long index) {
+        return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_INT, getBaseIndex() + index);
+    }
+
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -152,7 +168,7 @@ public final class TensorInt32 extends Tensor {
      *     concatenated in the order they were provided.
      */
     public static TensorInt32 concat(TensorInt32... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(TensorInt32::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(TensorInt32::getSizeAsLong).sum();
         TensorInt32 concatArray = new TensorInt32(new Shape(newSize));
         long currentPositionBytes = 0;
         for (TensorInt32 array : arrays) {
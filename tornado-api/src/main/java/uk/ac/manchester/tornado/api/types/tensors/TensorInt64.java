@@ -43,7 +43,7 @@ public final class TensorInt64 extends Tensor {
     /**
      * The total number of elements in the tensor.
      */
-    private int numberOfElements;
+    private long numberOfElements;
 
     /**
      * The memory segment representing the tensor data in native memory.
@@ -52,18 +52,25 @@ public final class TensorInt64 extends Tensor {
     public TensorInt64(Shape shape) {
         super(DType.INT64, shape);
         this.shape = shape;
-        this.numberOfElements = shape.getSize();
+        this.numberOfElements = shape.getSizeAsLong();
         this.dType = DType.INT64;
         this.tensorStorage = new LongArray(numberOfElements);
     }
 
     public void init(long value) {
-        for (int i = 0; i < getSize(); i++) {
+        markAsModified();
+        for (long i = 0; i < numberOfElements; i++) {
             tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_LONG, getBaseIndex() + i, value);
         }
     }
 
     public void set(int index, long value) {
+        markAsModified();
+        tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_LONG, getBaseIndex() + index, value);
+    }
+
+    public void set(long index, long value) {
+        markAsModified();
         tensorStorage.getSegmentWithHeader().setAtIndex(JAVA_LONG, getBaseIndex() + index, value);
     }
 
@@ -82,8 +89,17 @@ public final class TensorInt64 extends Tensor {
         return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_LONG, getBaseIndex() + index);
     }
 
+    public long get(long index) {
+        return tensorStorage.getSegmentWithHeader().getAtIndex(JAVA_LONG, getBaseIndex() + index);
+    }
+
     @Override
     public int getSize() {
+        return Math.toIntExact(numberOfElements);
+    }
+
+    @Override
+    public long getSizeAsLong() {
         return numberOfElements;
     }
 
@@ -151,7 +167,7 @@ public final class TensorInt64 extends Tensor {
      *     concatenated in the order they were provided.
      */
     public static TensorInt64 concat(TensorInt64... arrays) {
-        int newSize = Arrays.stream(arrays).mapToInt(TensorInt64::getSize).sum();
+        long newSize = Arrays.stream(arrays).mapToLong(TensorInt64::getSizeAsLong).sum();
         TensorInt64 concatArray = new TensorInt64(new Shape(newSize));
         long currentPositionBytes = 0;
         for (TensorInt64 array : arrays) {
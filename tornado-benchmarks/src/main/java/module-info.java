@@ -25,19 +25,25 @@ module tornado.benchmarks {
 
     exports uk.ac.manchester.tornado.benchmarks;
     exports uk.ac.manchester.tornado.benchmarks.addImage;
+    exports uk.ac.manchester.tornado.benchmarks.batches;
     exports uk.ac.manchester.tornado.benchmarks.blackscholes;
     exports uk.ac.manchester.tornado.benchmarks.blurFilter;
+    exports uk.ac.manchester.tornado.benchmarks.concurrentdevices;
     exports uk.ac.manchester.tornado.benchmarks.convolvearray;
     exports uk.ac.manchester.tornado.benchmarks.convolveimage;
     exports uk.ac.manchester.tornado.benchmarks.dft;
     exports uk.ac.manchester.tornado.benchmarks.dgemm;
+    exports uk.ac.manchester.tornado.benchmarks.dispatch;
     exports uk.ac.manchester.tornado.benchmarks.dotimage;
     exports uk.ac.manchester.tornado.benchmarks.dotvector;
     exports uk.ac.manchester.tornado.benchmarks.euler;
     exports uk.ac.manchester.tornado.benchmarks.hilbert;
     exports uk.ac.manchester.tornado.benchmarks.mandelbrot;
     exports uk.ac.manchester.tornado.benchmarks.montecarlo;
+    exports uk.ac.manchester.tornado.benchmarks.nativearrays;
     exports uk.ac.manchester.tornado.benchmarks.nbody;
+    exports uk.ac.manchester.tornado.benchmarks.profiler;
+    exports uk.ac.manchester.tornado.benchmarks.reductions;
     exports uk.ac.manchester.tornado.benchmarks.rotateimage;
     exports uk.ac.manchester.tornado.benchmarks.rotatevector;
     exports uk.ac.manchester.tornado.benchmarks.saxpy;
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.benchmarks.reductions;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoExecutionResult;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+
+/**
+ * <p>
+ * Compares the latency of an automatic reduction ({@code @Reduce}) finished by
+ * an extra sequential task on the device (two kernel launches per execution)
+ * with the same reduction finished with a single launch, in which the last
+ * work-group combines the partial results of all work-groups on the device
+ * ({@code -Dtornado.reduce.single.launch=True}). The {@code launches} and
+ * {@code executions} counters report the kernels launched by each benchmark.
+ * </p>
+ *
+ * <p>
+ * How to run in isolation?
+ * </p>
+ * <code>
+ * tornado -jar tornado-benchmarks/target/jmhbenchmarks.jar uk.ac.manchester.tornado.benchmarks.reductions.JMHReduction
+ * </code>
+ */
+public class JMHReduction {
+
+    public static void reduceAdd(FloatArray input, @Reduce FloatArray result) {
+        result.set(0, 0.0f);
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            result.set(0, result.get(0) + input.get(i));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkSetup {
+
+        @Param({ "4096", "16777216" })
+        private int numElements;
+
+        private FloatArray input;
+        private FloatArray result;
+
+        private TornadoExecutionPlan executor;
+        private long launchesPerExecution;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            input = new FloatArray(numElements);
+            result = new FloatArray(1);
+            input.init(1.0f);
+
+            TaskGraph taskGraph = new TaskGraph("benchmark") //
+                    .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                    .task("reduce", JMHReduction::reduceAdd, input, result) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+            executor = new TornadoExecutionPlan(taskGraph.snapshot());
+            executor.withWarmUp();
+            launchesPerExecution = countLaunchesPerExecution();
+        }
+
+        /**
+         * The profiler records one kernel dispatch per launch. It is only enabled to
+         * count them, before the measurements.
+         */
+        private long countLaunchesPerExecution() {
+            executor.withProfiler(ProfilerMode.SILENT);
+            TornadoExecutionResult first = executor.execute();
+            long before = first.getProfilerResult().getKernelDispatchTimeHistogram().getCount();
+            TornadoExecutionResult second = executor.execute();
+            long after = second.getProfilerResult().getKernelDispatchTimeHistogram().getCount();
+            executor.withoutProfiler();
+            return after - before;
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() throws TornadoExecutionPlanException {
+            executor.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LaunchCounters {
+
+        public long launches;
+        public long executions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            launches = 0;
+            executions = 0;
+        }
+
+        void count(BenchmarkSetup state) {
+            launches += state.launchesPerExecution;
+            executions++;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(value = 1, jvmArgsAppend = "-Dtornado.reduce.single.launch=False")
+    public void reduceWithFinalTask(BenchmarkSetup state, LaunchCounters counters, Blackhole blackhole) {
+        state.executor.execute();
+        counters.count(state);
+        blackhole.consume(state.result);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 2, time = 30, timeUnit = TimeUnit.SECONDS)
+    @Measurement(iterations = 5, time = 30, timeUnit = TimeUnit.SECONDS)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(value = 1, jvmArgsAppend = "-Dtornado.reduce.single.launch=True")
+    public void reduceSingleLaunch(BenchmarkSetup state, LaunchCounters counters, Blackhole blackhole) {
+        state.executor.execute();
+        counters.count(state);
+        blackhole.consume(state.result);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder() //
+                .include(JMHReduction.class.getName() + ".*") //
+                .mode(Mode.AverageTime) //
+                .timeUnit(TimeUnit.MICROSECONDS) //
+                .warmupTime(TimeValue.seconds(30)) //
+                .warmupIterations(2) //
+                .measurementTime(TimeValue.seconds(30)) //
+                .measurementIterations(5) //
+                .build();
+        new Runner(opt).run();
+    }
+}
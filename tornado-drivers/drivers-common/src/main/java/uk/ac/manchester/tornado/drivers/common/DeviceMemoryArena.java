@@ -0,0 +1,166 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package uk.ac.manchester.tornado.drivers.common;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A large region of device memory from which the {@link TornadoBufferProvider}
+ * hands out sub-buffers. The arena only manages offsets within the region: new
+ * sub-buffers are taken from the first free range that fits, or from the top
+ * of the region with a bump pointer. Released ranges are merged with their
+ * neighbours, and a free range that reaches the top of the region moves the
+ * bump pointer back.
+ *
+ * <p>
+ * All offsets and sizes are multiples of the alignment of the arena.
+ * </p>
+ */
+public final class DeviceMemoryArena {
+
+    /**
+     * Value returned by {@link #allocate(long)} when the arena is full.
+     */
+    public static final long NO_SPACE = -1;
+
+    private final long region;
+    private final long capacity;
+    private final long alignment;
+
+    /**
+     * Free ranges below the bump pointer, indexed by offset.
+     */
+    private final TreeMap<Long, Long> freeRanges;
+    private long top;
+    private long bytesUsed;
+
+    /**
+     * @param region
+     *     Native buffer of the region.
+     * @param capacity
+     *     Size in bytes of the region.
+     * @param alignment
+     *     Alignment in bytes of the sub-buffers. It is rounded up to a power of
+     *     two.
+     */
+    public DeviceMemoryArena(long region, long capacity, long alignment) {
+        this.region = region;
+        this.alignment = alignment <= 1 ? 1 : Long.highestOneBit(alignment - 1) << 1;
+        this.capacity = capacity & -this.alignment;
+        this.freeRanges = new TreeMap<>();
+    }
+
+    /**
+     * Rounds up the given size to the alignment of the arena.
+     *
+     * @param sizeInBytes
+     *     Size in bytes.
+     * @return long
+     */
+    public long alignedSize(long sizeInBytes) {
+        return (sizeInBytes + alignment - 1) & -alignment;
+    }
+
+    /**
+     * Reserves a range of the region.
+     *
+     * @param sizeInBytes
+     *     Size in bytes of the sub-buffer.
+     * @return the offset of the range within the region, or {@link #NO_SPACE}.
+     */
+    public synchronized long allocate(long sizeInBytes) {
+        final long size = alignedSize(sizeInBytes);
+        for (Map.Entry<Long, Long> range : freeRanges.entrySet()) {
+            long offset = range.getKey();
+            long rangeSize = range.getValue();
+            if (rangeSize >= size) {
+                freeRanges.remove(offset);
+                if (rangeSize > size) {
+                    freeRanges.put(offset + size, rangeSize - size);
+                }
+                bytesUsed += size;
+                return offset;
+            }
+        }
+        if (size <= capacity - top) {
+            long offset = top;
+            top += size;
+            bytesUsed += size;
+            return offset;
+        }
+        return NO_SPACE;
+    }
+
+    /**
+     * Returns a range to the arena.
+     *
+     * @param offset
+     *     Offset returned by {@link #allocate(long)}.
+     * @param sizeInBytes
+     *     Size in bytes requested to {@link #allocate(long)}.
+     */
+    public synchronized void free(long offset, long sizeInBytes) {
+        long start = offset;
+        long size = alignedSize(sizeInBytes);
+        bytesUsed -= size;
+
+        Map.Entry<Long, Long> previous = freeRanges.lowerEntry(start);
+        if (previous != null && previous.getKey() + previous.getValue() == start) {
+            freeRanges.remove(previous.getKey());
+            start = previous.getKey();
+            size += previous.getValue();
+        }
+        Long next = freeRanges.get(start + size);
+        if (next != null) {
+            freeRanges.remove(start + size);
+            size += next;
+        }
+
+        if (start + size == top) {
+            top = start;
+        } else {
+            freeRanges.put(start, size);
+        }
+    }
+
+    public long getRegion() {
+        return region;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getAlignment() {
+        return alignment;
+    }
+
+    public synchronized long getBytesUsed() {
+        return bytesUsed;
+    }
+
+    public synchronized boolean isEmpty() {
+        return bytesUsed == 0;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package uk.ac.manchester.tornado.drivers.common;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.ConcurrentHashMap;
+
+import uk.ac.manchester.tornado.api.TornadoDeviceContext;
+import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Buffer provider that allocates off-heap host memory instead of device
+ * memory. Buffers are the addresses of the allocated segments. It stands in
+ * for a device without a driver, such as the virtual devices, and it allows
+ * testing the allocation policies of {@link TornadoBufferProvider}, including
+ * the arenas, on the host.
+ */
+public class HostMemoryBufferProvider extends TornadoBufferProvider {
+
+    private final ConcurrentHashMap<Long, Arena> allocations;
+
+    public HostMemoryBufferProvider(TornadoDeviceContext deviceContext) {
+        super(deviceContext);
+        this.allocations = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a provider with the given limits instead of the ones set in
+     * {@link TornadoOptions}.
+     *
+     * @param deviceContext
+     *     Context of the device.
+     * @param maxMemory
+     *     Bytes of memory that the provider can allocate.
+     * @param arenaRegionSize
+     *     Size in bytes of each arena region.
+     * @param maxArenaRegions
+     *     Maximum number of arena regions. 0 disables the arenas.
+     */
+    public HostMemoryBufferProvider(TornadoDeviceContext deviceContext, long maxMemory, long arenaRegionSize, int maxArenaRegions) {
+        super(deviceContext, maxMemory, arenaRegionSize, maxArenaRegions);
+        this.allocations = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    protected long allocateBuffer(long size) {
+        Arena arena = Arena.ofShared();
+        MemorySegment segment = arena.allocate(size, getSubBufferAlignment());
+        allocations.put(segment.address(), arena);
+        return segment.address();
+    }
+
+    @Override
+    protected void releaseBuffer(long buffer) {
+        Arena arena = allocations.remove(buffer);
+        TornadoInternalError.guarantee(arena != null, "Releasing a buffer that was not allocated by this provider");
+        arena.close();
+    }
+
+    @Override
+    protected boolean supportsSubBuffers() {
+        return true;
+    }
+
+    @Override
+    protected long getSubBufferAlignment() {
+        return TornadoOptions.OPENCL_ARRAY_ALIGNMENT;
+    }
+}
@@ -2,7 +2,7 @@
  * This file is part of Tornado: A heterogeneous programming framework:
  * https://github.com/beehive-lab/tornadovm
  *
- * Copyright (c) 2022, APT Group, Department of Computer Science,
+ * Copyright (c) 2022, 2024, APT Group, Department of Computer Science,
  * The University of Manchester. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
@@ -22,115 +22,374 @@
  */
 package uk.ac.manchester.tornado.drivers.common;
 
-import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.DEVICE_AVAILABLE_MEMORY;
-
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import uk.ac.manchester.tornado.api.TornadoDeviceContext;
-import uk.ac.manchester.tornado.api.TornadoTargetDevice;
-import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.jfr.DeviceBufferAllocationEvent;
+import uk.ac.manchester.tornado.runtime.jfr.DeviceBufferEvictionEvent;
 
 /**
  * This class implements a cache of allocated buffers on the device and also
  * handles the logic to allocate and free buffers. This class is extended for
- * each backend. The logic is as follows: it maintains a list of used buffers
- * and another list of free buffers. When performing an allocation, it first
- * checks if memory is available on the device. If it is not, then it will try
- * to reuse a buffer from the free list of buffers.
+ * each backend, which only provides the native allocation and release of a
+ * buffer.
+ *
+ * <p>
+ * Requested sizes are rounded up to a size class. Size classes split each
+ * power of two into {@link TornadoOptions#DEVICE_BUFFER_SIZE_CLASSES} equally
+ * spaced sizes, so the rounding wastes at most {@code 1 /
+ * DEVICE_BUFFER_SIZE_CLASSES} of a buffer. Released buffers are not freed on
+ * the device: they are cached in the free list of their size class, and the
+ * next request of the same class takes the most recently released buffer
+ * without calling the driver. Each size class has its own lock, so threads
+ * that allocate buffers of different classes on the same device do not
+ * contend.
+ * </p>
+ *
+ * <p>
+ * When the device runs out of memory, the least recently released buffers
+ * are freed first. If the rounded size still does not fit, the buffer is
+ * allocated with the exact requested size and it is freed, instead of cached,
+ * when it is released.
+ * </p>
+ *
+ * <p>
+ * When {@link TornadoOptions#DEVICE_MEMORY_ARENA} is enabled and the backend
+ * supports sub-buffers, small buffers are instead sub-allocated from a few
+ * large {@link DeviceMemoryArena} regions reserved on the device, so that
+ * short-lived task graphs do not allocate or free device memory.
+ * </p>
  */
 public abstract class TornadoBufferProvider {
 
+    /**
+     * Smallest size class, in bytes. Smaller requests are rounded up to it.
+     */
+    private static final int MIN_SIZE_CLASS_LOG2 = 8;
+    private static final long MIN_SIZE_CLASS = 1L << MIN_SIZE_CLASS_LOG2;
+
+    /**
+     * Size class of the buffers that are allocated with the exact requested size
+     * and are not cached.
+     */
+    private static final int UNCACHED = -1;
+
+    /**
+     * Returned by the arena allocation when the arenas cannot serve a request.
+     */
+    private static final long NO_BUFFER = -1;
+
     protected final TornadoDeviceContext deviceContext;
-    protected final ArrayList<BufferContainer> freeBuffers;
-    protected final ArrayList<BufferContainer> usedBuffers;
-    protected long currentMemoryAvailable;
+
+    private final long maxMemory;
+    private final long arenaRegionSize;
+    private final int maxArenaRegions;
+
+    private final int subClassesLog2;
+    private final SizeClassBin[] freeBuffers;
+    private final ConcurrentHashMap<Long, BufferContainer> usedBuffers;
+    private final AtomicLong currentMemoryAvailable;
+    private final AtomicLong releaseCounter;
+
+    private final ArrayList<DeviceMemoryArena> arenas;
+    private final ConcurrentHashMap<Long, SubBuffer> subBuffers;
+
+    private final LongAdder allocations;
+    private final LongAdder subAllocations;
+    private final LongAdder reuses;
+    private final LongAdder evictions;
+    private final AtomicLong bytesCached;
 
     protected TornadoBufferProvider(TornadoDeviceContext deviceContext) {
+        this(deviceContext, TornadoOptions.DEVICE_AVAILABLE_MEMORY, TornadoOptions.DEVICE_MEMORY_ARENA_REGION_SIZE, TornadoOptions.DEVICE_MEMORY_ARENA ? TornadoOptions.DEVICE_MEMORY_ARENA_REGIONS : 0);
+    }
+
+    /**
+     * Creates a provider with the given limits instead of the ones set in
+     * {@link TornadoOptions}.
+     *
+     * @param deviceContext
+     *     Context of the device.
+     * @param maxMemory
+     *     Bytes of device memory that the provider can allocate.
+     * @param arenaRegionSize
+     *     Size in bytes of each arena region.
+     * @param maxArenaRegions
+     *     Maximum number of arena regions. 0 disables the arenas.
+     */
+    protected TornadoBufferProvider(TornadoDeviceContext deviceContext, long maxMemory, long arenaRegionSize, int maxArenaRegions) {
         this.deviceContext = deviceContext;
-        this.usedBuffers = new ArrayList<>();
-        this.freeBuffers = new ArrayList<>();
+        this.maxMemory = maxMemory;
+        this.arenaRegionSize = arenaRegionSize;
+        this.maxArenaRegions = maxArenaRegions;
+        this.subClassesLog2 = Long.numberOfTrailingZeros(Long.highestOneBit(Math.clamp(TornadoOptions.DEVICE_BUFFER_SIZE_CLASSES, 1, 64)));
+        this.freeBuffers = new SizeClassBin[((Long.SIZE - 1 - MIN_SIZE_CLASS_LOG2) << subClassesLog2) + 1];
+        for (int i = 0; i < freeBuffers.length; i++) {
+            freeBuffers[i] = new SizeClassBin();
+        }
+        this.usedBuffers = new ConcurrentHashMap<>();
+        this.releaseCounter = new AtomicLong();
+        this.arenas = new ArrayList<>();
+        this.subBuffers = new ConcurrentHashMap<>();
+        this.allocations = new LongAdder();
+        this.subAllocations = new LongAdder();
+        this.reuses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.bytesCached = new AtomicLong();
 
         // There is no way of querying the available memory on the device.
         // Instead, use a flag similar to -Xmx.
-        currentMemoryAvailable = TornadoOptions.DEVICE_AVAILABLE_MEMORY;
+        this.currentMemoryAvailable = new AtomicLong(maxMemory);
     }
 
     protected abstract long allocateBuffer(long size);
 
     protected abstract void releaseBuffer(long buffer);
 
-    private synchronized long allocate(long size) {
-        long buffer = allocateBuffer(size);
-        currentMemoryAvailable -= size;
-        BufferContainer bufferInfo = new BufferContainer(buffer, size);
-        usedBuffers.add(bufferInfo);
-        return bufferInfo.buffer;
-    }
-
-    private synchronized void freeBuffers(long size) {
-        // Attempts to free buffers of given size.
-        long remainingSize = size;
-        while (!freeBuffers.isEmpty() && remainingSize > 0) {
-            BufferContainer bufferInfo = freeBuffers.remove(0);
-            TornadoInternalError.guarantee(!usedBuffers.contains(bufferInfo), "This buffer should not be used");
-            remainingSize -= bufferInfo.size;
-            currentMemoryAvailable += bufferInfo.size;
-            releaseBuffer(bufferInfo.buffer);
+    /**
+     * Whether the backend can create a buffer that aliases a range of another
+     * buffer. Arenas are used only if sub-buffers are supported.
+     *
+     * @return boolean
+     */
+    protected boolean supportsSubBuffers() {
+        return false;
+    }
+
+    /**
+     * Alignment in bytes of the sub-buffers within an arena.
+     *
+     * @return long
+     */
+    protected long getSubBufferAlignment() {
+        return 1;
+    }
+
+    /**
+     * Creates a buffer that aliases a range of a region. By default, buffers are
+     * device pointers and the sub-buffer is the address of the range.
+     *
+     * @param region
+     *     Native buffer of the region.
+     * @param offset
+     *     Offset in bytes of the range within the region.
+     * @param size
+     *     Size in bytes of the range.
+     * @return the native buffer of the range, or -1 if it cannot be created.
+     */
+    protected long createSubBuffer(long region, long offset, long size) {
+        return region + offset;
+    }
+
+    /**
+     * Releases a buffer created with {@link #createSubBuffer}. The memory of the
+     * range is still owned by the region.
+     *
+     * @param subBuffer
+     *     Native buffer of the range.
+     */
+    protected void releaseSubBuffer(long subBuffer) {
+    }
+
+    /**
+     * Returns the index of the size class of the given size.
+     *
+     * @param sizeInBytes
+     *     Size in bytes of the requested buffer.
+     * @return int
+     */
+    public int sizeClassOf(long sizeInBytes) {
+        if (sizeInBytes <= MIN_SIZE_CLASS) {
+            return 0;
+        }
+        long base = Long.highestOneBit(sizeInBytes - 1);
+        int log2 = Long.numberOfTrailingZeros(base);
+        long step = base >>> subClassesLog2;
+        long subClass = (sizeInBytes - base + step - 1) / step;
+        return ((log2 - MIN_SIZE_CLASS_LOG2) << subClassesLog2) + (int) subClass;
+    }
+
+    /**
+     * Returns the size in bytes of the buffers of a size class.
+     *
+     * @param sizeClass
+     *     Index of the size class.
+     * @return long
+     */
+    public long sizeOfClass(int sizeClass) {
+        if (sizeClass == 0) {
+            return MIN_SIZE_CLASS;
+        }
+        int log2 = MIN_SIZE_CLASS_LOG2 + ((sizeClass - 1) >>> subClassesLog2);
+        long subClass = ((sizeClass - 1) & ((1 << subClassesLog2) - 1)) + 1;
+        long base = 1L << log2;
+        return base + subClass * (base >>> subClassesLog2);
+    }
+
+    private boolean tryReserve(long sizeInBytes) {
+        long available = currentMemoryAvailable.get();
+        while (sizeInBytes <= available) {
+            if (currentMemoryAvailable.compareAndSet(available, available - sizeInBytes)) {
+                return true;
+            }
+            available = currentMemoryAvailable.get();
+        }
+        return false;
+    }
+
+    /**
+     * Reserves device memory for a new buffer, freeing the least recently
+     * released buffers until the reservation fits.
+     *
+     * @return true if the memory has been reserved.
+     */
+    private boolean reserve(long sizeInBytes) {
+        while (!tryReserve(sizeInBytes)) {
+            if (!evictLeastRecentlyReleased() && !releaseEmptyArena()) {
+                return false;
+            }
         }
+        return true;
     }
 
-    private synchronized BufferContainer markBufferUsed(int freeBufferIndex) {
-        BufferContainer buffer = freeBuffers.get(freeBufferIndex);
-        usedBuffers.add(buffer);
-        freeBuffers.remove(buffer);
+    /**
+     * Frees the cached buffer that was released the longest time ago.
+     *
+     * @return false if there are no cached buffers.
+     */
+    private boolean evictLeastRecentlyReleased() {
+        while (bytesCached.get() > 0) {
+            SizeClassBin oldestBin = null;
+            long oldestRelease = Long.MAX_VALUE;
+            for (SizeClassBin bin : freeBuffers) {
+                long release = bin.oldestRelease();
+                if (release < oldestRelease) {
+                    oldestRelease = release;
+                    oldestBin = bin;
+                }
+            }
+            if (oldestBin == null) {
+                return false;
+            }
+            // Another thread may have taken the buffer in the meantime. In that
+            // case, look for the new oldest buffer.
+            BufferContainer bufferInfo = oldestBin.pollOldest(oldestRelease);
+            if (bufferInfo != null) {
+                DeviceBufferEvictionEvent event = new DeviceBufferEvictionEvent();
+                event.begin();
+                free(bufferInfo);
+                evictions.increment();
+                if (event.shouldCommit()) {
+                    event.device = deviceContext.getDevice().getDeviceName();
+                    event.bytes = bufferInfo.size;
+                    event.commit();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void free(BufferContainer bufferInfo) {
+        bytesCached.addAndGet(-bufferInfo.size);
+        releaseBuffer(bufferInfo.buffer);
+        currentMemoryAvailable.addAndGet(bufferInfo.size);
+    }
+
+    private long allocate(long sizeInBytes, int sizeClass) {
+        final long buffer;
+        try {
+            buffer = allocateBuffer(sizeInBytes);
+        } catch (RuntimeException e) {
+            currentMemoryAvailable.addAndGet(sizeInBytes);
+            throw e;
+        }
+        usedBuffers.put(buffer, new BufferContainer(buffer, sizeInBytes, sizeClass, 0));
+        allocations.increment();
         return buffer;
     }
 
     /**
-     * First check if there is an available buffer of a given size. Perform a
-     * sequential search through the freeBuffers to get the buffer with the smaller
-     * size than can fulfill the allocation. The number of allocated buffers is
-     * usually low, so searching sequentially should not take a lot of time.
+     * Frees an arena region that has no sub-buffers in use.
      *
-     * @param sizeInBytes
-     *     Size in bytes for the requested buffer.
-     * @return returns the index position of a free buffer within the free buffer
-     *     list. It returns -1 if a free buffer slot is not found.
-     */
-    private synchronized int bufferIndexOfAFreeSpace(long sizeInBytes) {
-        int minBufferIndex = -1;
-        for (int i = 0; i < freeBuffers.size(); i++) {
-            BufferContainer bufferInfo = freeBuffers.get(i);
-            if (bufferInfo.size >= sizeInBytes && (minBufferIndex == -1 || bufferInfo.size < freeBuffers.get(minBufferIndex).size)) {
-                minBufferIndex = i;
+     * @return false if all the arenas are in use.
+     */
+    private boolean releaseEmptyArena() {
+        synchronized (arenas) {
+            for (DeviceMemoryArena arena : arenas) {
+                if (arena.isEmpty()) {
+                    arenas.remove(arena);
+                    releaseBuffer(arena.getRegion());
+                    currentMemoryAvailable.addAndGet(arena.getCapacity());
+                    return true;
+                }
             }
         }
-        return minBufferIndex;
+        return false;
     }
 
     /**
-     * There is no buffer to fulfill the size. Start freeing unused buffers and try
-     * to allocate.
+     * Sub-allocates a buffer from one of the arenas of the device, reserving a new
+     * region if all the arenas are full.
      *
-     * @param sizeInBytes
-     *     Size in bytes for the requested buffer.
-     * @return It returns a buffer native pointer.
+     * @return the native sub-buffer, or {@link #NO_BUFFER} if the arenas cannot
+     *     serve the request.
      */
-    private synchronized long freeUnusedNativeBufferAndAssignRegion(long sizeInBytes) {
-        freeBuffers(sizeInBytes);
-        if (sizeInBytes <= currentMemoryAvailable) {
-            return allocate(sizeInBytes);
-        } else {
-            throw new TornadoOutOfMemoryException("Unable to allocate " + sizeInBytes + " bytes of memory.");
+    private long allocateFromArena(long sizeInBytes) {
+        synchronized (arenas) {
+            for (DeviceMemoryArena arena : arenas) {
+                long buffer = subAllocate(arena, sizeInBytes);
+                if (buffer != NO_BUFFER) {
+                    return buffer;
+                }
+            }
+            if (arenas.size() < maxArenaRegions && reserve(arenaRegionSize)) {
+                final long region;
+                try {
+                    region = allocateBuffer(arenaRegionSize);
+                } catch (RuntimeException e) {
+                    currentMemoryAvailable.addAndGet(arenaRegionSize);
+                    throw e;
+                }
+                DeviceMemoryArena arena = new DeviceMemoryArena(region, arenaRegionSize, getSubBufferAlignment());
+                arenas.add(arena);
+                return subAllocate(arena, sizeInBytes);
+            }
         }
+        return NO_BUFFER;
+    }
+
+    private long subAllocate(DeviceMemoryArena arena, long sizeInBytes) {
+        long offset = arena.allocate(sizeInBytes);
+        if (offset == DeviceMemoryArena.NO_SPACE) {
+            return NO_BUFFER;
+        }
+        long buffer = createSubBuffer(arena.getRegion(), offset, arena.alignedSize(sizeInBytes));
+        if (buffer == NO_BUFFER) {
+            arena.free(offset, sizeInBytes);
+            return NO_BUFFER;
+        }
+        subBuffers.put(buffer, new SubBuffer(arena, offset, sizeInBytes));
+        subAllocations.increment();
+        return buffer;
+    }
+
+    private boolean isArenaAllocation(long sizeInBytes) {
+        return maxArenaRegions > 0 && supportsSubBuffers() && sizeInBytes <= arenaRegionSize / 4;
     }
 
     /**
-     * Method that finds a suitable buffer for a requested buffer size. If a free
-     * memory buffer is found, it performs the native buffer allocation on the
-     * target device. Otherwise, it throws an exception.
+     * Method that finds a suitable buffer for a requested buffer size. Small
+     * buffers are sub-allocated from an arena, if arenas are enabled. Otherwise,
+     * it looks for a cached buffer of the same size class. Otherwise, it performs the
+     * native buffer allocation on the target device, freeing the least recently
+     * released buffers if the device runs out of memory.
      *
      * @param sizeInBytes
      *     Size in bytes for the requested buffer.
@@ -139,69 +398,188 @@ public abstract class TornadoBufferProvider {
      * @throws {@link
      *     TornadoOutOfMemoryException}
      */
-    public synchronized long getOrAllocateBufferWithSize(long sizeInBytes) {
-        TornadoTargetDevice device = deviceContext.getDevice();
-        if (sizeInBytes <= currentMemoryAvailable && sizeInBytes < device.getDeviceMaxAllocationSize()) {
-            // Allocate if there is enough device memory.
-            return allocate(sizeInBytes);
-        } else if (sizeInBytes < device.getDeviceMaxAllocationSize()) {
-            int minBufferIndex = bufferIndexOfAFreeSpace(sizeInBytes);
-            // If a buffer was found, mark it as used and return it.
-            if (minBufferIndex != -1) {
-                return markBufferUsed(minBufferIndex).buffer;
-            } else {
-                return freeUnusedNativeBufferAndAssignRegion(sizeInBytes);
-            }
-        } else {
+    public long getOrAllocateBufferWithSize(long sizeInBytes) {
+        final long maxAllocationSize = deviceContext.getDevice().getDeviceMaxAllocationSize();
+        if (sizeInBytes >= maxAllocationSize) {
             throw new TornadoOutOfMemoryException("Unable to allocate " + sizeInBytes + " bytes of memory.");
         }
+
+        DeviceBufferAllocationEvent event = new DeviceBufferAllocationEvent();
+        event.begin();
+        if (isArenaAllocation(sizeInBytes)) {
+            long buffer = allocateFromArena(sizeInBytes);
+            if (buffer != NO_BUFFER) {
+                event.commit(deviceContext.getDevice().getDeviceName(), sizeInBytes, sizeInBytes, DeviceBufferAllocationEvent.ARENA);
+                return buffer;
+            }
+        }
+
+        int sizeClass = sizeClassOf(sizeInBytes);
+        long classSize = sizeOfClass(sizeClass);
+        if (classSize > 0 && classSize < maxAllocationSize) {
+            BufferContainer bufferInfo = freeBuffers[sizeClass].pollMostRecent();
+            if (bufferInfo != null) {
+                bytesCached.addAndGet(-bufferInfo.size);
+                usedBuffers.put(bufferInfo.buffer, bufferInfo);
+                reuses.increment();
+                event.commit(deviceContext.getDevice().getDeviceName(), sizeInBytes, bufferInfo.size, DeviceBufferAllocationEvent.CACHE);
+                return bufferInfo.buffer;
+            }
+            if (reserve(classSize)) {
+                long buffer = allocate(classSize, sizeClass);
+                event.commit(deviceContext.getDevice().getDeviceName(), sizeInBytes, classSize, DeviceBufferAllocationEvent.DEVICE);
+                return buffer;
+            }
+        }
+
+        // The rounded size does not fit on the device: allocate the exact size.
+        if (reserve(sizeInBytes)) {
+            long buffer = allocate(sizeInBytes, UNCACHED);
+            event.commit(deviceContext.getDevice().getDeviceName(), sizeInBytes, sizeInBytes, DeviceBufferAllocationEvent.DEVICE);
+            return buffer;
+        }
+        throw new TornadoOutOfMemoryException("Unable to allocate " + sizeInBytes + " bytes of memory.");
     }
 
     /**
-     * Removes the buffer from the {@link #usedBuffers} list and add it to
-     * the @{@link #freeBuffers} list.
+     * Marks a buffer as no longer used. The buffer is kept on the device in the
+     * free list of its size class, to be reused by the next allocation of the same
+     * size class.
+     *
+     * @param buffer
+     *     Pointer to the native buffer.
      */
-    public synchronized void markBufferReleased(long buffer) {
-        int foundIndex = -1;
-        for (int i = 0; i < usedBuffers.size(); i++) {
-            // find the buffer slot to mark it as free
-            if (usedBuffers.get(i) != null && usedBuffers.get(i).buffer == buffer) {
-                foundIndex = i;
-                break;
-            }
+    public void markBufferReleased(long buffer) {
+        SubBuffer subBuffer = subBuffers.remove(buffer);
+        if (subBuffer != null) {
+            releaseSubBuffer(buffer);
+            subBuffer.arena.free(subBuffer.offset, subBuffer.size);
+            return;
         }
 
-        if (foundIndex != -1) {
-            // if found, we mark it as free by inserting it into the free list
-            BufferContainer removedBuffer = usedBuffers.remove(foundIndex);
-            freeBuffers.add(removedBuffer);
+        BufferContainer bufferInfo = usedBuffers.remove(buffer);
+        if (bufferInfo == null) {
+            return;
+        }
+        if (bufferInfo.sizeClass == UNCACHED) {
+            releaseBuffer(bufferInfo.buffer);
+            currentMemoryAvailable.addAndGet(bufferInfo.size);
+        } else {
+            bytesCached.addAndGet(bufferInfo.size);
+            freeBuffers[bufferInfo.sizeClass].push(bufferInfo.releasedAt(releaseCounter.incrementAndGet()));
         }
     }
 
     public boolean checkBufferAvailability(int numBuffersRequired) {
-        return freeBuffers.size() >= numBuffersRequired;
+        int numFreeBuffers = 0;
+        for (SizeClassBin bin : freeBuffers) {
+            numFreeBuffers += bin.size();
+            if (numFreeBuffers >= numBuffersRequired) {
+                return true;
+            }
+        }
+        return numFreeBuffers >= numBuffersRequired;
     }
 
-    public synchronized void resetBuffers() {
-        freeBuffers(DEVICE_AVAILABLE_MEMORY);
+    /**
+     * Frees all the cached buffers and the unused arenas on the device.
+     */
+    public void resetBuffers() {
+        for (SizeClassBin bin : freeBuffers) {
+            BufferContainer bufferInfo;
+            while ((bufferInfo = bin.pollOldest(Long.MAX_VALUE)) != null) {
+                free(bufferInfo);
+            }
+        }
+        while (releaseEmptyArena()) {
+            // Releases one arena per iteration
+        }
     }
 
-    private record BufferContainer(long buffer, long size) {
+    /**
+     * Returns a snapshot of the allocation statistics of this device.
+     *
+     * @return {@link Statistics}
+     */
+    public Statistics getStatistics() {
+        long cached = bytesCached.get();
+        long inUse = maxMemory - currentMemoryAvailable.get() - cached;
+        int arenaRegions;
+        synchronized (arenas) {
+            arenaRegions = arenas.size();
+        }
+        return new Statistics(allocations.sum(), subAllocations.sum(), reuses.sum(), evictions.sum(), usedBuffers.size() + subBuffers.size(), inUse, cached, arenaRegions);
+    }
 
+    /**
+     * Allocation statistics of a buffer provider.
+     *
+     * @param allocations
+     *     Number of buffers allocated on the device.
+     * @param subAllocations
+     *     Number of buffers sub-allocated from an arena.
+     * @param reuses
+     *     Number of requests served with a cached buffer.
+     * @param evictions
+     *     Number of cached buffers freed to make room for new allocations.
+     * @param buffersInUse
+     *     Number of buffers currently in use.
+     * @param bytesInUse
+     *     Bytes of the buffers and arena regions currently in use.
+     * @param bytesCached
+     *     Bytes of the cached free buffers.
+     * @param arenaRegions
+     *     Number of arena regions reserved on the device.
+     */
+    public record Statistics(long allocations, long subAllocations, long reuses, long evictions, long buffersInUse, long bytesInUse, long bytesCached, int arenaRegions) {
         @Override
-        public boolean equals(Object object) {
-            if (this == object) {
-                return true;
-            }
-            if (!(object instanceof BufferContainer that)) {
-                return false;
-            }
-            return buffer == that.buffer && size == that.size;
+        public String toString() {
+            return STR."allocations=\{allocations}, subAllocations=\{subAllocations}, reuses=\{reuses}, evictions=\{evictions}, buffersInUse=\{buffersInUse}, bytesInUse=\{bytesInUse}, bytesCached=\{bytesCached}, arenaRegions=\{arenaRegions}";
+        }
+    }
+
+    /**
+     * Free list of a size class. The most recently released buffer is at the
+     * head of the list and the least recently released one at the tail.
+     */
+    private static final class SizeClassBin {
+
+        private final ArrayDeque<BufferContainer> buffers = new ArrayDeque<>();
+
+        synchronized void push(BufferContainer bufferInfo) {
+            buffers.addFirst(bufferInfo);
         }
 
-        @Override
-        public int hashCode() {
-            return (int) buffer;
+        synchronized BufferContainer pollMostRecent() {
+            return buffers.pollFirst();
+        }
+
+        /**
+         * Removes the least recently released buffer if it was released no later
+         * than the given release number.
+         */
+        synchronized BufferContainer pollOldest(long maxRelease) {
+            BufferContainer oldest = buffers.peekLast();
+            return oldest != null && oldest.release <= maxRelease ? buffers.pollLast() : null;
+        }
+
+        synchronized long oldestRelease() {
+            BufferContainer oldest = buffers.peekLast();
+            return oldest != null ? oldest.release : Long.MAX_VALUE;
+        }
+
+        synchronized int size() {
+            return buffers.size();
+        }
+    }
+
+    private record SubBuffer(DeviceMemoryArena arena, long offset, long size) {
+    }
+
+    private record BufferContainer(long buffer, long size, int sizeClass, long release) {
+
+        BufferContainer releasedAt(long releaseNumber) {
+            return new BufferContainer(buffer, size, sizeClass, releaseNumber);
         }
     }
 }
@@ -38,6 +38,7 @@ import org.graalvm.compiler.phases.BasePhase;
 
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.DynamicLoopBounds;
 import uk.ac.manchester.tornado.runtime.domain.IntDomain;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.TornadoLoopsData;
@@ -60,6 +61,15 @@ public class TornadoShapeAnalysis extends BasePhase<TornadoHighTierContext> {
         }
     }
 
+    private static int getUpperBound(ParallelRangeNode range, TornadoHighTierContext context) {
+        final DynamicLoopBounds dynamicLoopBounds = context.getDynamicLoopBounds();
+        if (dynamicLoopBounds != null && dynamicLoopBounds.isDynamicDimension(range.index())) {
+            // Read from the kernel context by a size-generic kernel
+            return dynamicLoopBounds.getCompiledBound(range.index());
+        }
+        return getIntegerValue(range.value());
+    }
+
     @Override
     public Optional<NotApplicable> notApplicableTo(GraphState graphState) {
         return ALWAYS_APPLICABLE;
@@ -95,9 +105,9 @@ public class TornadoShapeAnalysis extends BasePhase<TornadoHighTierContext> {
         for (int i = 0; i < dimensions; i++) {
             final ParallelRangeNode range = ranges.get(i);
             final int index = range.index();
-            if (index != lastIndex && getIntegerValue(range.offset().value()) != Integer.MIN_VALUE && getIntegerValue(range.stride().value()) != Integer.MIN_VALUE && getIntegerValue(range
-                    .value()) != Integer.MIN_VALUE) {
-                domainTree.set(index, new IntDomain(getIntegerValue(range.offset().value()), getIntegerValue(range.stride().value()), getIntegerValue(range.value())));
+            if (index != lastIndex && getIntegerValue(range.offset().value()) != Integer.MIN_VALUE && getIntegerValue(range.stride().value()) != Integer.MIN_VALUE && getUpperBound(range,
+                    context) != Integer.MIN_VALUE) {
+                domainTree.set(index, new IntDomain(getIntegerValue(range.offset().value()), getIntegerValue(range.stride().value()), getUpperBound(range, context)));
             } else {
                 valid = false;
                 logger.info("unsupported multiple parallel loops");
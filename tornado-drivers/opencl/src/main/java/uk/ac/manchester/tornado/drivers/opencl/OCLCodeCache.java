@@ -44,16 +44,19 @@ import java.util.StringJoiner;
 import java.util.StringTokenizer;
 import java.util.concurrent.ConcurrentHashMap;
 
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLBuildStatus;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLDeviceType;
 import uk.ac.manchester.tornado.drivers.opencl.exceptions.OCLException;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLInstalledCode;
+import uk.ac.manchester.tornado.runtime.cache.KernelVariantCache;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.Tornado;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.jfr.KernelInstallEvent;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
 
 public class OCLCodeCache {
@@ -87,6 +90,7 @@ public class OCLCodeCache {
      */
     private final StringBuilder OPENCL_BINARIES = TornadoOptions.FPGA_BINARIES;
     private final ConcurrentHashMap<String, OCLInstalledCode> cache;
+    private final KernelVariantCache kernelVariants;
     private final OCLDeviceContextInterface deviceContext;
     private String fpgaName;
     private String fpgaCompiler;
@@ -106,6 +110,7 @@ public class OCLCodeCache {
     public OCLCodeCache(OCLDeviceContextInterface deviceContext) {
         this.deviceContext = deviceContext;
         cache = new ConcurrentHashMap<>();
+        kernelVariants = new KernelVariantCache();
         pendingTasks = new ConcurrentHashMap<>();
         linkObjectFiles = new ArrayList<>();
 
@@ -580,6 +585,8 @@ public class OCLCodeCache {
     public OCLInstalledCode installSource(TaskMetaData meta, String id, String entryPoint, byte[] source) {
 
         logger.info("Installing code for %s into code cache", entryPoint);
+        final KernelInstallEvent installEvent = new KernelInstallEvent();
+        installEvent.begin();
 
         boolean isSPIRVBinary = isInputSourceSPIRVBinary(source);
         final OCLProgram program;
@@ -630,6 +637,7 @@ public class OCLCodeCache {
         final OCLInstalledCode code = new OCLInstalledCode(entryPoint, source, (OCLDeviceContext) deviceContext, program, kernel, isSPIRVBinary);
         if (status == CL_BUILD_SUCCESS) {
             logger.debug("\tOpenCL Kernel id = 0x%x", kernel.getOclKernelID());
+            code.enableWorkGroupTuning();
             if (meta.shouldPrintCompileTimes()) {
                 logger.debug("compile: kernel %s opencl %.9f\n", entryPoint, (t1 - t0) * 1e-9f);
             }
@@ -639,9 +647,60 @@ public class OCLCodeCache {
             code.invalidate();
         }
 
+        installEvent.commit(TornadoVMBackendType.OPENCL.name(), deviceContext.getDevice().getDeviceName(), id, entryPoint, source.length, isSPIRVBinary, status == CL_BUILD_SUCCESS);
         return code;
     }
 
+    /**
+     * Installs a binary previously built by the driver for this device and
+     * loaded from the persistent kernel cache.
+     *
+     * @return the installed code, or null if the driver rejects the binary (e.g.,
+     *     after a driver update). The caller should then install the source.
+     */
+    public OCLInstalledCode installCachedBinary(TaskMetaData meta, String id, String entryPoint, byte[] binary) {
+        logger.info("Installing cached binary for %s into code cache", entryPoint);
+        final KernelInstallEvent installEvent = new KernelInstallEvent();
+        installEvent.begin();
+
+        final OCLProgram program = deviceContext.createProgramWithBinary(binary, new long[] { binary.length });
+        if (program == null) {
+            installEvent.commit(TornadoVMBackendType.OPENCL.name(), deviceContext.getDevice().getDeviceName(), id, entryPoint, binary.length, true, false);
+            return null;
+        }
+        program.build(meta.getCompilerFlags());
+        final OCLBuildStatus status = program.getStatus(deviceContext.getDeviceId());
+        logger.debug("\tOpenCL compilation status = %s", status.toString());
+        if (status != CL_BUILD_SUCCESS) {
+            logger.warn("\tunable to install cached binary for %s", entryPoint);
+            installEvent.commit(TornadoVMBackendType.OPENCL.name(), deviceContext.getDevice().getDeviceName(), id, entryPoint, binary.length, true, false);
+            return null;
+        }
+
+        kernelAvailable = true;
+        final OCLKernel kernel = program.getKernel(entryPoint);
+        final OCLInstalledCode code = new OCLInstalledCode(entryPoint, binary, (OCLDeviceContext) deviceContext, program, kernel, false);
+        cache.put(STR."\{id}-\{entryPoint}", code);
+        installEvent.commit(TornadoVMBackendType.OPENCL.name(), deviceContext.getDevice().getDeviceName(), id, entryPoint, binary.length, true, true);
+        return code;
+    }
+
+    /**
+     * Returns the binary built by the driver for an installed kernel, or null if
+     * the platform cannot provide it.
+     */
+    public byte[] getInstalledBinary(OCLInstalledCode code) {
+        // Apple's OpenCL implementation crashes when querying program binaries
+        if (deviceContext.getPlatformContext().getPlatform().getVendor().equalsIgnoreCase("Apple")) {
+            return null;
+        }
+        try {
+            return code.getProgram().getBinary();
+        } catch (TornadoBailoutRuntimeException e) {
+            return null;
+        }
+    }
+
     private OCLInstalledCode installBinary(String id, String entryPoint, byte[] binary) throws OCLException {
         logger.info("Installing binary for %s into code cache", entryPoint);
 
@@ -725,6 +784,16 @@ public class OCLCodeCache {
             code.invalidate();
         }
         cache.clear();
+        kernelVariants.invalidateAll();
+    }
+
+    /**
+     * Kernels installed for each task, indexed by their specialisation signature.
+     *
+     * @return {@link KernelVariantCache}
+     */
+    public KernelVariantCache getKernelVariants() {
+        return kernelVariants;
     }
 
     public OCLInstalledCode installEntryPointForBinaryForFPGAs(String id, Path lookupPath, String entrypoint) {
@@ -26,12 +26,14 @@
 package uk.ac.manchester.tornado.drivers.opencl;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 
 import uk.ac.manchester.tornado.api.exceptions.TornadoInternalError;
 import uk.ac.manchester.tornado.api.exceptions.TornadoNoOpenCLPlatformException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.drivers.opencl.enums.OCLBufferCreateType;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLCommandQueueProperties;
 import uk.ac.manchester.tornado.drivers.opencl.exceptions.OCLException;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
@@ -247,6 +249,33 @@ public class OCLContext implements OCLExecutionEnvironment {
         return null;
     }
 
+    /**
+     * Creates a buffer that aliases a region of another buffer.
+     *
+     * @param bufferId
+     *     Parent buffer.
+     * @param flags
+     *     Memory flags of the sub-buffer.
+     * @param origin
+     *     Offset in bytes of the region. It must be aligned to the
+     *     CL_DEVICE_MEM_BASE_ADDR_ALIGN of the device.
+     * @param bytes
+     *     Size in bytes of the region.
+     * @return the sub-buffer, or -1 if it cannot be created.
+     */
+    public long createSubBuffer(long bufferId, long flags, long origin, long bytes) {
+        ByteBuffer region = ByteBuffer.allocate(2 * Long.BYTES).order(ByteOrder.nativeOrder());
+        region.putLong(origin).putLong(bytes);
+        try {
+            final long subBuffer = createSubBuffer(bufferId, flags, OCLBufferCreateType.CL_BUFFER_CREATE_TYPE_REGION.getValue(), region.array());
+            logger.info("sub-buffer created %s @ 0x%x + %d", RuntimeUtilities.humanReadableByteCount(bytes, false), bufferId, origin);
+            return subBuffer;
+        } catch (OCLException e) {
+            logger.error(e.getMessage());
+        }
+        return -1;
+    }
+
     public void releaseBuffer(long bufferId) {
         try {
             clReleaseMemObject(bufferId);
@@ -35,7 +35,6 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
-import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -166,7 +165,12 @@ public class OCLProgram {
         return result;
     }
 
-    public void dumpBinaries(String filenamePrefix) {
+    /**
+     * Returns the binary built for the device of this program.
+     *
+     * @return byte[]
+     */
+    public byte[] getBinary() {
 
         final long[] devices = getDevices();
         final int numDevices = getNumDevices();
@@ -189,21 +193,25 @@ public class OCLProgram {
         final ByteBuffer binary = ByteBuffer.allocateDirect(totalSize);
         try {
             getBinaries(programPointer, numDevices, binary);
-
-            logger.info("dumping binary %s", filenamePrefix);
-            try (FileOutputStream fis = new FileOutputStream(filenamePrefix); FileChannel vChannel = fis.getChannel();) {
-                binary.position(offset);
-                binary.limit(offset + (int) sizes[index]);
-                vChannel.write(binary);
-            } catch (IOException e) {
-                logger.error("unable to dump binary: %s", e.getMessage());
-            }
-
         } catch (OCLException e) {
             logger.error("unable to retrieve binary from OpenCL driver: %s", e.getMessage());
             throw new TornadoBailoutRuntimeException(e.getMessage());
         }
 
+        final byte[] result = new byte[(int) sizes[index]];
+        binary.position(offset);
+        binary.get(result);
+        return result;
+    }
+
+    public void dumpBinaries(String filenamePrefix) {
+        final byte[] binary = getBinary();
+        logger.info("dumping binary %s", filenamePrefix);
+        try (FileOutputStream fis = new FileOutputStream(filenamePrefix)) {
+            fis.write(binary);
+        } catch (IOException e) {
+            logger.error("unable to dump binary: %s", e.getMessage());
+        }
     }
 
     @Override
@@ -59,6 +59,33 @@ public class OpenCLIntrinsics {
      */
     public static native void globalBarrier();
 
+    /**
+     * <p>
+     * <code>
+     * mem_fence(CLK_GLOBAL_MEM_FENCE);
+     * </code>
+     * </p>
+     */
+    public static native void globalMemFence();
+
+    /**
+     * <p>
+     * <code>
+     * atomic_inc((volatile __global int *) &array[index]);
+     * </code>
+     * </p>
+     *
+     * The element is incremented as a 32-bit integer, whatever the element type of
+     * the array is. It returns the value before the increment.
+     */
+    public static native int atomic_inc(int[] array, int index);
+
+    public static native int atomic_inc(long[] array, int index);
+
+    public static native int atomic_inc(float[] array, int index);
+
+    public static native int atomic_inc(double[] array, int index);
+
     public static native void printf();
 
     public static native void printEmpty();
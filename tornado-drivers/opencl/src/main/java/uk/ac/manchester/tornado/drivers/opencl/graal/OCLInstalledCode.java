@@ -51,6 +51,7 @@ import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+import uk.ac.manchester.tornado.runtime.tuning.WorkGroupTuner;
 
 public class OCLInstalledCode extends InstalledCode implements TornadoInstalledCode {
 
@@ -82,6 +83,17 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
         this.isSPIRVBinary = isSPIRVBinary;
     }
 
+    /**
+     * Enables the auto-tuning of the local work size of the kernel. It is only
+     * called for kernels built from OpenCL C, because the tuner inspects the
+     * source to exclude kernels that depend on the work-group size.
+     */
+    public void enableWorkGroupTuning() {
+        if (valid && !isSPIRVBinary && WorkGroupTuner.isEnabled()) {
+            scheduler.enableWorkGroupTuning(getGeneratedSourceCode());
+        }
+    }
+
     @Override
     public void invalidate() {
         if (valid) {
@@ -298,15 +310,12 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
         if (TornadoOptions.isProfilerEnabled()) {
             Event tornadoKernelEvent = deviceContext.resolveEvent(executionPlanId, task);
             tornadoKernelEvent.waitForEvents(executionPlanId);
-            long timer = meta.getProfiler().getTimer(ProfilerType.TOTAL_KERNEL_TIME);
             // Register globalTime
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_KERNEL_TIME, timer + tornadoKernelEvent.getElapsedTime());
+            meta.getProfiler().sum(ProfilerType.TOTAL_KERNEL_TIME, tornadoKernelEvent.getElapsedTime());
             // Register the time for the task
             meta.getProfiler().setTaskTimer(ProfilerType.TASK_KERNEL_TIME, meta.getId(), tornadoKernelEvent.getElapsedTime());
             // Register the dispatch time of the kernel
-            long dispatchValue = meta.getProfiler().getTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME);
-            dispatchValue += tornadoKernelEvent.getDriverDispatchTime();
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, dispatchValue);
+            meta.getProfiler().sum(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, tornadoKernelEvent.getDriverDispatchTime());
         }
         return task;
     }
@@ -370,14 +379,10 @@ public class OCLInstalledCode extends InstalledCode implements TornadoInstalledC
             TornadoProfiler profiler = meta.getProfiler();
             Event event = deviceContext.resolveEvent(executionPlanId, kernelContextWriteEventId);
             event.waitForEvents(executionPlanId);
-            long copyInTimer = meta.getProfiler().getTimer(ProfilerType.COPY_IN_TIME);
-            copyInTimer += event.getElapsedTime();
-            profiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
+            profiler.sum(ProfilerType.COPY_IN_TIME, event.getElapsedTime());
             profiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, meta.getId(), callWrapper.getSize());
 
-            long dispatchValue = profiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-            dispatchValue += event.getDriverDispatchTime();
-            profiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+            profiler.sum(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, event.getDriverDispatchTime());
         }
     }
 
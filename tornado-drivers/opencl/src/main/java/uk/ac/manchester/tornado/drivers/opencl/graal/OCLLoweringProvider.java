@@ -93,8 +93,10 @@ import jdk.vm.ci.meta.PrimitiveConstant;
 import jdk.vm.ci.meta.ResolvedJavaField;
 import jdk.vm.ci.meta.ResolvedJavaType;
 import uk.ac.manchester.tornado.drivers.opencl.OCLTargetDescription;
+import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLAtomicIncrementNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.AtomicAddNode;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.AtomicIncrementNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.CastNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.FixedArrayNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GlobalThreadIdNode;
@@ -175,6 +177,8 @@ public class OCLLoweringProvider extends DefaultJavaLoweringProvider {
             lowerNewArrayNode((NewArrayNonVirtualizableNode) node);
         } else if (node instanceof AtomicAddNode) {
             lowerAtomicAddNode((AtomicAddNode) node, tool);
+        } else if (node instanceof AtomicIncrementNode) {
+            lowerAtomicIncrementNode((AtomicIncrementNode) node);
         } else if (node instanceof LoadIndexedNode) {
             lowerLoadIndexedNode((LoadIndexedNode) node, tool);
         } else if (node instanceof StoreIndexedNode) {
@@ -429,6 +433,13 @@ public class OCLLoweringProvider extends DefaultJavaLoweringProvider {
         shouldNotReachHere("need to use builtin nodes");
     }
 
+    private void lowerAtomicIncrementNode(AtomicIncrementNode atomicIncrement) {
+        StructuredGraph graph = atomicIncrement.graph();
+        AddressNode address = createArrayAddress(graph, atomicIncrement.array(), atomicIncrement.elementKind(), atomicIncrement.index());
+        OCLAtomicIncrementNode atomicIncrementNode = graph.add(new OCLAtomicIncrementNode(address));
+        graph.replaceFixedWithFixed(atomicIncrement, atomicIncrementNode);
+    }
+
     private void lowerInvoke(Invoke invoke, LoweringTool tool, StructuredGraph graph) {
         if (invoke.callTarget() instanceof MethodCallTargetNode) {
             MethodCallTargetNode callTarget = (MethodCallTargetNode) invoke.callTarget();
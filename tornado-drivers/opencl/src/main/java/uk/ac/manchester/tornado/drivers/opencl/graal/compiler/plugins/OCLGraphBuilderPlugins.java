@@ -50,9 +50,11 @@ import org.graalvm.compiler.core.common.type.StampFactory;
 import org.graalvm.compiler.graph.Node;
 import org.graalvm.compiler.nodes.ConstantNode;
 import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.NodeView;
 import org.graalvm.compiler.nodes.PiNode;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.NarrowNode;
 import org.graalvm.compiler.nodes.extended.BoxNode;
 import org.graalvm.compiler.nodes.extended.JavaReadNode;
 import org.graalvm.compiler.nodes.extended.JavaWriteNode;
@@ -78,9 +80,11 @@ import uk.ac.manchester.tornado.api.KernelContext;
 import uk.ac.manchester.tornado.api.TornadoVMIntrinsics;
 import uk.ac.manchester.tornado.api.exceptions.Debug;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.drivers.opencl.graal.OCLArchitecture;
 import uk.ac.manchester.tornado.drivers.opencl.graal.lir.OCLKind;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.AtomicAddNodeTemplate;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.AtomicIncrementNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.DecAtomicNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GetAtomicNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.IncAtomicNode;
@@ -237,6 +241,16 @@ public class OCLGraphBuilderPlugins {
         });
     }
 
+    private static void registerAtomicIncrement(Registration r) {
+        r.register(new InvocationPlugin("atomicIncrement", Receiver.class, int[].class, int.class) {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode array, ValueNode index) {
+                b.addPush(JavaKind.Int, new AtomicIncrementNode(array, index, JavaKind.Int));
+                return true;
+            }
+        });
+    }
+
     private static void registerIntLocalArray(Registration r, JavaKind returnedJavaKind, JavaKind elementType) {
         r.register(new InvocationPlugin("allocateIntLocalArray", Receiver.class, int.class) {
             @Override
@@ -307,6 +321,7 @@ public class OCLGraphBuilderPlugins {
         registerLocalBarrier(r);
         registerGlobalBarrier(r);
         localArraysPlugins(r);
+        registerAtomicIncrement(r);
     }
 
     private static boolean printfHandler(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode... args) {
@@ -401,6 +416,15 @@ public class OCLGraphBuilderPlugins {
     }
 
     private static void registerMemoryAccessPlugins(InvocationPlugins plugins) {
+        // The modifications of native arrays are only tracked on the host
+        Registration nativeArrayRegistration = new Registration(plugins, TornadoNativeArray.class);
+        nativeArrayRegistration.register(new InvocationPlugin("markAsModified", Receiver.class) {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver) {
+                return true;
+            }
+        });
+
         Registration r = new Registration(plugins, MemorySegment.class);
 
         for (JavaKind kind : JavaKind.values()) {
@@ -408,7 +432,7 @@ public class OCLGraphBuilderPlugins {
                 r.register(new InvocationPlugin("getAtIndex", Receiver.class, getValueLayoutClass(kind.toJavaClass()), long.class) {
                     @Override
                     public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode layout, ValueNode index) {
-                        MulNode mulNode = b.append(new MulNode(index, ConstantNode.forInt(kind.getByteCount())));
+                        MulNode mulNode = b.append(new MulNode(index, ConstantNode.forLong(kind.getByteCount())));
                         AddressNode addressNode = b.append(new OffsetAddressNode(receiver.get(), mulNode));
                         JavaReadNode readNode = new JavaReadNode(kind, addressNode, LocationIdentity.any(), BarrierType.NONE, MemoryOrderMode.PLAIN, false);
                         b.addPush(kind, readNode);
@@ -418,7 +442,7 @@ public class OCLGraphBuilderPlugins {
                 r.register(new InvocationPlugin("setAtIndex", Receiver.class, getValueLayoutClass(kind.toJavaClass()), long.class, kind.toJavaClass()) {
                     @Override
                     public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode layout, ValueNode index, ValueNode value) {
-                        MulNode mulNode = b.append(new MulNode(index, ConstantNode.forInt(kind.getByteCount())));
+                        MulNode mulNode = b.append(new MulNode(index, ConstantNode.forLong(kind.getByteCount())));
                         AddressNode addressNode = b.append(new OffsetAddressNode(receiver.get(), mulNode));
                         JavaWriteNode writeNode = new JavaWriteNode(kind, addressNode, LocationIdentity.any(), value, BarrierType.NONE, false);
                         b.add(writeNode);
@@ -530,6 +554,7 @@ public class OCLGraphBuilderPlugins {
         registerOpenCLOverridesForType(r, Integer.TYPE, JavaKind.Int);
         registerOpenCLOverridesForType(r, Long.TYPE, JavaKind.Long);
         registerFPIntrinsics(r);
+        registerToIntExact(r);
 
         Registration longReg = new Registration(plugins, Long.class);
         longReg.register(new InvocationPlugin("bitCount", Long.TYPE) {
@@ -550,6 +575,21 @@ public class OCLGraphBuilderPlugins {
         });
     }
 
+    /**
+     * Native arrays return their size with {@link Math#toIntExact(long)}, which
+     * throws on the host for arrays of more than {@link Integer#MAX_VALUE}
+     * elements. Kernels cannot throw, so the size is narrowed to an int.
+     */
+    private static void registerToIntExact(Registration r) {
+        r.register(new InvocationPlugin("toIntExact", Long.TYPE) {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode value) {
+                b.push(JavaKind.Int, b.append(NarrowNode.create(value, Integer.SIZE, NodeView.DEFAULT)));
+                return true;
+            }
+        });
+    }
+
     private static void registerFPIntrinsics(Registration r) {
         r.register(new InvocationPlugin("pow", Double.TYPE, Double.TYPE) {
             @Override
@@ -949,6 +949,55 @@ public class OCLLIRStmt {
         }
     }
 
+    @Opcode("ATOMIC_INC")
+    public static class AtomicIncrementStmt extends AbstractInstruction {
+
+        public static final LIRInstructionClass<AtomicIncrementStmt> TYPE = LIRInstructionClass.create(AtomicIncrementStmt.class);
+
+        @Def
+        protected AllocatableValue lhs;
+        @Use
+        protected OCLAddressCast cast;
+        @Use
+        protected MemoryAccess address;
+
+        public AtomicIncrementStmt(AllocatableValue lhs, OCLAddressCast cast, MemoryAccess address) {
+            super(TYPE);
+            this.lhs = lhs;
+            this.cast = cast;
+            this.address = address;
+        }
+
+        @Override
+        public void emitCode(OCLCompilationResultBuilder crb, OCLAssembler asm) {
+            asm.indent();
+            asm.emitValue(crb, lhs);
+            asm.space();
+            asm.assign();
+            asm.space();
+            asm.emit("atomic_inc( & (");
+            asm.emit("*(");
+            cast.emit(crb, asm);
+            asm.space();
+            address.emit(crb, asm);
+            asm.emit(")))");
+            asm.delimiter();
+            asm.eol();
+        }
+
+        public AllocatableValue getResult() {
+            return lhs;
+        }
+
+        public OCLAddressCast getCast() {
+            return cast;
+        }
+
+        public MemoryAccess getAddress() {
+            return address;
+        }
+    }
+
     @Opcode("VSTORE")
     public static class VectorStoreStmt extends AbstractInstruction {
 
@@ -21,8 +21,10 @@
  */
 package uk.ac.manchester.tornado.drivers.opencl.graal.nodes;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.graalvm.compiler.core.common.type.StampFactory;
 import org.graalvm.compiler.graph.NodeClass;
@@ -52,12 +54,15 @@ public class TornadoAtomicIntegerNode extends FixedWithNextNode implements LIRLo
 
     private boolean ATOMIC_2_0 = false;
 
-    // How many atomics integers per graph
-    public static HashMap<ResolvedJavaMethod, ArrayList<Integer>> globalAtomics = new HashMap<>();
+    // How many atomics integers per graph. Tasks of a graph can be compiled
+    // concurrently, also tasks of the same method, so the maps and their values
+    // are shared by the compiler threads. The positions are reserved while
+    // holding the lock of globalAtomics.
+    public static final Map<ResolvedJavaMethod, List<Integer>> globalAtomics = new ConcurrentHashMap<>();
 
     // Mapping between:
     // Java Method: -> { ParamIndex -> Position in the Atomic Buffer }
-    public static HashMap<ResolvedJavaMethod, HashMap<Integer, Integer>> globalAtomicsParameters = new HashMap<>();
+    public static final Map<ResolvedJavaMethod, Map<Integer, Integer>> globalAtomicsParameters = new ConcurrentHashMap<>();
 
     private static final int DEFAULT_VALUE = -1;
 
@@ -112,11 +117,6 @@ public class TornadoAtomicIntegerNode extends FixedWithNextNode implements LIRLo
         }
     }
 
-    private void updateGlobalAtomicTable(HashMap positions, int paramIndex, int size) {
-        positions.put(paramIndex, size);
-        globalAtomicsParameters.put(this.graph().method(), positions);
-    }
-
     /**
      * Method to reserve a position in the atomic-int global buffer and map the
      * parameter index with the assigned position. The mapping-table is obtained at
@@ -127,27 +127,15 @@ public class TornadoAtomicIntegerNode extends FixedWithNextNode implements LIRLo
      *            Object parameter index taken from
      *            {@link org.graalvm.compiler.nodes.ParameterNode}.
      */
-    public synchronized void assignIndexFromParameter(int paramIndex) {
-        if (!globalAtomics.containsKey(this.graph().method())) {
-            ArrayList<Integer> al = new ArrayList<>();
-            al.add(DEFAULT_VALUE);
-            // The position is reserved to be filled by TornadoVM. This position is then
-            // used by the TornadoVM runtime to copy the initial value for the Atomic before
-            // the kernel execution.
-            globalAtomics.put(this.graph().method(), al);
-            updateGlobalAtomicTable(new HashMap<>(), paramIndex, al.size() - 1);
-            this.indexFromGlobalMemory = 0;
-        } else {
-            ArrayList<Integer> al = globalAtomics.get(this.graph().method());
-            this.indexFromGlobalMemory = al.size();
-            al.add(DEFAULT_VALUE);
+    public void assignIndexFromParameter(int paramIndex) {
+        synchronized (globalAtomics) {
+            List<Integer> positions = globalAtomics.computeIfAbsent(this.graph().method(), method -> new CopyOnWriteArrayList<>());
+            this.indexFromGlobalMemory = positions.size();
             // A position for the atomic is reserved. This position is then used by the
             // TornadoVM runtime to copy the initial value for the Atomic before the kernel
             // execution.
-            globalAtomics.put(this.graph().method(), al);
-
-            HashMap positions = globalAtomicsParameters.get(this.graph().method());
-            updateGlobalAtomicTable(positions, paramIndex, al.size() - 1);
+            positions.add(DEFAULT_VALUE);
+            globalAtomicsParameters.computeIfAbsent(this.graph().method(), method -> new ConcurrentHashMap<>()).put(paramIndex, indexFromGlobalMemory);
         }
         atomicsByParameter = true;
     }
@@ -156,17 +144,11 @@ public class TornadoAtomicIntegerNode extends FixedWithNextNode implements LIRLo
         return atomicsByParameter;
     }
 
-    private synchronized void assignIndex() {
-        if (!globalAtomics.containsKey(this.graph().method())) {
-            ArrayList<Integer> al = new ArrayList<>();
-            al.add(getIntFromValueNode());
-            globalAtomics.put(this.graph().method(), al);
-            this.indexFromGlobalMemory = 0;
-        } else {
-            ArrayList<Integer> al = globalAtomics.get(this.graph().method());
-            this.indexFromGlobalMemory = al.size();
-            al.add(getIntFromValueNode());
-            globalAtomics.put(this.graph().method(), al);
+    private void assignIndex() {
+        synchronized (globalAtomics) {
+            List<Integer> values = globalAtomics.computeIfAbsent(this.graph().method(), method -> new CopyOnWriteArrayList<>());
+            this.indexFromGlobalMemory = values.size();
+            values.add(getIntFromValueNode());
         }
     }
 
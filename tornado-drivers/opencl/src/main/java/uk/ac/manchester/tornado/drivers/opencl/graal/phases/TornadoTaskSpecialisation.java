@@ -29,6 +29,7 @@ import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getDebugContex
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.BitSet;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -45,8 +46,11 @@ import org.graalvm.compiler.nodes.ParameterNode;
 import org.graalvm.compiler.nodes.PhiNode;
 import org.graalvm.compiler.nodes.PiNode;
 import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.IntegerConvertNode;
 import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
 import org.graalvm.compiler.nodes.calc.IsNullNode;
+import org.graalvm.compiler.nodes.calc.SignExtendNode;
 import org.graalvm.compiler.nodes.java.ArrayLengthNode;
 import org.graalvm.compiler.nodes.java.LoadFieldNode;
 import org.graalvm.compiler.nodes.util.GraphUtil;
@@ -59,11 +63,14 @@ import jdk.vm.ci.meta.ResolvedJavaField;
 import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.drivers.common.compiler.phases.analysis.TornadoValueTypeReplacement;
 import uk.ac.manchester.tornado.drivers.common.compiler.phases.loops.TornadoLoopUnroller;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLKernelContextAccessNode;
+import uk.ac.manchester.tornado.runtime.common.BatchCompilationConfig;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.domain.DynamicLoopBounds;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoHighTierContext;
 
@@ -76,7 +83,9 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
     private final DeadCodeEliminationPhase deadCodeElimination;
     private final TornadoLoopUnroller loopUnroll;
     private long batchThreads;
+    private BatchCompilationConfig batchCompilationConfig;
     private boolean gridScheduling;
+    private DynamicLoopBounds dynamicLoopBounds;
     private int index;
     private boolean printOnce = true;
 
@@ -172,8 +181,8 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
                      */
                     if (Modifier.isFinal(f.getModifiers())) {
                         final Object value = lookup(obj, f::get);
-                        node.usages().filter(LoadFieldNode.class).forEach(load -> evaluate(graph, load, value));
-                        node.usages().filter(ArrayLengthNode.class).forEach(arrayLength -> evaluate(graph, arrayLength, value));
+                        node.usages().filter(LoadFieldNode.class).forEach(load -> evaluate(graph, load, value, -1));
+                        node.usages().filter(ArrayLengthNode.class).forEach(arrayLength -> evaluate(graph, arrayLength, value, -1));
                     }
                     break;
                 case Illegal, Void:
@@ -193,9 +202,42 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
         }
     }
 
-    private void evaluate(final StructuredGraph graph, final Node node, final Object value) {
+    private boolean isPartitionedInBatch(Object value) {
+        if (value instanceof TornadoNativeArray nativeArray) {
+            return batchCompilationConfig.isPartitioned(nativeArray.getSizeAsLong());
+        }
+        return batchThreads > 0;
+    }
+
+    private OCLKernelContextAccessNode createKernelContextAccess(StructuredGraph graph, int slot) {
+        ConstantNode constantValue = graph.addOrUnique(ConstantNode.forInt(slot));
+        return graph.addOrUnique(new OCLKernelContextAccessNode(constantValue));
+    }
+
+    /**
+     * Returns the dimensions of the parallel loops whose upper bound is the value
+     * of a node, directly or through integer conversions.
+     */
+    private static int[] getParallelLoopDimensions(Node node) {
+        BitSet dimensions = new BitSet();
+        collectParallelLoopDimensions(node, dimensions);
+        return dimensions.stream().toArray();
+    }
+
+    private static void collectParallelLoopDimensions(Node node, BitSet dimensions) {
+        for (Node usage : node.usages()) {
+            if (usage instanceof ParallelRangeNode range) {
+                dimensions.set(range.index());
+            } else if (usage instanceof IntegerConvertNode<?> || usage instanceof PiNode) {
+                collectParallelLoopDimensions(usage, dimensions);
+            }
+        }
+    }
+
+    private void evaluate(final StructuredGraph graph, final Node node, final Object value, final int parameterIndex) {
         if (node instanceof ArrayLengthNode arrayLength) {
             int length = Array.getLength(value);
+            int[] parallelLoopDimensions = dynamicLoopBounds != null ? getParallelLoopDimensions(node) : null;
 
             /**
              * This condition covers the case that loop bounds should be taken based on the
@@ -211,8 +253,15 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
                 OCLKernelContextAccessNode kernelContextAccessNode = graph.addOrUnique(new OCLKernelContextAccessNode(constantValue));
                 node.replaceAtUsages(kernelContextAccessNode);
                 index++;
+            } else if (parallelLoopDimensions != null && parallelLoopDimensions.length > 0) {
+                // Size-generic kernel: the length is read from the kernel context
+                int slot = dynamicLoopBounds.addBound(parameterIndex, true, length, parallelLoopDimensions);
+                node.replaceAtUsages(createKernelContextAccess(graph, slot));
             } else {
-                final ConstantNode constant = (batchThreads <= 0) ? ConstantNode.forInt(length) : ConstantNode.forInt((int) batchThreads);
+                if (dynamicLoopBounds != null) {
+                    dynamicLoopBounds.foldLength(parameterIndex);
+                }
+                final ConstantNode constant = !batchCompilationConfig.isPartitioned(length) ? ConstantNode.forInt(length) : ConstantNode.forInt((int) batchThreads);
                 node.replaceAtUsages(graph.addOrUnique(constant));
             }
             arrayLength.clearInputs();
@@ -222,10 +271,28 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
             if (field.getType().getJavaKind().isPrimitive()) {
                 ConstantNode constant;
                 if (node.toString().contains("numberOfElements")) {
-                    if (batchThreads <= 0) {
+                    if (dynamicLoopBounds != null && value instanceof TornadoNativeArray nativeArray) {
+                        int[] parallelLoopDimensions = getParallelLoopDimensions(loadField);
+                        if (parallelLoopDimensions.length > 0) {
+                            // Size-generic kernel: the number of elements is read from the kernel context
+                            int slot = dynamicLoopBounds.addBound(parameterIndex, true, nativeArray.getSize(), parallelLoopDimensions);
+                            ValueNode length = createKernelContextAccess(graph, slot);
+                            if (field.getJavaKind() == JavaKind.Long) {
+                                length = graph.addOrUnique(new SignExtendNode(length, JavaKind.Long.getBitCount()));
+                            }
+                            loadField.replaceAtUsages(length);
+                            loadField.clearInputs();
+                            graph.removeFixed(loadField);
+                            return;
+                        }
+                    }
+                    if (dynamicLoopBounds != null) {
+                        dynamicLoopBounds.foldLength(parameterIndex);
+                    }
+                    if (!isPartitionedInBatch(value)) {
                         constant = lookupPrimField(graph, node, value, field.getName(), field.getJavaKind());
                     } else {
-                        constant = ConstantNode.forInt((int) batchThreads);
+                        constant = ConstantNode.forIntegerKind(field.getJavaKind(), batchThreads);
                     }
                 } else {
                     constant = lookupPrimField(graph, node, value, field.getName(), field.getJavaKind());
@@ -236,7 +303,7 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
                 graph.removeFixed(loadField);
             } else if (field.isFinal()) {
                 Object object = lookupRefField(graph, node, value, field.getName());
-                node.usages().forEach(n -> evaluate(graph, n, object));
+                node.usages().forEach(n -> evaluate(graph, n, object, -1));
             } else if (!field.isFinal()) {
                 throw new TornadoBailoutRuntimeException("Non-final objects introduced via scope are not supported");
             }
@@ -296,13 +363,17 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
                 OCLKernelContextAccessNode kernelContextAccessNode = graph.addOrUnique(new OCLKernelContextAccessNode(constantValue));
                 parameterNode.replaceAtUsages(kernelContextAccessNode);
                 index++;
+            } else if (dynamicLoopBounds != null && args[parameterNode.index()] instanceof Integer bound && isParameterInvolvedInParallelLoopBound(parameterNode)) {
+                // Size-generic kernel: the scalar is read from the kernel context
+                int slot = dynamicLoopBounds.addBound(parameterNode.index(), false, bound, getParallelLoopDimensions(parameterNode));
+                parameterNode.replaceAtUsages(createKernelContextAccess(graph, slot));
             } else {
                 ConstantNode constant = createConstantFromObject(args[parameterNode.index()], graph);
                 parameterNode.replaceAtUsages(constant);
             }
         } else {
             parameterNode.usages().snapshot().forEach(n -> {
-                evaluate(graph, n, args[parameterNode.index()]);
+                evaluate(graph, n, args[parameterNode.index()], parameterNode.index());
             });
         }
     }
@@ -312,8 +383,10 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
         int iterations = 0;
         int lastNodeCount = graph.getNodeCount();
         boolean hasWork = true;
-        this.batchThreads = context.getBatchCompilationConfig().getBatchThreads();
+        this.batchCompilationConfig = context.getBatchCompilationConfig();
+        this.batchThreads = batchCompilationConfig.getBatchThreads();
         this.gridScheduling = context.isGridSchedulerEnabled();
+        this.dynamicLoopBounds = context.getDynamicLoopBounds();
 
         while (hasWork) {
             final Mark mark = graph.getMark();
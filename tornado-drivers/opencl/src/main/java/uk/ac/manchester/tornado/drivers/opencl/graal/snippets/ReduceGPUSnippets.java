@@ -26,6 +26,7 @@
 package uk.ac.manchester.tornado.drivers.opencl.graal.snippets;
 
 import org.graalvm.compiler.api.replacements.Snippet;
+import org.graalvm.compiler.api.replacements.Snippet.ConstantParameter;
 import org.graalvm.compiler.nodes.GraphState;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.java.NewArrayNode;
@@ -44,6 +45,7 @@ import uk.ac.manchester.tornado.drivers.opencl.builtins.OpenCLIntrinsics;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.GlobalThreadSizeNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLFPBinaryIntrinsicNode;
 import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.OCLIntBinaryIntrinsicNode;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.nodes.StoreAtomicIndexedNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.TornadoReduceAddNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.TornadoReduceMulNode;
@@ -61,7 +63,7 @@ public class ReduceGPUSnippets implements Snippets {
     private static int LOCAL_WORK_GROUP_SIZE = 223;
 
     @Snippet
-    public static void partialReduceIntAdd(int[] inputArray, int[] outputArray, int gidx) {
+    public static void partialReduceIntAdd(int[] inputArray, int[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
         int[] localArray = (int[]) NewArrayNode.newUninitializedArray(int.class, LOCAL_WORK_GROUP_SIZE);
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
@@ -81,10 +83,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceIntAdd(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceIntAddCarrierValue(int[] inputArray, int[] outputArray, int gidx, int value) {
+    public static void partialReduceIntAddCarrierValue(int[] inputArray, int[] outputArray, int gidx, int value, @ConstantParameter boolean singleLaunch) {
 
         int[] localArray = (int[]) NewArrayNode.newUninitializedArray(int.class, LOCAL_WORK_GROUP_SIZE);
 
@@ -104,10 +109,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceIntAdd(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceLongAdd(long[] inputArray, long[] outputArray, int gidx) {
+    public static void partialReduceLongAdd(long[] inputArray, long[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
         long[] localArray = (long[]) NewArrayNode.newUninitializedArray(long.class, LOCAL_WORK_GROUP_SIZE);
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
@@ -127,10 +135,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceLongAdd(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceLongAddCarrierValue(long[] inputArray, long[] outputArray, int gidx, long value) {
+    public static void partialReduceLongAddCarrierValue(long[] inputArray, long[] outputArray, int gidx, long value, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -151,10 +162,14 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = inputArray[myID];
         }
+        if (singleLaunch) {
+            long[] localArray = (long[]) NewArrayNode.newUninitializedArray(long.class, LOCAL_WORK_GROUP_SIZE);
+            finishReduceLongAdd(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceFloatAdd(float[] inputArray, float[] outputArray, int gidx) {
+    public static void partialReduceFloatAdd(float[] inputArray, float[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
         float[] localArray = (float[]) NewArrayNode.newUninitializedArray(float.class, LOCAL_WORK_GROUP_SIZE);
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
@@ -174,10 +189,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceFloatAdd(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceFloatAddCarrierValue(float[] inputArray, float[] outputArray, int gidx, float value) {
+    public static void partialReduceFloatAddCarrierValue(float[] inputArray, float[] outputArray, int gidx, float value, @ConstantParameter boolean singleLaunch) {
 
         float[] localArray = (float[]) NewArrayNode.newUninitializedArray(float.class, LOCAL_WORK_GROUP_SIZE);
 
@@ -198,10 +216,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceFloatAdd(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceDoubleAdd(double[] inputArray, double[] outputArray, int gidx) {
+    public static void partialReduceDoubleAdd(double[] inputArray, double[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -222,10 +243,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceDoubleAdd(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceDoubleAddCarrierValue(double[] inputArray, double[] outputArray, int gidx, double value) {
+    public static void partialReduceDoubleAddCarrierValue(double[] inputArray, double[] outputArray, int gidx, double value, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -245,10 +269,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceDoubleAdd(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceIntMult(int[] inputArray, int[] outputArray, int gidx) {
+    public static void partialReduceIntMult(int[] inputArray, int[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -269,10 +296,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceIntMult(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceIntMultCarrierValue(int[] inputArray, int[] outputArray, int gidx, int value) {
+    public static void partialReduceIntMultCarrierValue(int[] inputArray, int[] outputArray, int gidx, int value, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -292,10 +322,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceIntMult(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceLongMult(long[] inputArray, long[] outputArray, int gidx) {
+    public static void partialReduceLongMult(long[] inputArray, long[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -316,10 +349,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceLongMult(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceLongMultCarrierValue(long[] inputArray, long[] outputArray, int gidx, long value) {
+    public static void partialReduceLongMultCarrierValue(long[] inputArray, long[] outputArray, int gidx, long value, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -339,10 +375,14 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = inputArray[myID];
         }
+        if (singleLaunch) {
+            long[] localArray = (long[]) NewArrayNode.newUninitializedArray(long.class, LOCAL_WORK_GROUP_SIZE);
+            finishReduceLongMult(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceFloatMult(float[] inputArray, float[] outputArray, int gidx) {
+    public static void partialReduceFloatMult(float[] inputArray, float[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -363,10 +403,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceFloatMult(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceFloatMultCarrierValue(float[] inputArray, float[] outputArray, int gidx, float value) {
+    public static void partialReduceFloatMultCarrierValue(float[] inputArray, float[] outputArray, int gidx, float value, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -387,10 +430,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceFloatMult(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceDoubleMult(double[] inputArray, double[] outputArray, int gidx) {
+    public static void partialReduceDoubleMult(double[] inputArray, double[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -411,10 +457,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceDoubleMult(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceDoubleMultCarrierValue(double[] inputArray, double[] outputArray, int gidx, double value) {
+    public static void partialReduceDoubleMultCarrierValue(double[] inputArray, double[] outputArray, int gidx, double value, @ConstantParameter boolean singleLaunch) {
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
         int groupID = OpenCLIntrinsics.get_group_id(0);
@@ -434,10 +483,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceDoubleMult(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceIntMax(int[] inputArray, int[] outputArray, int gidx) {
+    public static void partialReduceIntMax(int[] inputArray, int[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
         int groupID = OpenCLIntrinsics.get_group_id(0);
@@ -456,10 +508,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceIntMax(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceIntMaxCarrierValue(int[] inputArray, int[] outputArray, int gidx, int extra) {
+    public static void partialReduceIntMaxCarrierValue(int[] inputArray, int[] outputArray, int gidx, int extra, @ConstantParameter boolean singleLaunch) {
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
         int groupID = OpenCLIntrinsics.get_group_id(0);
@@ -478,10 +533,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceIntMax(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceLongMax(long[] inputArray, long[] outputArray, int gidx) {
+    public static void partialReduceLongMax(long[] inputArray, long[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -502,10 +560,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceLongMax(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceLongMaxCarrierValue(long[] inputArray, long[] outputArray, int gidx, long extra) {
+    public static void partialReduceLongMaxCarrierValue(long[] inputArray, long[] outputArray, int gidx, long extra, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -526,10 +587,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceLongMax(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceFloatMax(float[] inputArray, float[] outputArray, int gidx) {
+    public static void partialReduceFloatMax(float[] inputArray, float[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -549,10 +613,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceFloatMax(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceFloatMaxCarrierValue(float[] inputArray, float[] outputArray, int gidx, float extra) {
+    public static void partialReduceFloatMaxCarrierValue(float[] inputArray, float[] outputArray, int gidx, float extra, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -572,10 +639,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceFloatMax(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceDoubleMax(double[] inputArray, double[] outputArray, int gidx) {
+    public static void partialReduceDoubleMax(double[] inputArray, double[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
         int groupID = OpenCLIntrinsics.get_group_id(0);
@@ -594,10 +664,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceDoubleMax(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceDoubleMaxCarrierValue(double[] inputArray, double[] outputArray, int gidx, double extra) {
+    public static void partialReduceDoubleMaxCarrierValue(double[] inputArray, double[] outputArray, int gidx, double extra, @ConstantParameter boolean singleLaunch) {
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
         int groupID = OpenCLIntrinsics.get_group_id(0);
@@ -616,10 +689,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceDoubleMax(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceIntMin(int[] inputArray, int[] outputArray, int gidx) {
+    public static void partialReduceIntMin(int[] inputArray, int[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -639,10 +715,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceIntMin(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceIntMinCarrierValue(int[] inputArray, int[] outputArray, int gidx, int extra) {
+    public static void partialReduceIntMinCarrierValue(int[] inputArray, int[] outputArray, int gidx, int extra, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -662,10 +741,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceIntMin(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceLongMin(long[] inputArray, long[] outputArray, int gidx) {
+    public static void partialReduceLongMin(long[] inputArray, long[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -686,10 +768,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceLongMin(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceLongMinCarrierValue(long[] inputArray, long[] outputArray, int gidx, long extra) {
+    public static void partialReduceLongMinCarrierValue(long[] inputArray, long[] outputArray, int gidx, long extra, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -710,10 +795,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceLongMin(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceFloatMin(float[] inputArray, float[] outputArray, int gidx) {
+    public static void partialReduceFloatMin(float[] inputArray, float[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -733,10 +821,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceFloatMin(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceFloatMinCarrierValue(float[] inputArray, float[] outputArray, int gidx, float extra) {
+    public static void partialReduceFloatMinCarrierValue(float[] inputArray, float[] outputArray, int gidx, float extra, @ConstantParameter boolean singleLaunch) {
 
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
@@ -756,10 +847,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceFloatMin(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceDoubleMin(double[] inputArray, double[] outputArray, int gidx) {
+    public static void partialReduceDoubleMin(double[] inputArray, double[] outputArray, int gidx, @ConstantParameter boolean singleLaunch) {
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
         int groupID = OpenCLIntrinsics.get_group_id(0);
@@ -778,10 +872,13 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceDoubleMin(outputArray, localArray, localIdx, localGroupSize);
+        }
     }
 
     @Snippet
-    public static void partialReduceDoubleMinCarrierValue(double[] inputArray, double[] outputArray, int gidx, double extra) {
+    public static void partialReduceDoubleMinCarrierValue(double[] inputArray, double[] outputArray, int gidx, double extra, @ConstantParameter boolean singleLaunch) {
         int localIdx = OpenCLIntrinsics.get_local_id(0);
         int localGroupSize = OpenCLIntrinsics.get_local_size(0);
         int groupID = OpenCLIntrinsics.get_group_id(0);
@@ -800,6 +897,514 @@ public class ReduceGPUSnippets implements Snippets {
         if (localIdx == 0) {
             outputArray[groupID + 1] = localArray[0];
         }
+        if (singleLaunch) {
+            finishReduceDoubleMin(outputArray, localArray, localIdx, localGroupSize);
+        }
+    }
+
+    /**
+     * Final reduction with {@link TornadoOptions#REDUCE_SINGLE_LAUNCH}
+     * (last-block-done), for the tasks whose reduce array has room for the counter
+     * ({@link StoreAtomicIndexedNode#isSingleLaunch()}). Once its partial result is
+     * visible, each work-group takes a ticket from the counter stored after the
+     * partial results. The work-group that takes the last ticket combines the
+     * partial results of all work-groups into position 0 and resets the counter for
+     * the next launch.
+     */
+    private static void finishReduceIntAdd(int[] outputArray, int[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            int partial = 0;
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial += outputArray[i + 1];
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] += localArray[localIdx + stride];
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0;
+            }
+        }
+    }
+
+    private static void finishReduceIntMult(int[] outputArray, int[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            int partial = 1;
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial *= outputArray[i + 1];
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] *= localArray[localIdx + stride];
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0;
+            }
+        }
+    }
+
+    private static void finishReduceIntMax(int[] outputArray, int[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            int partial = outputArray[1];
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial = TornadoMath.max(partial, outputArray[i + 1]);
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] = TornadoMath.max(localArray[localIdx], localArray[localIdx + stride]);
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0;
+            }
+        }
+    }
+
+    private static void finishReduceIntMin(int[] outputArray, int[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            int partial = outputArray[1];
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial = TornadoMath.min(partial, outputArray[i + 1]);
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] = TornadoMath.min(localArray[localIdx], localArray[localIdx + stride]);
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0;
+            }
+        }
+    }
+
+    private static void finishReduceLongAdd(long[] outputArray, long[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            long partial = 0L;
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial += outputArray[i + 1];
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] += localArray[localIdx + stride];
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0L;
+            }
+        }
+    }
+
+    private static void finishReduceLongMult(long[] outputArray, long[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            long partial = 1L;
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial *= outputArray[i + 1];
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] *= localArray[localIdx + stride];
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0L;
+            }
+        }
+    }
+
+    private static void finishReduceLongMax(long[] outputArray, long[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            long partial = outputArray[1];
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial = TornadoMath.max(partial, outputArray[i + 1]);
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] = TornadoMath.max(localArray[localIdx], localArray[localIdx + stride]);
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0L;
+            }
+        }
+    }
+
+    private static void finishReduceLongMin(long[] outputArray, long[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            long partial = outputArray[1];
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial = TornadoMath.min(partial, outputArray[i + 1]);
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] = TornadoMath.min(localArray[localIdx], localArray[localIdx + stride]);
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0L;
+            }
+        }
+    }
+
+    private static void finishReduceFloatAdd(float[] outputArray, float[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            float partial = 0.0f;
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial += outputArray[i + 1];
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] += localArray[localIdx + stride];
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0.0f;
+            }
+        }
+    }
+
+    private static void finishReduceFloatMult(float[] outputArray, float[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            float partial = 1.0f;
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial *= outputArray[i + 1];
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] *= localArray[localIdx + stride];
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0.0f;
+            }
+        }
+    }
+
+    private static void finishReduceFloatMax(float[] outputArray, float[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            float partial = outputArray[1];
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial = TornadoMath.max(partial, outputArray[i + 1]);
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] = TornadoMath.max(localArray[localIdx], localArray[localIdx + stride]);
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0.0f;
+            }
+        }
+    }
+
+    private static void finishReduceFloatMin(float[] outputArray, float[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            float partial = outputArray[1];
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial = TornadoMath.min(partial, outputArray[i + 1]);
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] = TornadoMath.min(localArray[localIdx], localArray[localIdx + stride]);
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0.0f;
+            }
+        }
+    }
+
+    private static void finishReduceDoubleAdd(double[] outputArray, double[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            double partial = 0.0;
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial += outputArray[i + 1];
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] += localArray[localIdx + stride];
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0.0;
+            }
+        }
+    }
+
+    private static void finishReduceDoubleMult(double[] outputArray, double[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            double partial = 1.0;
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial *= outputArray[i + 1];
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] *= localArray[localIdx + stride];
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0.0;
+            }
+        }
+    }
+
+    private static void finishReduceDoubleMax(double[] outputArray, double[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            double partial = outputArray[1];
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial = TornadoMath.max(partial, outputArray[i + 1]);
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] = TornadoMath.max(localArray[localIdx], localArray[localIdx + stride]);
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0.0;
+            }
+        }
+    }
+
+    private static void finishReduceDoubleMin(double[] outputArray, double[] localArray, int localIdx, int localGroupSize) {
+        int numGroups = OpenCLIntrinsics.get_global_size(0) / localGroupSize;
+        OpenCLIntrinsics.globalBarrier();
+        if (localIdx == 0) {
+            // The barrier only orders memory within the work-group: the fence makes the
+            // partial result visible to the other work-groups before the ticket is taken
+            OpenCLIntrinsics.globalMemFence();
+            localArray[0] = OpenCLIntrinsics.atomic_inc(outputArray, numGroups + 1);
+        }
+        OpenCLIntrinsics.localBarrier();
+        int ticket = (int) localArray[0];
+        OpenCLIntrinsics.localBarrier();
+        if (ticket == numGroups - 1) {
+            double partial = outputArray[1];
+            for (int i = localIdx; i < numGroups; i += localGroupSize) {
+                partial = TornadoMath.min(partial, outputArray[i + 1]);
+            }
+            localArray[localIdx] = partial;
+            for (int stride = (localGroupSize / 2); stride > 0; stride /= 2) {
+                OpenCLIntrinsics.localBarrier();
+                if (localIdx < stride) {
+                    localArray[localIdx] = TornadoMath.min(localArray[localIdx], localArray[localIdx + stride]);
+                }
+            }
+            if (localIdx == 0) {
+                outputArray[0] = localArray[0];
+                outputArray[numGroups + 1] = 0.0;
+            }
+        }
     }
 
     protected static class Tuple2<T0, T1> {
@@ -1015,6 +1620,7 @@ public class ReduceGPUSnippets implements Snippets {
             if (extra != null) {
                 args.add("value", extra);
             }
+            args.addConst("singleLaunch", storeAtomicIndexed.isSingleLaunch());
             SnippetTemplate template = template(tool, storeAtomicIndexed, args);
             template.instantiate(tool.getMetaAccess(), storeAtomicIndexed, SnippetTemplate.DEFAULT_REPLACER, args);
 
@@ -1039,6 +1645,7 @@ public class ReduceGPUSnippets implements Snippets {
             if (extra != null) {
                 args.add("value", extra);
             }
+            args.addConst("singleLaunch", writeAtomic.isSingleLaunch());
 
             SnippetTemplate template = template(tool, writeAtomic, args);
             template.instantiate(tool.getMetaAccess(), writeAtomic, SnippetTemplate.DEFAULT_REPLACER, args);
@@ -104,6 +104,19 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * Number of bytes at the start of the host segment that are not copied: the
+     * header of a view belongs to the array it was sliced from, and the header of
+     * the view is copied from its own segment.
+     */
+    private static long viewHeaderBytes(Object reference) {
+        return reference instanceof TornadoNativeArray array && array.isView() ? TornadoNativeArray.ARRAY_HEADER : 0;
+    }
+
+    private static long headerAddress(Object reference, MemorySegment segment) {
+        return reference instanceof TornadoNativeArray array ? array.getHeaderSegment().address() : segment.address();
+    }
+
     @Override
     public int read(long executionPlanId, final Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
         MemorySegment segment;
@@ -116,7 +129,10 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
             returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), hostOffset, partialReadSize, segment.address(), hostOffset, (useDeps) ? events : null);
         } else if (batchSize <= 0) {
             // Partial Copy Out due to batch processing
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long headerBytes = viewHeaderBytes(reference);
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset + headerBytes, numBytes - headerBytes, segment.address(), hostOffset + headerBytes, (useDeps)
+                    ? events
+                    : null);
         } else {
             // Full copy out (default)
             returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, numBytes, segment.address(), hostOffset + TornadoNativeArray.ARRAY_HEADER, (useDeps)
@@ -133,7 +149,11 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
         MemorySegment segment;
         segment = getSegmentWithHeader(reference);
         if (batchSize <= 0) {
-            deviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), 0, null);
+            final long headerBytes = viewHeaderBytes(reference);
+            if (headerBytes > 0) {
+                deviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset, headerBytes, headerAddress(reference, segment), 0, null);
+            }
+            deviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset + headerBytes, bufferSize - headerBytes, segment.address(), headerBytes, null);
         } else {
             throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for writeBuffer operation");
         }
@@ -147,9 +167,15 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
 
         final int returnEvent;
         if (batchSize <= 0) {
-            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long headerBytes = viewHeaderBytes(reference);
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset + headerBytes, bufferSize - headerBytes, segment.address(), hostOffset + headerBytes, (useDeps)
+                    ? events
+                    : null);
         } else {
-            throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for enqueueReadBuffer operation");
+            // Copy out a batch into its region of the host segment
+            final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, numBytes, segment.address(), hostOffset + TornadoNativeArray.ARRAY_HEADER,
+                    (useDeps) ? events : null);
         }
         return useDeps ? returnEvent : -1;
     }
@@ -162,9 +188,16 @@ public class OCLMemorySegmentWrapper implements XPUBuffer {
 
         int internalEvent;
         if (batchSize <= 0) {
-            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long headerBytes = viewHeaderBytes(reference);
+            if (headerBytes > 0) {
+                internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset, headerBytes, headerAddress(reference, segment), 0, (useDeps) ? events : null);
+                returnEvents.add(internalEvent);
+            }
+            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset + headerBytes, bufferSize - headerBytes, segment.address(), hostOffset + headerBytes, (useDeps)
+                    ? events
+                    : null);
         } else {
-            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), 0, TornadoNativeArray.ARRAY_HEADER, segment.address(), 0, (useDeps) ? events : null);
+            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), 0, TornadoNativeArray.ARRAY_HEADER, headerAddress(reference, segment), 0, (useDeps) ? events : null);
             returnEvents.add(internalEvent);
             internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset + TornadoNativeArray.ARRAY_HEADER, bufferSize, segment.address(),
                     hostOffset + TornadoNativeArray.ARRAY_HEADER, (useDeps) ? events : null);
@@ -24,8 +24,10 @@
 package uk.ac.manchester.tornado.drivers.opencl.runtime;
 
 import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
+import uk.ac.manchester.tornado.drivers.opencl.OCLDevice;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
 import uk.ac.manchester.tornado.drivers.opencl.enums.OCLMemFlags;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
 public class OCLBufferProvider extends TornadoBufferProvider {
 
@@ -43,4 +45,29 @@ public class OCLBufferProvider extends TornadoBufferProvider {
         ((OCLDeviceContext) deviceContext).getMemoryManager().releaseBuffer(buffer);
     }
 
+    @Override
+    protected boolean supportsSubBuffers() {
+        return true;
+    }
+
+    @Override
+    protected long getSubBufferAlignment() {
+        // The origin of a sub-buffer must be aligned to CL_DEVICE_MEM_BASE_ADDR_ALIGN, which is given in bits
+        long alignment = TornadoOptions.OPENCL_ARRAY_ALIGNMENT;
+        if (deviceContext.getDevice() instanceof OCLDevice device) {
+            alignment = Math.max(alignment, device.getDeviceMemoryBaseAlignment() / Byte.SIZE);
+        }
+        return alignment;
+    }
+
+    @Override
+    protected long createSubBuffer(long region, long offset, long size) {
+        return ((OCLDeviceContext) deviceContext).getPlatformContext().createSubBuffer(region, OCLMemFlags.CL_MEM_READ_WRITE, offset, size);
+    }
+
+    @Override
+    protected void releaseSubBuffer(long subBuffer) {
+        ((OCLDeviceContext) deviceContext).getMemoryManager().releaseBuffer(subBuffer);
+    }
+
 }
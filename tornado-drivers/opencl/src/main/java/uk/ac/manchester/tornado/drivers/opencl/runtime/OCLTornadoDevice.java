@@ -28,9 +28,8 @@ import java.lang.foreign.MemorySegment;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -61,7 +60,6 @@ import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
-import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
 import uk.ac.manchester.tornado.drivers.opencl.OCLBackendImpl;
 import uk.ac.manchester.tornado.drivers.opencl.OCLCodeCache;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
@@ -87,6 +85,10 @@ import uk.ac.manchester.tornado.drivers.opencl.mm.OCLShortArrayWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLVectorWrapper;
 import uk.ac.manchester.tornado.drivers.opencl.mm.OCLXPUBuffer;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.cache.KernelCacheEntry;
+import uk.ac.manchester.tornado.runtime.cache.KernelCacheKey;
+import uk.ac.manchester.tornado.runtime.cache.KernelVariantCache;
+import uk.ac.manchester.tornado.runtime.cache.PersistentKernelCache;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
@@ -95,6 +97,7 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.domain.DynamicLoopBounds;
 import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
@@ -260,16 +263,46 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         final Access[] taskAccess = taskMeta.getArgumentsAccess();
         System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
 
+        // Return the kernel compiled before for the same specialisation, or the size-generic kernel of the task
+        final KernelVariantCache kernelVariants = deviceContext.getCodeCache().getKernelVariants();
+        final String variantSignature = KernelVariantCache.isEnabled() && !OCLBackend.isDeviceAnFPGAAccelerator(deviceContext) ? KernelVariantCache.signature(executable) : null;
+        if (variantSignature != null) {
+            TornadoInstalledCode variant = kernelVariants.lookup(executable, variantSignature);
+            if (variant != null) {
+                return variant;
+            }
+        }
+
+        taskMeta.setDynamicLoopBounds(null);
+        final KernelCacheKey cacheKey = isPersistentKernelCacheEnabled(deviceContext, sketch)
+                ? KernelCacheKey.create(sketch, executable, this, deviceContext.getDevice().getDriverVersion(), OCLTornadoDevice.class)
+                : null;
+        if (cacheKey != null) {
+            OCLInstalledCode cachedCode = installFromPersistentKernelCache(deviceContext, cacheKey, resolvedMethod, task);
+            if (cachedCode != null) {
+                if (variantSignature != null && cachedCode.isValid()) {
+                    kernelVariants.store(executable, variantSignature, cachedCode);
+                }
+                return cachedCode;
+            }
+        }
+
         try {
             OCLProviders providers = (OCLProviders) getBackend().getProviders();
             TornadoProfiler profiler = task.getProfiler();
             profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
-            final OCLCompilationResult result = OCLCompiler.compileSketchForDevice(sketch, executable, providers, getBackend(), executable.getProfiler());
+            OCLCompilationResult result = null;
+            if (variantSignature != null && kernelVariants.shouldCompileGeneric(executable)) {
+                result = compileGenericVariant(sketch, executable, providers, kernelVariants);
+            }
+            if (result == null) {
+                result = OCLCompiler.compileSketchForDevice(sketch, executable, providers, getBackend(), executable.getProfiler());
+            }
 
             // Update atomics buffer for inner methods that are not inlined
             ResolvedJavaMethod[] methods = result.getMethods();
             if (methods.length > 1) {
-                HashMap<Integer, Integer> mapping;
+                Map<Integer, Integer> mapping;
                 for (ResolvedJavaMethod m : methods) {
                     if (TornadoAtomicIntegerNode.globalAtomicsParameters.containsKey(m)) {
                         mapping = TornadoAtomicIntegerNode.globalAtomicsParameters.get(m);
@@ -297,6 +330,19 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
 
+            // Kernels with atomics depend on state registered during compilation, so they are not persisted
+            if (cacheKey != null && installedCode.isValid() && !taskMeta.hasDynamicLoopBounds() && !TornadoAtomicIntegerNode.globalAtomics.containsKey(resolvedMethod)
+                    && !TornadoAtomicIntegerNode.globalAtomicsParameters.containsKey(resolvedMethod)) {
+                PersistentKernelCache.store(cacheKey, result.getName(), result.getTargetCode(), deviceContext.getCodeCache().getInstalledBinary(installedCode), taskMeta.getDomain());
+            }
+            if (variantSignature != null && installedCode.isValid()) {
+                if (taskMeta.hasDynamicLoopBounds()) {
+                    kernelVariants.storeGeneric(executable, installedCode);
+                } else {
+                    kernelVariants.store(executable, variantSignature, installedCode);
+                }
+            }
+
             return installedCode;
         } catch (Exception e) {
             TornadoLogger logger = new TornadoLogger();
@@ -310,6 +356,63 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         }
     }
 
+    /**
+     * Compiles a task into a size-generic kernel, which reads the bounds of its
+     * parallel loops from the kernel context.
+     *
+     * @return {@link OCLCompilationResult}, or null if the sizes of the task are
+     *     folded elsewhere in the kernel.
+     */
+    private OCLCompilationResult compileGenericVariant(Sketch sketch, CompilableTask executable, OCLProviders providers, KernelVariantCache kernelVariants) {
+        final TaskMetaData taskMeta = executable.meta();
+        final DynamicLoopBounds dynamicLoopBounds = new DynamicLoopBounds(executable.getArguments().length);
+        taskMeta.setDynamicLoopBounds(dynamicLoopBounds);
+        try {
+            OCLCompilationResult result = OCLCompiler.compileSketchForDevice(sketch, executable, providers, getBackend(), executable.getProfiler());
+            if (dynamicLoopBounds.isGeneric() && taskMeta.hasDomain()) {
+                taskMeta.setDomain(dynamicLoopBounds.resolveDomain(taskMeta.getDomain(), executable.getArguments()));
+                return result;
+            }
+        } catch (RuntimeException e) {
+            // The specialised compilation reports the errors of the task
+            new TornadoLogger().debug("Unable to compile %s into a size-generic kernel: %s", executable.getId(), e.getMessage());
+        }
+        taskMeta.setDynamicLoopBounds(null);
+        kernelVariants.disableGeneric(executable);
+        return null;
+    }
+
+    private boolean isPersistentKernelCacheEnabled(OCLDeviceContextInterface deviceContext, Sketch sketch) {
+        return PersistentKernelCache.isEnabled() && !OCLBackend.isDeviceAnFPGAAccelerator(deviceContext) && KernelCacheKey.isCacheable(sketch);
+    }
+
+    private OCLInstalledCode installFromPersistentKernelCache(OCLDeviceContextInterface deviceContext, KernelCacheKey cacheKey, ResolvedJavaMethod resolvedMethod, SchedulableTask task) {
+        final KernelCacheEntry entry = PersistentKernelCache.lookup(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        final TaskMetaData taskMeta = (TaskMetaData) task.meta();
+        final TornadoProfiler profiler = task.getProfiler();
+        taskMeta.setCompiledGraph(resolvedMethod);
+        entry.restoreDomain(taskMeta);
+
+        profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+        OCLInstalledCode installedCode = null;
+        if (entry.hasBinary()) {
+            if (taskMeta.isPrintKernelEnabled()) {
+                RuntimeUtilities.dumpKernel(entry.getCode());
+            }
+            installedCode = deviceContext.getCodeCache().installCachedBinary(taskMeta, task.getId(), entry.getEntryPoint(), entry.getBinary());
+        }
+        if (installedCode == null) {
+            // The driver rejected the binary: build the cached source instead
+            installedCode = deviceContext.installCode(taskMeta, task.getId(), entry.getEntryPoint(), entry.getCode());
+        }
+        profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+        profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+        return installedCode;
+    }
+
     private TornadoInstalledCode compilePreBuiltTask(SchedulableTask task) {
         final OCLDeviceContextInterface deviceContext = getDeviceContext();
         final PrebuiltTask executable = (PrebuiltTask) task;
@@ -391,7 +494,7 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
     @Override
     public int[] checkAtomicsForTask(SchedulableTask task) {
         if (TornadoAtomicIntegerNode.globalAtomics.containsKey(task.meta().getCompiledResolvedJavaMethod())) {
-            ArrayList<Integer> values = TornadoAtomicIntegerNode.globalAtomics.get(task.meta().getCompiledResolvedJavaMethod());
+            List<Integer> values = TornadoAtomicIntegerNode.globalAtomics.get(task.meta().getCompiledResolvedJavaMethod());
             int[] atomicsArray = new int[values.size()];
             int j = 0;
             for (Integer i : values) {
@@ -408,7 +511,7 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         if (value instanceof AtomicInteger) {
             AtomicInteger ai = (AtomicInteger) value;
             if (TornadoAtomicIntegerNode.globalAtomicsParameters.containsKey(task.meta().getCompiledResolvedJavaMethod())) {
-                HashMap<Integer, Integer> values = TornadoAtomicIntegerNode.globalAtomicsParameters.get(task.meta().getCompiledResolvedJavaMethod());
+                Map<Integer, Integer> values = TornadoAtomicIntegerNode.globalAtomicsParameters.get(task.meta().getCompiledResolvedJavaMethod());
                 int index = values.get(paramIndex);
                 array[index] = ai.get();
             }
@@ -430,7 +533,7 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
     @Override
     public int getAtomicsGlobalIndexForTask(SchedulableTask task, int paramIndex) {
         if (TornadoAtomicIntegerNode.globalAtomicsParameters.containsKey(task.meta().getCompiledResolvedJavaMethod())) {
-            HashMap<Integer, Integer> values = TornadoAtomicIntegerNode.globalAtomicsParameters.get(task.meta().getCompiledResolvedJavaMethod());
+            Map<Integer, Integer> values = TornadoAtomicIntegerNode.globalAtomicsParameters.get(task.meta().getCompiledResolvedJavaMethod());
             return values.get(paramIndex);
         }
         return -1;
@@ -483,6 +586,11 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
         }
     }
 
+    @Override
+    public boolean isConcurrentCompilationSupported() {
+        return true;
+    }
+
     private XPUBuffer createArrayWrapper(Class<?> type, OCLDeviceContext device, long batchSize) {
         XPUBuffer result = null;
         if (type == float[].class) {
@@ -575,10 +683,6 @@ public class OCLTornadoDevice implements TornadoXPUDevice {
 
     @Override
     public synchronized int allocateObjects(Object[] objects, long batchSize, DeviceBufferState[] states) {
-        TornadoBufferProvider bufferProvider = getDeviceContext().getBufferProvider();
-        if (!bufferProvider.checkBufferAvailability(objects.length)) {
-            bufferProvider.resetBuffers();
-        }
         for (int i = 0; i < objects.length; i++) {
             allocate(objects[i], batchSize, states[i]);
         }
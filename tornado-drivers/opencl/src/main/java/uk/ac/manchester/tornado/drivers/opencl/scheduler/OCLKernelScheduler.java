@@ -26,12 +26,17 @@ import java.util.Arrays;
 
 import uk.ac.manchester.tornado.api.WorkerGrid;
 import uk.ac.manchester.tornado.api.common.Event;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.drivers.opencl.OCLDeviceContext;
 import uk.ac.manchester.tornado.drivers.opencl.OCLGridInfo;
 import uk.ac.manchester.tornado.drivers.opencl.OCLKernel;
+import uk.ac.manchester.tornado.drivers.opencl.OCLTargetDevice;
+import uk.ac.manchester.tornado.drivers.opencl.graal.asm.OCLAssemblerConstants;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+import uk.ac.manchester.tornado.runtime.tuning.WorkGroupTuner;
+import uk.ac.manchester.tornado.runtime.tuning.WorkGroupTuning;
 
 public abstract class OCLKernelScheduler {
 
@@ -40,6 +45,8 @@ public abstract class OCLKernelScheduler {
     protected double min;
     protected double max;
 
+    private WorkGroupTuner workGroupTuner;
+
     public final String WARNING_FPGA_THREAD_LOCAL = "[TornadoVM OCL] Warning: TornadoVM changed the user-defined local size to: " + ((getDefaultLocalWorkGroup() != null)
             ? Arrays.toString(getDefaultLocalWorkGroup())
             : "null") + ".";
@@ -58,6 +65,23 @@ public abstract class OCLKernelScheduler {
         return null;
     }
 
+    /**
+     * Enables the auto-tuning of the local work size for the kernel launched by
+     * this scheduler. Kernels that use local memory or work-group barriers
+     * depend on the local work size chosen by the heuristics, so they must not be
+     * tuned.
+     *
+     * @param source
+     *     OpenCL C code of the kernel.
+     */
+    public void enableWorkGroupTuning(String source) {
+        boolean usesWorkGroup = source.contains(OCLAssemblerConstants.LOCAL_MEM_MODIFIER) || source.contains("get_local_id") || source.contains("get_local_size") || source.contains(
+                "get_group_id");
+        if (WorkGroupTuner.isEnabled() && !usesWorkGroup && !deviceContext.isPlatformFPGA()) {
+            workGroupTuner = WorkGroupTuner.getInstance();
+        }
+    }
+
     public int submit(long executionPlanId, final OCLKernel kernel, final TaskMetaData meta, long batchThreads) {
         return submit(executionPlanId, kernel, meta, null, batchThreads);
     }
@@ -66,15 +90,12 @@ public abstract class OCLKernelScheduler {
         if (TornadoOptions.isProfilerEnabled()) {
             Event tornadoKernelEvent = deviceContext.resolveEvent(executionPlanId, taskEvent);
             tornadoKernelEvent.waitForEvents(executionPlanId);
-            long timer = meta.getProfiler().getTimer(ProfilerType.TOTAL_KERNEL_TIME);
             // Register globalTime
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_KERNEL_TIME, timer + tornadoKernelEvent.getElapsedTime());
+            meta.getProfiler().sum(ProfilerType.TOTAL_KERNEL_TIME, tornadoKernelEvent.getElapsedTime());
             // Register the time for the task
             meta.getProfiler().setTaskTimer(ProfilerType.TASK_KERNEL_TIME, meta.getId(), tornadoKernelEvent.getElapsedTime());
             // Register the dispatch time of the kernel
-            long dispatchValue = meta.getProfiler().getTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME);
-            dispatchValue += tornadoKernelEvent.getDriverDispatchTime();
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, dispatchValue);
+            meta.getProfiler().sum(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, tornadoKernelEvent.getDriverDispatchTime());
             meta.getProfiler().setTaskPowerUsage(ProfilerType.POWER_USAGE_mW, meta.getId(), deviceContext.getPowerUsage());
         }
     }
@@ -123,12 +144,20 @@ public abstract class OCLKernelScheduler {
     }
 
     public int submit(long executionPlanId, final OCLKernel kernel, final TaskMetaData meta, final int[] waitEvents, long batchThreads) {
+        WorkGroupTuning tuning = null;
+        long[] tunedLocalWork = null;
         if (!meta.isWorkerGridAvailable()) {
             if (!meta.isGlobalWorkDefined()) {
                 calculateGlobalWork(meta, batchThreads);
             }
             if (!meta.isLocalWorkDefined()) {
                 calculateLocalWork(meta);
+                if (workGroupTuner != null && !meta.shouldUseOpenCLDriverScheduling()) {
+                    OCLTargetDevice device = deviceContext.getDevice();
+                    tuning = workGroupTuner.lookup(meta, STR."OPENCL|\{device.getDeviceName()}", meta.getLocalWork(), device.getDeviceMaxWorkGroupSize()[0], device.getDeviceMaxWorkItemSizes());
+                    tunedLocalWork = tuning.getLocalWork();
+                    System.arraycopy(tunedLocalWork, 0, meta.getLocalWork(), 0, tunedLocalWork.length);
+                }
             }
         } else {
             checkLocalWorkGroupFitsOnDevice(meta);
@@ -137,7 +166,26 @@ public abstract class OCLKernelScheduler {
         if (meta.isThreadInfoEnabled()) {
             meta.printThreadDims();
         }
-        final int taskEvent = launch(executionPlanId, kernel, meta, waitEvents, batchThreads);
+        final long start = System.nanoTime();
+        int taskEvent;
+        try {
+            taskEvent = launch(executionPlanId, kernel, meta, waitEvents, batchThreads);
+        } catch (TornadoBailoutRuntimeException e) {
+            if (tuning == null || !tuning.isTuning()) {
+                throw e;
+            }
+            // The candidate exceeds the resources of the kernel: launch with the heuristics
+            tuning.reject(tunedLocalWork);
+            tuning = null;
+            calculateLocalWork(meta);
+            taskEvent = launch(executionPlanId, kernel, meta, waitEvents, batchThreads);
+        }
+        if (tuning != null && tuning.isTuning()) {
+            Event event = deviceContext.resolveEvent(executionPlanId, taskEvent);
+            event.waitForEvents(executionPlanId);
+            long elapsed = event.getElapsedTime();
+            tuning.record(tunedLocalWork, elapsed > 0 ? elapsed : System.nanoTime() - start);
+        }
         updateProfiler(executionPlanId, taskEvent, meta);
         return taskEvent;
     }
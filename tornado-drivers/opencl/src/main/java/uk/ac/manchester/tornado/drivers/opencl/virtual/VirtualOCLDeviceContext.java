@@ -28,6 +28,7 @@ import java.util.Set;
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
+import uk.ac.manchester.tornado.drivers.common.HostMemoryBufferProvider;
 import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
 import uk.ac.manchester.tornado.drivers.opencl.OCLBackendImpl;
 import uk.ac.manchester.tornado.drivers.opencl.OCLCodeCache;
@@ -46,12 +47,14 @@ public class VirtualOCLDeviceContext implements OCLDeviceContextInterface {
     private final OCLTargetDevice device;
     private final VirtualOCLContext context;
     private final OCLCodeCache codeCache;
+    private final TornadoBufferProvider bufferProvider;
     private boolean wasReset;
 
     protected VirtualOCLDeviceContext(OCLTargetDevice device, VirtualOCLContext context) {
         this.device = device;
         this.context = context;
         this.codeCache = new OCLCodeCache(this);
+        this.bufferProvider = new HostMemoryBufferProvider(this);
         device.setDeviceContext(this);
     }
 
@@ -110,7 +113,7 @@ public class VirtualOCLDeviceContext implements OCLDeviceContextInterface {
 
     @Override
     public TornadoBufferProvider getBufferProvider() {
-        return null;
+        return bufferProvider;
     }
 
     @Override
@@ -55,7 +55,11 @@ import uk.ac.manchester.tornado.drivers.opencl.graal.OCLProviders;
 import uk.ac.manchester.tornado.drivers.opencl.graal.backend.OCLBackend;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLCompilationResult;
 import uk.ac.manchester.tornado.drivers.opencl.graal.compiler.OCLCompiler;
+import uk.ac.manchester.tornado.drivers.opencl.graal.nodes.TornadoAtomicIntegerNode;
+import uk.ac.manchester.tornado.drivers.opencl.runtime.OCLTornadoDevice;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.cache.KernelBundle;
+import uk.ac.manchester.tornado.runtime.cache.KernelCacheKey;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
@@ -192,6 +196,8 @@ public class VirtualOCLTornadoDevice implements TornadoXPUDevice {
         final Access[] taskAccess = taskMeta.getArgumentsAccess();
         System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
 
+        final KernelCacheKey bundleKey = KernelBundle.isGenerating() && KernelCacheKey.isCacheable(sketch) ? KernelCacheKey.create(sketch, executable, this, "virtual", OCLTornadoDevice.class) : null;
+
         try {
             OCLProviders providers = (OCLProviders) getBackend().getProviders();
             TornadoProfiler profiler = task.getProfiler();
@@ -204,6 +210,11 @@ public class VirtualOCLTornadoDevice implements TornadoXPUDevice {
                 RuntimeUtilities.dumpKernel(result.getTargetCode());
             }
 
+            // Kernels with atomics depend on state registered during compilation, so they are not bundled
+            if (bundleKey != null && !TornadoAtomicIntegerNode.globalAtomics.containsKey(resolvedMethod) && !TornadoAtomicIntegerNode.globalAtomicsParameters.containsKey(resolvedMethod)) {
+                KernelBundle.getInstance().store(bundleKey, result.getName(), result.getTargetCode(), taskMeta.getDomain());
+            }
+
             return null;
         } catch (Exception e) {
             TornadoLogger tornadoLogger = new TornadoLogger();
@@ -461,6 +472,11 @@ public class VirtualOCLTornadoDevice implements TornadoXPUDevice {
         }
     }
 
+    @Override
+    public boolean isConcurrentCompilationSupported() {
+        return false;
+    }
+
     @Override
     public int getAvailableProcessors() {
         return ((VirtualOCLDevice) device).getAvailableProcessors();
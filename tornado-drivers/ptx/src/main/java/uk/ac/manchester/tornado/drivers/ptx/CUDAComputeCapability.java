@@ -47,4 +47,9 @@ public class CUDAComputeCapability implements Comparable<CUDAComputeCapability>
     public int getMinor() {
         return minor;
     }
+
+    @Override
+    public String toString() {
+        return STR."\{major}.\{minor}";
+    }
 }
@@ -25,28 +25,36 @@ package uk.ac.manchester.tornado.drivers.ptx;
 
 import java.util.concurrent.ConcurrentHashMap;
 
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.drivers.ptx.graal.PTXInstalledCode;
+import uk.ac.manchester.tornado.runtime.cache.KernelVariantCache;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
+import uk.ac.manchester.tornado.runtime.jfr.KernelInstallEvent;
 
 public class PTXCodeCache {
 
     private final PTXDeviceContext deviceContext;
     private final ConcurrentHashMap<String, PTXInstalledCode> cache;
+    private final KernelVariantCache kernelVariants;
 
     public PTXCodeCache(PTXDeviceContext deviceContext) {
         this.deviceContext = deviceContext;
         cache = new ConcurrentHashMap<>();
+        kernelVariants = new KernelVariantCache();
     }
 
     public PTXInstalledCode installSource(String name, byte[] targetCode, String resolvedMethodName, boolean debugKernel) {
 
-        if (!cache.containsKey(name)) {
+        if (!isInstalled(name, targetCode)) {
             if (debugKernel) {
                 RuntimeUtilities.dumpKernel(targetCode);
             }
 
+            final KernelInstallEvent installEvent = new KernelInstallEvent();
+            installEvent.begin();
             PTXModule module = new PTXModule(resolvedMethodName, targetCode, name);
+            installEvent.commit(TornadoVMBackendType.PTX.name(), deviceContext.getDevice().getDeviceName(), name, resolvedMethodName, targetCode.length, false, module.isPTXJITSuccess());
 
             if (module.isPTXJITSuccess()) {
                 PTXInstalledCode code = new PTXInstalledCode(name, module, deviceContext);
@@ -60,6 +68,15 @@ public class PTXCodeCache {
         return cache.get(name);
     }
 
+    /**
+     * A task that is compiled again with a different specialisation generates a
+     * kernel with the same name, which replaces the installed one.
+     */
+    private boolean isInstalled(String name, byte[] targetCode) {
+        PTXInstalledCode code = cache.get(name);
+        return code != null && (targetCode == null || code.getGeneratedSourceCode().equals(new String(targetCode)));
+    }
+
     public PTXInstalledCode getCachedCode(String name) {
         return cache.get(name);
     }
@@ -73,5 +90,15 @@ public class PTXCodeCache {
             code.invalidate();
         }
         cache.clear();
+        kernelVariants.invalidateAll();
+    }
+
+    /**
+     * Kernels installed for each task, indexed by their specialisation signature.
+     *
+     * @return {@link KernelVariantCache}
+     */
+    public KernelVariantCache getKernelVariants() {
+        return kernelVariants;
     }
 }
@@ -57,6 +57,8 @@ import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+import uk.ac.manchester.tornado.runtime.tuning.WorkGroupTuner;
+import uk.ac.manchester.tornado.runtime.tuning.WorkGroupTuning;
 
 public class PTXDeviceContext implements TornadoDeviceContext {
 
@@ -253,6 +255,8 @@ public class PTXDeviceContext implements TornadoDeviceContext {
     public int enqueueKernelLaunch(long executionPlanId, PTXModule module, KernelStackFrame kernelArgs, TaskMetaData taskMeta, long batchThreads) {
         int[] blockDimension = { 1, 1, 1 };
         int[] gridDimension = { 1, 1, 1 };
+        WorkGroupTuning tuning = null;
+        long[] tunedBlockDimension = null;
         if (taskMeta.isWorkerGridAvailable()) {
             WorkerGrid grid = taskMeta.getWorkerGrid(taskMeta.getId());
             int[] global = Arrays.stream(grid.getGlobalWork()).mapToInt(l -> (int) l).toArray();
@@ -273,12 +277,27 @@ public class PTXDeviceContext implements TornadoDeviceContext {
         } else if (taskMeta.isParallel()) {
             scheduler.calculateGlobalWork(taskMeta, batchThreads);
             blockDimension = scheduler.calculateBlockDimension(module, taskMeta);
+            if (WorkGroupTuner.isEnabled() && !taskMeta.isLocalWorkDefined() && module.isWorkGroupTunable()) {
+                long[] heuristic = Arrays.stream(blockDimension).mapToLong(i -> i).toArray();
+                tuning = WorkGroupTuner.getInstance().lookup(taskMeta, STR."PTX|\{device.getDeviceName()}", heuristic, module.getPotentialBlockSizeMaxOccupancy(), device.getDeviceMaxWorkItemSizes());
+                tunedBlockDimension = tuning.getLocalWork();
+                for (int i = 0; i < tunedBlockDimension.length; i++) {
+                    blockDimension[i] = (int) tunedBlockDimension[i];
+                }
+            }
             gridDimension = scheduler.calculateGridDimension(module, taskMeta, blockDimension);
         }
 
+        final long start = System.nanoTime();
         PTXStream stream = getStream(executionPlanId);
         int kernelLaunchEvent = stream.enqueueKernelLaunch(executionPlanId, module, taskMeta, writePTXKernelContextOnDevice(executionPlanId, (PTXKernelStackFrame) kernelArgs, taskMeta), gridDimension,
                 blockDimension);
+        if (tuning != null && tuning.isTuning()) {
+            Event event = resolveEvent(executionPlanId, kernelLaunchEvent);
+            event.waitForEvents(executionPlanId);
+            long elapsed = event.getElapsedTime();
+            tuning.record(tunedBlockDimension, elapsed > 0 ? elapsed : System.nanoTime() - start);
+        }
         updateProfiler(executionPlanId, kernelLaunchEvent, taskMeta);
         return kernelLaunchEvent;
     }
@@ -324,14 +343,10 @@ public class PTXDeviceContext implements TornadoDeviceContext {
             TornadoProfiler profiler = meta.getProfiler();
             Event event = resolveEvent(executionPlanId, kernelContextWriteEventId);
             event.waitForEvents(executionPlanId);
-            long copyInTimer = meta.getProfiler().getTimer(ProfilerType.COPY_IN_TIME);
-            copyInTimer += event.getElapsedTime();
-            profiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
+            profiler.sum(ProfilerType.COPY_IN_TIME, event.getElapsedTime());
             profiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, meta.getId(), callWrapper.getSize());
 
-            long dispatchValue = profiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-            dispatchValue += event.getDriverDispatchTime();
-            profiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+            profiler.sum(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, event.getDriverDispatchTime());
         }
     }
 
@@ -339,15 +354,12 @@ public class PTXDeviceContext implements TornadoDeviceContext {
         if (TornadoOptions.isProfilerEnabled()) {
             Event tornadoKernelEvent = resolveEvent(executionPlanId, taskEvent);
             tornadoKernelEvent.waitForEvents(executionPlanId);
-            long timer = meta.getProfiler().getTimer(ProfilerType.TOTAL_KERNEL_TIME);
             // Register globalTime
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_KERNEL_TIME, timer + tornadoKernelEvent.getElapsedTime());
+            meta.getProfiler().sum(ProfilerType.TOTAL_KERNEL_TIME, tornadoKernelEvent.getElapsedTime());
             // Register the time for the task
             meta.getProfiler().setTaskTimer(ProfilerType.TASK_KERNEL_TIME, meta.getId(), tornadoKernelEvent.getElapsedTime());
             // Register the dispatch time of the kernel
-            long dispatchValue = meta.getProfiler().getTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME);
-            dispatchValue += tornadoKernelEvent.getDriverDispatchTime();
-            meta.getProfiler().setTimer(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, dispatchValue);
+            meta.getProfiler().sum(ProfilerType.TOTAL_DISPATCH_KERNEL_TIME, tornadoKernelEvent.getDriverDispatchTime());
             meta.getProfiler().setTaskPowerUsage(ProfilerType.POWER_USAGE_mW, meta.getId(), getPowerUsage());
         }
     }
@@ -29,6 +29,7 @@ public class PTXModule {
     private int maxBlockSize;
     public final String javaName;
     private final byte[] source;
+    private Boolean workGroupTunable;
 
     public PTXModule(String name, byte[] source, String kernelFunctionName) {
         moduleWrapper = cuModuleLoadData(source);
@@ -55,6 +56,20 @@ public class PTXModule {
         return source;
     }
 
+    /**
+     * A kernel that uses shared memory or block barriers depends on the block
+     * size chosen by the scheduler, so its block size must not be auto-tuned.
+     *
+     * @return boolean
+     */
+    public boolean isWorkGroupTunable() {
+        if (workGroupTunable == null) {
+            String code = new String(source);
+            workGroupTunable = !code.contains(".shared") && !code.contains("bar.sync") && !code.contains("barrier.sync");
+        }
+        return workGroupTunable;
+    }
+
     public boolean isPTXJITSuccess() {
         return moduleWrapper.length != 0;
     }
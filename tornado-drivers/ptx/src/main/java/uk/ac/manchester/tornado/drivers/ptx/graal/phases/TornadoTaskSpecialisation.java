@@ -58,9 +58,11 @@ import jdk.vm.ci.meta.ResolvedJavaField;
 import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.types.HalfFloat;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.drivers.common.compiler.phases.analysis.TornadoValueTypeReplacement;
 import uk.ac.manchester.tornado.drivers.common.compiler.phases.loops.TornadoLoopUnroller;
 import uk.ac.manchester.tornado.drivers.ptx.graal.nodes.PTXKernelContextAccessNode;
+import uk.ac.manchester.tornado.runtime.common.BatchCompilationConfig;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
@@ -75,6 +77,7 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
     private final DeadCodeEliminationPhase deadCodeElimination;
     private final TornadoLoopUnroller loopUnroll;
     private long batchThreads;
+    private BatchCompilationConfig batchCompilationConfig;
     private int index;
     private boolean gridScheduling;
     private boolean printOnce = true;
@@ -194,6 +197,13 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
         }
     }
 
+    private boolean isPartitionedInBatch(Object value) {
+        if (value instanceof TornadoNativeArray nativeArray) {
+            return batchCompilationConfig.isPartitioned(nativeArray.getSizeAsLong());
+        }
+        return batchThreads > 0;
+    }
+
     private void evaluate(final StructuredGraph graph, final Node node, final Object value) {
         if (node instanceof ArrayLengthNode) {
             ArrayLengthNode arrayLength = (ArrayLengthNode) node;
@@ -212,7 +222,7 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
                 index++;
             } else {
                 final ConstantNode constant;
-                if (batchThreads <= 0) {
+                if (!batchCompilationConfig.isPartitioned(length)) {
                     constant = ConstantNode.forInt(length);
                 } else {
                     constant = ConstantNode.forInt((int) batchThreads);
@@ -227,10 +237,10 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
             if (field.getType().getJavaKind().isPrimitive()) {
                 ConstantNode constant;
                 if (node.toString().contains("numberOfElements")) {
-                    if (batchThreads <= 0) {
+                    if (!isPartitionedInBatch(value)) {
                         constant = lookupPrimField(graph, node, value, field.getName(), field.getJavaKind());
                     } else {
-                        constant = ConstantNode.forInt((int) batchThreads);
+                        constant = ConstantNode.forIntegerKind(field.getJavaKind(), batchThreads);
                     }
                 } else {
                     constant = lookupPrimField(graph, node, value, field.getName(), field.getJavaKind());
@@ -316,7 +326,8 @@ public class TornadoTaskSpecialisation extends BasePhase<TornadoHighTierContext>
         int iterations = 0;
         int lastNodeCount = graph.getNodeCount();
         boolean hasWork = true;
-        this.batchThreads = context.getBatchCompilationConfig().getBatchThreads();
+        this.batchCompilationConfig = context.getBatchCompilationConfig();
+        this.batchThreads = batchCompilationConfig.getBatchThreads();
         this.gridScheduling = context.isGridSchedulerEnabled();
 
         while (hasWork) {
@@ -105,6 +105,19 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * Number of bytes at the start of the host segment that are not copied: the
+     * header of a view belongs to the array it was sliced from, and the header of
+     * the view is copied from its own segment.
+     */
+    private static long viewHeaderBytes(Object reference) {
+        return reference instanceof TornadoNativeArray array && array.isView() ? TornadoNativeArray.ARRAY_HEADER : 0;
+    }
+
+    private static long headerAddress(Object reference, MemorySegment segment) {
+        return reference instanceof TornadoNativeArray array ? array.getHeaderSegment().address() : segment.address();
+    }
+
     @Override
 
     public int read(long executionPlanId, final Object reference, long hostOffset, long partialReadSize, int[] events, boolean useDeps) {
@@ -117,7 +130,8 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
             // in this case the host offset is equal to the device offset
             returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + hostOffset, partialReadSize, segment.address(), hostOffset, (useDeps) ? events : null);
         } else if (batchSize <= 0) {
-            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer(), numBytes, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long headerBytes = viewHeaderBytes(reference);
+            returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + headerBytes, numBytes - headerBytes, segment.address(), hostOffset + headerBytes, (useDeps) ? events : null);
         } else {
             returnEvent = deviceContext.readBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, numBytes, segment.address(), hostOffset + TornadoNativeArray.ARRAY_HEADER, (useDeps)
                     ? events
@@ -132,7 +146,11 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
         MemorySegment segment = getSegmentWithHeader(reference);
 
         if (batchSize <= 0) {
-            deviceContext.writeBuffer(executionPlanId, toBuffer(), bufferSize, segment.address(), 0, null);
+            final long headerBytes = viewHeaderBytes(reference);
+            if (headerBytes > 0) {
+                deviceContext.writeBuffer(executionPlanId, toBuffer(), headerBytes, headerAddress(reference, segment), 0, null);
+            }
+            deviceContext.writeBuffer(executionPlanId, toBuffer() + headerBytes, bufferSize - headerBytes, segment.address(), headerBytes, null);
         } else {
             throw new TornadoUnsupportedError("[UNSUPPORTED] Batch processing for the writeBuffer operation");
         }
@@ -144,9 +162,12 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
 
         final int returnEvent;
         if (batchSize <= 0) {
-            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long headerBytes = viewHeaderBytes(reference);
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer() + headerBytes, bufferSize - headerBytes, segment.address(), hostOffset + headerBytes, (useDeps) ? events : null);
         } else {
-            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, bufferSize - TornadoNativeArray.ARRAY_HEADER, segment.address(), hostOffset,
+            // Copy out a batch into its region of the host segment
+            final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
+            returnEvent = deviceContext.enqueueReadBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, numBytes, segment.address(), hostOffset + TornadoNativeArray.ARRAY_HEADER,
                     (useDeps) ? events : null);
         }
         return useDeps ? returnEvent : -1;
@@ -160,9 +181,16 @@ public class PTXMemorySegmentWrapper implements XPUBuffer {
 
         int internalEvent;
         if (batchSize <= 0) {
-            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long headerBytes = viewHeaderBytes(reference);
+            if (headerBytes > 0) {
+                internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), headerBytes, headerAddress(reference, segment), 0, (useDeps) ? events : null);
+                returnEvents.add(internalEvent);
+            }
+            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer() + headerBytes, bufferSize - headerBytes, segment.address(), hostOffset + headerBytes, (useDeps)
+                    ? events
+                    : null);
         } else {
-            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, segment.address(), 0, (useDeps) ? events : null);
+            internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), TornadoNativeArray.ARRAY_HEADER, headerAddress(reference, segment), 0, (useDeps) ? events : null);
             returnEvents.add(internalEvent);
             internalEvent = deviceContext.enqueueWriteBuffer(executionPlanId, toBuffer() + TornadoNativeArray.ARRAY_HEADER, bufferSize, segment.address(), hostOffset + TornadoNativeArray.ARRAY_HEADER,
                     (useDeps) ? events : null);
@@ -25,6 +25,7 @@ package uk.ac.manchester.tornado.drivers.ptx.runtime;
 
 import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
 import uk.ac.manchester.tornado.drivers.ptx.PTXDeviceContext;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
 public class PTXBufferProvider extends TornadoBufferProvider {
 
@@ -41,4 +42,15 @@ public class PTXBufferProvider extends TornadoBufferProvider {
     protected void releaseBuffer(long buffer) {
         ((PTXDeviceContext) deviceContext).getDevice().getPTXContext().freeMemory(buffer);
     }
+
+    @Override
+    protected boolean supportsSubBuffers() {
+        // Buffers are device pointers, so a sub-buffer is the address of the range
+        return true;
+    }
+
+    @Override
+    protected long getSubBufferAlignment() {
+        return TornadoOptions.PTX_ARRAY_ALIGNMENT;
+    }
 }
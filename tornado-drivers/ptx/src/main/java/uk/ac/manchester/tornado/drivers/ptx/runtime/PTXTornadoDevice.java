@@ -57,7 +57,6 @@ import uk.ac.manchester.tornado.api.types.arrays.HalfFloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
-import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
 import uk.ac.manchester.tornado.drivers.ptx.PTX;
 import uk.ac.manchester.tornado.drivers.ptx.PTXBackendImpl;
 import uk.ac.manchester.tornado.drivers.ptx.PTXDevice;
@@ -79,6 +78,10 @@ import uk.ac.manchester.tornado.drivers.ptx.mm.PTXObjectWrapper;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXShortArrayWrapper;
 import uk.ac.manchester.tornado.drivers.ptx.mm.PTXVectorWrapper;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.cache.KernelCacheEntry;
+import uk.ac.manchester.tornado.runtime.cache.KernelCacheKey;
+import uk.ac.manchester.tornado.runtime.cache.KernelVariantCache;
+import uk.ac.manchester.tornado.runtime.cache.PersistentKernelCache;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
@@ -175,9 +178,37 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
         final Access[] taskAccess = taskMeta.getArgumentsAccess();
         System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
 
+        // Return the kernel compiled before for the same specialisation
+        final KernelVariantCache kernelVariants = deviceContext.getCodeCache().getKernelVariants();
+        final String variantSignature = KernelVariantCache.isEnabled() ? KernelVariantCache.signature(executable) : null;
+        if (variantSignature != null) {
+            TornadoInstalledCode variant = kernelVariants.lookup(executable, variantSignature);
+            if (variant != null) {
+                return variant;
+            }
+        }
+
+        // A task forced to compile, e.g. with a new batch size, is specialised again
+        final boolean isCached = !task.shouldCompile() && deviceContext.isCached(resolvedMethod.getName(), executable);
+        final KernelCacheKey cacheKey = !isCached && PersistentKernelCache.isEnabled() && KernelCacheKey.isCacheable(sketch)
+                ? KernelCacheKey.create(sketch, executable, this, STR."\{deviceContext.getDevice().getComputeCapability()}|\{deviceContext.getDevice().getTargetPTXVersion()}", PTXTornadoDevice.class)
+                : null;
+        final KernelCacheEntry cachedEntry = cacheKey != null ? PersistentKernelCache.lookup(cacheKey) : null;
+        if (cachedEntry != null) {
+            cachedEntry.restoreDomain(taskMeta);
+            profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+            TornadoInstalledCode installedCode = deviceContext.installCode(cachedEntry.getEntryPoint(), cachedEntry.getCode(), resolvedMethod.getName(), taskMeta.isPrintKernelEnabled());
+            profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+            profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+            if (variantSignature != null) {
+                kernelVariants.store(executable, variantSignature, installedCode);
+            }
+            return installedCode;
+        }
+
         try {
             PTXCompilationResult result;
-            if (!deviceContext.isCached(resolvedMethod.getName(), executable)) {
+            if (!isCached) {
                 PTXProviders providers = (PTXProviders) getBackend().getProviders();
                 profiler.start(ProfilerType.TASK_COMPILE_GRAAL_TIME, taskMeta.getId());
                 result = PTXCompiler.compileSketchForDevice(sketch, executable, providers, getBackend(), executable.getProfiler());
@@ -191,6 +222,12 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
             TornadoInstalledCode installedCode = deviceContext.installCode(result, resolvedMethod.getName());
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+            if (cacheKey != null) {
+                PersistentKernelCache.store(cacheKey, result.getName(), result.getTargetCode(), null, taskMeta.getDomain());
+            }
+            if (variantSignature != null) {
+                kernelVariants.store(executable, variantSignature, installedCode);
+            }
             return installedCode;
         } catch (Exception e) {
             if (TornadoOptions.DEBUG) {
@@ -288,10 +325,6 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
 
     @Override
     public synchronized int allocateObjects(Object[] objects, long batchSize, DeviceBufferState[] states) {
-        TornadoBufferProvider bufferProvider = getDeviceContext().getBufferProvider();
-        if (!bufferProvider.checkBufferAvailability(objects.length)) {
-            bufferProvider.resetBuffers();
-        }
         for (int i = 0; i < objects.length; i++) {
             allocate(objects[i], batchSize, states[i]);
         }
@@ -682,6 +715,12 @@ public class PTXTornadoDevice implements TornadoXPUDevice {
         }
     }
 
+    @Override
+    public boolean isConcurrentCompilationSupported() {
+        // The PTX assembler keeps the registers of the kernel being emitted in static state
+        return false;
+    }
+
     @Override
     public String toString() {
         return STR."\{getPlatformName()} -- \{device.getDeviceName()}";
@@ -26,16 +26,19 @@ package uk.ac.manchester.tornado.drivers.spirv;
 import java.util.concurrent.ConcurrentHashMap;
 
 import uk.ac.manchester.tornado.drivers.spirv.graal.SPIRVInstalledCode;
+import uk.ac.manchester.tornado.runtime.cache.KernelVariantCache;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
 
 public abstract class SPIRVCodeCache {
 
     protected final SPIRVDeviceContext deviceContext;
     protected final ConcurrentHashMap<String, SPIRVInstalledCode> cache;
+    private final KernelVariantCache kernelVariants;
 
     protected SPIRVCodeCache(SPIRVDeviceContext deviceContext) {
         this.deviceContext = deviceContext;
         cache = new ConcurrentHashMap<>();
+        kernelVariants = new KernelVariantCache();
     }
 
     public SPIRVInstalledCode getCachedCode(String name) {
@@ -51,6 +54,16 @@ public abstract class SPIRVCodeCache {
             code.invalidate();
         }
         cache.clear();
+        kernelVariants.invalidateAll();
+    }
+
+    /**
+     * Kernels installed for each task, indexed by their specialisation signature.
+     *
+     * @return {@link KernelVariantCache}
+     */
+    public KernelVariantCache getKernelVariants() {
+        return kernelVariants;
     }
 
     public SPIRVInstalledCode getInstalledCode(String id, String entryPoint) {
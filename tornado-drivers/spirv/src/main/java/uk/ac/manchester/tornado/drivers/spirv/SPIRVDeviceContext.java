@@ -430,6 +430,10 @@ public abstract class SPIRVDeviceContext implements TornadoDeviceContext {
         return codeCache.getInstalledCode(id, entryPoint);
     }
 
+    public SPIRVCodeCache getCodeCache() {
+        return codeCache;
+    }
+
     public int enqueueMarker(long executionPlanId) {
         executionIds.add(executionPlanId);
         spirvContext.enqueueBarrier(executionPlanId, getDeviceIndex());
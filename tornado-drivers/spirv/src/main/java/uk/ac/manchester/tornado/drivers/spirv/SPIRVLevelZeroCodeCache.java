@@ -36,6 +36,7 @@ import uk.ac.manchester.beehivespirvtoolkit.lib.SPIRVTool;
 import uk.ac.manchester.beehivespirvtoolkit.lib.disassembler.Disassembler;
 import uk.ac.manchester.beehivespirvtoolkit.lib.disassembler.SPIRVDisassemblerOptions;
 import uk.ac.manchester.beehivespirvtoolkit.lib.disassembler.SPVFileReader;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.drivers.common.logging.Logger;
 import uk.ac.manchester.tornado.drivers.spirv.graal.SPIRVInstalledCode;
@@ -53,6 +54,7 @@ import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeModuleHandle;
 import uk.ac.manchester.tornado.drivers.spirv.levelzero.ZeResult;
 import uk.ac.manchester.tornado.drivers.spirv.levelzero.utils.LevelZeroUtils;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.jfr.KernelInstallEvent;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
 
 public class SPIRVLevelZeroCodeCache extends SPIRVCodeCache {
@@ -107,6 +109,8 @@ public class SPIRVLevelZeroCodeCache extends SPIRVCodeCache {
 
     @Override
     public synchronized SPIRVInstalledCode installSPIRVBinary(TaskMetaData meta, String id, String entryPoint, String pathToFile) {
+        KernelInstallEvent installEvent = new KernelInstallEvent();
+        installEvent.begin();
         ZeModuleHandle module = new ZeModuleHandle();
         ZeModuleDescriptor moduleDesc = new ZeModuleDescriptor();
         ZeBuildLogHandle buildLog = new ZeBuildLogHandle();
@@ -136,6 +140,7 @@ public class SPIRVLevelZeroCodeCache extends SPIRVCodeCache {
             System.out.println("SPIR-V Kernel Errors from LevelZero:");
             System.out.println(errorMessage[0]);
             System.out.println("----------------");
+            installEvent.commit(TornadoVMBackendType.SPIRV.name(), spirvDevice.getName(), id, entryPoint, Paths.get(pathToFile).toFile().length(), false, false);
             throw new TornadoBailoutRuntimeException(STR."[Build SPIR-V ERROR]\{errorMessage[0]}");
         }
 
@@ -179,6 +184,7 @@ public class SPIRVLevelZeroCodeCache extends SPIRVCodeCache {
 
         // Install module in the code cache
         cache.put(STR."\{id}-\{entryPoint}", installedCode);
+        installEvent.commit(TornadoVMBackendType.SPIRV.name(), spirvDevice.getName(), id, entryPoint, Paths.get(pathToFile).toFile().length(), false, true);
         return installedCode;
     }
 }
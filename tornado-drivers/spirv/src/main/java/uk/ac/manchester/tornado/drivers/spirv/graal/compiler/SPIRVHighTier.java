@@ -59,6 +59,7 @@ import uk.ac.manchester.tornado.drivers.spirv.graal.phases.TornadoSPIRVIntrinsic
 import uk.ac.manchester.tornado.drivers.spirv.graal.phases.TornadoTaskSpecialization;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoHighTier;
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoCombineFunctionReplacement;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoInliningPolicy;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoFullInliningPolicy;
 import uk.ac.manchester.tornado.runtime.graal.phases.sketcher.TornadoPartialInliningPolicy;
@@ -68,6 +69,8 @@ public class SPIRVHighTier extends TornadoHighTier {
     public SPIRVHighTier(OptionValues options, TornadoDeviceContext deviceContext, CanonicalizerPhase.CustomSimplification customCanonicalizer, MetaAccessProvider metaAccessProvider) {
         super(customCanonicalizer);
 
+        appendPhase(new TornadoCombineFunctionReplacement());
+
         CanonicalizerPhase canonicalizer = createCanonicalizerPhase(customCanonicalizer);
         appendPhase(canonicalizer);
 
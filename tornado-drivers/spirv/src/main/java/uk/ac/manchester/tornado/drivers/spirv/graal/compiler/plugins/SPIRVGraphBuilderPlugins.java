@@ -50,8 +50,10 @@ import org.graalvm.compiler.core.common.memory.BarrierType;
 import org.graalvm.compiler.core.common.memory.MemoryOrderMode;
 import org.graalvm.compiler.core.common.type.StampFactory;
 import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.NodeView;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.NarrowNode;
 import org.graalvm.compiler.nodes.extended.JavaReadNode;
 import org.graalvm.compiler.nodes.extended.JavaWriteNode;
 import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderConfiguration.Plugins;
@@ -68,6 +70,7 @@ import jdk.vm.ci.meta.JavaKind;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import uk.ac.manchester.tornado.api.KernelContext;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.drivers.common.logging.Logger;
 import uk.ac.manchester.tornado.drivers.spirv.graal.SPIRVArchitecture;
 import uk.ac.manchester.tornado.drivers.spirv.graal.lir.SPIRVKind;
@@ -122,6 +125,7 @@ public class SPIRVGraphBuilderPlugins {
         registerOpenCLOverridesForType(r, Integer.TYPE, JavaKind.Int);
         registerOpenCLOverridesForType(r, Long.TYPE, JavaKind.Long);
         registerFPIntrinsics(r);
+        registerToIntExact(r);
 
         Registration longRegistration = new Registration(plugins, Long.class);
         longRegistration.register(new InvocationPlugin("bitCount", Long.TYPE) {
@@ -229,6 +233,21 @@ public class SPIRVGraphBuilderPlugins {
         });
     }
 
+    /**
+     * Native arrays return their size with {@link Math#toIntExact(long)}, which
+     * throws on the host for arrays of more than {@link Integer#MAX_VALUE}
+     * elements. Kernels cannot throw, so the size is narrowed to an int.
+     */
+    private static void registerToIntExact(Registration r) {
+        r.register(new InvocationPlugin("toIntExact", Long.TYPE) {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode value) {
+                b.push(JavaKind.Int, b.append(NarrowNode.create(value, Integer.SIZE, NodeView.DEFAULT)));
+                return true;
+            }
+        });
+    }
+
     private static void registerFPIntrinsics(Registration r) {
         r.register(new InvocationPlugin("pow", Double.TYPE, Double.TYPE) {
             @Override
@@ -390,6 +409,15 @@ public class SPIRVGraphBuilderPlugins {
     }
 
     private static void registerMemoryAccessPlugins(InvocationPlugins plugins) {
+        // The modifications of native arrays are only tracked on the host
+        Registration nativeArrayRegistration = new Registration(plugins, TornadoNativeArray.class);
+        nativeArrayRegistration.register(new InvocationPlugin("markAsModified", InvocationPlugin.Receiver.class) {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver) {
+                return true;
+            }
+        });
+
         Registration r = new Registration(plugins, MemorySegment.class);
 
         for (JavaKind kind : JavaKind.values()) {
@@ -397,7 +425,7 @@ public class SPIRVGraphBuilderPlugins {
                 r.register(new InvocationPlugin("getAtIndex", InvocationPlugin.Receiver.class, getValueLayoutClass(kind.toJavaClass()), long.class) {
                     @Override
                     public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode layout, ValueNode index) {
-                        MulNode mulNode = b.append(new MulNode(index, ConstantNode.forInt(kind.getByteCount())));
+                        MulNode mulNode = b.append(new MulNode(index, ConstantNode.forLong(kind.getByteCount())));
                         AddressNode addressNode = b.append(new OffsetAddressNode(receiver.get(), mulNode));
                         JavaReadNode readNode = new JavaReadNode(kind, addressNode, LocationIdentity.any(), BarrierType.NONE, MemoryOrderMode.PLAIN, false);
                         b.addPush(kind, readNode);
@@ -407,7 +435,7 @@ public class SPIRVGraphBuilderPlugins {
                 r.register(new InvocationPlugin("setAtIndex", InvocationPlugin.Receiver.class, getValueLayoutClass(kind.toJavaClass()), long.class, kind.toJavaClass()) {
                     @Override
                     public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode layout, ValueNode index, ValueNode value) {
-                        MulNode mulNode = b.append(new MulNode(index, ConstantNode.forInt(kind.getByteCount())));
+                        MulNode mulNode = b.append(new MulNode(index, ConstantNode.forLong(kind.getByteCount())));
                         AddressNode addressNode = b.append(new OffsetAddressNode(receiver.get(), mulNode));
                         JavaWriteNode writeNode = new JavaWriteNode(kind, addressNode, LocationIdentity.any(), value, BarrierType.NONE, false);
                         b.add(writeNode);
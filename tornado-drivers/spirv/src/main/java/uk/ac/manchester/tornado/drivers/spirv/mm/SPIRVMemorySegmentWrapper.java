@@ -105,6 +105,19 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
         };
     }
 
+    /**
+     * Number of bytes at the start of the host segment that are not copied: the
+     * header of a view belongs to the array it was sliced from, and the header of
+     * the view is copied from its own segment.
+     */
+    private static long viewHeaderBytes(Object reference) {
+        return reference instanceof TornadoNativeArray array && array.isView() ? TornadoNativeArray.ARRAY_HEADER : 0;
+    }
+
+    private static long headerAddress(Object reference, MemorySegment segment) {
+        return reference instanceof TornadoNativeArray array ? array.getHeaderSegment().address() : segment.address();
+    }
+
     @Override
     public int read(long executionPlanId, Object reference, long hostOffset, long partialReadSize, int[] waitEvents, boolean useDeps) {
         MemorySegment segment = getSegmentWithHeader(reference);
@@ -117,7 +130,8 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
             returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), hostOffset, partialReadSize, segment.address(), hostOffset, waitEvents);
         } else if (batchSize <= 0) {
             // Partial Copy Out due to batch processing
-            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, waitEvents);
+            final long headerBytes = viewHeaderBytes(reference);
+            returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), bufferOffset + headerBytes, numBytes - headerBytes, segment.address(), hostOffset + headerBytes, waitEvents);
         } else {
             // Full copy out (default)
             returnEvent = spirvDeviceContext.readBuffer(executionPlanId, toBuffer(), TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, numBytes, segment.address(),
@@ -130,7 +144,11 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
     public void write(long executionPlanId, Object reference) {
         MemorySegment segment = getSegmentWithHeader(reference);
         if (batchSize <= 0) {
-            spirvDeviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), 0, null);
+            final long headerBytes = viewHeaderBytes(reference);
+            if (headerBytes > 0) {
+                spirvDeviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset, headerBytes, headerAddress(reference, segment), 0, null);
+            }
+            spirvDeviceContext.writeBuffer(executionPlanId, toBuffer(), bufferOffset + headerBytes, bufferSize - headerBytes, segment.address(), headerBytes, null);
         } else {
             throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for writeBuffer operation");
         }
@@ -142,9 +160,12 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
         final int returnEvent;
         final long numBytes = getSizeSubRegionSize() > 0 ? getSizeSubRegionSize() : bufferSize;
         if (batchSize <= 0) {
-            returnEvent = spirvDeviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset, numBytes, segment.address(), hostOffset, waitEvents);
+            final long headerBytes = viewHeaderBytes(reference);
+            returnEvent = spirvDeviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), bufferOffset + headerBytes, numBytes - headerBytes, segment.address(), hostOffset + headerBytes, waitEvents);
         } else {
-            throw new TornadoUnsupportedError("[UNSUPPORTED] batch processing for enqueueReadBuffer operation");
+            // Copy out a batch into its region of the host segment
+            returnEvent = spirvDeviceContext.enqueueReadBuffer(executionPlanId, toBuffer(), TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, numBytes, segment.address(),
+                    hostOffset + TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, waitEvents);
         }
         return returnEvent;
     }
@@ -155,9 +176,15 @@ public class SPIRVMemorySegmentWrapper implements XPUBuffer {
         MemorySegment segment = getSegmentWithHeader(reference);
         int internalEvent;
         if (batchSize <= 0) {
-            internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset, bufferSize, segment.address(), hostOffset, (useDeps) ? events : null);
+            final long headerBytes = viewHeaderBytes(reference);
+            if (headerBytes > 0) {
+                internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset, headerBytes, headerAddress(reference, segment), 0, (useDeps) ? events : null);
+                returnEvents.add(internalEvent);
+            }
+            internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset + headerBytes, bufferSize - headerBytes, segment.address(), hostOffset + headerBytes,
+                    (useDeps) ? events : null);
         } else {
-            internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), 0, TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, segment.address(), 0, (useDeps) ? events : null);
+            internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), 0, TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, headerAddress(reference, segment), 0, (useDeps) ? events : null);
             returnEvents.add(internalEvent);
             internalEvent = spirvDeviceContext.enqueueWriteBuffer(executionPlanId, toBuffer(), bufferOffset + TornadoNativeArray.ARRAY_HEADER, bufferSize, segment.address(),
                     hostOffset + TornadoOptions.PANAMA_OBJECT_HEADER_SIZE, (useDeps) ? events : null);
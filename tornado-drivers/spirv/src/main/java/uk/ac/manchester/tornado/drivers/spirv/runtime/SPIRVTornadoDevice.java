@@ -47,7 +47,6 @@ import uk.ac.manchester.tornado.api.memory.XPUBuffer;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
-import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider;
 import uk.ac.manchester.tornado.drivers.opencl.mm.AtomicsBuffer;
 import uk.ac.manchester.tornado.drivers.spirv.SPIRVBackend;
 import uk.ac.manchester.tornado.drivers.spirv.SPIRVBackendImpl;
@@ -69,6 +68,10 @@ import uk.ac.manchester.tornado.drivers.spirv.mm.SPIRVObjectWrapper;
 import uk.ac.manchester.tornado.drivers.spirv.mm.SPIRVShortArrayWrapper;
 import uk.ac.manchester.tornado.drivers.spirv.mm.SPIRVVectorWrapper;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.cache.KernelCacheEntry;
+import uk.ac.manchester.tornado.runtime.cache.KernelCacheKey;
+import uk.ac.manchester.tornado.runtime.cache.KernelVariantCache;
+import uk.ac.manchester.tornado.runtime.cache.PersistentKernelCache;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
@@ -174,6 +177,32 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
 
         System.arraycopy(sketchAccess, 0, taskAccess, 0, sketchAccess.length);
 
+        // Return the kernel compiled before for the same specialisation
+        final KernelVariantCache kernelVariants = deviceContext.getCodeCache().getKernelVariants();
+        final String variantSignature = KernelVariantCache.isEnabled() ? KernelVariantCache.signature(task) : null;
+        if (variantSignature != null) {
+            TornadoInstalledCode variant = kernelVariants.lookup(task, variantSignature);
+            if (variant != null) {
+                return variant;
+            }
+        }
+
+        final KernelCacheKey cacheKey = PersistentKernelCache.isEnabled() && KernelCacheKey.isCacheable(sketch)
+                ? KernelCacheKey.create(sketch, task, this, getDeviceOpenCLCVersion(), SPIRVTornadoDevice.class)
+                : null;
+        final KernelCacheEntry cachedEntry = cacheKey != null ? PersistentKernelCache.lookup(cacheKey) : null;
+        if (cachedEntry != null) {
+            cachedEntry.restoreDomain(taskMeta);
+            profiler.start(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+            TornadoInstalledCode installedCode = deviceContext.installBinary(taskMeta, task.getId(), cachedEntry.getEntryPoint(), cachedEntry.getCode());
+            profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
+            profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+            if (variantSignature != null) {
+                kernelVariants.store(task, variantSignature, installedCode);
+            }
+            return installedCode;
+        }
+
         try {
             SPIRVCompilationResult result;
             // Compile the code and insert the SPIR-V binary into the code cache
@@ -187,6 +216,12 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
             TornadoInstalledCode installedCode = deviceContext.installBinary(result);
             profiler.stop(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId());
             profiler.sum(ProfilerType.TOTAL_DRIVER_COMPILE_TIME, profiler.getTaskTimer(ProfilerType.TASK_COMPILE_DRIVER_TIME, taskMeta.getId()));
+            if (cacheKey != null) {
+                PersistentKernelCache.store(cacheKey, result.getName(), result.getSPIRVBinary(), null, taskMeta.getDomain());
+            }
+            if (variantSignature != null) {
+                kernelVariants.store(task, variantSignature, installedCode);
+            }
             return installedCode;
         } catch (Exception e) {
             TornadoLogger logger = new TornadoLogger(this.getClass());
@@ -257,6 +292,11 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
         }
     }
 
+    @Override
+    public boolean isConcurrentCompilationSupported() {
+        return false;
+    }
+
     private XPUBuffer createArrayWrapper(Class<?> klass, SPIRVDeviceContext device, long batchSize) {
         if (klass == int[].class) {
             return new SPIRVIntArrayWrapper(device, batchSize);
@@ -330,10 +370,6 @@ public class SPIRVTornadoDevice implements TornadoXPUDevice {
 
     @Override
     public synchronized int allocateObjects(Object[] objects, long batchSize, DeviceBufferState[] states) {
-        TornadoBufferProvider bufferProvider = getDeviceContext().getBufferProvider();
-        if (!bufferProvider.checkBufferAvailability(objects.length)) {
-            bufferProvider.resetBuffers();
-        }
         for (int i = 0; i < objects.length; i++) {
             allocate(objects[i], batchSize, states[i]);
         }
@@ -23,9 +23,42 @@
  */
 package uk.ac.manchester.tornado.runtime;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import uk.ac.manchester.tornado.runtime.common.ParallelAnnotationProvider;
 
 public interface ASMClassVisitorProvider {
     ParallelAnnotationProvider[] getParallelAnnotations(ResolvedJavaMethod method);
+
+    /**
+     * Creates a copy of a static task method that runs a partition of its
+     * outermost parallel loop, or a single thread of a kernel that uses the
+     * {@link uk.ac.manchester.tornado.api.KernelContext}. The copy takes an extra
+     * {@code int[]} parameter, laid out as described in {@link JVMParallelExecutor}.
+     *
+     * @param method
+     *     Task method.
+     * @return {@link MethodHandle} of the copy, or null if the method cannot be
+     *     partitioned.
+     */
+    MethodHandle createPartitionedMethod(Method method);
+
+    /**
+     * Creates a public static method that calls the given static task methods in
+     * order. It is the method of a task that fuses several tasks of a task-graph.
+     *
+     * @param name
+     *     Name of the new method.
+     * @param methods
+     *     Task methods, in the order in which they are called.
+     * @param parameterTypes
+     *     Parameter types of the new method.
+     * @param parameterMap
+     *     For each task method, the parameter of the new method passed as each
+     *     of its arguments.
+     * @return The new method, or null if it cannot be defined.
+     */
+    Method createFusedMethod(String name, Method[] methods, Class<?>[] parameterTypes, int[][] parameterMap);
 }
@@ -45,6 +45,10 @@ import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
 import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
 import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
 
+/**
+ * Device that represents the JVM. When it is selected for a task-graph, the
+ * tasks run on the host with the {@link JVMParallelExecutor}.
+ */
 public class JVMMapping implements TornadoXPUDevice {
 
     @Override
@@ -200,7 +204,7 @@ public class JVMMapping implements TornadoXPUDevice {
 
     @Override
     public TornadoDeviceType getDeviceType() {
-        return null;
+        return TornadoDeviceType.CPU;
     }
 
     @Override
@@ -260,6 +264,11 @@ public class JVMMapping implements TornadoXPUDevice {
         }
     }
 
+    @Override
+    public boolean isConcurrentCompilationSupported() {
+        return false;
+    }
+
     @Override
     public long getMaxAllocMemory() {
         return Runtime.getRuntime().maxMemory();
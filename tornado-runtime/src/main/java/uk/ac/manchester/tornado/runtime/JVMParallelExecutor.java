@@ -0,0 +1,469 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.graalvm.compiler.nodes.StructuredGraph;
+
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.common.PrebuiltTaskPackage;
+import uk.ac.manchester.tornado.api.common.TaskPackage;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.runtime.analyzer.CodeAnalysis;
+import uk.ac.manchester.tornado.runtime.analyzer.ReduceCodeAnalysis;
+import uk.ac.manchester.tornado.runtime.analyzer.ReduceCodeAnalysis.REDUCE_OPERATION;
+import uk.ac.manchester.tornado.runtime.analyzer.TaskUtils;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Runs tasks on the host with a pool of Java threads. This is the execution
+ * engine of the {@link JVMMapping} device, and of the Java fallback when the
+ * {@code tornado.jvm.parallel} option is enabled.
+ *
+ * <p>
+ * Each task method is copied into a partitioned method (see
+ * {@link ASMClassVisitorProvider#createPartitionedMethod}) that receives an extra
+ * {@code int[]} parameter:
+ * </p>
+ * <ul>
+ * <li>For methods with a {@code @Parallel} loop, the parameter holds the range
+ * of values of the outermost parallel loop that the call runs:
+ * {@code [lower, upper)} in the elements {@link #LOWER} and {@link #UPPER}. The
+ * partitioned method writes the initial value of the induction variable, its
+ * exclusive upper bound and its stride in the elements {@link #INIT},
+ * {@link #BOUND} and {@link #STRIDE}, and counts the entries into the loop in
+ * {@link #ENTRIES}. A first call with an empty range probes the iteration
+ * space, which is then split in one contiguous block per thread. The loop must
+ * be entered once per call: the partitioner only accepts methods whose code
+ * outside the loop has no side effects, so the probe can be discarded and the
+ * task run sequentially otherwise.</li>
+ * <li>For methods that use the {@link KernelContext}, the parameter holds the
+ * thread identifiers, in the order of {@link #KERNEL_CONTEXT_FIELDS}, and each
+ * call runs a single thread of the grid of the task.</li>
+ * </ul>
+ *
+ * <p>
+ * Arrays annotated with {@link Reduce} are replaced by a private copy in each
+ * partition, and the partial results are combined with the reduce operation
+ * after all partitions finish. Tasks that cannot be partitioned, for example
+ * because they synchronise threads with barriers or use local memory, run
+ * sequentially.
+ * </p>
+ */
+public final class JVMParallelExecutor {
+
+    public static final int LOWER = 0;
+    public static final int UPPER = 1;
+    public static final int INIT = 2;
+    public static final int BOUND = 3;
+    public static final int STRIDE = 4;
+    public static final int ENTRIES = 5;
+    private static final int RANGE_LENGTH = 6;
+
+    /**
+     * Fields of the {@link KernelContext} that a partitioned method reads from its
+     * extra parameter, in order.
+     */
+    public static final List<String> KERNEL_CONTEXT_FIELDS = List.of( //
+            "globalIdx", "globalIdy", "globalIdz", //
+            "groupIdx", "groupIdy", "groupIdz", //
+            "localIdx", "localIdy", "localIdz", //
+            "globalGroupSizeX", "globalGroupSizeY", "globalGroupSizeZ", //
+            "localGroupSizeX", "localGroupSizeY", "localGroupSizeZ");
+
+    private static final ConcurrentHashMap<Method, Optional<PartitionedTask>> partitionedTasks = new ConcurrentHashMap<>();
+
+    private static ASMClassVisitorProvider asmClassVisitorProvider;
+
+    private JVMParallelExecutor() {
+    }
+
+    private record PartitionedTask(MethodHandle invoker, boolean kernelContext, int[] reduceIndices, REDUCE_OPERATION[] reduceOperations) {
+    }
+
+    private static final class ThreadPoolHolder {
+        private static final ForkJoinPool POOL = new ForkJoinPool(TornadoOptions.JVM_THREADS);
+    }
+
+    /**
+     * Runs a task with the pool of Java threads.
+     *
+     * @param taskPackage
+     *     Task to run.
+     * @param workerGrid
+     *     Grid of threads of the task, or null if the task does not have one.
+     * @return boolean: true if the task was run, false if it cannot be partitioned
+     *     and it must run sequentially.
+     */
+    public static boolean execute(TaskPackage taskPackage, WorkerGrid workerGrid) {
+        if (taskPackage instanceof PrebuiltTaskPackage) {
+            return false;
+        }
+        final Object[] parameters = taskPackage.getTaskParameters();
+        final Method method = TaskUtils.resolveMethodHandle(parameters[0]);
+        final Optional<PartitionedTask> partitionedTask = partitionedTasks.computeIfAbsent(method, m -> partition(m, parameters[0]));
+        if (partitionedTask.isEmpty() || method.getParameterCount() != parameters.length - 1) {
+            return false;
+        }
+
+        final Object[] arguments = Arrays.copyOfRange(parameters, 1, parameters.length + 1);
+        final PartitionedTask task = partitionedTask.get();
+        if (task.kernelContext()) {
+            return workerGrid != null && executeKernelContext(task, arguments, workerGrid);
+        }
+        return executeParallelLoop(task, arguments);
+    }
+
+    private static Optional<PartitionedTask> partition(Method method, Object taskCode) {
+        if (!Modifier.isStatic(method.getModifiers())) {
+            return Optional.empty();
+        }
+        final MethodHandle methodHandle = getASMClassVisitorProvider().createPartitionedMethod(method);
+        if (methodHandle == null) {
+            return Optional.empty();
+        }
+        final int numArguments = methodHandle.type().parameterCount();
+        final MethodHandle invoker = methodHandle.asType(methodHandle.type().generic()).asSpreader(Object[].class, numArguments);
+        final boolean kernelContext = Arrays.asList(method.getParameterTypes()).contains(KernelContext.class);
+
+        // Reductions
+        final List<Integer> reduceIndices = new ArrayList<>();
+        final Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof Reduce) {
+                    reduceIndices.add(i);
+                }
+            }
+        }
+        REDUCE_OPERATION[] reduceOperations = new REDUCE_OPERATION[0];
+        if (!reduceIndices.isEmpty()) {
+            if (kernelContext) {
+                return Optional.empty();
+            }
+            try {
+                StructuredGraph graph = CodeAnalysis.buildHighLevelGraalGraph(taskCode);
+                reduceOperations = graph == null ? reduceOperations : ReduceCodeAnalysis.getReduceOperation(graph, reduceIndices).toArray(reduceOperations);
+            } catch (TornadoRuntimeException e) {
+                return Optional.empty();
+            }
+            if (reduceOperations.length != reduceIndices.size()) {
+                return Optional.empty();
+            }
+        }
+        final int[] indices = reduceIndices.stream().mapToInt(Integer::intValue).toArray();
+        return Optional.of(new PartitionedTask(invoker, kernelContext, indices, reduceOperations));
+    }
+
+    private static boolean executeParallelLoop(PartitionedTask task, Object[] arguments) {
+        for (int index : task.reduceIndices()) {
+            if (!isSupportedReduction(arguments[index])) {
+                return false;
+            }
+        }
+
+        // Probe the iteration space with an empty range
+        final int[] probe = new int[RANGE_LENGTH];
+        probe[LOWER] = Integer.MIN_VALUE;
+        probe[UPPER] = Integer.MIN_VALUE + 1;
+        arguments[arguments.length - 1] = probe;
+        invoke(task, arguments);
+
+        if (probe[ENTRIES] > 1) {
+            // The loop is nested in a sequential loop, so the partitions would race
+            return false;
+        }
+        final int stride = probe[STRIDE];
+        final long iterations = stride > 0 && probe[BOUND] > probe[INIT] ? Math.ceilDiv((long) probe[BOUND] - probe[INIT], stride) : 0;
+        if (iterations == 0) {
+            // The probe was a complete execution of the task
+            return true;
+        }
+
+        final int partitions = (int) Math.min(TornadoOptions.JVM_THREADS, iterations);
+        final Object[][] partitionArguments = new Object[partitions][];
+        final List<ForkJoinTask<?>> forkJoinTasks = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            final Object[] copy = arguments.clone();
+            final int[] range = new int[RANGE_LENGTH];
+            range[LOWER] = clamp(probe[INIT] + (iterations * p / partitions) * stride);
+            range[UPPER] = clamp(probe[INIT] + (iterations * (p + 1) / partitions) * stride);
+            copy[copy.length - 1] = range;
+            for (int i = 0; i < task.reduceIndices().length; i++) {
+                int index = task.reduceIndices()[i];
+                copy[index] = newPartialReduction(arguments[index], task.reduceOperations()[i]);
+            }
+            partitionArguments[p] = copy;
+            forkJoinTasks.add(ThreadPoolHolder.POOL.submit(() -> invoke(task, copy)));
+        }
+        joinAll(forkJoinTasks);
+
+        for (int i = 0; i < task.reduceIndices().length; i++) {
+            int index = task.reduceIndices()[i];
+            for (Object[] copy : partitionArguments) {
+                combine(arguments[index], copy[index], task.reduceOperations()[i]);
+            }
+        }
+        if (TornadoOptions.DEBUG) {
+            System.out.println(STR."[JVM] Executed \{iterations} iterations in \{partitions} partitions");
+        }
+        return true;
+    }
+
+    private static boolean executeKernelContext(PartitionedTask task, Object[] arguments, WorkerGrid workerGrid) {
+        final long[] globalWork = Arrays.copyOf(workerGrid.getGlobalWork(), 3);
+        final long[] localWork = workerGrid.getLocalWork() != null ? Arrays.copyOf(workerGrid.getLocalWork(), 3) : new long[] { 1, 1, 1 };
+        for (int d = 0; d < 3; d++) {
+            globalWork[d] = Math.max(globalWork[d], 1);
+            localWork[d] = Math.max(localWork[d], 1);
+        }
+        final long threads = globalWork[0] * globalWork[1] * globalWork[2];
+        final int partitions = (int) Math.min(TornadoOptions.JVM_THREADS, threads);
+
+        final List<ForkJoinTask<?>> forkJoinTasks = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            final long first = threads * p / partitions;
+            final long last = threads * (p + 1) / partitions;
+            final Object[] copy = arguments.clone();
+            final int[] ids = new int[KERNEL_CONTEXT_FIELDS.size()];
+            for (int d = 0; d < 3; d++) {
+                ids[9 + d] = (int) globalWork[d];
+                ids[12 + d] = (int) localWork[d];
+            }
+            copy[copy.length - 1] = ids;
+            forkJoinTasks.add(ThreadPoolHolder.POOL.submit(() -> {
+                for (long thread = first; thread < last; thread++) {
+                    ids[0] = (int) (thread % globalWork[0]);
+                    ids[1] = (int) (thread / globalWork[0] % globalWork[1]);
+                    ids[2] = (int) (thread / (globalWork[0] * globalWork[1]));
+                    for (int d = 0; d < 3; d++) {
+                        ids[3 + d] = (int) (ids[d] / localWork[d]);
+                        ids[6 + d] = (int) (ids[d] % localWork[d]);
+                    }
+                    invoke(task, copy);
+                }
+            }));
+        }
+        joinAll(forkJoinTasks);
+        return true;
+    }
+
+    private static void invoke(PartitionedTask task, Object[] arguments) {
+        try {
+            Object ignored = task.invoker().invokeExact(arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new TornadoRuntimeException(STR."[ERROR] Task failed on the JVM device: \{t}");
+        }
+    }
+
+    private static void joinAll(List<ForkJoinTask<?>> forkJoinTasks) {
+        for (ForkJoinTask<?> forkJoinTask : forkJoinTasks) {
+            forkJoinTask.join();
+        }
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    private static boolean isSupportedReduction(Object array) {
+        return array instanceof IntArray || array instanceof LongArray || array instanceof FloatArray || array instanceof DoubleArray || array instanceof int[] || array instanceof long[]
+                || array instanceof float[] || array instanceof double[];
+    }
+
+    /**
+     * Creates the private copy of a reduction array for one partition, initialised
+     * with the identity of the reduce operation.
+     */
+    private static Object newPartialReduction(Object array, REDUCE_OPERATION operation) {
+        final boolean copyValues = operation == REDUCE_OPERATION.MIN || operation == REDUCE_OPERATION.MAX;
+        final int identity = operation == REDUCE_OPERATION.MUL ? 1 : 0;
+        return switch (array) {
+            case IntArray a -> {
+                IntArray copy = new IntArray(a.getSize());
+                for (int i = 0; i < a.getSize(); i++) {
+                    copy.set(i, copyValues ? a.get(i) : identity);
+                }
+                yield copy;
+            }
+            case LongArray a -> {
+                LongArray copy = new LongArray(a.getSize());
+                for (int i = 0; i < a.getSize(); i++) {
+                    copy.set(i, copyValues ? a.get(i) : identity);
+                }
+                yield copy;
+            }
+            case FloatArray a -> {
+                FloatArray copy = new FloatArray(a.getSize());
+                for (int i = 0; i < a.getSize(); i++) {
+                    copy.set(i, copyValues ? a.get(i) : identity);
+                }
+                yield copy;
+            }
+            case DoubleArray a -> {
+                DoubleArray copy = new DoubleArray(a.getSize());
+                for (int i = 0; i < a.getSize(); i++) {
+                    copy.set(i, copyValues ? a.get(i) : identity);
+                }
+                yield copy;
+            }
+            case int[] a -> {
+                int[] copy = a.clone();
+                if (!copyValues) {
+                    Arrays.fill(copy, identity);
+                }
+                yield copy;
+            }
+            case long[] a -> {
+                long[] copy = a.clone();
+                if (!copyValues) {
+                    Arrays.fill(copy, identity);
+                }
+                yield copy;
+            }
+            case float[] a -> {
+                float[] copy = a.clone();
+                if (!copyValues) {
+                    Arrays.fill(copy, identity);
+                }
+                yield copy;
+            }
+            case double[] a -> {
+                double[] copy = a.clone();
+                if (!copyValues) {
+                    Arrays.fill(copy, identity);
+                }
+                yield copy;
+            }
+            default -> throw new TornadoRuntimeException(STR."[ERROR] Unsupported type for reductions: \{array.getClass()}");
+        };
+    }
+
+    private static void combine(Object result, Object partial, REDUCE_OPERATION operation) {
+        switch (result) {
+            case IntArray a -> {
+                IntArray b = (IntArray) partial;
+                for (int i = 0; i < a.getSize(); i++) {
+                    a.set(i, (int) apply(operation, a.get(i), b.get(i)));
+                }
+            }
+            case LongArray a -> {
+                LongArray b = (LongArray) partial;
+                for (int i = 0; i < a.getSize(); i++) {
+                    a.set(i, apply(operation, a.get(i), b.get(i)));
+                }
+            }
+            case FloatArray a -> {
+                FloatArray b = (FloatArray) partial;
+                for (int i = 0; i < a.getSize(); i++) {
+                    a.set(i, (float) apply(operation, (double) a.get(i), b.get(i)));
+                }
+            }
+            case DoubleArray a -> {
+                DoubleArray b = (DoubleArray) partial;
+                for (int i = 0; i < a.getSize(); i++) {
+                    a.set(i, apply(operation, a.get(i), b.get(i)));
+                }
+            }
+            case int[] a -> {
+                int[] b = (int[]) partial;
+                for (int i = 0; i < a.length; i++) {
+                    a[i] = (int) apply(operation, a[i], b[i]);
+                }
+            }
+            case long[] a -> {
+                long[] b = (long[]) partial;
+                for (int i = 0; i < a.length; i++) {
+                    a[i] = apply(operation, a[i], b[i]);
+                }
+            }
+            case float[] a -> {
+                float[] b = (float[]) partial;
+                for (int i = 0; i < a.length; i++) {
+                    a[i] = (float) apply(operation, (double) a[i], b[i]);
+                }
+            }
+            case double[] a -> {
+                double[] b = (double[]) partial;
+                for (int i = 0; i < a.length; i++) {
+                    a[i] = apply(operation, a[i], b[i]);
+                }
+            }
+            default -> throw new TornadoRuntimeException(STR."[ERROR] Unsupported type for reductions: \{result.getClass()}");
+        }
+    }
+
+    private static long apply(REDUCE_OPERATION operation, long a, long b) {
+        return switch (operation) {
+            case SUM -> a + b;
+            case MUL -> a * b;
+            case MIN -> Math.min(a, b);
+            case MAX -> Math.max(a, b);
+        };
+    }
+
+    private static double apply(REDUCE_OPERATION operation, double a, double b) {
+        return switch (operation) {
+            case SUM -> a + b;
+            case MUL -> a * b;
+            case MIN -> Math.min(a, b);
+            case MAX -> Math.max(a, b);
+        };
+    }
+
+    private static synchronized ASMClassVisitorProvider getASMClassVisitorProvider() {
+        if (asmClassVisitorProvider == null) {
+            try {
+                String tornadoAnnotationImplementation = System.getProperty("tornado.load.annotation.implementation");
+                Class<?> klass = Class.forName(tornadoAnnotationImplementation);
+                Constructor<?> constructor = klass.getConstructor();
+                asmClassVisitorProvider = (ASMClassVisitorProvider) constructor.newInstance();
+            } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | NoSuchMethodException | SecurityException | IllegalArgumentException | InvocationTargetException e) {
+                throw new TornadoRuntimeException("[ERROR] Tornado Annotation Implementation class not found");
+            }
+        }
+        return asmClassVisitorProvider;
+    }
+}
@@ -73,7 +73,20 @@ public final class TornadoCoreRuntime implements TornadoRuntimeInterface {
             return thread;
         }
     };
+    private static final ThreadFactory compilerThreadFactory = new ThreadFactory() {
+        private int threadId = 0;
+
+        @Override
+        public synchronized Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, String.format("TornadoCompilerThread - %d", threadId));
+            thread.setDaemon(true);
+            threadId++;
+            return thread;
+        }
+    };
     private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(TornadoOptions.TORNADO_SKETCHER_THREADS, executorThreadFactory);
+    // Separate from the sketcher pool: compilations wait for the sketches
+    private static final ExecutorService COMPILER_EXECUTOR = Executors.newFixedThreadPool(Math.max(1, TornadoOptions.TORNADO_COMPILER_THREADS), compilerThreadFactory);
     private static final TornadoCoreRuntime runtime = new TornadoCoreRuntime();
     private static final JVMMapping JVM = new JVMMapping();
     private static final int DEFAULT_DRIVER = 0;
@@ -120,6 +133,10 @@ public final class TornadoCoreRuntime implements TornadoRuntimeInterface {
         return EXECUTOR;
     }
 
+    public static ExecutorService getTornadoCompilerExecutor() {
+        return COMPILER_EXECUTOR;
+    }
+
     public static JVMCIBackend getVMBackend() {
         return runtime.vmBackend;
     }
@@ -234,4 +251,9 @@ public final class TornadoCoreRuntime implements TornadoRuntimeInterface {
         return (tornadoVMBackends == null || tornadoVMBackends[DEFAULT_BACKEND] == null) ? JVM : (TornadoXPUDevice) tornadoVMBackends[DEFAULT_BACKEND].getDefaultDevice();
     }
 
+    @Override
+    public TornadoXPUDevice getJVMDevice() {
+        return JVM;
+    }
+
 }
@@ -31,6 +31,8 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import uk.ac.manchester.tornado.api.GridScheduler;
@@ -63,6 +65,13 @@ public class TornadoVM {
 
     private final TornadoVMInterpreter[] tornadoVMInterpreters;
 
+    /**
+     * Thread pool used to run the interpreters concurrently. It is created the
+     * first time the task-graph runs with concurrent devices, and it is kept
+     * alive across executions until {@link #close()} is invoked.
+     */
+    private ExecutorService interpreterThreadPool;
+
     /**
      * It constructs a new TornadoVM instance.
      *
@@ -133,9 +142,8 @@ public class TornadoVM {
      * @return An {@link Event} indicating the completion of execution.
      */
     private Event executeInterpreterThreadManager(boolean isParallel) {
-        // Create a thread pool with a fixed number of threads
         int numberOfJavaThreads = calculateNumberOfJavaThreads(isParallel);
-        ExecutorService executor = Executors.newFixedThreadPool(numberOfJavaThreads);
+        ExecutorService executor = TornadoOptions.REUSE_INTERPRETER_THREAD_POOL ? getInterpreterThreadPool(numberOfJavaThreads) : createInterpreterThreadPool(numberOfJavaThreads);
 
         // Create a list to hold the futures of each execution
         List<Future<?>> futures = new ArrayList<>();
@@ -164,13 +172,40 @@ public class TornadoVM {
                 throw new RuntimeException(e);
             }
         } finally {
-            // Shutdown the executor after all tasks have completed
-            executor.shutdown();
+            if (!TornadoOptions.REUSE_INTERPRETER_THREAD_POOL) {
+                // Shutdown the executor after all tasks have completed
+                executor.shutdown();
+            }
         }
 
         return new EmptyEvent();
     }
 
+    private synchronized ExecutorService getInterpreterThreadPool(int numberOfJavaThreads) {
+        if (interpreterThreadPool == null || interpreterThreadPool.isShutdown()) {
+            interpreterThreadPool = createInterpreterThreadPool(numberOfJavaThreads);
+        }
+        return interpreterThreadPool;
+    }
+
+    private static ExecutorService createInterpreterThreadPool(int numberOfJavaThreads) {
+        if (TornadoOptions.VIRTUAL_THREADS_FOR_INTERPRETERS) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(numberOfJavaThreads, new InterpreterThreadFactory());
+    }
+
+    /**
+     * It releases the Java threads used to run the interpreters concurrently. A
+     * subsequent concurrent execution creates a new thread pool.
+     */
+    public synchronized void close() {
+        if (interpreterThreadPool != null) {
+            interpreterThreadPool.shutdown();
+            interpreterThreadPool = null;
+        }
+    }
+
     private boolean shouldRunConcurrently(boolean isTaskGraphConcurrent) {
         return (isTaskGraphConcurrent || TornadoOptions.CONCURRENT_INTERPRETERS) && (executionContext.getValidContextSize() > 1);
     }
@@ -203,8 +238,27 @@ public class TornadoVM {
         executeActionOnInterpreters(TornadoVMInterpreter::warmup);
     }
 
+    public void freeBatchBuffers() {
+        executeActionOnInterpreters(TornadoVMInterpreter::freeBatchBuffers);
+    }
+
     public void setGridScheduler(GridScheduler gridScheduler) {
         Arrays.stream(tornadoVMInterpreters).forEach(interpreter -> interpreter.setGridScheduler(gridScheduler));
     }
 
+    /**
+     * Platform threads for the interpreters are daemon threads, so an execution
+     * plan that is not closed does not prevent the JVM from exiting.
+     */
+    private static final class InterpreterThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger threadCounter = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, STR."tornadovm-interpreter-\{threadCounter.getAndIncrement()}");
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
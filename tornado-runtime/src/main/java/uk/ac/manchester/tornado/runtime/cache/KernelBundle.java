@@ -0,0 +1,258 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+
+/**
+ * Ahead-of-time bundle of generated kernels. A bundle is generated as a build
+ * step, by running the application with
+ * {@link TornadoOptions#KERNEL_BUNDLE_GENERATE}, usually on the virtual OpenCL
+ * device configured with a descriptor of the target device. At run time, the
+ * bundle is a read-only tier of the {@link PersistentKernelCache}: a task whose
+ * kernel is in the bundle is installed from the generated code, and the Graal
+ * compilation pipeline does not run.
+ *
+ * <p>
+ * The bundle directory contains a manifest ({@code MANIFEST.properties}) with
+ * the format of the bundle and the list of its kernels, and, for each kernel,
+ * its generated code ({@code <hash>.code}) and metadata
+ * ({@code <hash>.properties}), indexed by {@link KernelCacheKey#getBundleHash()}.
+ * Driver binaries are not bundled, since they depend on the driver installed
+ * on the target.
+ * </p>
+ *
+ * <p>
+ * The bundle configured for the JVM is returned by {@link #getInstance()}.
+ * Other bundles can be read or written with {@link #open(Path, boolean)}.
+ * </p>
+ */
+public final class KernelBundle {
+
+    private static final int FORMAT_VERSION = 1;
+
+    static final String MANIFEST = "MANIFEST.properties";
+    private static final String CREATED = "created";
+    private static final String KERNEL_PREFIX = "kernel.";
+
+    private static final TornadoLogger logger = new TornadoLogger(KernelBundle.class);
+
+    private static KernelBundle instance;
+
+    private final Path directory;
+    private final boolean generating;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private volatile Boolean supportedFormat;
+
+    private KernelBundle(Path directory, boolean generating) {
+        this.directory = directory;
+        this.generating = generating;
+    }
+
+    public static boolean isEnabled() {
+        return !TornadoOptions.KERNEL_BUNDLE_DIR.isEmpty();
+    }
+
+    public static boolean isGenerating() {
+        return isEnabled() && TornadoOptions.KERNEL_BUNDLE_GENERATE;
+    }
+
+    /**
+     * Returns the bundle set with {@link TornadoOptions#KERNEL_BUNDLE_DIR}. It
+     * must only be called if {@link #isEnabled()}.
+     *
+     * @return {@link KernelBundle}
+     */
+    public static synchronized KernelBundle getInstance() {
+        if (instance == null) {
+            instance = open(Paths.get(TornadoOptions.KERNEL_BUNDLE_DIR), isGenerating());
+        }
+        return instance;
+    }
+
+    /**
+     * Opens a bundle directory.
+     *
+     * @param directory
+     *     Directory of the bundle.
+     * @param generating
+     *     Whether kernels are written to the bundle. A bundle that is being
+     *     generated is never read, so that every kernel is compiled and the
+     *     bundle is complete.
+     * @return {@link KernelBundle}
+     */
+    public static KernelBundle open(Path directory, boolean generating) {
+        return new KernelBundle(directory, generating);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return Number of kernels found in the bundle.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return Number of kernels of the bundle rejected for another device, another
+     *     TornadoVM build or a checksum mismatch.
+     */
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    /**
+     * Returns the kernel of the bundle for the key, or null if the bundle has no
+     * valid kernel for it, or if it is being generated.
+     *
+     * @param key
+     *     {@link KernelCacheKey}
+     * @return {@link KernelCacheEntry}
+     */
+    public KernelCacheEntry lookup(KernelCacheKey key) {
+        if (generating || !isFormatSupported()) {
+            return null;
+        }
+        final Path metadataFile = resolve(key.getBundleHash(), PersistentKernelCache.METADATA_SUFFIX);
+        if (!Files.exists(metadataFile)) {
+            return null;
+        }
+        try {
+            final Properties metadata = load(metadataFile);
+            final byte[] code = Files.readAllBytes(resolve(key.getBundleHash(), PersistentKernelCache.CODE_SUFFIX));
+            final boolean valid = Integer.toString(FORMAT_VERSION).equals(metadata.getProperty(PersistentKernelCache.FORMAT)) //
+                    && key.getBundleDevice().equals(metadata.getProperty(PersistentKernelCache.DEVICE)) //
+                    && key.getBundleRuntimeStamp().equals(metadata.getProperty(PersistentKernelCache.RUNTIME)) //
+                    && PersistentKernelCache.checksum(code).equals(metadata.getProperty(PersistentKernelCache.CODE_CHECKSUM));
+            if (!valid) {
+                rejections.incrementAndGet();
+                logger.warn("Rejecting kernel bundle entry %s generated for %s", key.getBundleHash(), metadata.getProperty(PersistentKernelCache.DEVICE));
+                return null;
+            }
+            hits.incrementAndGet();
+            logger.info("Kernel bundle hit %s for %s", key.getBundleHash(), metadata.getProperty(PersistentKernelCache.ENTRY_POINT));
+            return new KernelCacheEntry(metadata.getProperty(PersistentKernelCache.ENTRY_POINT), code, null, metadata);
+        } catch (IOException e) {
+            logger.warn("Unable to read kernel bundle entry %s: %s", key.getBundleHash(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Adds the code generated for a key to the bundle and to its manifest.
+     * Failures are logged and otherwise ignored, so the application still runs.
+     *
+     * @param key
+     *     {@link KernelCacheKey}
+     * @param entryPoint
+     *     Name of the kernel in the generated code.
+     * @param code
+     *     Generated code (OpenCL C, PTX or SPIR-V).
+     * @param domain
+     *     Parallel domain of the task, or null if the kernel is not parallel.
+     */
+    public synchronized void store(KernelCacheKey key, String entryPoint, byte[] code, DomainTree domain) {
+        final Properties metadata = new Properties();
+        metadata.setProperty(PersistentKernelCache.FORMAT, Integer.toString(FORMAT_VERSION));
+        metadata.setProperty(PersistentKernelCache.DEVICE, key.getBundleDevice());
+        metadata.setProperty(PersistentKernelCache.RUNTIME, key.getBundleRuntimeStamp());
+        metadata.setProperty(PersistentKernelCache.ENTRY_POINT, entryPoint);
+        metadata.setProperty(PersistentKernelCache.CODE_CHECKSUM, PersistentKernelCache.checksum(code));
+        final String domainDescription = KernelCacheEntry.describeDomain(domain);
+        if (domainDescription != null) {
+            metadata.setProperty(KernelCacheEntry.DOMAIN, domainDescription);
+        }
+
+        try {
+            Files.createDirectories(directory);
+            PersistentKernelCache.writeAtomically(resolve(key.getBundleHash(), PersistentKernelCache.CODE_SUFFIX), code);
+            store(metadata, resolve(key.getBundleHash(), PersistentKernelCache.METADATA_SUFFIX));
+
+            final Path manifestFile = directory.resolve(MANIFEST);
+            final Properties manifest = Files.exists(manifestFile) ? load(manifestFile) : new Properties();
+            manifest.setProperty(PersistentKernelCache.FORMAT, Integer.toString(FORMAT_VERSION));
+            manifest.setProperty(PersistentKernelCache.RUNTIME, key.getBundleRuntimeStamp());
+            manifest.setProperty(CREATED, Instant.now().toString());
+            manifest.setProperty(KERNEL_PREFIX + key.getBundleHash(), STR."\{key.getBundleDevice()}|\{entryPoint}");
+            store(manifest, manifestFile);
+            supportedFormat = null;
+            logger.info("Kernel %s added to the bundle %s", entryPoint, directory);
+        } catch (IOException e) {
+            logger.warn("Unable to add kernel %s to the bundle: %s", entryPoint, e.getMessage());
+        }
+    }
+
+    private boolean isFormatSupported() {
+        Boolean supported = supportedFormat;
+        if (supported == null) {
+            final Path manifestFile = directory.resolve(MANIFEST);
+            try {
+                supported = Files.exists(manifestFile) && Integer.toString(FORMAT_VERSION).equals(load(manifestFile).getProperty(PersistentKernelCache.FORMAT));
+            } catch (IOException e) {
+                supported = false;
+            }
+            if (!supported) {
+                logger.warn("Ignoring the kernel bundle %s: missing manifest or unsupported format", directory);
+            }
+            supportedFormat = supported;
+        }
+        return supported;
+    }
+
+    private Path resolve(String hash, String suffix) {
+        return directory.resolve(hash + suffix);
+    }
+
+    private static Properties load(Path file) throws IOException {
+        final Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            properties.load(inputStream);
+        }
+        return properties;
+    }
+
+    private static void store(Properties properties, Path file) throws IOException {
+        final Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(tmp)) {
+            properties.store(outputStream, null);
+        }
+        PersistentKernelCache.move(tmp, file);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.cache;
+
+import java.util.Properties;
+
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+
+/**
+ * An entry of the {@link PersistentKernelCache}: the generated code of a
+ * kernel, an optional binary built from that code by the driver, and the
+ * metadata recorded when the entry was stored.
+ */
+public final class KernelCacheEntry {
+
+    static final String DOMAIN = "domain";
+
+    private final String entryPoint;
+    private final byte[] code;
+    private final byte[] binary;
+    private final Properties metadata;
+
+    KernelCacheEntry(String entryPoint, byte[] code, byte[] binary, Properties metadata) {
+        this.entryPoint = entryPoint;
+        this.code = code;
+        this.binary = binary;
+        this.metadata = metadata;
+    }
+
+    public String getEntryPoint() {
+        return entryPoint;
+    }
+
+    /**
+     * @return The generated code (OpenCL C, PTX or SPIR-V).
+     */
+    public byte[] getCode() {
+        return code;
+    }
+
+    /**
+     * @return The binary built by the driver, or null if the backend did not
+     *     provide one.
+     */
+    public byte[] getBinary() {
+        return binary;
+    }
+
+    public boolean hasBinary() {
+        return binary != null && binary.length > 0;
+    }
+
+    public Properties getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Sets in the task the parallel domain recorded when the entry was stored.
+     * The domain is discovered by the shape analysis of the compiler, which does
+     * not run when a kernel is installed from the cache; without it, the kernel
+     * would be launched with a single thread.
+     *
+     * @param meta
+     *     {@link TaskMetaData} of the task that installs the entry.
+     */
+    public void restoreDomain(TaskMetaData meta) {
+        final String domain = metadata.getProperty(DOMAIN);
+        if (domain == null || meta.hasDomain()) {
+            return;
+        }
+        final String[] dimensions = domain.split(";");
+        final DomainTree domainTree = new DomainTree(dimensions.length);
+        for (int i = 0; i < dimensions.length; i++) {
+            String[] values = dimensions[i].split(":");
+            domainTree.set(i, new IntDomain(Integer.parseInt(values[0]), Integer.parseInt(values[1]), Integer.parseInt(values[2])));
+        }
+        meta.setDomain(domainTree);
+    }
+
+    /**
+     * Describes a domain as {@code offset:step:length} for each dimension.
+     *
+     * @return String, or null if the domain cannot be stored.
+     */
+    static String describeDomain(DomainTree domainTree) {
+        if (domainTree == null || domainTree.getDepth() == 0) {
+            return null;
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < domainTree.getDepth(); i++) {
+            if (!(domainTree.get(i) instanceof IntDomain intDomain)) {
+                return null;
+            }
+            if (i > 0) {
+                sb.append(';');
+            }
+            sb.append(intDomain.getOffset()).append(':').append(intDomain.getStep()).append(':').append(intDomain.cardinality());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.cache;
+
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.InvokeNode;
+import org.graalvm.compiler.nodes.InvokeWithExceptionNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.java.AbstractCompareAndSwapNode;
+import org.graalvm.compiler.nodes.java.AbstractUnsafeCompareAndSwapNode;
+import org.graalvm.compiler.nodes.java.AtomicReadAndAddNode;
+import org.graalvm.compiler.nodes.java.AtomicReadAndWriteNode;
+import org.graalvm.compiler.nodes.java.LoweredAtomicReadAndAddNode;
+import org.graalvm.compiler.nodes.java.LoweredAtomicReadAndWriteNode;
+import org.graalvm.compiler.nodes.java.NewInstanceNode;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.Signature;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+
+/**
+ * Content-addressed key of the {@link PersistentKernelCache}. The key is a
+ * SHA-256 digest of everything that determines the code generated for a task:
+ * the bytecodes of the kernel and of its inlined methods, the values that the
+ * task specialisation folds into the kernel (scalar arguments, array sizes and
+ * the primitive fields of objects), the batch and grid configuration, the
+ * compiler flags, the target backend and device, the TornadoVM build that
+ * generated the code and the TornadoVM options set for the JVM.
+ *
+ * <p>
+ * A second digest identifies the task in a {@link KernelBundle}. Bundles are
+ * generated on another machine, usually with a virtual device, so that digest
+ * only describes the device by its backend and name, and the TornadoVM build
+ * by the name and size of its jars.
+ * </p>
+ */
+public final class KernelCacheKey {
+
+    // Options that select where kernels are stored or compiled, not how
+    private static final String[] IGNORED_PROPERTY_PREFIXES = { "tornado.kernel.cache", "tornado.kernel.bundle", "tornado.virtual.device", "tornado.device.desc" };
+
+    // Levels of final references followed to describe the fields of an argument
+    private static final int MAX_FIELD_DEPTH = 4;
+
+    private final String hash;
+    private final String backend;
+    private final String device;
+    private final String runtimeStamp;
+
+    private final String bundleHash;
+    private final String bundleDevice;
+    private final String bundleRuntimeStamp;
+
+    private KernelCacheKey(String hash, String backend, String device, String runtimeStamp, String bundleHash, String bundleDevice, String bundleRuntimeStamp) {
+        this.hash = hash;
+        this.backend = backend;
+        this.device = device;
+        this.runtimeStamp = runtimeStamp;
+        this.bundleHash = bundleHash;
+        this.bundleDevice = bundleDevice;
+        this.bundleRuntimeStamp = bundleRuntimeStamp;
+    }
+
+    /**
+     * Builds the key for a task compiled from a sketch.
+     *
+     * @param sketch
+     *     Sketch of the task's method.
+     * @param task
+     *     Task to compile.
+     * @param device
+     *     Target device.
+     * @param driverVersion
+     *     Version of the driver that builds the generated code.
+     * @param backendClass
+     *     A class of the backend that generates the code. Its code source is used
+     *     to detect a rebuilt backend.
+     * @return {@link KernelCacheKey}
+     */
+    public static KernelCacheKey create(Sketch sketch, CompilableTask task, TornadoXPUDevice device, String driverVersion, Class<?> backendClass) {
+        final StructuredGraph graph = (StructuredGraph) sketch.getGraph();
+        final String backend = device.getTornadoVMBackend().name();
+        final String deviceDescriptor = STR."\{device.getPlatformName()}|\{device.getDeviceName()}|\{driverVersion}";
+        final String runtimeStamp = STR."\{codeSourceStamp(KernelCacheKey.class, true)}|\{codeSourceStamp(backendClass, true)}";
+
+        final MessageDigest digest = newDigest();
+        update(digest, runtimeStamp);
+        update(digest, backend);
+        update(digest, deviceDescriptor);
+        updateTask(digest, graph, task);
+
+        // The virtual device generates the OpenCL kernels of a bundle
+        final String bundleBackend = device.getTornadoVMBackend() == TornadoVMBackendType.VIRTUAL ? TornadoVMBackendType.OPENCL.name() : backend;
+        final String bundleDevice = STR."\{bundleBackend}|\{device.getPhysicalDevice().getDeviceName()}";
+        final String bundleRuntimeStamp = STR."\{codeSourceStamp(KernelCacheKey.class, false)}|\{codeSourceStamp(backendClass, false)}";
+
+        final MessageDigest bundleDigest = newDigest();
+        update(bundleDigest, bundleRuntimeStamp);
+        update(bundleDigest, bundleDevice);
+        updateTask(bundleDigest, graph, task);
+
+        return new KernelCacheKey(HexFormat.of().formatHex(digest.digest()), backend, deviceDescriptor, runtimeStamp, HexFormat.of().formatHex(bundleDigest.digest()), bundleDevice,
+                bundleRuntimeStamp);
+    }
+
+    /**
+     * Builds a key from a description of the code instead of a sketch, for
+     * kernels that are not compiled from a Java method.
+     *
+     * @param backend
+     *     Name of the backend, see {@link TornadoVMBackendType}.
+     * @param device
+     *     Platform, name and driver version of the device.
+     * @param runtimeStamp
+     *     Stamp of the TornadoVM build that generates the code.
+     * @param description
+     *     Everything that determines the generated code.
+     * @return {@link KernelCacheKey}
+     */
+    public static KernelCacheKey create(String backend, String device, String runtimeStamp, String... description) {
+        final String bundleDevice = STR."\{backend}|\{device}";
+        final MessageDigest digest = newDigest();
+        final MessageDigest bundleDigest = newDigest();
+        update(digest, runtimeStamp);
+        update(digest, backend);
+        update(digest, device);
+        update(bundleDigest, runtimeStamp);
+        update(bundleDigest, bundleDevice);
+        for (String value : description) {
+            update(digest, value);
+            update(bundleDigest, value);
+        }
+        return new KernelCacheKey(HexFormat.of().formatHex(digest.digest()), backend, device, runtimeStamp, HexFormat.of().formatHex(bundleDigest.digest()), bundleDevice, runtimeStamp);
+    }
+
+    private static void updateTask(MessageDigest digest, StructuredGraph graph, CompilableTask task) {
+        final TaskMetaData meta = task.meta();
+
+        // Kernel and inlined methods
+        updateMethod(digest, graph.method());
+        for (ResolvedJavaMethod method : graph.getMethods()) {
+            updateMethod(digest, method);
+        }
+
+        // Values specialised into the kernel
+        for (Object argument : task.getArguments()) {
+            update(digest, describeArgument(argument));
+        }
+        update(digest, STR."batch:\{task.getBatchThreads()}:\{task.getBatchNumber()}:\{task.getBatchSize()}:\{meta.getNumThreads()}");
+        update(digest, STR."domain:\{meta.hasDomain() ? meta.getDomain().getDepth() : 0}");
+        if (meta.isWorkerGridAvailable()) {
+            WorkerGrid grid = meta.getWorkerGrid(meta.getId());
+            update(digest, STR."grid:\{grid.dimension()}:\{Arrays.toString(grid.getGlobalWork())}:\{Arrays.toString(grid.getLocalWork())}");
+        }
+        update(digest, STR."flags:\{meta.getCompilerFlags()}");
+        update(digest, STR."reduce:\{meta.isReduceSingleLaunch()}");
+        if (meta.getCombineFunction() != null) {
+            // Inlined into the reduction snippets by the high tier, after the sketch
+            updateMethod(digest, TornadoCoreRuntime.getTornadoRuntime().resolveMethod(meta.getCombineFunction()));
+        }
+
+        // TornadoVM options of this JVM, except the ones of the caches and bundles
+        final Map<String, String> options = new TreeMap<>();
+        System.getProperties().forEach((key, value) -> {
+            String name = key.toString();
+            if (name.startsWith("tornado.") && Arrays.stream(IGNORED_PROPERTY_PREFIXES).noneMatch(name::startsWith)) {
+                options.put(name, value.toString());
+            }
+        });
+        options.forEach((key, value) -> update(digest, STR."\{key}=\{value}"));
+    }
+
+    /**
+     * A kernel can be cached only if its code is fully described by the sketch,
+     * that is, if all the methods it calls have been inlined, and if it does not
+     * use atomics.
+     *
+     * @param sketch
+     *     Sketch of the task's method.
+     * @return boolean
+     */
+    public static boolean isCacheable(Sketch sketch) {
+        return sketch.getGraph() instanceof StructuredGraph graph && graph.getNodes().filter(InvokeNode.class).isEmpty() && graph.getNodes().filter(InvokeWithExceptionNode.class).isEmpty()
+                && !usesAtomics(graph);
+    }
+
+    /**
+     * Kernels with atomic integers or atomic memory operations are not cached, on
+     * any backend: the atomics of a task are set up by the backend while the
+     * kernel is compiled, which does not happen when the kernel is installed from
+     * an entry.
+     */
+    private static boolean usesAtomics(StructuredGraph graph) {
+        final ResolvedJavaMethod method = graph.method();
+        final Signature signature = method.getSignature();
+        for (int i = 0; i < signature.getParameterCount(false); i++) {
+            if (isAtomicType(signature.getParameterType(i, method.getDeclaringClass()).toJavaName())) {
+                return true;
+            }
+        }
+        for (Node node : graph.getNodes()) {
+            if (node instanceof NewInstanceNode newInstance && isAtomicType(newInstance.instanceClass().toJavaName())) {
+                return true;
+            }
+            if (node instanceof AtomicReadAndAddNode || node instanceof AtomicReadAndWriteNode || node instanceof LoweredAtomicReadAndAddNode || node instanceof LoweredAtomicReadAndWriteNode
+                    || node instanceof AbstractCompareAndSwapNode || node instanceof AbstractUnsafeCompareAndSwapNode) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAtomicType(String javaName) {
+        return javaName.startsWith("java.util.concurrent.atomic.");
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static void updateMethod(MessageDigest digest, ResolvedJavaMethod method) {
+        update(digest, method.format("%H.%n(%P)%R"));
+        byte[] code = method.getCode();
+        if (code != null) {
+            digest.update(code);
+        }
+    }
+
+    static String describeArgument(Object argument) {
+        StringBuilder description = new StringBuilder();
+        describeArgument(description, argument, 0);
+        return description.toString();
+    }
+
+    private static void describeArgument(StringBuilder description, Object argument, int depth) {
+        if (argument == null) {
+            description.append("null");
+        } else if (argument instanceof Number || argument instanceof Boolean || argument instanceof Character) {
+            description.append(STR."\{argument.getClass().getSimpleName()}:\{argument}");
+        } else if (argument instanceof TornadoNativeArray nativeArray) {
+            description.append(STR."\{argument.getClass().getName()}[\{nativeArray.getSizeAsLong()}]");
+        } else if (argument.getClass().isArray()) {
+            description.append(STR."\{argument.getClass().getName()}[\{Array.getLength(argument)}]");
+        } else {
+            description.append(argument.getClass().getName());
+            if (!(argument instanceof KernelContext) && depth < MAX_FIELD_DEPTH) {
+                describeFields(description, argument, depth);
+            }
+        }
+    }
+
+    /**
+     * The task specialisation folds the primitive fields of the objects passed to
+     * a task into the kernel (e.g., the rows and columns of a matrix), and follows
+     * their final references, so their values are part of the key.
+     */
+    private static void describeFields(StringBuilder description, Object argument, int depth) {
+        description.append('{');
+        for (Class<?> klass = argument.getClass(); klass != null && klass != Object.class; klass = klass.getSuperclass()) {
+            for (Field field : klass.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || (!field.getType().isPrimitive() && !Modifier.isFinal(modifiers))) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    description.append(STR."\{klass.getSimpleName()}.\{field.getName()}=");
+                    if (field.getType().isPrimitive()) {
+                        description.append(field.get(argument));
+                    } else {
+                        describeArgument(description, field.get(argument), depth + 1);
+                    }
+                    description.append(';');
+                } catch (InaccessibleObjectException | IllegalAccessException e) {
+                    // The value cannot be read, so the key only matches this object
+                    description.append(STR."@\{System.identityHashCode(argument)}}");
+                    return;
+                }
+            }
+        }
+        description.append('}');
+    }
+
+    /**
+     * Identifies the jar that contains a class. The modification time is left
+     * out of the stamps of bundles, because it changes when the jars are copied
+     * to another machine.
+     */
+    private static String codeSourceStamp(Class<?> klass, boolean withModificationTime) {
+        CodeSource codeSource = klass.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return "unknown";
+        }
+        try {
+            File file = new File(codeSource.getLocation().toURI());
+            return withModificationTime ? STR."\{file.getName()}:\{file.length()}:\{file.lastModified()}" : STR."\{file.getName()}:\{file.length()}";
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return codeSource.getLocation().toString();
+        }
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public String getDevice() {
+        return device;
+    }
+
+    public String getRuntimeStamp() {
+        return runtimeStamp;
+    }
+
+    public String getBundleHash() {
+        return bundleHash;
+    }
+
+    public String getBundleDevice() {
+        return bundleDevice;
+    }
+
+    public String getBundleRuntimeStamp() {
+        return bundleRuntimeStamp;
+    }
+
+    @Override
+    public String toString() {
+        return hash;
+    }
+}
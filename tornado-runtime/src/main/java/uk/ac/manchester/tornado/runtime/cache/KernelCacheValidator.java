@@ -0,0 +1,46 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.cache;
+
+import java.util.Properties;
+
+/**
+ * Hook to reject entries of the {@link PersistentKernelCache}. A validator is
+ * called for every entry read from disk before it is handed to a backend.
+ * Rejected entries are removed from the cache and the task is compiled again.
+ */
+@FunctionalInterface
+public interface KernelCacheValidator {
+
+    /**
+     * @param key
+     *     Key of the task being compiled.
+     * @param metadata
+     *     Metadata stored with the entry.
+     * @param code
+     *     Generated code stored with the entry.
+     * @return true if the entry can be reused.
+     */
+    boolean isValid(KernelCacheKey key, Properties metadata, byte[] code);
+}
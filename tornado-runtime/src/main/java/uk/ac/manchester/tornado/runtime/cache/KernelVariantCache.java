@@ -0,0 +1,342 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.cache;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.DynamicLoopBounds;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+
+/**
+ * Cache of the kernels installed on a device for each task, indexed by their
+ * specialisation signature. Task specialisation folds the array sizes, the
+ * scalar arguments and the batch configuration into the generated code, so a
+ * task executed with different sizes needs one kernel per size. The cache keeps
+ * up to {@link TornadoOptions#KERNEL_VARIANTS} kernels per task, and it drops
+ * the least recently used one when a task has more variants. A task that
+ * switches between sizes is compiled only the first time each size is seen.
+ *
+ * <p>
+ * With {@link TornadoOptions#KERNEL_VARIANTS_GENERIC}, a task that is executed
+ * with a new size after a kernel has been specialised for another size can be
+ * compiled once more into a size-generic kernel. This kernel reads the bounds of
+ * its parallel loops from the kernel context (see {@link DynamicLoopBounds}),
+ * and it is used for all the sizes that have no specialised kernel. Its
+ * signature leaves out the loop bounds and the lengths of the arrays that are
+ * not folded into the kernel. Tasks whose sizes are folded elsewhere in the
+ * kernel are not compiled again into a size-generic kernel.
+ * </p>
+ *
+ * <p>
+ * Dropped kernels are not invalidated, because an interpreter may still launch
+ * them. Each backend code cache owns an instance, and it invalidates all the
+ * variants when the device is reset.
+ * </p>
+ */
+public final class KernelVariantCache {
+
+    private final ConcurrentHashMap<String, Variants> tasks;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    public KernelVariantCache() {
+        this.tasks = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    public static boolean isEnabled() {
+        return TornadoOptions.KERNEL_VARIANTS > 0;
+    }
+
+    public static boolean isGenericEnabled() {
+        return isEnabled() && TornadoOptions.KERNEL_VARIANTS_GENERIC;
+    }
+
+    /**
+     * Returns the specialisation signature of a task: the values that the task
+     * specialisation folds into its kernel.
+     *
+     * @param task
+     *     Task to compile.
+     * @return the signature, or null if the task cannot be cached because one of
+     *     its arguments has contents that are folded into the kernel but are not
+     *     part of the signature, e.g. the final fields of an object.
+     */
+    public static String signature(CompilableTask task) {
+        return signature(task, null);
+    }
+
+    private static String signature(CompilableTask task, DynamicLoopBounds dynamicLoopBounds) {
+        final StringBuilder signature = new StringBuilder(task.getMethod().toString());
+        final Object[] arguments = task.getArguments();
+        for (int i = 0; i < arguments.length; i++) {
+            if (!isDescribedBySignature(arguments[i])) {
+                return null;
+            }
+            signature.append('|').append(describeArgument(arguments[i], i, dynamicLoopBounds));
+        }
+
+        final TaskMetaData meta = task.meta();
+        signature.append("|batch:").append(task.getBatchThreads()).append(':').append(task.getBatchNumElements());
+        if (task.getBatchSize() != 0) {
+            // The batch number is folded into the kernel only if the loop index is written
+            signature.append(':').append(task.getBatchNumber()).append(':').append(task.getBatchSize());
+        }
+        if (meta.isWorkerGridAvailable()) {
+            WorkerGrid grid = meta.getWorkerGrid(meta.getId());
+            signature.append("|grid:").append(grid.dimension()).append(Arrays.toString(grid.getGlobalWork())).append(Arrays.toString(grid.getLocalWork()));
+        }
+        signature.append("|flags:").append(meta.getCompilerFlags());
+        // The combine function and the single-launch finish are inlined into the reduction snippets
+        signature.append("|reduce:").append(meta.getCombineFunction()).append(':').append(meta.isReduceSingleLaunch());
+        return signature.toString();
+    }
+
+    private static String describeArgument(Object argument, int index, DynamicLoopBounds dynamicLoopBounds) {
+        if (dynamicLoopBounds != null) {
+            if (dynamicLoopBounds.isScalarBound(index)) {
+                return "bound";
+            } else if ((argument instanceof TornadoNativeArray || argument.getClass().isArray()) && !dynamicLoopBounds.isLengthFolded(index)) {
+                return argument.getClass().getName();
+            }
+        }
+        return KernelCacheKey.describeArgument(argument);
+    }
+
+    private static boolean isDescribedBySignature(Object argument) {
+        return argument == null //
+                || argument instanceof Number || argument instanceof Boolean || argument instanceof Character //
+                || argument instanceof TornadoNativeArray //
+                || argument instanceof KernelContext //
+                || argument.getClass().isArray();
+    }
+
+    /**
+     * Returns the kernel installed for a task with the same signature, or else
+     * its size-generic kernel. The compile-time metadata of the kernel, such as
+     * its parallel domain, is copied into the task.
+     *
+     * @param task
+     *     Task to compile.
+     * @param signature
+     *     Specialisation signature of the task.
+     * @return {@link TornadoInstalledCode}, or null if there is no valid kernel
+     *     for the signature.
+     */
+    public TornadoInstalledCode lookup(CompilableTask task, String signature) {
+        final Variants variants = tasks.get(task.getId());
+        final Variant variant = variants != null ? variants.get(signature) : null;
+        if (variant == null || !variant.code().isValid()) {
+            return lookupGeneric(task, variants);
+        }
+        final TaskMetaData meta = task.meta();
+        if ((!meta.hasDomain() || meta.hasDynamicLoopBounds()) && variant.domain() != null) {
+            meta.setDomain(variant.domain());
+        }
+        meta.setDynamicLoopBounds(null);
+        meta.setCompiledGraph(variant.compiledMethod());
+        hits.increment();
+        return variant.code();
+    }
+
+    private TornadoInstalledCode lookupGeneric(CompilableTask task, Variants variants) {
+        final GenericVariant variant = variants != null ? variants.getGeneric() : null;
+        if (variant == null || !variant.code().isValid() || !variant.signature().equals(signature(task, variant.dynamicLoopBounds()))) {
+            misses.increment();
+            return null;
+        }
+        final TaskMetaData meta = task.meta();
+        meta.setDomain(variant.dynamicLoopBounds().resolveDomain(variant.domain(), task.getArguments()));
+        meta.setDynamicLoopBounds(variant.dynamicLoopBounds());
+        meta.setCompiledGraph(variant.compiledMethod());
+        hits.increment();
+        return variant.code();
+    }
+
+    /**
+     * Checks if a task that has no kernel for its signature should be compiled
+     * into a size-generic kernel: a kernel has been specialised for the task with
+     * another signature, and the task has no batches, worker grid, reductions or
+     * {@link KernelContext}, whose kernels depend on the sizes in other ways.
+     *
+     * @param task
+     *     Task to compile.
+     * @return true if a size-generic kernel should be compiled.
+     */
+    public boolean shouldCompileGeneric(CompilableTask task) {
+        final Variants variants = tasks.get(task.getId());
+        return isGenericEnabled() && variants != null && variants.isGenericCandidate() && isSizeIndependent(task);
+    }
+
+    private static boolean isSizeIndependent(CompilableTask task) {
+        final TaskMetaData meta = task.meta();
+        if (task.getBatchThreads() != 0 || task.getBatchSize() != 0 || meta.getNumThreads() > 0 || meta.isWorkerGridAvailable() || meta.isGridSchedulerEnabled()
+                || meta.getCombineFunction() != null) {
+            return false;
+        }
+        for (Object argument : task.getArguments()) {
+            if (argument instanceof KernelContext) {
+                return false;
+            }
+        }
+        for (Annotation[] annotations : task.getMethod().getParameterAnnotations()) {
+            for (Annotation annotation : annotations) {
+                if (annotation instanceof Reduce) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stores the kernel compiled for a task.
+     *
+     * @param task
+     *     Compiled task.
+     * @param signature
+     *     Specialisation signature of the task.
+     * @param code
+     *     Installed kernel.
+     */
+    public void store(CompilableTask task, String signature, TornadoInstalledCode code) {
+        final TaskMetaData meta = task.meta();
+        tasks.computeIfAbsent(task.getId(), k -> new Variants()).put(signature, new Variant(code, meta.getDomain(), meta.getCompiledResolvedJavaMethod()));
+    }
+
+    /**
+     * Stores the size-generic kernel compiled for a task, with the loop bounds
+     * recorded in the task by the compilation. It replaces the previous
+     * size-generic kernel of the task.
+     *
+     * @param task
+     *     Compiled task.
+     * @param code
+     *     Installed kernel.
+     */
+    public void storeGeneric(CompilableTask task, TornadoInstalledCode code) {
+        final TaskMetaData meta = task.meta();
+        final DynamicLoopBounds dynamicLoopBounds = meta.getDynamicLoopBounds();
+        final GenericVariant variant = new GenericVariant(code, signature(task, dynamicLoopBounds), dynamicLoopBounds, meta.getDomain(), meta.getCompiledResolvedJavaMethod());
+        tasks.computeIfAbsent(task.getId(), k -> new Variants()).setGeneric(variant);
+    }
+
+    /**
+     * Records that the kernel of a task cannot be size-generic, so the task is
+     * only compiled into specialised kernels from now on.
+     *
+     * @param task
+     *     Compiled task.
+     */
+    public void disableGeneric(CompilableTask task) {
+        tasks.computeIfAbsent(task.getId(), k -> new Variants()).disableGeneric();
+    }
+
+    /**
+     * Invalidates all the kernels of the cache and removes them.
+     */
+    public void invalidateAll() {
+        for (Variants variants : tasks.values()) {
+            variants.invalidateAll();
+        }
+        tasks.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private record Variant(TornadoInstalledCode code, DomainTree domain, Object compiledMethod) {
+    }
+
+    private record GenericVariant(TornadoInstalledCode code, String signature, DynamicLoopBounds dynamicLoopBounds, DomainTree domain, Object compiledMethod) {
+    }
+
+    /**
+     * Specialised variants of a task in LRU order, and its size-generic variant.
+     */
+    private static final class Variants {
+
+        private final LinkedHashMap<String, Variant> variants = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Variant> eldest) {
+                return size() > TornadoOptions.KERNEL_VARIANTS;
+            }
+        };
+
+        private GenericVariant generic;
+        private boolean genericDisabled;
+
+        synchronized Variant get(String signature) {
+            return variants.get(signature);
+        }
+
+        synchronized GenericVariant getGeneric() {
+            return generic;
+        }
+
+        synchronized void setGeneric(GenericVariant variant) {
+            generic = variant;
+        }
+
+        synchronized void disableGeneric() {
+            genericDisabled = true;
+        }
+
+        synchronized boolean isGenericCandidate() {
+            return !genericDisabled && !variants.isEmpty();
+        }
+
+        synchronized void put(String signature, Variant variant) {
+            variants.put(signature, variant);
+        }
+
+        synchronized void invalidateAll() {
+            variants.values().forEach(variant -> variant.code().invalidate());
+            variants.clear();
+            if (generic != null) {
+                generic.code().invalidate();
+                generic = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+
+/**
+ * Persistent, content-addressed cache of generated kernels. The in-memory
+ * caches of the sketcher and of the backends only live as long as the JVM; this
+ * cache stores the code generated for each task on disk, indexed by its
+ * {@link KernelCacheKey}, so that a new JVM can install the kernel without
+ * running the Graal compilation pipeline again.
+ *
+ * <p>
+ * Each entry is stored as three files in
+ * {@link TornadoOptions#PERSISTENT_KERNEL_CACHE_DIR}: the generated code
+ * ({@code <hash>.code}), an optional driver binary ({@code <hash>.bin}) and the
+ * metadata of the entry ({@code <hash>.properties}). The metadata file is
+ * written last, so an entry is visible only once it is complete. Entries older
+ * than {@link TornadoOptions#PERSISTENT_KERNEL_CACHE_MAX_AGE} days are evicted,
+ * and the least recently used entries are evicted when the cache grows above
+ * {@link TornadoOptions#PERSISTENT_KERNEL_CACHE_MAX_SIZE}.
+ * </p>
+ *
+ * <p>
+ * Every entry read from disk is checked by the built-in validator, which
+ * rejects entries written by another version of the cache or of TornadoVM, for
+ * another backend or device, or whose code does not match its checksum. An
+ * additional {@link KernelCacheValidator} can be registered with
+ * {@link #setValidator(KernelCacheValidator)}.
+ * </p>
+ *
+ * <p>
+ * When a {@link KernelBundle} is configured, it is looked up after the cache,
+ * and the kernels generated in bundle generation mode are written to it.
+ * </p>
+ */
+public final class PersistentKernelCache {
+
+    private static final int FORMAT_VERSION = 2;
+
+    static final String CODE_SUFFIX = ".code";
+    static final String BINARY_SUFFIX = ".bin";
+    static final String METADATA_SUFFIX = ".properties";
+
+    static final String FORMAT = "format";
+    static final String BACKEND = "backend";
+    static final String DEVICE = "device";
+    static final String RUNTIME = "runtime";
+    static final String ENTRY_POINT = "entryPoint";
+    static final String CODE_CHECKSUM = "code.sha256";
+    static final String BINARY_CHECKSUM = "binary.sha256";
+
+    private static final TornadoLogger logger = new TornadoLogger(PersistentKernelCache.class);
+
+    private static final KernelCacheValidator DEFAULT_VALIDATOR = (key, metadata, code) -> Integer.toString(FORMAT_VERSION).equals(metadata.getProperty(FORMAT)) //
+            && key.getBackend().equals(metadata.getProperty(BACKEND)) //
+            && key.getDevice().equals(metadata.getProperty(DEVICE)) //
+            && key.getRuntimeStamp().equals(metadata.getProperty(RUNTIME)) //
+            && checksum(code).equals(metadata.getProperty(CODE_CHECKSUM));
+
+    private static volatile KernelCacheValidator validator;
+
+    private static boolean evictionDone;
+
+    private PersistentKernelCache() {
+    }
+
+    public static boolean isEnabled() {
+        return TornadoOptions.PERSISTENT_KERNEL_CACHE || KernelBundle.isEnabled();
+    }
+
+    /**
+     * Registers a validator that is applied to every entry after the built-in
+     * checks. Pass null to remove it.
+     *
+     * @param kernelCacheValidator
+     *     {@link KernelCacheValidator}
+     */
+    public static void setValidator(KernelCacheValidator kernelCacheValidator) {
+        validator = kernelCacheValidator;
+    }
+
+    /**
+     * Returns the entry stored for the key in the cache or, if there is none, in
+     * the kernel bundle. It returns null if there is no valid entry, or while a
+     * bundle is generated. Invalid entries of the cache are removed.
+     *
+     * @param key
+     *     {@link KernelCacheKey}
+     * @return {@link KernelCacheEntry}
+     */
+    public static KernelCacheEntry lookup(KernelCacheKey key) {
+        if (KernelBundle.isGenerating()) {
+            // Every kernel is compiled, so that the bundle is complete
+            return null;
+        }
+        if (TornadoOptions.PERSISTENT_KERNEL_CACHE) {
+            KernelCacheEntry entry = lookupInCache(key);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return KernelBundle.isEnabled() ? KernelBundle.getInstance().lookup(key) : null;
+    }
+
+    private static KernelCacheEntry lookupInCache(KernelCacheKey key) {
+        evictOnFirstUse();
+        final Path metadataFile = resolve(key, METADATA_SUFFIX);
+        if (!Files.exists(metadataFile)) {
+            return null;
+        }
+        try {
+            final Properties metadata = new Properties();
+            try (InputStream inputStream = Files.newInputStream(metadataFile)) {
+                metadata.load(inputStream);
+            }
+            final byte[] code = Files.readAllBytes(resolve(key, CODE_SUFFIX));
+            final Path binaryFile = resolve(key, BINARY_SUFFIX);
+            byte[] binary = null;
+            if (metadata.containsKey(BINARY_CHECKSUM) && Files.exists(binaryFile)) {
+                binary = Files.readAllBytes(binaryFile);
+                if (!checksum(binary).equals(metadata.getProperty(BINARY_CHECKSUM))) {
+                    binary = null;
+                }
+            }
+
+            final KernelCacheValidator userValidator = validator;
+            if (!DEFAULT_VALIDATOR.isValid(key, metadata, code) || (userValidator != null && !userValidator.isValid(key, metadata, code))) {
+                logger.info("Rejecting stale kernel cache entry %s", key);
+                invalidate(key);
+                return null;
+            }
+
+            // Record the access for the LRU eviction
+            Files.setLastModifiedTime(metadataFile, FileTime.fromMillis(System.currentTimeMillis()));
+            logger.info("Kernel cache hit %s for %s", key, metadata.getProperty(ENTRY_POINT));
+            return new KernelCacheEntry(metadata.getProperty(ENTRY_POINT), code, binary, metadata);
+        } catch (IOException e) {
+            logger.warn("Unable to read kernel cache entry %s: %s", key, e.getMessage());
+            invalidate(key);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the code generated for a key. Failures are logged and otherwise
+     * ignored: the cache is only an optimization.
+     *
+     * @param key
+     *     {@link KernelCacheKey}
+     * @param entryPoint
+     *     Name of the kernel in the generated code.
+     * @param code
+     *     Generated code.
+     * @param binary
+     *     Binary built by the driver, or null.
+     * @param domain
+     *     Parallel domain of the task, or null if the kernel is not parallel.
+     */
+    public static void store(KernelCacheKey key, String entryPoint, byte[] code, byte[] binary, DomainTree domain) {
+        if (KernelBundle.isGenerating()) {
+            KernelBundle.getInstance().store(key, entryPoint, code, domain);
+        }
+        if (!TornadoOptions.PERSISTENT_KERNEL_CACHE) {
+            return;
+        }
+
+        final Properties metadata = new Properties();
+        metadata.setProperty(FORMAT, Integer.toString(FORMAT_VERSION));
+        metadata.setProperty(BACKEND, key.getBackend());
+        metadata.setProperty(DEVICE, key.getDevice());
+        metadata.setProperty(RUNTIME, key.getRuntimeStamp());
+        metadata.setProperty(ENTRY_POINT, entryPoint);
+        metadata.setProperty(CODE_CHECKSUM, checksum(code));
+        if (binary != null && binary.length > 0) {
+            metadata.setProperty(BINARY_CHECKSUM, checksum(binary));
+        }
+        final String domainDescription = KernelCacheEntry.describeDomain(domain);
+        if (domainDescription != null) {
+            metadata.setProperty(KernelCacheEntry.DOMAIN, domainDescription);
+        }
+
+        try {
+            Files.createDirectories(getCacheDirectory());
+            writeAtomically(resolve(key, CODE_SUFFIX), code);
+            if (binary != null && binary.length > 0) {
+                writeAtomically(resolve(key, BINARY_SUFFIX), binary);
+            }
+            final Path tmp = Files.createTempFile(getCacheDirectory(), key.getHash(), ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tmp)) {
+                metadata.store(outputStream, null);
+            }
+            move(tmp, resolve(key, METADATA_SUFFIX));
+        } catch (IOException e) {
+            logger.warn("Unable to store kernel cache entry %s: %s", key, e.getMessage());
+            return;
+        }
+        evict(TornadoOptions.PERSISTENT_KERNEL_CACHE_MAX_SIZE, TornadoOptions.PERSISTENT_KERNEL_CACHE_MAX_AGE);
+    }
+
+    /**
+     * Removes the entry of a key.
+     *
+     * @param key
+     *     {@link KernelCacheKey}
+     */
+    public static void invalidate(KernelCacheKey key) {
+        delete(key.getHash());
+    }
+
+    /**
+     * Evicts the entries older than the maximum age and, if the cache is still
+     * larger than the maximum size, the least recently used entries.
+     *
+     * @param maxSize
+     *     Maximum size in bytes.
+     * @param maxAgeDays
+     *     Maximum age in days.
+     */
+    public static synchronized void evict(long maxSize, int maxAgeDays) {
+        final Path directory = getCacheDirectory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        final long oldest = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(maxAgeDays);
+        final List<CachedFile> entries = new ArrayList<>();
+        long totalSize = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(METADATA_SUFFIX)).toList()) {
+                String hash = file.getFileName().toString().replace(METADATA_SUFFIX, "");
+                long lastAccess = Files.getLastModifiedTime(file).toMillis();
+                if (lastAccess < oldest) {
+                    delete(hash);
+                    continue;
+                }
+                long size = sizeOf(file) + sizeOf(directory.resolve(hash + CODE_SUFFIX)) + sizeOf(directory.resolve(hash + BINARY_SUFFIX));
+                entries.add(new CachedFile(hash, lastAccess, size));
+                totalSize += size;
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to evict kernel cache entries: %s", e.getMessage());
+            return;
+        }
+
+        entries.sort(Comparator.comparingLong(CachedFile::lastAccess));
+        for (CachedFile entry : entries) {
+            if (totalSize <= maxSize) {
+                break;
+            }
+            delete(entry.hash());
+            totalSize -= entry.size();
+        }
+    }
+
+    public static Path getCacheDirectory() {
+        return Paths.get(TornadoOptions.PERSISTENT_KERNEL_CACHE_DIR);
+    }
+
+    private static synchronized void evictOnFirstUse() {
+        if (!evictionDone) {
+            evictionDone = true;
+            evict(TornadoOptions.PERSISTENT_KERNEL_CACHE_MAX_SIZE, TornadoOptions.PERSISTENT_KERNEL_CACHE_MAX_AGE);
+        }
+    }
+
+    private static Path resolve(KernelCacheKey key, String suffix) {
+        return getCacheDirectory().resolve(key.getHash() + suffix);
+    }
+
+    static void writeAtomically(Path file, byte[] content) throws IOException {
+        final Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        Files.write(tmp, content);
+        move(tmp, file);
+    }
+
+    static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void delete(String hash) {
+        final Path directory = getCacheDirectory();
+        try {
+            // Remove the metadata first so a partially deleted entry is never visible
+            Files.deleteIfExists(directory.resolve(hash + METADATA_SUFFIX));
+            Files.deleteIfExists(directory.resolve(hash + CODE_SUFFIX));
+            Files.deleteIfExists(directory.resolve(hash + BINARY_SUFFIX));
+        } catch (IOException e) {
+            logger.warn("Unable to delete kernel cache entry %s: %s", hash, e.getMessage());
+        }
+    }
+
+    private static long sizeOf(Path file) throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    static String checksum(byte[] content) {
+        return HexFormat.of().formatHex(KernelCacheKey.newDigest().digest(content));
+    }
+
+    private record CachedFile(String hash, long lastAccess, long size) {
+    }
+}
@@ -32,11 +32,17 @@ public class BatchCompilationConfig {
     private long batchThreads;
     private int batchNumber;
     private long batchSize;
+    private long batchNumElements;
 
     public BatchCompilationConfig(long batchThreads, int batchNumber, long batchSize) {
+        this(batchThreads, batchNumber, batchSize, 0);
+    }
+
+    public BatchCompilationConfig(long batchThreads, int batchNumber, long batchSize, long batchNumElements) {
         this.batchThreads = batchThreads;
         this.batchNumber = batchNumber;
         this.batchSize = batchSize;
+        this.batchNumElements = batchNumElements;
     }
 
     public long getBatchThreads() {
@@ -50,4 +56,22 @@ public class BatchCompilationConfig {
     public long getBatchSize() {
         return batchSize;
     }
+
+    public long getBatchNumElements() {
+        return batchNumElements;
+    }
+
+    /**
+     * In batch processing, only the arrays that have as many elements as the
+     * iteration space of the batch are partitioned in chunks. The length of these
+     * arrays in the kernel is the number of threads of the batch. The rest of
+     * arrays are resident on the device and keep their length.
+     *
+     * @param length
+     *     Number of elements of an array argument.
+     * @return True if the array is partitioned in chunks.
+     */
+    public boolean isPartitioned(long length) {
+        return batchThreads > 0 && (batchNumElements <= 0 || length == batchNumElements);
+    }
 }
@@ -24,8 +24,7 @@
 package uk.ac.manchester.tornado.runtime.common;
 
 import java.lang.reflect.Array;
-import java.util.HashSet;
-import java.util.LinkedHashSet;
+import java.util.List;
 
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
@@ -43,6 +42,22 @@ import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
  * It presents the configuration for processing data in batches. This class
  * provides methods to compute chunk sizes based on the batch size and input
  * objects.
+ *
+ * <p>
+ * The iteration space of the batch is given by the arrays with the largest
+ * number of elements. These arrays are partitioned: each chunk transfers the
+ * same number of elements of each of them, so arrays with different element
+ * sizes (e.g., an {@link IntArray} and a {@link LongArray}) can be combined.
+ * The number of elements per chunk is computed such that the chunk of the
+ * array with the largest element size fits in the batch size.
+ * </p>
+ *
+ * <p>
+ * Arrays with fewer elements (e.g., lookup tables or histograms) are resident:
+ * they are copied in full to the device before the first chunk, kept on the
+ * device for all chunks, and copied back after the last chunk. A resident array
+ * must fit in the batch size.
+ * </p>
  */
 /**
  * How to test?
@@ -56,48 +71,57 @@ import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
 public class BatchConfiguration {
 
     private final int totalChunks;
-    private final int remainingChunkSize;
-    private final short numBytesType;
+    private final long chunkElements;
+    private final long remainingChunkElements;
+    private final long numElements;
+    private final boolean[] partitioned;
+    private final byte[] elementSizes;
 
     /**
      * Constructs a BatchConfiguration object with the specified parameters.
      *
      * @param totalChunks
-     *     The total number of chunks.
-     * @param remainingChunkSize
-     *     The size of the remaining chunk.
-     * @param numBytesType
-     *     The number of bytes for the data type.
+     *     The total number of full chunks.
+     * @param chunkElements
+     *     The number of elements of the iteration space in a full chunk.
+     * @param remainingChunkElements
+     *     The number of elements of the iteration space in the remaining chunk.
+     * @param numElements
+     *     The number of elements of the iteration space.
+     * @param partitioned
+     *     For each object of the execution context, whether it is partitioned in
+     *     chunks or resident on the device.
+     * @param elementSizes
+     *     For each object of the execution context, the number of bytes of its
+     *     elements.
      */
-    public BatchConfiguration(int totalChunks, int remainingChunkSize, short numBytesType) {
+    public BatchConfiguration(int totalChunks, long chunkElements, long remainingChunkElements, long numElements, boolean[] partitioned, byte[] elementSizes) {
         this.totalChunks = totalChunks;
-        this.remainingChunkSize = remainingChunkSize;
-        this.numBytesType = numBytesType;
+        this.chunkElements = chunkElements;
+        this.remainingChunkElements = remainingChunkElements;
+        this.numElements = numElements;
+        this.partitioned = partitioned;
+        this.elementSizes = elementSizes;
     }
 
     public static BatchConfiguration computeChunkSizes(TornadoExecutionContext context, long batchSize) {
-        // Get the size of the batch
-        long totalSize = 0;
+        final List<Object> objects = context.getObjects();
+        final long[] lengths = new long[objects.size()];
+        final byte[] elementSizes = new byte[objects.size()];
 
-        HashSet<Long> inputSizes = new HashSet<>();
-        LinkedHashSet<Byte> elementSizes = new LinkedHashSet<>();
-
-        for (Object o : context.getObjects()) {
+        long numElements = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            Object o = objects.get(i);
             if (o.getClass().isArray()) {
                 Class<?> componentType = o.getClass().getComponentType();
                 DataTypeSize dataTypeSize = DataTypeSize.findDataTypeSize(componentType);
                 if (dataTypeSize == null) {
                     throw new TornadoRuntimeException("[UNSUPPORTED] Data type not supported for processing in batches");
                 }
-                long size = Array.getLength(o);
-                totalSize = size * dataTypeSize.getSize();
-
-                elementSizes.add(dataTypeSize.getSize());
-                inputSizes.add(totalSize);
+                lengths[i] = Array.getLength(o);
+                elementSizes[i] = dataTypeSize.getSize();
             } else if (o instanceof TornadoNativeArray tornadoNativeArray) {
-                totalSize = tornadoNativeArray.getNumBytesOfSegment();
-                inputSizes.add(totalSize);
-                byte elementSize = switch (tornadoNativeArray) {
+                elementSizes[i] = switch (tornadoNativeArray) {
                     case IntArray _ -> DataTypeSize.INT.getSize();
                     case FloatArray _ -> DataTypeSize.FLOAT.getSize();
                     case DoubleArray _ -> DataTypeSize.DOUBLE.getSize();
@@ -107,41 +131,104 @@ public class BatchConfiguration {
                     case CharArray _ -> DataTypeSize.CHAR.getSize();
                     default -> throw new TornadoRuntimeException(STR."Unsupported array type: \{o.getClass()}");
                 };
-                elementSizes.add(elementSize);
+                lengths[i] = tornadoNativeArray.getNumBytesOfSegment() / elementSizes[i];
             } else {
                 throw new TornadoRuntimeException(STR."Unsupported type: \{o.getClass()}");
             }
+            numElements = Math.max(numElements, lengths[i]);
         }
 
-        if (inputSizes.size() > 1) {
-            throw new TornadoRuntimeException("[UNSUPPORTED] Input objects with different sizes not currently supported");
+        final boolean[] partitioned = new boolean[objects.size()];
+        byte maxElementSize = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            partitioned[i] = lengths[i] == numElements;
+            if (partitioned[i]) {
+                maxElementSize = (byte) Math.max(maxElementSize, elementSizes[i]);
+            } else if (lengths[i] * elementSizes[i] > batchSize) {
+                throw new TornadoRuntimeException(STR."[UNSUPPORTED] Input objects with different sizes are only supported if the smaller objects fit in the batch size. Object of \{lengths[i]
+                        * elementSizes[i]} bytes with a batch size of \{batchSize} bytes");
+            }
         }
 
-        if (elementSizes.size() > 1) {
-            throw new TornadoRuntimeException("[UNSUPPORTED] Input objects with different element sizes not currently supported");
+        final long chunkElements = batchSize / maxElementSize;
+        if (chunkElements == 0) {
+            throw new TornadoRuntimeException(STR."[ERROR] Batch size of \{batchSize} bytes is smaller than the element size");
         }
-
-        int totalChunks = (int) (totalSize / batchSize);
-        int remainingChunkSize = (int) (totalSize % batchSize);
+        int totalChunks = (int) (numElements / chunkElements);
+        long remainingChunkElements = numElements % chunkElements;
 
         if (TornadoOptions.DEBUG) {
             System.out.println(STR."Batch Size: \{batchSize}");
             System.out.println(STR."Total chunks: \{totalChunks}");
-            System.out.println(STR."remainingChunkSize: \{remainingChunkSize}");
+            System.out.println(STR."Elements per chunk: \{chunkElements}");
+            System.out.println(STR."Remaining chunk elements: \{remainingChunkElements}");
         }
-        return new BatchConfiguration(totalChunks, remainingChunkSize, elementSizes.getFirst());
+        return new BatchConfiguration(totalChunks, chunkElements, remainingChunkElements, numElements, partitioned, elementSizes);
     }
 
     public int getTotalChunks() {
         return totalChunks;
     }
 
-    public int getRemainingChunkSize() {
-        return remainingChunkSize;
+    /**
+     * @return The number of chunks emitted, including the remaining chunk.
+     */
+    public int getNumChunks() {
+        return remainingChunkElements != 0 ? totalChunks + 1 : totalChunks;
+    }
+
+    public long getChunkElements() {
+        return chunkElements;
+    }
+
+    public long getRemainingChunkElements() {
+        return remainingChunkElements;
     }
 
-    public short getNumBytesType() {
-        return numBytesType;
+    /**
+     * @param chunk
+     *     Index of the chunk.
+     * @return The number of elements of the iteration space processed by the
+     *     chunk.
+     */
+    public long getChunkElements(int chunk) {
+        return chunk < totalChunks ? chunkElements : remainingChunkElements;
+    }
+
+    public long getNumElements() {
+        return numElements;
+    }
+
+    public boolean isPartitioned(int objectIndex) {
+        return partitioned[objectIndex];
+    }
+
+    /**
+     * @param objectIndex
+     *     Index of the object in the execution context.
+     * @param chunk
+     *     Index of the chunk.
+     * @return Offset in bytes of the chunk in the object. It is 0 for resident
+     *     objects.
+     */
+    public long getOffset(int objectIndex, int chunk) {
+        return partitioned[objectIndex] ? chunk * chunkElements * elementSizes[objectIndex] : 0;
+    }
+
+    /**
+     * @param objectIndex
+     *     Index of the object in the execution context.
+     * @param chunk
+     *     Index of the chunk.
+     * @return Size in bytes of the chunk of the object. It is 0 for resident
+     *     objects, and when all the data fits in a single chunk, meaning that the
+     *     whole object is transferred.
+     */
+    public long getChunkSize(int objectIndex, int chunk) {
+        if (!partitioned[objectIndex] || totalChunks == 0) {
+            return 0;
+        }
+        return getChunkElements(chunk) * elementSizes[objectIndex];
     }
 
 }
@@ -87,6 +87,30 @@ public class TornadoOptions {
      * Option to set the device maximum memory usage. It is set to 1GB by default.
      */
     public static final long DEVICE_AVAILABLE_MEMORY = RuntimeUtilities.parseSize(System.getProperty("tornado.device.memory", "1GB"));
+    /**
+     * Option to set the number of size classes in which each power of two is
+     * split by the device buffer allocator. Requested buffers are rounded up to
+     * the next size class, so more classes waste less memory but make the reuse
+     * of cached buffers less likely. It must be a power of two between 1 and 64.
+     * It is set to 8 by default.
+     */
+    public static final int DEVICE_BUFFER_SIZE_CLASSES = getIntValue("tornado.device.buffer.size.classes", "8");
+    /**
+     * Option to sub-allocate small device buffers from a few large memory regions
+     * reserved on each device, instead of allocating each buffer with the driver.
+     * It is disabled by default.
+     */
+    public static final boolean DEVICE_MEMORY_ARENA = getBooleanValue("tornado.device.arena", FALSE);
+    /**
+     * Size of each memory region of the device arenas. Buffers up to a quarter of
+     * this size are sub-allocated from the arenas. It is set to 64MB by default.
+     */
+    public static final long DEVICE_MEMORY_ARENA_REGION_SIZE = RuntimeUtilities.parseSize(getProperty("tornado.device.arena.region.size", "64MB"));
+    /**
+     * Maximum number of arena regions reserved on each device. It is set to 4 by
+     * default.
+     */
+    public static final int DEVICE_MEMORY_ARENA_REGIONS = getIntValue("tornado.device.arena.regions", "4");
     /**
      * Option to enable exceptions for the OpenCL generated code. This is
      * experimental.
@@ -102,6 +126,13 @@ public class TornadoOptions {
      * reductions.
      */
     public static final boolean EXPERIMENTAL_REDUCE = getBooleanValue("tornado.experimental.reduce", TRUE);
+    /**
+     * Option to finish automatic reductions with a single kernel launch. The last
+     * work-group of the reduction kernel combines the partial results of all
+     * work-groups on the device, instead of an extra sequential task. Only the
+     * OpenCL backend supports it, on GPUs and accelerators.
+     */
+    public static final boolean REDUCE_SINGLE_LAUNCH = getBooleanValue("tornado.reduce.single.launch", FALSE);
     /**
      * Temporal option for disabling null checks for Apache-Flink.
      */
@@ -169,6 +200,17 @@ public class TornadoOptions {
      * code. This option is True by default.
      */
     public static final boolean RECOVER_BAILOUT = getBooleanValue("tornado.recover.bailout", TRUE);
+    /**
+     * Option to run the Java fallback of a task-graph (after a bailout or when
+     * the dynamic reconfiguration selects the sequential version) with the
+     * threads of the JVM device instead of a single Java thread.
+     */
+    public static final boolean JVM_PARALLEL = getBooleanValue("tornado.jvm.parallel", FALSE);
+    /**
+     * Number of Java threads of the JVM device. It is the number of available
+     * processors by default.
+     */
+    public static final int JVM_THREADS = getIntValue("tornado.jvm.threads", Integer.toString(Runtime.getRuntime().availableProcessors()));
     /**
      * Option to log the IP of the current machine on the profiler logs.
      */
@@ -263,12 +305,148 @@ public class TornadoOptions {
      */
     public static final boolean ENABLE_STREAM_OUT_BLOCKING = getBooleanValue("tornado.enable.streamOut.blocking", TRUE);
 
+    /**
+     * Option to skip the copies of native arrays declared with
+     * {@code DataTransferMode.EVERY_EXECUTION} when the host array has not been
+     * modified through its API since the host and the device buffer were last
+     * known to hold the same contents.
+     */
+    public static final boolean SKIP_UNMODIFIED_TRANSFERS = getBooleanValue("tornado.transfer.skip.unmodified", FALSE);
+
     /**
      * Option to run concurrently on multiple device in single or multi-backend
      * configuration. False by default.
      */
     public static final boolean CONCURRENT_INTERPRETERS = Boolean.parseBoolean(System.getProperty("tornado.concurrent.devices", FALSE));
 
+    /**
+     * Option to reuse the Java thread pool that runs the TornadoVM interpreters
+     * concurrently across executions of the same task-graph. The pool is released
+     * when the execution plan is closed. True by default.
+     */
+    public static final boolean REUSE_INTERPRETER_THREAD_POOL = getBooleanValue("tornado.concurrent.devices.reuse.threads", TRUE);
+
+    /**
+     * Option to back the concurrent TornadoVM interpreters with Java virtual
+     * threads instead of platform threads. False by default.
+     */
+    public static final boolean VIRTUAL_THREADS_FOR_INTERPRETERS = getBooleanValue("tornado.concurrent.devices.virtual.threads", FALSE);
+
+    /**
+     * Option to enable the persistent kernel cache. Generated kernels are stored
+     * on disk and reused across JVM instances. False by default.
+     */
+    public static final boolean PERSISTENT_KERNEL_CACHE = getBooleanValue("tornado.kernel.cache", FALSE);
+
+    /**
+     * Directory of the persistent kernel cache. Default is
+     * ${user.home}/.tornadovm/kernel-cache.
+     */
+    public static final String PERSISTENT_KERNEL_CACHE_DIR = getProperty("tornado.kernel.cache.dir", STR."\{System.getProperty("user.home")}/.tornadovm/kernel-cache");
+
+    /**
+     * Maximum size of the persistent kernel cache on disk. The least recently
+     * used entries are evicted when the cache grows above this size. Default is
+     * 256MB.
+     */
+    public static final long PERSISTENT_KERNEL_CACHE_MAX_SIZE = RuntimeUtilities.parseSize(getProperty("tornado.kernel.cache.max.size", "256MB"));
+
+    /**
+     * Maximum age, in days, of an entry of the persistent kernel cache. Older
+     * entries are evicted. Default is 30 days.
+     */
+    public static final int PERSISTENT_KERNEL_CACHE_MAX_AGE = getIntValue("tornado.kernel.cache.max.age", "30");
+
+    /**
+     * Directory of an ahead-of-time kernel bundle. The kernels of the bundle are
+     * installed without running the Graal compilation pipeline. Empty (no
+     * bundle) by default.
+     */
+    public static final String KERNEL_BUNDLE_DIR = getProperty("tornado.kernel.bundle", "");
+
+    /**
+     * Option to write the kernels compiled by this JVM in the kernel bundle,
+     * instead of reading them. False by default.
+     */
+    public static final boolean KERNEL_BUNDLE_GENERATE = getBooleanValue("tornado.kernel.bundle.generate", FALSE);
+
+    /**
+     * Maximum number of specialised kernels kept per task on each device. A task
+     * that is executed with different sizes reuses the kernel of each size seen
+     * before, instead of being compiled again. 0 disables the cache. Default is
+     * 8.
+     */
+    public static final int KERNEL_VARIANTS = getIntValue("tornado.kernel.variants", "8");
+
+    /**
+     * Option to compile a size-generic kernel for a task that is executed with a
+     * new size after a specialised kernel has been compiled for another size. The
+     * size-generic kernel reads the bounds of its parallel loops from the kernel
+     * context, and it is used for the sizes that have no specialised kernel.
+     * OpenCL only. False by default.
+     */
+    public static final boolean KERNEL_VARIANTS_GENERIC = getBooleanValue("tornado.kernel.variants.generic", FALSE);
+
+    /**
+     * Option to fuse consecutive element-wise tasks of a task-graph that run over
+     * the same iteration space into a single kernel. False by default.
+     */
+    public static final boolean TASK_FUSION = getBooleanValue("tornado.fusion", FALSE);
+
+    /**
+     * Number of threads that compile the tasks of a task-graph concurrently,
+     * before the first launch of the graph. A value of 1 compiles each task when
+     * it is launched. Default is 4.
+     */
+    public static final int TORNADO_COMPILER_THREADS = getIntValue("tornado.compiler.threads", "4");
+
+    /**
+     * Option to select the device of each task of a task-graph with dynamic
+     * reconfiguration using a cost model fitted from previous executions, instead
+     * of running the task-graph on every device. False by default.
+     */
+    public static final boolean DYNAMIC_RECONFIGURATION_MODEL = getBooleanValue("tornado.dynamic.model", FALSE);
+
+    /**
+     * File in which the execution history of the dynamic reconfiguration cost
+     * model is persisted. Default is ${user.home}/.tornadovm/dynamic-history.tsv.
+     */
+    public static final String DYNAMIC_RECONFIGURATION_HISTORY = getProperty("tornado.dynamic.model.history", STR."\{System.getProperty("user.home")}/.tornadovm/dynamic-history.tsv");
+
+    /**
+     * Percentage of executions with dynamic reconfiguration in which the cost
+     * model runs a random device instead of the predicted best one, to adapt to
+     * changes in the load of the devices. Default is 5.
+     */
+    public static final int DYNAMIC_RECONFIGURATION_EXPLORATION = getIntValue("tornado.dynamic.model.exploration", "5");
+
+    /**
+     * Number of executions after which the weight of an execution in the dynamic
+     * reconfiguration cost model decays by a factor of e, so that the model
+     * follows changes in the load of the devices. 0 keeps all the executions
+     * with the same weight. Default is 32.
+     */
+    public static final int DYNAMIC_RECONFIGURATION_WINDOW = getIntValue("tornado.dynamic.model.window", "32");
+
+    /**
+     * Option to auto-tune the local work size of the kernels that the
+     * schedulers configure, and to apply the sizes tuned by previous runs. False
+     * by default.
+     */
+    public static final boolean WORK_GROUP_TUNING = getBooleanValue("tornado.autotune", FALSE);
+
+    /**
+     * File in which the tuned local work sizes are persisted. Default is
+     * ${user.home}/.tornadovm/work-group-tuning.tsv.
+     */
+    public static final String WORK_GROUP_TUNING_DB = getProperty("tornado.autotune.db", STR."\{System.getProperty("user.home")}/.tornadovm/work-group-tuning.tsv");
+
+    /**
+     * Number of launches measured for each candidate local work size. The
+     * fastest launch of each candidate is compared. Default is 3.
+     */
+    public static final int WORK_GROUP_TUNING_RUNS = getIntValue("tornado.autotune.runs", "3");
+
     /**
      * Panama Object Header in TornadoVM.
      */
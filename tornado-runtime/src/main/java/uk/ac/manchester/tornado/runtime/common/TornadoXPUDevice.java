@@ -178,4 +178,14 @@ public interface TornadoXPUDevice extends TornadoDevice {
      */
     boolean loopIndexInWrite(SchedulableTask task);
 
+    /**
+     * It returns whether the backend of the device can compile several tasks at
+     * the same time, on the compiler threads (see
+     * {@code tornado.compiler.threads}). Backends that keep per-compilation state
+     * in shared fields compile the tasks one by one, when they are launched.
+     *
+     * @return True if tasks can be compiled concurrently, false otherwise.
+     */
+    boolean isConcurrentCompilationSupported();
+
 }
@@ -30,6 +30,8 @@ import uk.ac.manchester.tornado.api.memory.XPUBuffer;
 
 public class XPUDeviceBufferState implements DeviceBufferState {
 
+    public static final long UNSYNCHRONISED = -1;
+
     private XPUBuffer xpuBuffer;
     private boolean atomicRegionPresent;
 
@@ -37,12 +39,20 @@ public class XPUDeviceBufferState implements DeviceBufferState {
     private boolean lockBuffer;
     private long partialSize;
 
+    /**
+     * Modification count of the host array when the contents of the host array
+     * and of the device buffer were last known to be equal, or
+     * {@link #UNSYNCHRONISED}.
+     */
+    private long synchronisedModificationCount = UNSYNCHRONISED;
+
     public XPUDeviceBufferState() {
     }
 
     @Override
     public void setXPUBuffer(XPUBuffer value) {
         xpuBuffer = value;
+        synchronisedModificationCount = UNSYNCHRONISED;
     }
 
     public void setAtomicRegion(XPUBuffer buffer) {
@@ -77,6 +87,9 @@ public class XPUDeviceBufferState implements DeviceBufferState {
     @Override
     public void setContents(boolean value) {
         contents = value;
+        if (!value) {
+            synchronisedModificationCount = UNSYNCHRONISED;
+        }
     }
 
     @Override
@@ -111,6 +124,14 @@ public class XPUDeviceBufferState implements DeviceBufferState {
         return this.partialSize;
     }
 
+    public long getSynchronisedModificationCount() {
+        return synchronisedModificationCount;
+    }
+
+    public void setSynchronisedModificationCount(long modificationCount) {
+        this.synchronisedModificationCount = modificationCount;
+    }
+
     public XPUDeviceBufferState createSnapshot() {
         XPUDeviceBufferState xpuDeviceBufferState = new XPUDeviceBufferState();
         xpuDeviceBufferState.setLockBuffer(this.isLockedBuffer());
@@ -0,0 +1,210 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * School of Engineering, The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.domain;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+
+/**
+ * Upper bounds of the parallel loops of a size-generic kernel. Instead of
+ * folding a bound into the kernel, the task specialisation reads it from a slot
+ * of the kernel context. The value of each slot is taken at launch from an
+ * argument of the task: a scalar argument, or the length of an array argument.
+ *
+ * <p>
+ * The lengths of the arrays that are still folded into the kernel are recorded
+ * too, because the kernel is only valid for these lengths.
+ * </p>
+ */
+public final class DynamicLoopBounds {
+
+    /**
+     * Number of slots of the kernel context that can hold a loop bound, one per
+     * dimension of the parallel domain.
+     */
+    public static final int MAX_BOUNDS = 3;
+
+    private final int[] parameters;
+    private final boolean[] lengths;
+    private final int[] compiledBounds;
+    private final int[] dimensions;
+    private final boolean[] foldedLengths;
+    private int numBounds;
+    private boolean unsupported;
+
+    public DynamicLoopBounds(int numParameters) {
+        this.parameters = new int[MAX_BOUNDS];
+        this.lengths = new boolean[MAX_BOUNDS];
+        this.compiledBounds = new int[MAX_BOUNDS];
+        this.dimensions = new int[MAX_BOUNDS];
+        this.foldedLengths = new boolean[numParameters];
+        Arrays.fill(dimensions, -1);
+    }
+
+    /**
+     * Adds a loop bound read from the kernel context.
+     *
+     * @param parameter
+     *     Index of the task argument that gives the bound, or -1 if the bound
+     *     is not an argument of the task.
+     * @param length
+     *     True if the bound is the length of the argument, false if it is the
+     *     value of a scalar argument.
+     * @param compiledBound
+     *     Value of the bound for the arguments the kernel is compiled with.
+     * @param parallelDimensions
+     *     Dimensions of the parallel domain whose upper bound it is.
+     * @return the slot of the kernel context that holds the bound.
+     */
+    public int addBound(int parameter, boolean length, int compiledBound, int[] parallelDimensions) {
+        if (parameter < 0 || numBounds == MAX_BOUNDS) {
+            throw new TornadoBailoutRuntimeException("Loop bounds of the task cannot be read from the kernel context");
+        }
+        final int slot = numBounds++;
+        parameters[slot] = parameter;
+        lengths[slot] = length;
+        compiledBounds[slot] = compiledBound;
+        for (int dimension : parallelDimensions) {
+            dimensions[dimension] = slot;
+        }
+        return slot;
+    }
+
+    /**
+     * Records that the length of an argument is folded into the kernel.
+     *
+     * @param parameter
+     *     Index of the task argument, or -1 if the array is not an argument of
+     *     the task.
+     */
+    public void foldLength(int parameter) {
+        if (parameter < 0) {
+            unsupported = true;
+        } else {
+            foldedLengths[parameter] = true;
+        }
+    }
+
+    /**
+     * Checks if the kernel can be launched with other sizes: at least one loop
+     * bound is read from the kernel context, and the length of the arrays that
+     * give a bound is not folded anywhere else.
+     *
+     * @return true if the kernel is size-generic.
+     */
+    public boolean isGeneric() {
+        if (unsupported || numBounds == 0) {
+            return false;
+        }
+        for (int slot = 0; slot < numBounds; slot++) {
+            if (lengths[slot] && foldedLengths[parameters[slot]]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param parameter
+     *     Index of a task argument.
+     * @return true if the value of the scalar argument is a loop bound.
+     */
+    public boolean isScalarBound(int parameter) {
+        for (int slot = 0; slot < numBounds; slot++) {
+            if (!lengths[slot] && parameters[slot] == parameter) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param parameter
+     *     Index of a task argument.
+     * @return true if the length of the array argument is folded into the kernel.
+     */
+    public boolean isLengthFolded(int parameter) {
+        return foldedLengths[parameter];
+    }
+
+    public boolean isDynamicDimension(int dimension) {
+        return dimensions[dimension] >= 0;
+    }
+
+    /**
+     * @param dimension
+     *     Dimension of the parallel domain.
+     * @return the upper bound of the dimension for the arguments the kernel is
+     *     compiled with.
+     */
+    public int getCompiledBound(int dimension) {
+        return compiledBounds[dimensions[dimension]];
+    }
+
+    /**
+     * Returns the value of each slot of the kernel context for the arguments of
+     * a launch.
+     *
+     * @param args
+     *     Arguments of the task.
+     * @return the loop bounds, indexed by slot.
+     */
+    public int[] resolve(Object[] args) {
+        final int[] bounds = new int[numBounds];
+        for (int slot = 0; slot < numBounds; slot++) {
+            final Object argument = args[parameters[slot]];
+            if (!lengths[slot]) {
+                bounds[slot] = ((Number) argument).intValue();
+            } else if (argument instanceof TornadoNativeArray nativeArray) {
+                bounds[slot] = nativeArray.getSize();
+            } else {
+                bounds[slot] = Array.getLength(argument);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Returns the parallel domain of the kernel for the arguments of a launch.
+     *
+     * @param domain
+     *     Domain of the kernel for the arguments it is compiled with.
+     * @param args
+     *     Arguments of the task.
+     * @return {@link DomainTree}
+     */
+    public DomainTree resolveDomain(DomainTree domain, Object[] args) {
+        final int[] bounds = resolve(args);
+        final DomainTree resolved = new DomainTree(domain.getDepth());
+        for (int i = 0; i < domain.getDepth(); i++) {
+            final IntDomain dimension = (IntDomain) domain.get(i);
+            final int upperBound = isDynamicDimension(i) ? bounds[dimensions[i]] : dimension.cardinality();
+            resolved.set(i, new IntDomain(dimension.getOffset(), dimension.getStep(), upperBound));
+        }
+        return resolved;
+    }
+}
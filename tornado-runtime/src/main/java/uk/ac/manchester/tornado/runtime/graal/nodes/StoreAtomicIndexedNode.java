@@ -49,6 +49,7 @@ public final class StoreAtomicIndexedNode extends AccessIndexedNode implements S
     @Input ValueNode accumulator;
     @Input ValueNode inputArray;
     @Input StoreAtomicIndexedNodeExtension storeAtomicExtraNode;
+    boolean singleLaunch;
     //@formatter:on
 
     @Override
@@ -113,4 +114,17 @@ public final class StoreAtomicIndexedNode extends AccessIndexedNode implements S
     public StoreAtomicIndexedNodeExtension getStoreAtomicExtraNode() {
         return storeAtomicExtraNode;
     }
+
+    /**
+     * Whether the reduction kernel also combines the partial results of the
+     * work-groups, which needs a counter after the partial results in the reduce
+     * array. It is set per task in the high tier.
+     */
+    public boolean isSingleLaunch() {
+        return singleLaunch;
+    }
+
+    public void setSingleLaunch(boolean singleLaunch) {
+        this.singleLaunch = singleLaunch;
+    }
 }
@@ -44,6 +44,7 @@ public class WriteAtomicNode extends FixedWithNextNode implements StateSplit, Lo
     @Input AddressNode address;
     @Input ValueNode outArray;
     JavaKind kind;
+    boolean singleLaunch;
     //@formatter:on
 
     public WriteAtomicNode(JavaKind kind, AddressNode address, ValueNode value, ValueNode accumulator, ValueNode inputArray, ValueNode outArray, WriteAtomicNodeExtension extension) {
@@ -93,6 +94,19 @@ public class WriteAtomicNode extends FixedWithNextNode implements StateSplit, Lo
         return outArray;
     }
 
+    /**
+     * Whether the reduction kernel also combines the partial results of the
+     * work-groups, which needs a counter after the partial results in the reduce
+     * array. It is set per task in the high tier.
+     */
+    public boolean isSingleLaunch() {
+        return singleLaunch;
+    }
+
+    public void setSingleLaunch(boolean singleLaunch) {
+        this.singleLaunch = singleLaunch;
+    }
+
     @Override
     public FrameState stateAfter() {
         return writeAtomicExtraNode.getStateAfter();
@@ -0,0 +1,78 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * School of Engineering, The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graal.phases;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+import org.graalvm.compiler.nodes.GraphState;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.phases.BasePhase;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.api.primitives.Reduction;
+
+/**
+ * Binds the calls to the combine placeholders of {@link Reduction} to the
+ * combine function of the task (see
+ * {@link uk.ac.manchester.tornado.api.common.TaskPackage#setCombineFunction}).
+ * The sketch of a reduction kernel is shared by all the tasks that use it, so
+ * the placeholders are not inlined in the sketch and are replaced here, before
+ * the inlining of the high tier.
+ */
+public class TornadoCombineFunctionReplacement extends BasePhase<TornadoHighTierContext> {
+
+    private static final String COMBINE_PLACEHOLDER = "combine";
+
+    public static boolean isCombinePlaceholder(ResolvedJavaMethod method) {
+        return method != null && method.getName().equals(COMBINE_PLACEHOLDER) && method.getDeclaringClass().toJavaName().equals(Reduction.class.getName());
+    }
+
+    @Override
+    public Optional<NotApplicable> notApplicableTo(GraphState graphState) {
+        return ALWAYS_APPLICABLE;
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, TornadoHighTierContext context) {
+        for (Invoke invoke : graph.getInvokes()) {
+            ResolvedJavaMethod placeholder = invoke.callTarget().targetMethod();
+            if (!isCombinePlaceholder(placeholder)) {
+                continue;
+            }
+            Method combineFunction = context.hasMeta() ? context.getMeta().getCombineFunction() : null;
+            if (combineFunction == null) {
+                throw new TornadoRuntimeException(STR."[ERROR] The task \{graph.method().getName()} calls Reduction.combine but it does not have a combine function");
+            }
+            ResolvedJavaMethod resolvedCombineFunction = context.getMetaAccess().lookupJavaMethod(combineFunction);
+            String descriptor = placeholder.getSignature().toMethodDescriptor();
+            if (!resolvedCombineFunction.isStatic() || !resolvedCombineFunction.getSignature().toMethodDescriptor().equals(descriptor)) {
+                throw new TornadoRuntimeException(STR."[ERROR] The combine function \{resolvedCombineFunction.format("%H.%n(%p)")} must be a static method or a non-capturing lambda with signature \{descriptor}");
+            }
+            invoke.callTarget().setTargetMethod(resolvedCombineFunction);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.graalvm.compiler.phases.util.Providers;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import uk.ac.manchester.tornado.runtime.common.BatchCompilationConfig;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
+import uk.ac.manchester.tornado.runtime.domain.DynamicLoopBounds;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
 
 public class TornadoHighTierContext extends HighTierContext {
@@ -95,4 +96,11 @@ public class TornadoHighTierContext extends HighTierContext {
         }
         return false;
     }
+
+    public DynamicLoopBounds getDynamicLoopBounds() {
+        if (meta != null) {
+            return meta.getDynamicLoopBounds();
+        }
+        return null;
+    }
 }
@@ -55,6 +55,7 @@ import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelStrideNode;
 import uk.ac.manchester.tornado.runtime.graal.nodes.TornadoLoopsData;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoSketchTierContext;
+import uk.ac.manchester.tornado.runtime.graph.TornadoTaskFusion;
 
 public class TornadoApiReplacement extends BasePhase<TornadoSketchTierContext> {
 
@@ -92,7 +93,7 @@ public class TornadoApiReplacement extends BasePhase<TornadoSketchTierContext> {
 
     private void replaceLocalAnnotations(StructuredGraph graph, TornadoSketchTierContext context) throws TornadoCompilationException {
         Map<Node, ParallelAnnotationProvider> parallelNodes = getAnnotatedNodes(graph, context);
-        addParallelProcessingNodes(graph, parallelNodes, context.getDevice());
+        addParallelProcessingNodes(graph, parallelNodes, context.getDevice(), TornadoTaskFusion.isFusedMethod(context.getMethod()));
     }
 
     private Map<Node, ParallelAnnotationProvider> getAnnotatedNodes(StructuredGraph graph, TornadoSketchTierContext context) {
@@ -123,7 +124,13 @@ public class TornadoApiReplacement extends BasePhase<TornadoSketchTierContext> {
         return parallelNodes;
     }
 
-    private void addParallelProcessingNodes(StructuredGraph graph, Map<Node, ParallelAnnotationProvider> parallelNodes, TornadoDevice device) {
+    /**
+     * Each parallel loop of a method gets the next thread dimension, except in
+     * the method of a fused task: its loops come from different tasks that run
+     * one after the other over the same iteration space, so all of them use the
+     * first dimension.
+     */
+    private void addParallelProcessingNodes(StructuredGraph graph, Map<Node, ParallelAnnotationProvider> parallelNodes, TornadoDevice device, boolean fusedMethod) {
         if (graph.hasLoops()) {
             final LoopsData data = new TornadoLoopsData(graph);
             data.detectCountedLoops();
@@ -145,7 +152,9 @@ public class TornadoApiReplacement extends BasePhase<TornadoSketchTierContext> {
                     final IntegerLessThanNode lessThan = conditions.getFirst();
                     ValueNode maxIterations = lessThan.getY();
                     parallelizationReplacement(graph, iv, loopIndex, maxIterations, conditions);
-                    loopIndex++;
+                    if (!fusedMethod) {
+                        loopIndex++;
+                    }
                 }
             }
         }
@@ -26,6 +26,7 @@ import org.graalvm.compiler.nodes.spi.Replacements;
 import org.graalvm.compiler.phases.common.inlining.info.InlineInfo;
 import org.graalvm.compiler.phases.common.inlining.walker.MethodInvocation;
 
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoCombineFunctionReplacement;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoInliningPolicy;
 
 public class TornadoFullInliningPolicy implements TornadoInliningPolicy {
@@ -40,6 +41,9 @@ public class TornadoFullInliningPolicy implements TornadoInliningPolicy {
 
     @Override
     public Decision isWorthInlining(Replacements replacements, MethodInvocation invocation, InlineInfo calleeInfo, int inliningDepth, boolean fullyProcessed) {
+        if (TornadoCombineFunctionReplacement.isCombinePlaceholder(invocation.callee().methodAt(0))) {
+            return Decision.NO;
+        }
         return Decision.YES;
     }
 }
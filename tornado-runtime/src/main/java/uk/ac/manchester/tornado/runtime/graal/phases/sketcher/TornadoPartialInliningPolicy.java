@@ -33,6 +33,7 @@ import org.graalvm.compiler.phases.common.inlining.InliningUtil;
 import org.graalvm.compiler.phases.common.inlining.info.InlineInfo;
 import org.graalvm.compiler.phases.common.inlining.walker.MethodInvocation;
 
+import uk.ac.manchester.tornado.runtime.graal.phases.TornadoCombineFunctionReplacement;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoInliningPolicy;
 
 public class TornadoPartialInliningPolicy implements TornadoInliningPolicy {
@@ -52,6 +53,10 @@ public class TornadoPartialInliningPolicy implements TornadoInliningPolicy {
     @Override
     public Decision isWorthInlining(Replacements replacements, MethodInvocation invocation, InlineInfo calleeInfo, int inliningDepth, boolean fullyProcessed) {
         final InlineInfo info = invocation.callee();
+        if (TornadoCombineFunctionReplacement.isCombinePlaceholder(info.methodAt(0))) {
+            // Bound to the combine function of the task in the high tier
+            return Decision.NO;
+        }
         int nodes = info.determineNodeCount();
         if (nodes > MaximumInliningSize.getValue(info.graph().getOptions()) && !invocation.isRoot()) {
             return Decision.NO;
@@ -81,6 +81,7 @@ public class TornadoExecutionContext {
     private TornadoXPUDevice[] taskToDeviceMapTable;
     private int nextTask;
     private long batchSize;
+    private int numBatchBuffers;
     private long executionPlanMemoryLimit;
     private Set<TornadoXPUDevice> lastDevices;
     private boolean redeployOnDevice;
@@ -105,6 +106,7 @@ public class TornadoExecutionContext {
         Arrays.fill(taskToDeviceMapTable, null);
         nextTask = 0;
         batchSize = INIT_VALUE;
+        numBatchBuffers = 1;
         executionPlanMemoryLimit = INIT_VALUE;
         lastDevices = new HashSet<>();
         this.profiler = null;
@@ -142,6 +144,22 @@ public class TornadoExecutionContext {
         this.batchSize = size;
     }
 
+    /**
+     * @return Number of batches kept in flight, each one with its own device
+     *     buffers. A value greater than 1 enables pipelined batch processing.
+     */
+    public int getNumBatchBuffers() {
+        return numBatchBuffers;
+    }
+
+    public void setNumBatchBuffers(int numBatchBuffers) {
+        this.numBatchBuffers = numBatchBuffers;
+    }
+
+    public boolean isBatchPipelined() {
+        return batchSize != INIT_VALUE && numBatchBuffers > 1;
+    }
+
     public long getExecutionPlanMemoryLimit() {
         return executionPlanMemoryLimit;
     }
@@ -251,6 +269,32 @@ public class TornadoExecutionContext {
         tasks.set(index, task);
     }
 
+    /**
+     * Adds a task that fuses several tasks of the graph, or replaces it if the
+     * graph was built before, and maps it to the device of the first fused task.
+     * The fused tasks stay in the context, but they are not launched.
+     *
+     * @param task
+     *     The fused {@link SchedulableTask}.
+     * @param firstTaskIndex
+     *     Index of the first fused task.
+     * @return The index of the fused task, or -1 if the context is full.
+     */
+    public int addFusedTask(SchedulableTask task, int firstTaskIndex) {
+        int index = tasks.indexOf(task);
+        if (index == -1) {
+            if (tasks.size() >= MAX_TASKS) {
+                return -1;
+            }
+            index = tasks.size();
+            tasks.add(task);
+        } else {
+            tasks.set(index, task);
+        }
+        taskToDeviceMapTable[index] = taskToDeviceMapTable[firstTaskIndex];
+        return index;
+    }
+
     public List<Object> getConstants() {
         return constants;
     }
@@ -534,9 +578,7 @@ public class TornadoExecutionContext {
                 Event event = localState.sync(executionPlanId, object, meta().getLogicDevice());
 
                 if (TornadoOptions.isProfilerEnabled() && event != null) {
-                    long value = profiler.getTimer(ProfilerType.COPY_OUT_TIME_SYNC);
-                    value += event.getElapsedTime();
-                    profiler.setTimer(ProfilerType.COPY_OUT_TIME_SYNC, value);
+                    profiler.sum(ProfilerType.COPY_OUT_TIME_SYNC, event.getElapsedTime());
                     XPUDeviceBufferState deviceObjectState = localState.getDataObjectState().getDeviceBufferState(meta().getLogicDevice());
                     profiler.addValueToMetric(ProfilerType.COPY_OUT_SIZE_BYTES_SYNC, TimeProfiler.NO_TASK_NAME, deviceObjectState.getXPUBuffer().size());
                 }
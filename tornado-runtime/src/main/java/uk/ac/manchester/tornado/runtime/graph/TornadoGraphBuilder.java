@@ -33,6 +33,7 @@ import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.graph.nodes.AbstractNode;
 import uk.ac.manchester.tornado.runtime.graph.nodes.AllocateMultipleBuffersNode;
@@ -95,10 +96,16 @@ public class TornadoGraphBuilder {
      *     the graph.
      * @param buffer
      *     The {@link ByteBuffer} containing the bytecode representation of
-     *     the graph.
+     *     the graph. When task fusion is enabled, the consecutive tasks that
+     *     can be fused are replaced by their fused task first (see
+     *     {@link TornadoTaskFusion}).
      * @return The constructed {@link TornadoGraph}.
      */
     public static TornadoGraph buildGraph(TornadoExecutionContext executionContext, ByteBuffer buffer) {
+        if (TornadoOptions.TASK_FUSION) {
+            buffer = TornadoTaskFusion.fuseTasks(executionContext, buffer);
+        }
+
         TornadoGraph graph = new TornadoGraph();
         Access[] accesses = null;
         SchedulableTask task;
@@ -0,0 +1,625 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * School of Engineering, The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.graph;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.InvokeNode;
+import org.graalvm.compiler.nodes.InvokeWithExceptionNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.ParameterNode;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.StartNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.BinaryNode;
+import org.graalvm.compiler.nodes.calc.IntegerConvertNode;
+import org.graalvm.compiler.nodes.calc.LeftShiftNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.extended.JavaReadNode;
+import org.graalvm.compiler.nodes.extended.JavaWriteNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
+import org.graalvm.compiler.nodes.memory.MemoryKill;
+import org.graalvm.compiler.nodes.memory.address.AddressNode;
+import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
+import org.graalvm.compiler.phases.util.Providers;
+
+import jdk.vm.ci.meta.JavaConstant;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.common.Access;
+import uk.ac.manchester.tornado.api.common.SchedulableTask;
+import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
+import uk.ac.manchester.tornado.runtime.ASMClassVisitorProvider;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSuitesProvider;
+import uk.ac.manchester.tornado.runtime.graal.nodes.ParallelRangeNode;
+import uk.ac.manchester.tornado.runtime.sketcher.Sketch;
+import uk.ac.manchester.tornado.runtime.sketcher.SketchRequest;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
+import uk.ac.manchester.tornado.runtime.tasks.TornadoGraphBitcodes;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+
+/**
+ * Fuses consecutive element-wise tasks of a task-graph into a single task, so
+ * that they run as one kernel instead of one kernel launch per task.
+ *
+ * <p>
+ * Two consecutive tasks are fused when both have a single parallel loop with
+ * the same offset, stride and bound, run on the same device, and every array
+ * that is shared by them and written by any of them (following the
+ * {@link Access} of the sketches) is only accessed at the element of the
+ * current iteration, with the same index expression in both tasks. Under these
+ * conditions, the thread that runs an iteration of the consumer only reads what
+ * the same thread wrote in the producer.
+ * </p>
+ *
+ * <p>
+ * The fused task runs a generated method that calls the methods of the fused
+ * tasks in order. The sketcher inlines them and assigns the first thread
+ * dimension to all their parallel loops, so the backends emit one kernel with
+ * one loop after the other. Intermediate arrays are still passed to the kernel
+ * and written to device memory: the loops are not merged.
+ * </p>
+ */
+public final class TornadoTaskFusion {
+
+    private static final Set<ResolvedJavaMethod> fusedMethods = ConcurrentHashMap.newKeySet();
+    private static final Map<String, Method> fusedMethodCache = new ConcurrentHashMap<>();
+    private static final TornadoLogger logger = new TornadoLogger(TornadoTaskFusion.class);
+    private static ASMClassVisitorProvider asmClassVisitorProvider;
+
+    private TornadoTaskFusion() {
+    }
+
+    /**
+     * A task of the high-level bytecodes of a task-graph: its index in the
+     * {@link TornadoExecutionContext}, and the bitcode and variable index of each
+     * argument.
+     */
+    private record TaskRecord(int globalTaskId, int taskIndex, byte[] argumentBitcodes, int[] variableIndexes) {
+    }
+
+    /**
+     * Access to an array at byte offset (or index) {@code scale * i + offset} of
+     * the induction variable {@code i} of the parallel loop. A scale of 0 means
+     * that the access does not move with the loop, or that its position is not
+     * known.
+     */
+    private record ElementAccess(boolean write, JavaKind kind, long scale, long offset) {
+
+        boolean isSameElement(ElementAccess other) {
+            return scale != 0 && scale == other.scale && offset == other.offset && kind == other.kind;
+        }
+    }
+
+    /**
+     * Iteration space of the parallel loop of a task, and the element accesses
+     * of each of its parameters.
+     */
+    private record TaskShape(long offset, long stride, long bound, Map<Integer, List<ElementAccess>> accesses, Access[] argumentAccesses) {
+
+        boolean hasSameIterationSpace(TaskShape other) {
+            return offset == other.offset && stride == other.stride && bound == other.bound;
+        }
+    }
+
+    /**
+     * Checks if a method was generated for a fused task. The sketcher assigns the
+     * same thread dimension to all the parallel loops of these methods.
+     *
+     * @param method
+     *     Method to check.
+     * @return boolean
+     */
+    public static boolean isFusedMethod(ResolvedJavaMethod method) {
+        return fusedMethods.contains(method);
+    }
+
+    /**
+     * Rewrites the high-level bytecodes of a task-graph, replacing each group of
+     * consecutive tasks that can be fused by the fused task. The fused tasks are
+     * added to the {@link TornadoExecutionContext}.
+     *
+     * @param executionContext
+     *     Execution context of the task-graph.
+     * @param buffer
+     *     High-level bytecodes of the task-graph.
+     * @return The rewritten bytecodes, or the given buffer if no tasks are fused.
+     */
+    public static ByteBuffer fuseTasks(TornadoExecutionContext executionContext, ByteBuffer buffer) {
+        if (executionContext.getBatchSize() != TornadoExecutionContext.INIT_VALUE || executionContext.meta().getCombineFunction() != null) {
+            return buffer;
+        }
+        final List<TaskRecord> records = decode(buffer);
+        if (records == null || records.size() < 2) {
+            return buffer;
+        }
+
+        final Map<TaskRecord, TaskShape> shapes = new IdentityHashMap<>();
+        for (TaskRecord record : records) {
+            shapes.put(record, analyseTask(executionContext.getTask(record.taskIndex())));
+        }
+
+        final List<TaskRecord> fusedRecords = new ArrayList<>();
+        List<TaskRecord> group = new ArrayList<>();
+        for (TaskRecord record : records) {
+            if (!group.isEmpty() && !canAppend(executionContext, group, record, shapes)) {
+                fusedRecords.addAll(fuseGroup(executionContext, group));
+                group = new ArrayList<>();
+            }
+            group.add(record);
+        }
+        fusedRecords.addAll(fuseGroup(executionContext, group));
+
+        if (fusedRecords.size() == records.size()) {
+            return buffer;
+        }
+        return encode(fusedRecords, buffer);
+    }
+
+    private static List<TaskRecord> decode(ByteBuffer buffer) {
+        final ByteBuffer code = buffer.duplicate().order(buffer.order());
+        final List<TaskRecord> records = new ArrayList<>();
+        while (code.hasRemaining()) {
+            if (code.get() != TornadoGraphBitcodes.CONTEXT.index()) {
+                return null;
+            }
+            final int globalTaskId = code.getInt();
+            final int taskIndex = code.getInt();
+            if (code.get() != TornadoGraphBitcodes.ARG_LIST.index()) {
+                return null;
+            }
+            final int size = code.getInt();
+            final byte[] argumentBitcodes = new byte[size];
+            final int[] variableIndexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                argumentBitcodes[i] = code.get();
+                variableIndexes[i] = code.getInt();
+                if (argumentBitcodes[i] != TornadoGraphBitcodes.LOAD_REF.index() && argumentBitcodes[i] != TornadoGraphBitcodes.LOAD_PRIM.index()) {
+                    return null;
+                }
+            }
+            if (code.get() != TornadoGraphBitcodes.LAUNCH.index()) {
+                return null;
+            }
+            records.add(new TaskRecord(globalTaskId, taskIndex, argumentBitcodes, variableIndexes));
+        }
+        return records;
+    }
+
+    private static ByteBuffer encode(List<TaskRecord> records, ByteBuffer buffer) {
+        final ByteBuffer code = ByteBuffer.allocate(buffer.remaining()).order(buffer.order());
+        for (TaskRecord record : records) {
+            code.put(TornadoGraphBitcodes.CONTEXT.index());
+            code.putInt(record.globalTaskId());
+            code.putInt(record.taskIndex());
+            code.put(TornadoGraphBitcodes.ARG_LIST.index());
+            code.putInt(record.variableIndexes().length);
+            for (int i = 0; i < record.variableIndexes().length; i++) {
+                code.put(record.argumentBitcodes()[i]);
+                code.putInt(record.variableIndexes()[i]);
+            }
+            code.put(TornadoGraphBitcodes.LAUNCH.index());
+        }
+        code.flip();
+        return code;
+    }
+
+    private static boolean canAppend(TornadoExecutionContext executionContext, List<TaskRecord> group, TaskRecord record, Map<TaskRecord, TaskShape> shapes) {
+        final TaskRecord first = group.getFirst();
+        final TaskShape shape = shapes.get(record);
+        if (shapes.get(first) == null || shape == null || !shape.hasSameIterationSpace(shapes.get(first))
+                || !Objects.equals(executionContext.getDeviceForTask(first.taskIndex()), executionContext.getDeviceForTask(record.taskIndex()))) {
+            return false;
+        }
+
+        // The fused method is defined next to the first task method and calls the others
+        final Method firstMethod = ((CompilableTask) executionContext.getTask(first.taskIndex())).getMethod();
+        final Method method = ((CompilableTask) executionContext.getTask(record.taskIndex())).getMethod();
+        if (firstMethod.getDeclaringClass().getModule() != method.getDeclaringClass().getModule() || firstMethod.getDeclaringClass().getClassLoader() != method.getDeclaringClass()
+                .getClassLoader()) {
+            return false;
+        }
+        if (!firstMethod.getDeclaringClass().getPackageName().equals(method.getDeclaringClass().getPackageName()) && !(Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(method
+                .getDeclaringClass().getModifiers()))) {
+            return false;
+        }
+
+        final List<TaskRecord> candidates = new ArrayList<>(group);
+        candidates.add(record);
+        return isElementWise(executionContext, candidates, shapes);
+    }
+
+    /**
+     * Checks that every array that is written by a task and used by another
+     * task of the group is only accessed at the same element of each iteration.
+     */
+    private static boolean isElementWise(TornadoExecutionContext executionContext, List<TaskRecord> records, Map<TaskRecord, TaskShape> shapes) {
+        final Map<Object, List<ElementAccess>> objectAccesses = new IdentityHashMap<>();
+        final Map<Object, Integer> objectUsers = new IdentityHashMap<>();
+        final Set<Object> writtenObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TaskRecord record : records) {
+            final TaskShape shape = shapes.get(record);
+            final Object[] arguments = executionContext.getTask(record.taskIndex()).getArguments();
+            final Set<Object> taskObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int i = 0; i < arguments.length; i++) {
+                if (record.argumentBitcodes()[i] != TornadoGraphBitcodes.LOAD_REF.index()) {
+                    continue;
+                }
+                taskObjects.add(arguments[i]);
+                objectAccesses.computeIfAbsent(arguments[i], _ -> new ArrayList<>()).addAll(shape.accesses().getOrDefault(i, List.of()));
+                if (shape.argumentAccesses()[i] == Access.WRITE_ONLY || shape.argumentAccesses()[i] == Access.READ_WRITE) {
+                    writtenObjects.add(arguments[i]);
+                }
+            }
+            taskObjects.forEach(object -> objectUsers.merge(object, 1, Integer::sum));
+        }
+
+        for (Object object : writtenObjects) {
+            if (objectUsers.get(object) < 2) {
+                continue;
+            }
+            final List<ElementAccess> accesses = objectAccesses.get(object);
+            if (accesses.isEmpty() || !accesses.stream().allMatch(access -> access.isSameElement(accesses.getFirst()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shape of a task that can be fused, or null if the task cannot be fused.
+     */
+    private static TaskShape analyseTask(SchedulableTask task) {
+        if (!(task instanceof CompilableTask compilableTask)) {
+            return null;
+        }
+        final Method method = compilableTask.getMethod();
+        final TaskMetaData meta = compilableTask.meta();
+        final Object[] arguments = task.getArguments();
+        if (!Modifier.isStatic(method.getModifiers()) || Modifier.isPrivate(method.getModifiers()) || meta.isWorkerGridAvailable() || meta.getCombineFunction() != null) {
+            return null;
+        }
+        if (Arrays.stream(method.getParameterAnnotations()).flatMap(Arrays::stream).anyMatch(Reduce.class::isInstance) || Arrays.stream(arguments).anyMatch(
+                argument -> argument instanceof KernelContext || argument instanceof AtomicInteger)) {
+            return null;
+        }
+
+        final ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(method);
+        final Sketch sketch = TornadoSketcher.lookup(resolvedMethod, meta.getBackendIndex(), meta.getDeviceIndex());
+        if (!(sketch.getGraph() instanceof StructuredGraph graph) || hasInvokes(graph) || graph.getNodes(LoopBeginNode.TYPE).count() != 1) {
+            return null;
+        }
+        final List<ParallelRangeNode> ranges = graph.getNodes().filter(ParallelRangeNode.class).snapshot();
+        if (ranges.size() != 1) {
+            return null;
+        }
+        final ParallelRangeNode range = ranges.getFirst();
+        final Long offset = integerConstant(range.offset().value());
+        final Long stride = integerConstant(range.stride().value());
+        final ValuePhiNode inductionVariable = range.offset().usages().filter(ValuePhiNode.class).first();
+        if (offset == null || stride == null || inductionVariable == null || !(evaluate(range.value(), arguments) instanceof Long bound)) {
+            return null;
+        }
+
+        final Map<Integer, List<ElementAccess>> accesses = new HashMap<>();
+        for (Node node : graph.getNodes()) {
+            boolean traced = switch (node) {
+                case JavaReadNode read -> addAccess(accesses, read.getAddress(), read.getReadKind(), false, inductionVariable);
+                case JavaWriteNode write -> addAccess(accesses, write.getAddress(), write.getWriteKind(), true, inductionVariable);
+                case LoadIndexedNode load -> addAccess(accesses, load.array(), load.index(), load.elementKind(), false, inductionVariable);
+                case StoreIndexedNode store -> addAccess(accesses, store.array(), store.index(), store.elementKind(), true, inductionVariable);
+                case LoadFieldNode loadField -> !loadField.field().isVolatile();
+                // Other writes, such as atomics, fields and calls, are not fused
+                case MemoryKill _ -> node instanceof StartNode;
+                default -> true;
+            };
+            if (!traced) {
+                return null;
+            }
+        }
+        return new TaskShape(offset, stride, bound, accesses, sketch.getArgumentsAccess());
+    }
+
+    private static boolean hasInvokes(StructuredGraph graph) {
+        return graph.getNodes().filter(InvokeNode.class).isNotEmpty() || graph.getNodes().filter(InvokeWithExceptionNode.class).isNotEmpty();
+    }
+
+    private static boolean addAccess(Map<Integer, List<ElementAccess>> accesses, AddressNode address, JavaKind kind, boolean write, ValuePhiNode inductionVariable) {
+        if (address instanceof OffsetAddressNode offsetAddress) {
+            return addAccess(accesses, offsetAddress.getBase(), offsetAddress.getOffset(), kind, write, inductionVariable);
+        }
+        return false;
+    }
+
+    private static boolean addAccess(Map<Integer, List<ElementAccess>> accesses, ValueNode base, ValueNode index, JavaKind kind, boolean write, ValuePhiNode inductionVariable) {
+        final int parameter = getParameterIndex(base);
+        if (parameter < 0) {
+            return false;
+        }
+        final long[] position = getAffinePosition(index, inductionVariable);
+        final ElementAccess access = position != null ? new ElementAccess(write, kind, position[0], position[1]) : new ElementAccess(write, kind, 0, 0);
+        accesses.computeIfAbsent(parameter, _ -> new ArrayList<>()).add(access);
+        return true;
+    }
+
+    /**
+     * Index of the parameter that holds the array accessed through the given
+     * base, following the fields of the parameter (such as the segment of the
+     * native arrays). Returns -1 if the base does not come from a parameter.
+     */
+    private static int getParameterIndex(ValueNode base) {
+        ValueNode value = base;
+        while (true) {
+            if (value instanceof ParameterNode parameter) {
+                return parameter.index();
+            } else if (value instanceof PiNode pi) {
+                value = pi.object();
+            } else if (value instanceof LoadFieldNode loadField && !loadField.isStatic()) {
+                value = loadField.object();
+            } else {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Position {@code {scale, offset}} of an index or byte offset as an affine
+     * function of the induction variable, or null if it is not affine.
+     */
+    private static long[] getAffinePosition(ValueNode node, ValuePhiNode inductionVariable) {
+        if (node == inductionVariable) {
+            return new long[] { 1, 0 };
+        } else if (node instanceof ConstantNode) {
+            final Long value = integerConstant(node);
+            return value != null ? new long[] { 0, value } : null;
+        } else if (node instanceof IntegerConvertNode<?> convert) {
+            return getAffinePosition(convert.getValue(), inductionVariable);
+        } else if (node instanceof BinaryNode binary) {
+            final long[] x = getAffinePosition(binary.getX(), inductionVariable);
+            final long[] y = getAffinePosition(binary.getY(), inductionVariable);
+            if (x == null || y == null) {
+                return null;
+            }
+            return switch (node) {
+                case AddNode _ -> new long[] { x[0] + y[0], x[1] + y[1] };
+                case SubNode _ -> new long[] { x[0] - y[0], x[1] - y[1] };
+                case MulNode _ when x[0] == 0 -> new long[] { x[1] * y[0], x[1] * y[1] };
+                case MulNode _ when y[0] == 0 -> new long[] { x[0] * y[1], x[1] * y[1] };
+                case LeftShiftNode _ when y[0] == 0 -> new long[] { x[0] << y[1], x[1] << y[1] };
+                default -> null;
+            };
+        }
+        return null;
+    }
+
+    private static Long integerConstant(ValueNode node) {
+        final JavaConstant constant = node instanceof ConstantNode ? node.asJavaConstant() : null;
+        return constant != null && constant.getJavaKind().isNumericInteger() ? constant.asLong() : null;
+    }
+
+    private static Object toLong(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte ? ((Number) value).longValue() : value;
+    }
+
+    /**
+     * Evaluates the bound of a parallel loop with the arguments of the task. It
+     * supports constants, scalar parameters, array lengths, fields of the
+     * parameters (such as the size of the native arrays) and integer arithmetic.
+     */
+    private static Object evaluate(ValueNode node, Object[] arguments) {
+        switch (node) {
+            case ConstantNode _ -> {
+                return integerConstant(node);
+            }
+            case ParameterNode parameter -> {
+                return parameter.index() < arguments.length ? toLong(arguments[parameter.index()]) : null;
+            }
+            case PiNode pi -> {
+                return evaluate(pi.object(), arguments);
+            }
+            case IntegerConvertNode<?> convert -> {
+                return evaluate(convert.getValue(), arguments);
+            }
+            case ArrayLengthNode arrayLength -> {
+                final Object array = evaluate(arrayLength.array(), arguments);
+                return array != null && array.getClass().isArray() ? (Object) (long) Array.getLength(array) : null;
+            }
+            case LoadFieldNode loadField when !loadField.isStatic() -> {
+                final Object object = evaluate(loadField.object(), arguments);
+                return object != null ? readField(object, loadField.field().getName()) : null;
+            }
+            case BinaryNode binary -> {
+                if (evaluate(binary.getX(), arguments) instanceof Long x && evaluate(binary.getY(), arguments) instanceof Long y) {
+                    return switch (node) {
+                        case AddNode _ -> x + y;
+                        case SubNode _ -> x - y;
+                        case MulNode _ -> x * y;
+                        default -> null;
+                    };
+                }
+                return null;
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static Object readField(Object object, String name) {
+        for (Class<?> klass = object.getClass(); klass != null; klass = klass.getSuperclass()) {
+            try {
+                final Field field = klass.getDeclaredField(name);
+                field.setAccessible(true);
+                return toLong(field.get(object));
+            } catch (NoSuchFieldException e) {
+                // Declared by a superclass
+            } catch (InaccessibleObjectException | IllegalAccessException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds the fused task of a group of tasks. The arguments of the fused task
+     * are the arguments of the tasks, with each object passed once.
+     *
+     * @return The record of the fused task, or the records of the group if it
+     *     has a single task or the fused task cannot be built.
+     */
+    private static List<TaskRecord> fuseGroup(TornadoExecutionContext executionContext, List<TaskRecord> group) {
+        if (group.size() == 1) {
+            return group;
+        }
+
+        final Method[] methods = new Method[group.size()];
+        final int[][] parameterMap = new int[group.size()][];
+        final List<Object> arguments = new ArrayList<>();
+        final List<Class<?>> parameterTypes = new ArrayList<>();
+        final List<Byte> argumentBitcodes = new ArrayList<>();
+        final List<Integer> variableIndexes = new ArrayList<>();
+        final Map<Integer, Integer> objectParameters = new HashMap<>();
+        for (int i = 0; i < group.size(); i++) {
+            final TaskRecord record = group.get(i);
+            final CompilableTask task = (CompilableTask) executionContext.getTask(record.taskIndex());
+            methods[i] = task.getMethod();
+            final Class<?>[] types = methods[i].getParameterTypes();
+            final Object[] taskArguments = task.getArguments();
+            parameterMap[i] = new int[taskArguments.length];
+            for (int j = 0; j < taskArguments.length; j++) {
+                final boolean reference = record.argumentBitcodes()[j] == TornadoGraphBitcodes.LOAD_REF.index();
+                if (reference && objectParameters.containsKey(record.variableIndexes()[j])) {
+                    parameterMap[i][j] = objectParameters.get(record.variableIndexes()[j]);
+                    continue;
+                }
+                parameterMap[i][j] = arguments.size();
+                if (reference) {
+                    objectParameters.put(record.variableIndexes()[j], arguments.size());
+                }
+                arguments.add(taskArguments[j]);
+                parameterTypes.add(types[j]);
+                argumentBitcodes.add(record.argumentBitcodes()[j]);
+                variableIndexes.add(record.variableIndexes()[j]);
+            }
+        }
+
+        final String methodName = Arrays.stream(methods).map(Method::getName).collect(Collectors.joining("_"));
+        final Class<?>[] fusedParameterTypes = parameterTypes.toArray(new Class<?>[0]);
+        final String key = STR."\{Arrays.stream(methods).map(Method::toString).collect(Collectors.joining(";"))}|\{Arrays.toString(fusedParameterTypes)}|\{Arrays.deepToString(parameterMap)}";
+        final Method fusedMethod = fusedMethodCache.computeIfAbsent(key, _ -> getASMClassVisitorProvider().createFusedMethod(methodName, methods, fusedParameterTypes, parameterMap));
+        if (fusedMethod == null) {
+            return group;
+        }
+
+        final SchedulableTask firstTask = executionContext.getTask(group.getFirst().taskIndex());
+        final String taskGraphPrefix = STR."\{executionContext.meta().getId()}.";
+        final String fusedId = group.stream().map(record -> executionContext.getTask(record.taskIndex()).getId().substring(taskGraphPrefix.length())).collect(Collectors.joining("+"));
+        final CompilableTask fusedTask = new CompilableTask(executionContext.meta(), fusedId, fusedMethod, arguments.toArray());
+        fusedTask.mapTo(firstTask.getDevice());
+
+        if (!buildSketch(fusedTask, group.size())) {
+            return group;
+        }
+
+        final int taskIndex = executionContext.addFusedTask(fusedTask, group.getFirst().taskIndex());
+        if (taskIndex < 0) {
+            return group;
+        }
+        logger.info("fused tasks into %s", fusedTask.getId());
+
+        final byte[] bitcodes = new byte[argumentBitcodes.size()];
+        for (int i = 0; i < bitcodes.length; i++) {
+            bitcodes[i] = argumentBitcodes.get(i);
+        }
+        return List.of(new TaskRecord(group.getFirst().globalTaskId(), taskIndex, bitcodes, variableIndexes.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * Builds the sketch of a fused task, and checks that all the tasks were
+     * inlined with their parallel loop.
+     */
+    private static boolean buildSketch(CompilableTask fusedTask, int numTasks) {
+        final TaskMetaData meta = fusedTask.meta();
+        final Providers providers = TornadoCoreRuntime.getTornadoRuntime().getBackend(meta.getBackendIndex()).getProviders();
+        final TornadoSuitesProvider suites = TornadoCoreRuntime.getTornadoRuntime().getBackend(meta.getBackendIndex()).getSuitesProvider();
+        final ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(fusedTask.getMethod());
+        fusedMethods.add(resolvedMethod);
+        new SketchRequest(resolvedMethod, providers, suites.getGraphBuilderSuite(), suites.getSketchTier(), meta.getBackendIndex(), meta.getDeviceIndex()).run();
+        try {
+            final Sketch sketch = TornadoSketcher.lookup(resolvedMethod, meta.getBackendIndex(), meta.getDeviceIndex());
+            return sketch.getGraph() instanceof StructuredGraph graph && !hasInvokes(graph) && graph.getNodes().filter(ParallelRangeNode.class).count() == numTasks;
+        } catch (TornadoBailoutRuntimeException | TornadoRuntimeException e) {
+            logger.info("unable to fuse tasks into %s: %s", fusedTask.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private static synchronized ASMClassVisitorProvider getASMClassVisitorProvider() {
+        if (asmClassVisitorProvider == null) {
+            try {
+                String tornadoAnnotationImplementation = System.getProperty("tornado.load.annotation.implementation");
+                Class<?> klass = Class.forName(tornadoAnnotationImplementation);
+                Constructor<?> constructor = klass.getConstructor();
+                asmClassVisitorProvider = (ASMClassVisitorProvider) constructor.newInstance();
+            } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | NoSuchMethodException | SecurityException | IllegalArgumentException | InvocationTargetException e) {
+                throw new TornadoRuntimeException("[ERROR] Tornado Annotation Implementation class not found");
+            }
+        }
+        return asmClassVisitorProvider;
+    }
+}
@@ -27,8 +27,12 @@ import static uk.ac.manchester.tornado.runtime.common.Tornado.getProperty;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import uk.ac.manchester.tornado.runtime.common.BatchConfiguration;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
 import uk.ac.manchester.tornado.runtime.graph.nodes.AbstractNode;
@@ -105,6 +109,67 @@ public class TornadoVMBytecodeBuilder {
         }
     }
 
+    /**
+     * It emits the bytecodes of a node for a chunk of a batch. Partitioned objects
+     * are allocated, transferred and deallocated with the offset and size of the
+     * chunk. Resident objects are allocated with their full size, copied in with
+     * the first chunk, and copied out and deallocated with the last chunk.
+     *
+     * @param node
+     *     Node to emit.
+     * @param dependencyBC
+     *     Event list of the node, or -1.
+     * @param batchConfiguration
+     *     {@link BatchConfiguration} of the execution context.
+     * @param chunk
+     *     Index of the chunk.
+     * @return True if the node emitted a bytecode for the chunk.
+     */
+    boolean emitBatchAsyncNode(AbstractNode node, int dependencyBC, BatchConfiguration batchConfiguration, int chunk) {
+        final boolean isFirstChunk = chunk == 0;
+        final boolean isLastChunk = chunk == batchConfiguration.getNumChunks() - 1;
+        if (node instanceof AllocateMultipleBuffersNode allocateNode) {
+            // One ALLOC bytecode per buffer size
+            Map<Long, List<AbstractNode>> valuesBySize = new LinkedHashMap<>();
+            for (AbstractNode value : allocateNode.getValues()) {
+                valuesBySize.computeIfAbsent(batchConfiguration.getChunkSize(value.getIndex(), chunk), _ -> new ArrayList<>()).add(value);
+            }
+            valuesBySize.forEach((size, values) -> bitcodeASM.allocate(values, size));
+        } else if (node instanceof CopyInNode copyInNode) {
+            final int index = copyInNode.getValue().getIndex();
+            if (!batchConfiguration.isPartitioned(index) && !isFirstChunk) {
+                return false;
+            }
+            bitcodeASM.transferToDeviceOnce(index, dependencyBC, batchConfiguration.getOffset(index, chunk), batchConfiguration.getChunkSize(index, chunk));
+        } else if (node instanceof StreamInNode streamInNode) {
+            final int index = streamInNode.getValue().getIndex();
+            if (!batchConfiguration.isPartitioned(index) && !isFirstChunk) {
+                return false;
+            }
+            bitcodeASM.transferToDeviceAlways(index, dependencyBC, batchConfiguration.getOffset(index, chunk), batchConfiguration.getChunkSize(index, chunk));
+        } else if (node instanceof CopyOutNode copyOutNode) {
+            final int index = copyOutNode.getValue().getValue().getIndex();
+            if (!batchConfiguration.isPartitioned(index) && !isLastChunk) {
+                return false;
+            }
+            bitcodeASM.transferToHost(index, dependencyBC, batchConfiguration.getOffset(index, chunk), batchConfiguration.getChunkSize(index, chunk));
+        } else if (node instanceof DeallocateNode deallocateNode) {
+            final int index = deallocateNode.getValue().getIndex();
+            if (!batchConfiguration.isPartitioned(index) && !isLastChunk) {
+                return false;
+            }
+            bitcodeASM.deallocate(index);
+        } else if (node instanceof TaskNode taskNode) {
+            // The offset of a launch in a batch is the first element of the chunk in the iteration space
+            bitcodeASM.launch(taskNode.getContext().getDeviceIndex(), taskNode.getTaskIndex(), taskNode.getNumArgs(), dependencyBC, chunk * batchConfiguration.getChunkElements(),
+                    batchConfiguration.getChunkElements(chunk));
+            emitArgList(taskNode);
+        } else {
+            emitAsyncNode(node, dependencyBC, 0, 0, 0);
+        }
+        return true;
+    }
+
     private void emitArgList(TaskNode taskNode) {
         final int numArgs = taskNode.getNumArgs();
         for (int i = 0; i < numArgs; i++) {
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.interpreter;
+
+import java.util.HashMap;
+
+import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
+import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
+
+/**
+ * A TornadoVM bytecode decoded into its operands. The interpreter decodes the
+ * {@link uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeResult} once,
+ * when it is created, and replays the resulting array of instructions on every
+ * execution. Wait lists are resolved at decode time, and the arrays needed to
+ * dispatch each instruction are allocated once and reused across executions.
+ */
+final class TornadoVMInstruction {
+
+    final TornadoVMBytecodes op;
+
+    /**
+     * Index of the object for the DEALLOC and TRANSFER bytecodes.
+     */
+    final int objectIndex;
+
+    final int eventList;
+
+    /**
+     * Event list to wait for, or null if the interpreter does not use
+     * dependencies.
+     */
+    final int[] waitList;
+
+    final long offset;
+
+    /**
+     * Batch size in bytes for the ALLOC and TRANSFER bytecodes, and number of
+     * threads of the batch for the LAUNCH bytecode.
+     */
+    final long sizeBatch;
+
+    // ALLOC operands
+    final int[] objectIndexes;
+    final Object[] allocObjects;
+    final XPUDeviceBufferState[] allocStates;
+
+    // LAUNCH operands
+    final int callWrapperIndex;
+    final int taskIndex;
+    final int localTaskIndex;
+    final byte[] argTypes;
+    final int[] argIndexes;
+    final HashMap<Integer, Integer> threadDeploy;
+
+    private TornadoVMInstruction(TornadoVMBytecodes op, int objectIndex, int eventList, int[] waitList, long offset, long sizeBatch, int[] objectIndexes, int callWrapperIndex, int taskIndex,
+            int localTaskIndex, byte[] argTypes, int[] argIndexes) {
+        this.op = op;
+        this.objectIndex = objectIndex;
+        this.eventList = eventList;
+        this.waitList = waitList;
+        this.offset = offset;
+        this.sizeBatch = sizeBatch;
+        this.objectIndexes = objectIndexes;
+        this.allocObjects = objectIndexes != null ? new Object[objectIndexes.length] : null;
+        this.allocStates = objectIndexes != null ? new XPUDeviceBufferState[objectIndexes.length] : null;
+        this.callWrapperIndex = callWrapperIndex;
+        this.taskIndex = taskIndex;
+        this.localTaskIndex = localTaskIndex;
+        this.argTypes = argTypes;
+        this.argIndexes = argIndexes;
+        this.threadDeploy = argTypes != null ? new HashMap<>() : null;
+    }
+
+    static TornadoVMInstruction alloc(int[] objectIndexes, long sizeBatch) {
+        return new TornadoVMInstruction(TornadoVMBytecodes.ALLOC, -1, -1, null, 0, sizeBatch, objectIndexes, -1, -1, -1, null, null);
+    }
+
+    static TornadoVMInstruction dealloc(int objectIndex) {
+        return new TornadoVMInstruction(TornadoVMBytecodes.DEALLOC, objectIndex, -1, null, 0, 0, null, -1, -1, -1, null, null);
+    }
+
+    static TornadoVMInstruction transfer(TornadoVMBytecodes op, int objectIndex, int eventList, int[] waitList, long offset, long sizeBatch) {
+        return new TornadoVMInstruction(op, objectIndex, eventList, waitList, offset, sizeBatch, null, -1, -1, -1, null, null);
+    }
+
+    static TornadoVMInstruction launch(int callWrapperIndex, int taskIndex, int localTaskIndex, int eventList, int[] waitList, long offset, long batchThreads, byte[] argTypes, int[] argIndexes) {
+        return new TornadoVMInstruction(TornadoVMBytecodes.LAUNCH, -1, eventList, waitList, offset, batchThreads, null, callWrapperIndex, taskIndex, localTaskIndex, argTypes, argIndexes);
+    }
+
+    static TornadoVMInstruction dependency(int eventList) {
+        return new TornadoVMInstruction(TornadoVMBytecodes.ADD_DEPENDENCY, -1, eventList, null, 0, 0, null, -1, -1, -1, null, null);
+    }
+
+    static TornadoVMInstruction barrier(int eventList, int[] waitList) {
+        return new TornadoVMInstruction(TornadoVMBytecodes.BARRIER, -1, eventList, waitList, 0, 0, null, -1, -1, -1, null, null);
+    }
+
+    static TornadoVMInstruction end() {
+        return new TornadoVMInstruction(TornadoVMBytecodes.END, -1, -1, null, 0, 0, null, -1, -1, -1, null, null);
+    }
+
+    int getNumArgs() {
+        return argTypes.length;
+    }
+}
@@ -27,15 +27,22 @@ import static uk.ac.manchester.tornado.api.enums.TornadoExecutionStatus.COMPLETE
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.VIRTUAL_DEVICE_ENABLED;
 import static uk.ac.manchester.tornado.runtime.common.TornadoOptions.VM_USE_DEPS;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import jdk.vm.ci.meta.ResolvedJavaMethod;
 import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.KernelContext;
 import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.common.Access;
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
 import uk.ac.manchester.tornado.api.common.TornadoEvents;
@@ -49,7 +56,11 @@ import uk.ac.manchester.tornado.api.memory.TaskMetaDataInterface;
 import uk.ac.manchester.tornado.api.memory.XPUBuffer;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
 import uk.ac.manchester.tornado.runtime.EmptyEvent;
+import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
+import uk.ac.manchester.tornado.runtime.cache.KernelVariantCache;
+import uk.ac.manchester.tornado.runtime.common.BatchConfiguration;
 import uk.ac.manchester.tornado.runtime.common.KernelStackFrame;
 import uk.ac.manchester.tornado.runtime.common.TornadoInstalledCode;
 import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
@@ -59,7 +70,13 @@ import uk.ac.manchester.tornado.runtime.common.XPUDeviceBufferState;
 import uk.ac.manchester.tornado.runtime.graph.TornadoExecutionContext;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodeResult;
 import uk.ac.manchester.tornado.runtime.graph.TornadoVMBytecodes;
+import uk.ac.manchester.tornado.runtime.jfr.AllocationEvent;
+import uk.ac.manchester.tornado.runtime.jfr.BarrierEvent;
+import uk.ac.manchester.tornado.runtime.jfr.LaunchEvent;
+import uk.ac.manchester.tornado.runtime.jfr.TransferEvent;
 import uk.ac.manchester.tornado.runtime.profiler.TimeProfiler;
+import uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher;
+import uk.ac.manchester.tornado.runtime.tasks.CompilableTask;
 import uk.ac.manchester.tornado.runtime.tasks.DataObjectState;
 import uk.ac.manchester.tornado.runtime.tasks.PrebuiltTask;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
@@ -93,14 +110,37 @@ public class TornadoVMInterpreter {
     private TornadoProfiler timeProfiler;
     private final TornadoExecutionContext executionContext;
     private final TornadoVMBytecodeResult bytecodeResult;
+    private final TornadoVMInstruction[] instructions;
     private double totalTime;
     private long invocations;
     private boolean finishedWarmup;
 
+    /**
+     * Set when the last transfer has been skipped because the host and the
+     * device copies were synchronised. It is reported in the
+     * {@link TransferEvent}.
+     */
+    private boolean transferSkipped;
+
     private GridScheduler gridScheduler;
 
+    /**
+     * Device buffers of each in-flight chunk when batches are pipelined, indexed
+     * by [buffer slot][object index]. It is null otherwise.
+     */
+    private final BatchConfiguration batchConfiguration;
+    private final XPUDeviceBufferState[][] batchBufferStates;
+    private final int[] instructionChunks;
+    private int currentChunk;
+
     private TornadoLogger logger = new TornadoLogger(this.getClass());
 
+    /**
+     * Accesses of the arguments of the tasks, used to track the device buffers
+     * that a launch can modify.
+     */
+    private final Map<SchedulableTask, Access[]> argumentsAccesses = new HashMap<>();
+
     /**
      * It constructs a new TornadoVMInterpreter object.
      *
@@ -154,9 +194,20 @@ public class TornadoVMInterpreter {
         constants = executionContext.getConstants();
         tasks = executionContext.getTasks();
 
-        logger.debug("interpreter for device %s is ready to go", device.toString());
+        instructions = decodeBytecodes();
+
+        batchConfiguration = executionContext.getBatchSize() != TornadoExecutionContext.INIT_VALUE //
+                ? BatchConfiguration.computeChunkSizes(executionContext, executionContext.getBatchSize())
+                : null;
+        if (executionContext.isBatchPipelined()) {
+            batchBufferStates = createBatchBufferStates(executionContext.getNumBatchBuffers());
+            instructionChunks = computeInstructionChunks();
+        } else {
+            batchBufferStates = null;
+            instructionChunks = null;
+        }
 
-        this.bytecodeResult.mark();
+        logger.debug("interpreter for device %s is ready to go", device.toString());
     }
 
     public void setTimeProfiler(TornadoProfiler tornadoProfiler) {
@@ -186,6 +237,199 @@ public class TornadoVMInterpreter {
         }
     }
 
+    /**
+     * It decodes the bytecodes of the execution region, from the BEGIN bytecode to
+     * the END bytecode, into an array of {@link TornadoVMInstruction}s. The
+     * interpreter replays these instructions in each execution instead of parsing
+     * the bytecode buffer again.
+     *
+     * @return An array of {@link TornadoVMInstruction}.
+     */
+    private TornadoVMInstruction[] decodeBytecodes() {
+        List<TornadoVMInstruction> decodedInstructions = new ArrayList<>();
+        while (bytecodeResult.hasRemaining()) {
+            final byte op = bytecodeResult.get();
+            if (op == TornadoVMBytecodes.ALLOC.value()) {
+                final long sizeBatch = bytecodeResult.getLong();
+                final int argSize = bytecodeResult.getInt();
+                final int[] args = new int[argSize];
+                for (int i = 0; i < argSize; i++) {
+                    args[i] = bytecodeResult.getInt();
+                }
+                decodedInstructions.add(TornadoVMInstruction.alloc(args, sizeBatch));
+            } else if (op == TornadoVMBytecodes.DEALLOC.value()) {
+                final int objectIndex = bytecodeResult.getInt();
+                decodedInstructions.add(TornadoVMInstruction.dealloc(objectIndex));
+            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value() //
+                    || op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value() //
+                    || op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value() //
+                    || op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING.value()) {
+                final int objectIndex = bytecodeResult.getInt();
+                final int eventList = bytecodeResult.getInt();
+                final long offset = bytecodeResult.getLong();
+                final long sizeBatch = bytecodeResult.getLong();
+                decodedInstructions.add(TornadoVMInstruction.transfer(decodeTransferBytecode(op), objectIndex, eventList, resolveWaitList(eventList), offset, sizeBatch));
+            } else if (op == TornadoVMBytecodes.LAUNCH.value()) {
+                final int callWrapperIndex = bytecodeResult.getInt();
+                final int taskIndex = bytecodeResult.getInt();
+                final int numArgs = bytecodeResult.getInt();
+                final int eventList = bytecodeResult.getInt();
+                final long offset = bytecodeResult.getLong();
+                final long batchThreads = bytecodeResult.getLong();
+                final byte[] argTypes = new byte[numArgs];
+                final int[] argIndexes = new int[numArgs];
+                for (int i = 0; i < numArgs; i++) {
+                    argTypes[i] = bytecodeResult.get();
+                    argIndexes[i] = bytecodeResult.getInt();
+                }
+                decodedInstructions.add(TornadoVMInstruction.launch(callWrapperIndex, taskIndex, globalToLocalTaskIndex(taskIndex), eventList, resolveWaitList(eventList), offset, batchThreads,
+                        argTypes, argIndexes));
+            } else if (op == TornadoVMBytecodes.ADD_DEPENDENCY.value()) {
+                final int eventList = bytecodeResult.getInt();
+                decodedInstructions.add(TornadoVMInstruction.dependency(eventList));
+            } else if (op == TornadoVMBytecodes.BARRIER.value()) {
+                final int eventList = bytecodeResult.getInt();
+                decodedInstructions.add(TornadoVMInstruction.barrier(eventList, resolveWaitList(eventList)));
+            } else if (op == TornadoVMBytecodes.END.value()) {
+                decodedInstructions.add(TornadoVMInstruction.end());
+                break;
+            } else {
+                throwErrorInterpreter(op);
+            }
+        }
+        return decodedInstructions.toArray(new TornadoVMInstruction[0]);
+    }
+
+    private static TornadoVMBytecodes decodeTransferBytecode(byte op) {
+        if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value()) {
+            return TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE;
+        } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value()) {
+            return TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS;
+        } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value()) {
+            return TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS;
+        }
+        return TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING;
+    }
+
+    private int[] resolveWaitList(int eventList) {
+        return (useDependencies && eventList != -1) ? events[eventList] : null;
+    }
+
+    private XPUDeviceBufferState[][] createBatchBufferStates(int numBuffers) {
+        XPUDeviceBufferState[][] states = new XPUDeviceBufferState[numBuffers][objects.size()];
+        for (XPUDeviceBufferState[] slot : states) {
+            for (int i = 0; i < slot.length; i++) {
+                if (!batchConfiguration.isPartitioned(i)) {
+                    // Resident objects use the same buffer for all chunks
+                    continue;
+                }
+                // Buffers of the slots are owned by the interpreter. They are locked to be
+                // reused by the following chunks, and released with freeBatchBuffers.
+                slot[i] = new XPUDeviceBufferState();
+                slot[i].setLockBuffer(true);
+            }
+        }
+        return states;
+    }
+
+    /**
+     * It computes the chunk of the batch that each instruction belongs to. The
+     * chunk is derived from the offset of the transfers of partitioned objects and
+     * of the launches. The allocations and the copy-ins of resident objects are
+     * assigned to the chunk of the instructions that follow, and the rest of
+     * instructions to the chunk of the instructions that precede them.
+     *
+     * @return An array with the chunk of each instruction.
+     */
+    private int[] computeInstructionChunks() {
+        final int[] chunks = new int[instructions.length];
+        Arrays.fill(chunks, -1);
+        for (int i = 0; i < instructions.length; i++) {
+            TornadoVMInstruction instruction = instructions[i];
+            switch (instruction.op) {
+                case TRANSFER_HOST_TO_DEVICE_ONCE, TRANSFER_HOST_TO_DEVICE_ALWAYS, TRANSFER_DEVICE_TO_HOST_ALWAYS, TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING -> {
+                    final long chunkSize = batchConfiguration.getChunkSize(instruction.objectIndex, 0);
+                    if (chunkSize > 0) {
+                        chunks[i] = (int) (instruction.offset / chunkSize);
+                    }
+                }
+                case LAUNCH -> chunks[i] = (int) (instruction.offset / batchConfiguration.getChunkElements());
+                default -> {
+                }
+            }
+        }
+
+        final int[] nextChunks = new int[chunks.length];
+        int chunk = -1;
+        for (int i = chunks.length - 1; i >= 0; i--) {
+            chunk = chunks[i] != -1 ? chunks[i] : chunk;
+            nextChunks[i] = chunk;
+        }
+        chunk = -1;
+        for (int i = 0; i < chunks.length; i++) {
+            if (chunks[i] == -1) {
+                final boolean precedesChunk = switch (instructions[i].op) {
+                    case ALLOC, TRANSFER_HOST_TO_DEVICE_ONCE, TRANSFER_HOST_TO_DEVICE_ALWAYS -> true;
+                    default -> false;
+                };
+                final int preferred = precedesChunk ? nextChunks[i] : chunk;
+                final int fallback = precedesChunk ? chunk : nextChunks[i];
+                chunks[i] = Math.max(0, preferred != -1 ? preferred : fallback);
+            }
+            chunk = chunks[i];
+        }
+        return chunks;
+    }
+
+    private boolean isBatchPipelined() {
+        return batchBufferStates != null;
+    }
+
+    /**
+     * Before the chunk N of a pipelined batch reuses the buffers of the chunk
+     * N - numBuffers, the previous chunks must have been completed. With in-order
+     * command queues this is guaranteed by the device. With out-of-order execution
+     * the interpreter synchronizes once every numBuffers chunks.
+     */
+    private void enterChunk(int chunk, boolean isWarmup) {
+        if (chunk == currentChunk) {
+            return;
+        }
+        if (!isWarmup && chunk > 0 && chunk % batchBufferStates.length == 0 && executionContext.meta().enableOooExecution()) {
+            deviceForInterpreter.sync(executionContext.getExecutionPlanId());
+        }
+        currentChunk = chunk;
+    }
+
+    /**
+     * It releases the device buffers allocated for the pipelined batches. Buffers
+     * of objects that are not locked in device memory are released after each
+     * execution. The rest are kept for the next execution and released when the
+     * device memory of the execution plan is freed.
+     */
+    public void freeBatchBuffers() {
+        releaseBatchBuffers(false);
+    }
+
+    private void releaseBatchBuffers(boolean onlyUnlockedObjects) {
+        if (!isBatchPipelined()) {
+            return;
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            if (onlyUnlockedObjects && dataObjectStates[i].getDeviceBufferState(deviceForInterpreter).isLockedBuffer()) {
+                continue;
+            }
+            for (XPUDeviceBufferState[] slot : batchBufferStates) {
+                XPUDeviceBufferState state = slot[i];
+                if (state != null && state.hasObjectBuffer()) {
+                    state.setLockBuffer(false);
+                    deviceForInterpreter.deallocate(state);
+                    state.setLockBuffer(true);
+                }
+            }
+        }
+    }
+
     public void setGridScheduler(GridScheduler gridScheduler) {
         this.gridScheduler = gridScheduler;
     }
@@ -263,98 +507,84 @@ public class TornadoVMInterpreter {
                     .debugHighLightHelper(" Running in thread: ")).append(Thread.currentThread().getName()).append("\n");
         }
 
-        while (bytecodeResult.hasRemaining()) {
-            final byte op = bytecodeResult.get();
-            if (op == TornadoVMBytecodes.ALLOC.value()) {
-                final long sizeBatch = bytecodeResult.getLong();
-                final int argSize = bytecodeResult.getInt();
-                final int[] args = new int[argSize];
-                for (int i = 0; i < argSize; i++) {
-                    args[i] = bytecodeResult.getInt();
-                }
-                if (isWarmup) {
-                    continue;
+        compileTasksAheadOfLaunch();
+
+        currentChunk = -1;
+        for (int pc = 0; pc < instructions.length; pc++) {
+            final TornadoVMInstruction instruction = instructions[pc];
+            if (instructionChunks != null) {
+                enterChunk(instructionChunks[pc], isWarmup);
+            }
+            switch (instruction.op) {
+                case ALLOC -> {
+                    if (!isWarmup) {
+                        AllocationEvent allocationEvent = new AllocationEvent();
+                        allocationEvent.begin();
+                        lastEvent = executeAlloc(tornadoVMBytecodeList, instruction);
+                        commitAllocationEvent(allocationEvent, instruction);
+                    }
                 }
-                lastEvent = executeAlloc(tornadoVMBytecodeList, args, sizeBatch);
-            } else if (op == TornadoVMBytecodes.DEALLOC.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                if (isWarmup) {
-                    continue;
+                case DEALLOC -> {
+                    if (!isWarmup) {
+                        lastEvent = executeDeAlloc(tornadoVMBytecodeList, instruction.objectIndex);
+                    }
                 }
-                lastEvent = executeDeAlloc(tornadoVMBytecodeList, objectIndex);
-            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ONCE.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventList = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies && eventList != -1) ? events[eventList] : null;
-                if (isWarmup) {
-                    continue;
+                case TRANSFER_HOST_TO_DEVICE_ONCE -> {
+                    if (!isWarmup) {
+                        TransferEvent transferEvent = beginTransferEvent();
+                        transferHostToDeviceOnce(tornadoVMBytecodeList, instruction.objectIndex, instruction.offset, instruction.eventList, instruction.sizeBatch, instruction.waitList);
+                        commitTransferEvent(transferEvent, instruction);
+                    }
                 }
-                transferHostToDeviceOnce(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.TRANSFER_HOST_TO_DEVICE_ALWAYS.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventList = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies && eventList != -1) ? events[eventList] : null;
-                if (isWarmup) {
-                    continue;
+                case TRANSFER_HOST_TO_DEVICE_ALWAYS -> {
+                    if (!isWarmup) {
+                        TransferEvent transferEvent = beginTransferEvent();
+                        transferHostToDeviceAlways(tornadoVMBytecodeList, instruction.objectIndex, instruction.offset, instruction.eventList, instruction.sizeBatch, instruction.waitList);
+                        commitTransferEvent(transferEvent, instruction);
+                    }
                 }
-                transferHostToDeviceAlways(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventList = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies) ? events[eventList] : null;
-                if (isWarmup) {
-                    continue;
+                case TRANSFER_DEVICE_TO_HOST_ALWAYS -> {
+                    if (!isWarmup) {
+                        TransferEvent transferEvent = beginTransferEvent();
+                        lastEvent = transferDeviceToHost(tornadoVMBytecodeList, instruction.objectIndex, instruction.offset, instruction.eventList, instruction.sizeBatch, instruction.waitList);
+                        commitTransferEvent(transferEvent, instruction);
+                    }
                 }
-                lastEvent = transferDeviceToHost(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING.value()) {
-                final int objectIndex = bytecodeResult.getInt();
-                final int eventList = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long sizeBatch = bytecodeResult.getLong();
-                final int[] waitList = (useDependencies) ? events[eventList] : null;
-                if (isWarmup) {
-                    continue;
+                case TRANSFER_DEVICE_TO_HOST_ALWAYS_BLOCKING -> {
+                    if (!isWarmup) {
+                        TransferEvent transferEvent = beginTransferEvent();
+                        transferDeviceToHostBlocking(tornadoVMBytecodeList, instruction.objectIndex, instruction.offset, instruction.eventList, instruction.sizeBatch, instruction.waitList);
+                        commitTransferEvent(transferEvent, instruction);
+                    }
                 }
-                transferDeviceToHostBlocking(tornadoVMBytecodeList, objectIndex, offset, eventList, sizeBatch, waitList);
-            } else if (op == TornadoVMBytecodes.LAUNCH.value()) {
-                final int callWrapperIndex = bytecodeResult.getInt();
-                final int taskIndex = bytecodeResult.getInt();
-                final int numArgs = bytecodeResult.getInt();
-                final int eventList = bytecodeResult.getInt();
-                final long offset = bytecodeResult.getLong();
-                final long batchThreads = bytecodeResult.getLong();
-                XPUExecutionFrame info = compileTaskFromBytecodeToBinary(callWrapperIndex, numArgs, eventList, taskIndex, batchThreads);
-                if (isWarmup) {
-                    popArgumentsFromCall(numArgs);
-                    continue;
+                case LAUNCH -> {
+                    KernelStackFrame stackFrame = compileTaskFromBytecodeToBinary(instruction);
+                    if (!isWarmup) {
+                        LaunchEvent launchEvent = new LaunchEvent();
+                        launchEvent.begin();
+                        lastEvent = executeLaunch(tornadoVMBytecodeList, instruction, stackFrame);
+                        commitLaunchEvent(launchEvent, instruction);
+                    }
                 }
-                lastEvent = executeLaunch(tornadoVMBytecodeList, numArgs, eventList, taskIndex, batchThreads, offset, info);
-            } else if (op == TornadoVMBytecodes.ADD_DEPENDENCY.value()) {
-                final int eventList = bytecodeResult.getInt();
-                if (isWarmup) {
-                    continue;
+                case ADD_DEPENDENCY -> {
+                    if (!isWarmup) {
+                        executeDependency(tornadoVMBytecodeList, lastEvent, instruction.eventList);
+                    }
                 }
-                executeDependency(tornadoVMBytecodeList, lastEvent, eventList);
-            } else if (op == TornadoVMBytecodes.BARRIER.value()) {
-                final int eventList = bytecodeResult.getInt();
-                final int[] waitList = (useDependencies && eventList != -1) ? events[eventList] : null;
-                if (isWarmup) {
-                    continue;
+                case BARRIER -> {
+                    if (!isWarmup) {
+                        BarrierEvent barrierEvent = new BarrierEvent();
+                        barrierEvent.begin();
+                        lastEvent = executeBarrier(tornadoVMBytecodeList, instruction.eventList, instruction.waitList);
+                        commitBarrierEvent(barrierEvent);
+                    }
                 }
-                lastEvent = executeBarrier(tornadoVMBytecodeList, eventList, waitList);
-            } else if (op == TornadoVMBytecodes.END.value()) {
-                if (!isWarmup && TornadoOptions.PRINT_BYTECODES) {
-                    tornadoVMBytecodeList.append("bc: ").append(InterpreterUtilities.debugHighLightBC("END\n")).append("\n");
+                case END -> {
+                    if (!isWarmup && TornadoOptions.PRINT_BYTECODES) {
+                        tornadoVMBytecodeList.append("bc: ").append(InterpreterUtilities.debugHighLightBC("END\n")).append("\n");
+                    }
                 }
-                break;
-            } else {
-                throwErrorInterpreter(op);
+                default -> throwErrorInterpreter(instruction.op.value());
             }
         }
 
@@ -368,6 +598,12 @@ public class TornadoVMInterpreter {
             if (TornadoOptions.USE_VM_FLUSH) {
                 deviceForInterpreter.flush(executionContext.getExecutionPlanId());
             }
+
+            if (isBatchPipelined()) {
+                // Wait for the copy-outs that have not been synchronized
+                deviceForInterpreter.sync(executionContext.getExecutionPlanId());
+                releaseBatchBuffers(true);
+            }
         }
 
         final long t1 = System.nanoTime();
@@ -381,8 +617,6 @@ public class TornadoVMInterpreter {
             logger.debug("bc: complete elapsed=%.9f s (%d iterations, %.9f s mean)", elapsed, invocations, (totalTime / invocations));
         }
 
-        bytecodeResult.reset();
-
         if (TornadoOptions.PRINT_BYTECODES) {
             System.out.println(tornadoVMBytecodeList);
         }
@@ -390,15 +624,77 @@ public class TornadoVMInterpreter {
         return barrier;
     }
 
+    private String getDeviceName() {
+        return deviceForInterpreter.getDeviceName();
+    }
+
+    private static long bufferSize(XPUDeviceBufferState state) {
+        return state != null && state.getXPUBuffer() != null ? state.getXPUBuffer().size() : 0;
+    }
+
+    private void commitAllocationEvent(AllocationEvent event, TornadoVMInstruction instruction) {
+        if (event.shouldCommit()) {
+            long bytes = 0;
+            for (XPUDeviceBufferState state : instruction.allocStates) {
+                bytes += bufferSize(state);
+            }
+            event.taskGraph = executionContext.getId();
+            event.device = getDeviceName();
+            event.objects = instruction.objectIndexes.length;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    private TransferEvent beginTransferEvent() {
+        transferSkipped = false;
+        TransferEvent event = new TransferEvent();
+        event.begin();
+        return event;
+    }
+
+    private void commitTransferEvent(TransferEvent event, TornadoVMInstruction instruction) {
+        if (event.shouldCommit()) {
+            Object object = objects.get(instruction.objectIndex);
+            event.taskGraph = executionContext.getId();
+            event.device = getDeviceName();
+            event.bytecode = instruction.op.name();
+            event.objectType = object != null ? object.getClass().getSimpleName() : "null";
+            event.bytes = instruction.sizeBatch > 0 ? instruction.sizeBatch : isObjectKernelContext(object) ? 0 : bufferSize(resolveObjectState(instruction.objectIndex));
+            event.skipped = transferSkipped;
+            event.commit();
+        }
+    }
+
+    private void commitLaunchEvent(LaunchEvent event, TornadoVMInstruction instruction) {
+        if (event.shouldCommit()) {
+            event.taskGraph = executionContext.getId();
+            event.task = tasks.get(instruction.taskIndex).getId();
+            event.device = getDeviceName();
+            event.batchThreads = instruction.sizeBatch;
+            event.commit();
+        }
+    }
+
+    private void commitBarrierEvent(BarrierEvent event) {
+        if (event.shouldCommit()) {
+            event.taskGraph = executionContext.getId();
+            event.device = getDeviceName();
+            event.commit();
+        }
+    }
+
     private void initWaitEventList() {
         for (int[] waitList : events) {
             Arrays.fill(waitList, -1);
         }
     }
 
-    private int executeAlloc(StringBuilder tornadoVMBytecodeList, int[] args, long sizeBatch) {
-        Object[] objects = new Object[args.length];
-        XPUDeviceBufferState[] objectStates = new XPUDeviceBufferState[args.length];
+    private int executeAlloc(StringBuilder tornadoVMBytecodeList, TornadoVMInstruction instruction) {
+        final int[] args = instruction.objectIndexes;
+        final long sizeBatch = instruction.sizeBatch;
+        final Object[] objects = instruction.allocObjects;
+        final XPUDeviceBufferState[] objectStates = instruction.allocStates;
         for (int i = 0; i < objects.length; i++) {
             objects[i] = this.objects.get(args[i]);
             objectStates[i] = resolveObjectState(args[i]);
@@ -451,15 +747,11 @@ public class TornadoVMInterpreter {
             for (Integer e : allEvents) {
                 Event event = deviceForInterpreter.resolveEvent(executionContext.getExecutionPlanId(), e);
                 event.waitForEvents(executionContext.getExecutionPlanId());
-                long copyInTimer = timeProfiler.getTimer(ProfilerType.COPY_IN_TIME);
-                copyInTimer += event.getElapsedTime();
-                timeProfiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
+                timeProfiler.sum(ProfilerType.COPY_IN_TIME, event.getElapsedTime());
 
                 timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
 
-                long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-                dispatchValue += event.getDriverDispatchTime();
-                timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+                timeProfiler.sum(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, event.getDriverDispatchTime());
             }
         }
     }
@@ -476,7 +768,14 @@ public class TornadoVMInterpreter {
         }
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
+        if (isHostAndDeviceSynchronised(object, objectState, offset, sizeBatch)) {
+            skipTransfer(ProfilerType.TOTAL_COPY_IN_SKIPPED_SIZE_BYTES, objectState);
+            resetEventIndexes(eventList);
+            return;
+        }
+
         List<Integer> allEvents = deviceForInterpreter.streamIn(executionContext.getExecutionPlanId(), object, sizeBatch, offset, objectState, waitList);
+        recordSynchronisation(object, objectState, offset, sizeBatch);
 
         resetEventIndexes(eventList);
 
@@ -484,15 +783,11 @@ public class TornadoVMInterpreter {
             for (Integer e : allEvents) {
                 Event event = deviceForInterpreter.resolveEvent(executionContext.getExecutionPlanId(), e);
                 event.waitForEvents(executionContext.getExecutionPlanId());
-                long copyInTimer = timeProfiler.getTimer(ProfilerType.COPY_IN_TIME);
-                copyInTimer += event.getElapsedTime();
-                timeProfiler.setTimer(ProfilerType.COPY_IN_TIME, copyInTimer);
+                timeProfiler.sum(ProfilerType.COPY_IN_TIME, event.getElapsedTime());
 
                 timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_IN_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
 
-                long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-                dispatchValue += event.getDriverDispatchTime();
-                timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+                timeProfiler.sum(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, event.getDriverDispatchTime());
             }
         }
     }
@@ -512,22 +807,30 @@ public class TornadoVMInterpreter {
         }
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
-        int lastEvent = deviceForInterpreter.streamOutBlocking(executionContext.getExecutionPlanId(), object, offset, objectState, waitList);
+        if (isHostAndDeviceSynchronised(object, objectState, offset, sizeBatch)) {
+            skipTransfer(ProfilerType.TOTAL_COPY_OUT_SKIPPED_SIZE_BYTES, objectState);
+            resetEventIndexes(eventList);
+            return -1;
+        }
+
+        // Copy-outs of the chunks of a pipelined batch do not block the host, so the
+        // next chunk can be enqueued. Java arrays are read blocking, because the GC
+        // can move them while the read is in progress.
+        int lastEvent = (isBatchPipelined() && object instanceof TornadoNativeArray)
+                ? deviceForInterpreter.streamOut(executionContext.getExecutionPlanId(), object, offset, objectState, waitList)
+                : deviceForInterpreter.streamOutBlocking(executionContext.getExecutionPlanId(), object, offset, objectState, waitList);
+        recordCopyToHost(object, objectState, offset, sizeBatch);
 
         resetEventIndexes(eventList);
 
         if (TornadoOptions.isProfilerEnabled() && lastEvent != -1) {
             Event event = deviceForInterpreter.resolveEvent(executionContext.getExecutionPlanId(), lastEvent);
             event.waitForEvents(executionContext.getExecutionPlanId());
-            long value = timeProfiler.getTimer(ProfilerType.COPY_OUT_TIME);
-            value += event.getElapsedTime();
-            timeProfiler.setTimer(ProfilerType.COPY_OUT_TIME, value);
+            timeProfiler.sum(ProfilerType.COPY_OUT_TIME, event.getElapsedTime());
 
             timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_OUT_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
 
-            long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-            dispatchValue += event.getDriverDispatchTime();
-            timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+            timeProfiler.sum(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, event.getDriverDispatchTime());
         }
         return lastEvent;
     }
@@ -548,26 +851,30 @@ public class TornadoVMInterpreter {
         }
 
         final XPUDeviceBufferState objectState = resolveObjectState(objectIndex);
+        if (isHostAndDeviceSynchronised(object, objectState, offset, sizeBatch)) {
+            skipTransfer(ProfilerType.TOTAL_COPY_OUT_SKIPPED_SIZE_BYTES, objectState);
+            resetEventIndexes(eventList);
+            return;
+        }
 
         final int tornadoEventID = deviceForInterpreter.streamOutBlocking(executionContext.getExecutionPlanId(), object, offset, objectState, waitList);
+        recordCopyToHost(object, objectState, offset, sizeBatch);
 
         if (TornadoOptions.isProfilerEnabled() && tornadoEventID != -1) {
             Event event = deviceForInterpreter.resolveEvent(executionContext.getExecutionPlanId(), tornadoEventID);
             event.waitForEvents(executionContext.getExecutionPlanId());
-            long value = timeProfiler.getTimer(ProfilerType.COPY_OUT_TIME);
-            value += event.getElapsedTime();
-            timeProfiler.setTimer(ProfilerType.COPY_OUT_TIME, value);
+            timeProfiler.sum(ProfilerType.COPY_OUT_TIME, event.getElapsedTime());
 
             timeProfiler.addValueToMetric(ProfilerType.TOTAL_COPY_OUT_SIZE_BYTES, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
 
-            long dispatchValue = timeProfiler.getTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME);
-            dispatchValue += event.getDriverDispatchTime();
-            timeProfiler.setTimer(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, dispatchValue);
+            timeProfiler.sum(ProfilerType.TOTAL_DISPATCH_DATA_TRANSFERS_TIME, event.getDriverDispatchTime());
         }
         resetEventIndexes(eventList);
     }
 
-    private XPUExecutionFrame compileTaskFromBytecodeToBinary(final int callWrapperIndex, final int numArgs, final int eventList, final int taskIndex, final long batchThreads) {
+    private KernelStackFrame compileTaskFromBytecodeToBinary(TornadoVMInstruction instruction) {
+        final int taskIndex = instruction.taskIndex;
+        final int localTaskIndex = instruction.localTaskIndex;
 
         if (deviceForInterpreter.getDeviceContext().wasReset() && finishedWarmup) {
             throw new TornadoFailureException("[ERROR] reset() was called after warmup() on device: " + deviceForInterpreter + "!");
@@ -575,10 +882,32 @@ public class TornadoVMInterpreter {
 
         boolean redeployOnDevice = executionContext.redeployOnDevice();
 
-        final KernelStackFrame callWrapper = resolveCallWrapper(callWrapperIndex, numArgs, kernelStackFrame, deviceForInterpreter, redeployOnDevice);
+        final KernelStackFrame callWrapper = resolveCallWrapper(instruction.callWrapperIndex, instruction.getNumArgs(), kernelStackFrame, deviceForInterpreter, redeployOnDevice);
 
-        final int[] waitList = (useDependencies && eventList != -1) ? events[eventList] : null;
         final SchedulableTask task = tasks.get(taskIndex);
+        boolean indexInWrite = prepareTaskForLaunch(instruction, task);
+
+        if (shouldCompile(installedCodes[localTaskIndex])) {
+            installedCodes[localTaskIndex] = installTask(task, taskIndex);
+            // After the compilation has been completed, increment
+            // the batch number of the task and update it.
+            if (indexInWrite) {
+                task.setBatchNumber(task.getBatchNumber() + 1);
+            }
+        }
+        return callWrapper;
+    }
+
+    /**
+     * Sets the batch, scheduler and profiler information of a task before it is
+     * launched, and invalidates its kernel if it must be specialised again.
+     *
+     * @return true if the loop index of the task is written in an output buffer.
+     */
+    private boolean prepareTaskForLaunch(TornadoVMInstruction instruction, SchedulableTask task) {
+        final int localTaskIndex = instruction.localTaskIndex;
+        final long batchThreads = instruction.sizeBatch;
+
         int currentBatch = task.getBatchNumber();
         TaskMetaDataInterface meta = task.meta();
         meta.setPrintKernelFlag(executionContext.meta().isPrintKernelEnabled());
@@ -586,10 +915,15 @@ public class TornadoVMInterpreter {
         boolean indexInWrite = deviceForInterpreter.loopIndexInWrite(task);
         // Check if a different batch size was used for the same kernel or
         // if the loop index is written in the output buffer, and we are not in the first batch.
-        // If any is true, then the kernel needs to be recompiled.
-        if ((!shouldCompile(installedCodes[globalToLocalTaskIndex(taskIndex)]) && task.getBatchThreads() != 0 && task.getBatchThreads() != batchThreads) || (currentBatch > 0 && indexInWrite)) {
+        // If any is true, then the kernel needs to be specialised again.
+        if ((!shouldCompile(installedCodes[localTaskIndex]) && task.getBatchThreads() != 0 && task.getBatchThreads() != batchThreads) || (currentBatch > 0 && indexInWrite)) {
             task.forceCompilation();
-            installedCodes[globalToLocalTaskIndex(taskIndex)].invalidate();
+            if (KernelVariantCache.isEnabled()) {
+                // The kernel is kept by the device, and it is reused when the batch comes back
+                installedCodes[localTaskIndex] = null;
+            } else if (installedCodes[localTaskIndex] != null) {
+                installedCodes[localTaskIndex].invalidate();
+            }
         }
 
         // Set the batch size in the task information
@@ -603,6 +937,9 @@ public class TornadoVMInterpreter {
         }
 
         task.setBatchNumber(currentBatch);
+        if (batchConfiguration != null) {
+            task.setBatchNumElements(batchConfiguration.getNumElements());
+        }
         task.enableDefaultThreadScheduler(executionContext.useDefaultThreadScheduler());
 
         if (gridScheduler != null && gridScheduler.get(task.getId()) != null) {
@@ -616,58 +953,125 @@ public class TornadoVMInterpreter {
             timeProfiler.registerDeviceID(task.getId(), task.meta().getBackendIndex() + ":" + task.meta().getDeviceIndex());
             timeProfiler.registerDeviceName(task.getId(), task.getDevice().getPhysicalDevice().getDeviceName());
         }
+        return indexInWrite;
+    }
 
-        if (shouldCompile(installedCodes[globalToLocalTaskIndex(taskIndex)])) {
-            task.mapTo(deviceForInterpreter);
-            try {
-                task.attachProfiler(timeProfiler);
-                if (taskIndex == (tasks.size() - 1)) {
-                    // If it is the last task within the task-schedule or doUpdate is true -> we
-                    // force compilation. This is useful when compiling code for Xilinx/Altera
-                    // FPGAs, that has to be a single source.
-                    task.forceCompilation();
-                }
-
-                installedCodes[globalToLocalTaskIndex(taskIndex)] = deviceForInterpreter.installCode(task);
-                profilerUpdateForPreCompiledTask(task);
-                // After the compilation has been completed, increment
-                // the batch number of the task and update it.
-                if (indexInWrite) {
-                    task.setBatchNumber(++currentBatch);
-                }
-            } catch (TornadoBailoutRuntimeException e) {
-                throw new TornadoBailoutRuntimeException("Unable to compile " + task.getFullName() + "\n" + "The internal error is: " + e.getMessage() + "\n" + "Stacktrace: " + Arrays.toString(e
-                        .getStackTrace()), e);
-            } catch (TornadoDeviceFP64NotSupported e) {
-                throw e;
-            } catch (InternalError e) {
-                throw new TornadoBailoutRuntimeException("[Internal Error] Unable to compile " + task.getFullName() + "\n" + Arrays.toString(e.getStackTrace()));
+    private TornadoInstalledCode installTask(SchedulableTask task, int taskIndex) {
+        task.mapTo(deviceForInterpreter);
+        try {
+            task.attachProfiler(timeProfiler);
+            if (taskIndex == (tasks.size() - 1)) {
+                // If it is the last task within the task-schedule or doUpdate is true -> we
+                // force compilation. This is useful when compiling code for Xilinx/Altera
+                // FPGAs, that has to be a single source.
+                task.forceCompilation();
             }
+
+            TornadoInstalledCode installedCode = deviceForInterpreter.installCode(task);
+            profilerUpdateForPreCompiledTask(task);
+            return installedCode;
+        } catch (TornadoBailoutRuntimeException e) {
+            throw new TornadoBailoutRuntimeException("Unable to compile " + task.getFullName() + "\n" + "The internal error is: " + e.getMessage() + "\n" + "Stacktrace: " + Arrays.toString(e
+                    .getStackTrace()), e);
+        } catch (TornadoDeviceFP64NotSupported e) {
+            throw e;
+        } catch (InternalError e) {
+            throw new TornadoBailoutRuntimeException("[Internal Error] Unable to compile " + task.getFullName() + "\n" + Arrays.toString(e.getStackTrace()));
         }
-        return new XPUExecutionFrame(callWrapper, waitList);
     }
 
-    private void popArgumentsFromCall(int numArgs) {
-        for (int i = 0; i < numArgs; i++) {
-            bytecodeResult.get();
-            bytecodeResult.getInt();
+    /**
+     * Compiles, on the compiler threads, all the tasks of the interpreter that
+     * have no kernel yet, before the first launch. Compiling a task runs the
+     * Graal pipeline and then the driver build, and both are independent across
+     * tasks, so a graph of N tasks is compiled in about the time of its slowest
+     * task instead of the sum of all of them.
+     *
+     * <p>
+     * Batched graphs, FPGAs (which compile all tasks in a single source), tasks
+     * that write the loop index (which are specialised per batch) and backends
+     * that cannot compile concurrently
+     * ({@link TornadoXPUDevice#isConcurrentCompilationSupported()}) are compiled
+     * when they are launched, as before.
+     * </p>
+     */
+    private void compileTasksAheadOfLaunch() {
+        if (TornadoOptions.TORNADO_COMPILER_THREADS <= 1 || batchConfiguration != null || !deviceForInterpreter.isConcurrentCompilationSupported() || deviceForInterpreter.getDeviceContext()
+                .isPlatformFPGA()) {
+            return;
+        }
+        if (deviceForInterpreter.getDeviceContext().wasReset() && finishedWarmup) {
+            // The launch reports the error
+            return;
+        }
+
+        final BitSet visited = new BitSet(installedCodes.length);
+        final List<TornadoVMInstruction> pending = new ArrayList<>();
+        for (TornadoVMInstruction instruction : instructions) {
+            if (instruction.op != TornadoVMBytecodes.LAUNCH || visited.get(instruction.localTaskIndex)) {
+                continue;
+            }
+            visited.set(instruction.localTaskIndex);
+            SchedulableTask task = tasks.get(instruction.taskIndex);
+            if (shouldCompile(installedCodes[instruction.localTaskIndex]) && task instanceof CompilableTask && !deviceForInterpreter.loopIndexInWrite(task)) {
+                pending.add(instruction);
+            }
+        }
+        if (pending.size() < 2) {
+            return;
+        }
+
+        final ExecutorService compiler = TornadoCoreRuntime.getTornadoCompilerExecutor();
+        final List<Future<TornadoInstalledCode>> compilations = new ArrayList<>(pending.size());
+        for (TornadoVMInstruction instruction : pending) {
+            final SchedulableTask task = tasks.get(instruction.taskIndex);
+            prepareTaskForLaunch(instruction, task);
+            compilations.add(compiler.submit(() -> installTask(task, instruction.taskIndex)));
+        }
+
+        // Wait for all the compilations, even if one fails, so that no compiler
+        // thread is still using the tasks when the exception is propagated.
+        Throwable failure = null;
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                installedCodes[pending.get(i).localTaskIndex] = compilations.get(i).get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                compilations.forEach(compilation -> compilation.cancel(true));
+                throw new TornadoRuntimeException(e);
+            }
+        }
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (failure instanceof Error error) {
+            throw error;
+        } else if (failure != null) {
+            throw new TornadoRuntimeException((Exception) failure);
         }
     }
 
-    private int executeLaunch(StringBuilder tornadoVMBytecodeList, final int numArgs, final int eventList, final int taskIndex, final long batchThreads, final long offset,
-            XPUExecutionFrame executionFrame) {
+    private int executeLaunch(StringBuilder tornadoVMBytecodeList, TornadoVMInstruction instruction, KernelStackFrame stackFrame) {
+        final int numArgs = instruction.getNumArgs();
+        final int eventList = instruction.eventList;
+        final int taskIndex = instruction.taskIndex;
+        final int localTaskIndex = instruction.localTaskIndex;
+        final long batchThreads = instruction.sizeBatch;
+        final long offset = instruction.offset;
+        final int[] waitList = instruction.waitList;
 
         final SchedulableTask task = tasks.get(taskIndex);
-        KernelStackFrame stackFrame = executionFrame.stackFrame;
-        int[] waitList = executionFrame.waitList;
 
-        if (installedCodes[globalToLocalTaskIndex(taskIndex)] == null) {
+        if (installedCodes[localTaskIndex] == null) {
             // After warming-up, it is possible to get a null pointer in the task-cache due
             // to lazy compilation for FPGAs. In tha case, we check again the code cache.
-            installedCodes[globalToLocalTaskIndex(taskIndex)] = deviceForInterpreter.getCodeFromCache(task);
+            installedCodes[localTaskIndex] = deviceForInterpreter.getCodeFromCache(task);
         }
 
-        final TornadoInstalledCode installedCode = installedCodes[globalToLocalTaskIndex(taskIndex)];
+        final TornadoInstalledCode installedCode = installedCodes[localTaskIndex];
 
         if (installedCode == null) {
             throw new TornadoBailoutRuntimeException("Code generator Failed");
@@ -677,7 +1081,8 @@ public class TornadoVMInterpreter {
 
         atomicsArray = (task instanceof PrebuiltTask prebuiltTask) ? prebuiltTask.getAtomics() : deviceForInterpreter.checkAtomicsForTask(task);
 
-        HashMap<Integer, Integer> threadDeploy = new HashMap<>();
+        HashMap<Integer, Integer> threadDeploy = instruction.threadDeploy;
+        threadDeploy.clear();
         if (gridScheduler != null && gridScheduler.get(task.getId()) != null) {
             WorkerGrid workerGrid = gridScheduler.get(task.getId());
             long[] global = workerGrid.getGlobalWork();
@@ -685,6 +1090,12 @@ public class TornadoVMInterpreter {
             for (long maxThread : global) {
                 threadDeploy.put(i++, (int) maxThread);
             }
+        } else if (task.meta() instanceof TaskMetaData taskMeta && taskMeta.hasDynamicLoopBounds()) {
+            // Size-generic kernel: the bounds of the parallel loops are taken from the arguments
+            int[] bounds = taskMeta.getDynamicLoopBounds().resolve(task.getArguments());
+            for (int i = 0; i < bounds.length; i++) {
+                threadDeploy.put(i, bounds[i]);
+            }
         }
         stackFrame.reset();
         stackFrame.setKernelContext(threadDeploy);
@@ -692,8 +1103,8 @@ public class TornadoVMInterpreter {
         XPUBuffer bufferAtomics = null;
 
         for (int i = 0; i < numArgs; i++) {
-            final byte argType = bytecodeResult.get();
-            final int argIndex = bytecodeResult.getInt();
+            final byte argType = instruction.argTypes[i];
+            final int argIndex = instruction.argIndexes[i];
 
             if (argType == TornadoVMBytecodes.PUSH_CONSTANT_ARGUMENT.value()) {
                 // Add a constant argument
@@ -706,8 +1117,7 @@ public class TornadoVMInterpreter {
                     continue;
                 }
 
-                final DataObjectState globalState = resolveGlobalObjectState(argIndex);
-                final XPUDeviceBufferState objectState = globalState.getDeviceBufferState(deviceForInterpreter);
+                final XPUDeviceBufferState objectState = resolveObjectState(argIndex);
 
                 if (!isObjectInAtomicRegion(objectState, deviceForInterpreter, task)) {
                     // Add a reference (arrays, vector types, panama regions)
@@ -727,9 +1137,7 @@ public class TornadoVMInterpreter {
                 for (Integer e : allEvents) {
                     Event event = deviceForInterpreter.resolveEvent(executionContext.getExecutionPlanId(), e);
                     event.waitForEvents(executionContext.getExecutionPlanId());
-                    long value = timeProfiler.getTimer(ProfilerType.COPY_IN_TIME);
-                    value += event.getElapsedTime();
-                    timeProfiler.setTimer(ProfilerType.COPY_IN_TIME, value);
+                    timeProfiler.sum(ProfilerType.COPY_IN_TIME, event.getElapsedTime());
                 }
             }
             if (TornadoOptions.PRINT_BYTECODES) {
@@ -763,6 +1171,9 @@ public class TornadoVMInterpreter {
                     ? installedCode.launchWithDependencies(executionContext.getExecutionPlanId(), stackFrame, bufferAtomics, metadata, batchThreads, waitList)
                     : installedCode.launchWithoutDependencies(executionContext.getExecutionPlanId(), stackFrame, bufferAtomics, metadata, batchThreads);
 
+            if (TornadoOptions.SKIP_UNMODIFIED_TRANSFERS) {
+                invalidateWrittenObjects(instruction, task);
+            }
             resetEventIndexes(eventList);
             return lastEvent;
         } catch (Exception e) {
@@ -805,9 +1216,84 @@ public class TornadoVMInterpreter {
     }
 
     private XPUDeviceBufferState resolveObjectState(int index) {
+        if (isBatchPipelined() && batchConfiguration.isPartitioned(index)) {
+            return batchBufferStates[currentChunk % batchBufferStates.length][index];
+        }
         return dataObjectStates[index].getDeviceBufferState(deviceForInterpreter);
     }
 
+    /**
+     * Whether a full copy between the host and the device can be skipped because
+     * the host array has not been modified since both were known to hold the same
+     * contents.
+     */
+    private boolean isHostAndDeviceSynchronised(Object object, XPUDeviceBufferState objectState, long offset, long sizeBatch) {
+        return TornadoOptions.SKIP_UNMODIFIED_TRANSFERS && offset == 0 && sizeBatch <= 0 && object instanceof TornadoNativeArray nativeArray && nativeArray.isModificationTracked()
+                && objectState.getSynchronisedModificationCount() == nativeArray.getModificationCount();
+    }
+
+    private void recordSynchronisation(Object object, XPUDeviceBufferState objectState, long offset, long sizeBatch) {
+        if (TornadoOptions.SKIP_UNMODIFIED_TRANSFERS && object instanceof TornadoNativeArray nativeArray) {
+            boolean fullCopy = offset == 0 && sizeBatch <= 0 && nativeArray.isModificationTracked();
+            objectState.setSynchronisedModificationCount(fullCopy ? nativeArray.getModificationCount() : XPUDeviceBufferState.UNSYNCHRONISED);
+        }
+    }
+
+    /**
+     * A copy to the host writes the host array. It is recorded as a modification,
+     * so the device buffers that other execution plans hold for the same array
+     * are no longer considered synchronised with it.
+     */
+    private void recordCopyToHost(Object object, XPUDeviceBufferState objectState, long offset, long sizeBatch) {
+        if (object instanceof TornadoNativeArray nativeArray) {
+            nativeArray.markAsModified();
+        }
+        recordSynchronisation(object, objectState, offset, sizeBatch);
+    }
+
+    private void skipTransfer(ProfilerType skippedBytesMetric, XPUDeviceBufferState objectState) {
+        transferSkipped = true;
+        if (TornadoOptions.isProfilerEnabled()) {
+            timeProfiler.addValueToMetric(skippedBytesMetric, TimeProfiler.NO_TASK_NAME, objectState.getXPUBuffer().size());
+        }
+    }
+
+    /**
+     * After a launch, the device buffers of the native arrays that the task can
+     * write no longer hold the contents of the host arrays.
+     */
+    private void invalidateWrittenObjects(TornadoVMInstruction instruction, SchedulableTask task) {
+        final Access[] accesses = argumentsAccesses.computeIfAbsent(task, TornadoVMInterpreter::resolveArgumentsAccess);
+        final Object[] arguments = task.getArguments();
+        for (int i = 0; i < instruction.getNumArgs(); i++) {
+            if (instruction.argTypes[i] == TornadoVMBytecodes.PUSH_REFERENCE_ARGUMENT.value() && objects.get(instruction.argIndexes[i]) instanceof TornadoNativeArray nativeArray && !isReadOnly(
+                    nativeArray, arguments, accesses)) {
+                resolveObjectState(instruction.argIndexes[i]).setSynchronisedModificationCount(XPUDeviceBufferState.UNSYNCHRONISED);
+            }
+        }
+    }
+
+    private static Access[] resolveArgumentsAccess(SchedulableTask task) {
+        if (task instanceof CompilableTask compilableTask) {
+            ResolvedJavaMethod resolvedMethod = TornadoCoreRuntime.getTornadoRuntime().resolveMethod(compilableTask.getMethod());
+            return TornadoSketcher.lookup(resolvedMethod, task.meta().getBackendIndex(), task.meta().getDeviceIndex()).getArgumentsAccess();
+        }
+        return task.getArgumentsAccess();
+    }
+
+    private static boolean isReadOnly(Object object, Object[] arguments, Access[] accesses) {
+        boolean found = false;
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] == object) {
+                if (accesses == null || i >= accesses.length || accesses[i] != Access.READ_ONLY) {
+                    return false;
+                }
+                found = true;
+            }
+        }
+        return found;
+    }
+
     private boolean isObjectKernelContext(Object object) {
         return (object instanceof KernelContext);
     }
@@ -856,10 +1342,6 @@ public class TornadoVMInterpreter {
         }
     }
 
-    private DataObjectState resolveGlobalObjectState(int index) {
-        return dataObjectStates[index];
-    }
-
     private boolean isObjectInAtomicRegion(XPUDeviceBufferState objectState, TornadoXPUDevice device, SchedulableTask task) {
         return objectState.isAtomicRegionPresent() && device.checkAtomicsParametersForTask(task);
     }
@@ -876,16 +1358,6 @@ public class TornadoVMInterpreter {
         Arrays.fill(installedCodes, null);
     }
 
-    private static class XPUExecutionFrame {
-        private KernelStackFrame stackFrame;
-        private int[] waitList;
-
-        XPUExecutionFrame(KernelStackFrame callWrapper, int[] waitList) {
-            this.stackFrame = callWrapper;
-            this.waitList = waitList;
-        }
-    }
-
     private static class DebugInterpreter {
         static void logTransferToDeviceOnce(List<Integer> allEvents, Object object, TornadoXPUDevice deviceForInterpreter, long sizeBatch, long offset, final int eventList,
                 StringBuilder tornadoVMBytecodeList) {
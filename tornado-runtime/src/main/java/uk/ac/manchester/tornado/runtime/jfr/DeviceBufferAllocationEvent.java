@@ -0,0 +1,76 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a request of a device buffer to the buffer provider of a
+ * device.
+ */
+@Name("uk.ac.manchester.tornado.DeviceBufferAllocation")
+@Label("Device Buffer Allocation")
+@Category({ "TornadoVM", "Memory" })
+@Description("Request of a device buffer, served from an arena, from the buffer cache or by the driver")
+@StackTrace(false)
+public final class DeviceBufferAllocationEvent extends Event {
+
+    public static final String ARENA = "arena";
+    public static final String CACHE = "cache";
+    public static final String DEVICE = "device";
+
+    @Label("Device")
+    public String device;
+
+    @Label("Requested Size")
+    @DataAmount
+    public long requestedSize;
+
+    @Label("Buffer Size")
+    @DataAmount
+    public long bufferSize;
+
+    @Label("Source")
+    @Description("Where the buffer comes from: arena, cache or device")
+    public String source;
+
+    /**
+     * Commits the event, if it is enabled and exceeds its threshold.
+     */
+    public void commit(String device, long requestedSize, long bufferSize, String source) {
+        if (shouldCommit()) {
+            this.device = device;
+            this.requestedSize = requestedSize;
+            this.bufferSize = bufferSize;
+            this.source = source;
+            commit();
+        }
+    }
+}
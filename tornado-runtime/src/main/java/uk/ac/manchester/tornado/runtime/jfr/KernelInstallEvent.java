@@ -0,0 +1,83 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the installation of a kernel in the code cache of a backend.
+ * The duration includes the build of the generated code by the driver.
+ */
+@Name("uk.ac.manchester.tornado.KernelInstall")
+@Label("Kernel Install")
+@Category({ "TornadoVM", "Compiler" })
+@Description("Build of a kernel by the driver and installation in the code cache")
+@StackTrace(false)
+public final class KernelInstallEvent extends Event {
+
+    @Label("Backend")
+    public String backend;
+
+    @Label("Device")
+    public String device;
+
+    @Label("Task")
+    public String task;
+
+    @Label("Entry Point")
+    public String entryPoint;
+
+    @Label("Code Size")
+    @DataAmount
+    public long codeSize;
+
+    @Label("Binary")
+    @Description("The kernel was installed from a binary instead of from source")
+    public boolean binary;
+
+    @Label("Success")
+    public boolean success;
+
+    /**
+     * Commits the event, if it is enabled and exceeds its threshold.
+     */
+    public void commit(String backend, String device, String task, String entryPoint, long codeSize, boolean binary, boolean success) {
+        if (shouldCommit()) {
+            this.backend = backend;
+            this.device = device;
+            this.task = task;
+            this.entryPoint = entryPoint;
+            this.codeSize = codeSize;
+            this.binary = binary;
+            this.success = success;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the LAUNCH bytecode of the TornadoVM interpreter. The duration
+ * is the time to enqueue the kernel.
+ */
+@Name("uk.ac.manchester.tornado.Launch")
+@Label("Kernel Launch")
+@Category({ "TornadoVM", "Interpreter" })
+@Description("Launch of a task on a device (LAUNCH bytecode). Kernels are timed until they are enqueued")
+@StackTrace(false)
+public final class LaunchEvent extends Event {
+
+    @Label("Task Graph")
+    public String taskGraph;
+
+    @Label("Task")
+    public String task;
+
+    @Label("Device")
+    public String device;
+
+    @Label("Batch Threads")
+    @Description("Number of threads of the batch, or 0 if the task-graph is not batched")
+    public long batchThreads;
+}
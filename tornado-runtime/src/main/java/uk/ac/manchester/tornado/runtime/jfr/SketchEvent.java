@@ -0,0 +1,55 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the construction of a sketch by the
+ * {@link uk.ac.manchester.tornado.runtime.sketcher.TornadoSketcher}.
+ */
+@Name("uk.ac.manchester.tornado.Sketch")
+@Label("Sketch Build")
+@Category({ "TornadoVM", "Compiler" })
+@Description("Construction of the device-independent graph of a method")
+@StackTrace(false)
+public final class SketchEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Backend Index")
+    public int backendIndex;
+
+    @Label("Device Index")
+    public int deviceIndex;
+
+    @Label("Nodes")
+    public int nodes;
+}
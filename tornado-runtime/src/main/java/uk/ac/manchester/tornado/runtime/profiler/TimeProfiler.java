@@ -23,13 +23,25 @@
  */
 package uk.ac.manchester.tornado.runtime.profiler;
 
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.runtime.common.RuntimeUtilities;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 
+/**
+ * Profiler of a task-graph. Timers are stored in atomic arrays indexed by
+ * {@link ProfilerType}, and per-task records are created once and published
+ * through a {@link ConcurrentHashMap}, so recording a timer never takes a lock.
+ * Besides the last value of every timer, the profiler keeps a
+ * {@link LatencyHistogram} per task and timer that survives
+ * {@link #clean()}, so tail latencies can be queried across executions.
+ */
 public class TimeProfiler implements TornadoProfiler {
 
     /**
@@ -39,263 +51,309 @@ public class TimeProfiler implements TornadoProfiler {
      */
     public static String NO_TASK_NAME = "noTask";
 
-    private HashMap<ProfilerType, Long> profilerTime;
-    private HashMap<String, HashMap<ProfilerType, Long>> taskTimers;
-    private HashMap<String, HashMap<ProfilerType, String>> taskPowerMetrics;
-    private HashMap<String, HashMap<ProfilerType, Long>> taskThroughputMetrics;
-    private HashMap<String, HashMap<ProfilerType, String>> taskDeviceIdentifiers;
-    private HashMap<String, HashMap<ProfilerType, String>> taskMethodNames;
-
-    private HashMap<String, HashMap<ProfilerType, String>> taskBackends;
+    private static final ProfilerType[] PROFILER_TYPES = ProfilerType.values();
 
-    private StringBuilder indent;
+    private final Timers profilerTime;
+    private final ConcurrentHashMap<String, TaskProfile> taskProfiles;
 
     public TimeProfiler() {
-        profilerTime = new HashMap<>();
-        taskTimers = new HashMap<>();
-        taskPowerMetrics = new HashMap<>();
-        taskDeviceIdentifiers = new HashMap<>();
-        taskMethodNames = new HashMap<>();
-        taskThroughputMetrics = new HashMap<>();
-        taskBackends = new HashMap<>();
-        indent = new StringBuilder("");
+        profilerTime = new Timers();
+        taskProfiles = new ConcurrentHashMap<>();
     }
 
-    @Override
-    public synchronized void addValueToMetric(ProfilerType type, String taskName, long value) {
-        if (!taskThroughputMetrics.containsKey(taskName)) {
-            taskThroughputMetrics.put(taskName, new HashMap<>());
+    /**
+     * Last value of each {@link ProfilerType}. A bit mask records the timers that
+     * have been set, so unset timers are not reported.
+     */
+    private static final class Timers {
+        private final AtomicLongArray values = new AtomicLongArray(PROFILER_TYPES.length);
+        private final AtomicLong present = new AtomicLong();
+
+        private void mark(int index) {
+            final long bit = 1L << index;
+            if ((present.get() & bit) == 0) {
+                present.getAndAccumulate(bit, (mask, b) -> mask | b);
+            }
+        }
+
+        void set(ProfilerType type, long value) {
+            values.set(type.ordinal(), value);
+            mark(type.ordinal());
+        }
+
+        void add(ProfilerType type, long value) {
+            values.addAndGet(type.ordinal(), value);
+            mark(type.ordinal());
+        }
+
+        boolean contains(ProfilerType type) {
+            return (present.get() & (1L << type.ordinal())) != 0;
+        }
+
+        long get(ProfilerType type) {
+            return contains(type) ? values.get(type.ordinal()) : 0;
+        }
+
+        boolean isEmpty() {
+            return present.get() == 0;
+        }
+
+        void clear() {
+            present.set(0);
+            for (int i = 0; i < PROFILER_TYPES.length; i++) {
+                values.set(i, 0);
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("{");
+            for (ProfilerType type : PROFILER_TYPES) {
+                if (contains(type)) {
+                    builder.append(builder.length() > 1 ? ", " : "").append(type).append("=").append(get(type));
+                }
+            }
+            return builder.append("}").toString();
+        }
+    }
+
+    /**
+     * Metrics of a single task, or of the task-graph for {@link #NO_TASK_NAME}.
+     */
+    private static final class TaskProfile {
+        private final Timers timers = new Timers();
+        private final Timers throughputMetrics = new Timers();
+        private final AtomicReferenceArray<String> powerMetrics = new AtomicReferenceArray<>(PROFILER_TYPES.length);
+        private final AtomicReferenceArray<String> descriptors = new AtomicReferenceArray<>(PROFILER_TYPES.length);
+        private final AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<>(PROFILER_TYPES.length);
+
+        String getDescriptor(ProfilerType type) {
+            return descriptors.get(type.ordinal());
+        }
+
+        void setDescriptor(ProfilerType type, String value) {
+            descriptors.set(type.ordinal(), value);
+        }
+
+        LatencyHistogram histogram(ProfilerType type) {
+            LatencyHistogram histogram = histograms.get(type.ordinal());
+            if (histogram == null) {
+                histograms.compareAndSet(type.ordinal(), null, new LatencyHistogram());
+                histogram = histograms.get(type.ordinal());
+            }
+            return histogram;
         }
-        HashMap<ProfilerType, Long> profilerType = taskThroughputMetrics.get(taskName);
-        profilerType.put(type, profilerType.get(type) != null ? profilerType.get(type) + value : value);
-        taskThroughputMetrics.put(taskName, profilerType);
+    }
+
+    private TaskProfile taskProfile(String taskName) {
+        final String name = taskName != null ? taskName : NO_TASK_NAME;
+        TaskProfile profile = taskProfiles.get(name);
+        if (profile == null) {
+            profile = taskProfiles.computeIfAbsent(name, k -> new TaskProfile());
+        }
+        return profile;
     }
 
     @Override
-    public synchronized void start(ProfilerType type) {
-        long start = System.nanoTime();
-        profilerTime.put(type, start);
+    public void addValueToMetric(ProfilerType type, String taskName, long value) {
+        taskProfile(taskName).throughputMetrics.add(type, value);
     }
 
     @Override
-    public synchronized void start(ProfilerType type, String taskName) {
+    public void start(ProfilerType type) {
         long start = System.nanoTime();
-        if (!taskTimers.containsKey(taskName)) {
-            taskTimers.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, Long> profilerType = taskTimers.get(taskName);
-        profilerType.put(type, start);
-        taskTimers.put(taskName, profilerType);
+        profilerTime.set(type, start);
     }
 
     @Override
-    public synchronized void registerMethodHandle(ProfilerType type, String taskName, String methodName) {
-        if (!taskMethodNames.containsKey(taskName)) {
-            taskMethodNames.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskMethodNames.get(taskName);
-        profilerType.put(type, methodName);
-        taskMethodNames.put(methodName, profilerType);
+    public void start(ProfilerType type, String taskName) {
+        long start = System.nanoTime();
+        taskProfile(taskName).timers.set(type, start);
     }
 
     @Override
-    public synchronized void registerDeviceName(String taskName, String deviceInfo) {
-        if (!taskDeviceIdentifiers.containsKey(taskName)) {
-            taskDeviceIdentifiers.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskDeviceIdentifiers.get(taskName);
-        profilerType.put(ProfilerType.DEVICE, deviceInfo);
-        taskDeviceIdentifiers.put(taskName, profilerType);
+    public void registerMethodHandle(ProfilerType type, String taskName, String methodName) {
+        taskProfile(taskName).setDescriptor(type, methodName);
     }
 
     @Override
-    public synchronized void registerBackend(String taskName, String backend) {
-        if (!taskBackends.containsKey(taskName)) {
-            taskBackends.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskBackends.get(taskName);
+    public void registerDeviceName(String taskName, String deviceInfo) {
+        taskProfile(taskName).setDescriptor(ProfilerType.DEVICE, deviceInfo);
+    }
 
-        profilerType.put(ProfilerType.BACKEND, backend);
-        taskBackends.put(taskName, profilerType);
+    @Override
+    public void registerBackend(String taskName, String backend) {
+        taskProfile(taskName).setDescriptor(ProfilerType.BACKEND, backend);
     }
 
     @Override
-    public synchronized void registerDeviceID(String taskName, String deviceID) {
-        if (!taskDeviceIdentifiers.containsKey(taskName)) {
-            taskDeviceIdentifiers.put(taskName, new HashMap<>());
-        }
-        HashMap<ProfilerType, String> profilerType = taskDeviceIdentifiers.get(taskName);
-        profilerType.put(ProfilerType.DEVICE_ID, deviceID);
-        taskDeviceIdentifiers.put(taskName, profilerType);
+    public void registerDeviceID(String taskName, String deviceID) {
+        taskProfile(taskName).setDescriptor(ProfilerType.DEVICE_ID, deviceID);
     }
 
     @Override
-    public synchronized void stop(ProfilerType type) {
+    public void stop(ProfilerType type) {
         long end = System.nanoTime();
-        long start = profilerTime.get(type);
-        long total = end - start;
-        profilerTime.put(type, total);
+        long total = end - profilerTime.get(type);
+        profilerTime.set(type, total);
+        taskProfile(NO_TASK_NAME).histogram(type).record(total);
     }
 
     @Override
-    public synchronized void stop(ProfilerType type, String taskName) {
+    public void stop(ProfilerType type, String taskName) {
         long end = System.nanoTime();
-        HashMap<ProfilerType, Long> profiledType = taskTimers.get(taskName);
-        long start = profiledType.get(type);
-        long total = end - start;
-        profiledType.put(type, total);
-        taskTimers.put(taskName, profiledType);
+        TaskProfile profile = taskProfile(taskName);
+        long total = end - profile.timers.get(type);
+        profile.timers.set(type, total);
+        profile.histogram(type).record(total);
     }
 
     @Override
     public long getTimer(ProfilerType type) {
-        if (!profilerTime.containsKey(type)) {
-            return 0;
-        }
         return profilerTime.get(type);
     }
 
     @Override
     public long getTaskTimer(ProfilerType type, String taskName) {
-        if (!taskTimers.containsKey(taskName)) {
-            return 0;
-        }
-        if (!taskTimers.get(taskName).containsKey(type)) {
-            return 0;
-        }
-        return taskTimers.get(taskName).get(type);
+        TaskProfile profile = taskProfiles.get(taskName);
+        return profile != null ? profile.timers.get(type) : 0;
     }
 
     @Override
-    public synchronized void setTimer(ProfilerType type, long time) {
-        profilerTime.put(type, time);
+    public void setTimer(ProfilerType type, long time) {
+        profilerTime.set(type, time);
     }
 
     @Override
-    public synchronized void dump() {
-        for (ProfilerType p : profilerTime.keySet()) {
-            System.out.println("[PROFILER] " + p.getDescription() + ": " + profilerTime.get(p));
+    public void dump() {
+        for (ProfilerType p : PROFILER_TYPES) {
+            if (profilerTime.contains(p)) {
+                System.out.println("[PROFILER] " + p.getDescription() + ": " + profilerTime.get(p));
+            }
         }
 
-        for (String p : taskTimers.keySet()) {
-            System.out.println("[PROFILER-TASK] " + p + ": " + taskTimers.get(p));
-
-        }
-    }
-
-    private void increaseIndent() {
-        indent.append("    ");
+        taskProfiles.forEach((p, profile) -> {
+            if (!profile.timers.isEmpty()) {
+                System.out.println("[PROFILER-TASK] " + p + ": " + profile.timers);
+            }
+        });
     }
 
-    private void decreaseIndent() {
-        indent.delete(indent.length() - 4, indent.length());
+    private static void closeScope(StringBuilder json, String indent) {
+        json.append(indent + "}");
     }
 
-    private void closeScope(StringBuilder json) {
-        json.append(indent.toString() + "}");
+    private static void newLine(StringBuilder json) {
+        json.append("\n");
     }
 
-    private void newLine(StringBuilder json) {
-        json.append("\n");
+    private static void appendMetrics(StringBuilder json, String indent, Timers metrics) {
+        for (ProfilerType p : PROFILER_TYPES) {
+            if (metrics.contains(p)) {
+                json.append(indent + "\"" + p + "\"" + ": " + "\"" + metrics.get(p) + "\",\n");
+            }
+        }
     }
 
     @Override
     public String createJson(StringBuilder json, String sectionName) {
+        final String indent1 = "    ";
+        final String indent2 = indent1 + "    ";
+        final String indent3 = indent2 + "    ";
         json.append("{\n");
-        increaseIndent();
-        json.append(indent.toString() + "\"" + sectionName + "\": " + "{\n");
-        increaseIndent();
-        for (ProfilerType p : profilerTime.keySet()) {
-            json.append(indent.toString() + "\"" + p + "\"" + ": " + "\"" + profilerTime.get(p) + "\",\n");
-        }
-        if (taskThroughputMetrics.containsKey(NO_TASK_NAME)) {
-            HashMap<ProfilerType, Long> noTaskValues = taskThroughputMetrics.get(NO_TASK_NAME);
-            for (ProfilerType p : noTaskValues.keySet()) {
-                json.append(indent.toString() + "\"" + p + "\"" + ": " + "\"" + noTaskValues.get(p) + "\",\n");
-            }
+        json.append(indent1 + "\"" + sectionName + "\": " + "{\n");
+        appendMetrics(json, indent2, profilerTime);
+        TaskProfile noTask = taskProfiles.get(NO_TASK_NAME);
+        if (noTask != null) {
+            appendMetrics(json, indent2, noTask.throughputMetrics);
         }
 
-        final int size = taskTimers.keySet().size();
+        final int size = (int) taskProfiles.values().stream().filter(profile -> !profile.timers.isEmpty()).count();
         int counter = 0;
-        for (String p : taskTimers.keySet()) {
-            json.append(indent.toString() + "\"" + p + "\"" + ": {\n");
-            increaseIndent();
+        for (var entry : taskProfiles.entrySet()) {
+            final String p = entry.getKey();
+            final TaskProfile profile = entry.getValue();
+            if (profile.timers.isEmpty()) {
+                continue;
+            }
+            json.append(indent2 + "\"" + p + "\"" + ": {\n");
             counter++;
             if (TornadoOptions.LOG_IP) {
-                json.append(indent.toString() + "\"" + "IP" + "\"" + ": " + "\"" + RuntimeUtilities.getTornadoInstanceIP() + "\",\n");
+                json.append(indent3 + "\"" + "IP" + "\"" + ": " + "\"" + RuntimeUtilities.getTornadoInstanceIP() + "\",\n");
             }
-            json.append(indent.toString() + "\"" + ProfilerType.BACKEND + "\"" + ": " + "\"" + taskBackends.get(p).get(ProfilerType.BACKEND) + "\",\n");
-            json.append(indent.toString() + "\"" + ProfilerType.METHOD + "\"" + ": " + "\"" + taskMethodNames.get(p).get(ProfilerType.METHOD) + "\",\n");
-            json.append(indent.toString() + "\"" + ProfilerType.DEVICE_ID + "\"" + ": " + "\"" + taskDeviceIdentifiers.get(p).get(ProfilerType.DEVICE_ID) + "\",\n");
-            json.append(indent.toString() + "\"" + ProfilerType.DEVICE + "\"" + ": " + "\"" + taskDeviceIdentifiers.get(p).get(ProfilerType.DEVICE) + "\",\n");
-            if (taskThroughputMetrics.containsKey(p)) {
-                for (ProfilerType p1 : taskThroughputMetrics.get(p).keySet()) {
-                    json.append(indent.toString() + "\"" + p1 + "\"" + ": " + "\"" + taskThroughputMetrics.get(p).get(p1) + "\",\n");
+            json.append(indent3 + "\"" + ProfilerType.BACKEND + "\"" + ": " + "\"" + profile.getDescriptor(ProfilerType.BACKEND) + "\",\n");
+            json.append(indent3 + "\"" + ProfilerType.METHOD + "\"" + ": " + "\"" + profile.getDescriptor(ProfilerType.METHOD) + "\",\n");
+            json.append(indent3 + "\"" + ProfilerType.DEVICE_ID + "\"" + ": " + "\"" + profile.getDescriptor(ProfilerType.DEVICE_ID) + "\",\n");
+            json.append(indent3 + "\"" + ProfilerType.DEVICE + "\"" + ": " + "\"" + profile.getDescriptor(ProfilerType.DEVICE) + "\",\n");
+            appendMetrics(json, indent3, profile.throughputMetrics);
+            for (ProfilerType p1 : PROFILER_TYPES) {
+                String power = profile.powerMetrics.get(p1.ordinal());
+                if (power != null) {
+                    json.append(indent3 + "\"" + p1 + "\"" + ": " + "\"" + power + "\",\n");
                 }
             }
-            if (taskPowerMetrics.containsKey(p)) {
-                for (ProfilerType p1 : taskPowerMetrics.get(p).keySet()) {
-                    json.append(indent.toString() + "\"" + p1 + "\"" + ": " + "\"" + taskPowerMetrics.get(p).get(p1) + "\",\n");
-                }
-            }
-            for (ProfilerType p2 : taskTimers.get(p).keySet()) {
-                json.append(indent.toString() + "\"" + p2 + "\"" + ": " + "\"" + taskTimers.get(p).get(p2) + "\",\n");
-            }
+            appendMetrics(json, indent3, profile.timers);
             json.delete(json.length() - 2, json.length() - 1); // remove last comma
-            decreaseIndent();
-            closeScope(json);
+            closeScope(json, indent2);
             if (counter != size) {
                 json.append(", ");
             }
             newLine(json);
         }
-        decreaseIndent();
-        closeScope(json);
+        closeScope(json, indent1);
         newLine(json);
-        decreaseIndent();
-        closeScope(json);
+        closeScope(json, "");
         newLine(json);
         return json.toString();
     }
 
     @Override
-    public synchronized void dumpJson(StringBuilder json, String id) {
+    public void dumpJson(StringBuilder json, String id) {
         String jsonContent = createJson(json, id);
         System.out.println(jsonContent);
     }
 
     @Override
-    public synchronized void clean() {
-        taskThroughputMetrics.clear();
+    public void clean() {
         profilerTime.clear();
-        taskTimers.clear();
-        indent = new StringBuilder("");
+        taskProfiles.values().forEach(profile -> {
+            profile.timers.clear();
+            profile.throughputMetrics.clear();
+        });
     }
 
     @Override
-    public synchronized void setTaskTimer(ProfilerType type, String taskID, long timer) {
-        if (!taskTimers.containsKey(taskID)) {
-            taskTimers.put(taskID, new HashMap<>());
-        }
-        taskTimers.get(taskID).put(type, timer);
+    public void setTaskTimer(ProfilerType type, String taskID, long timer) {
+        TaskProfile profile = taskProfile(taskID);
+        profile.timers.set(type, timer);
+        profile.histogram(type).record(timer);
     }
 
     @Override
-    public synchronized void setTaskPowerUsage(ProfilerType type, String taskID, long power) {
-        if (!taskPowerMetrics.containsKey(taskID)) {
-            taskPowerMetrics.put(taskID, new HashMap<>());
-        }
-        if (power > 0) {
-            taskPowerMetrics.get(taskID).put(type, Long.toString(power));
-        } else {
-            taskPowerMetrics.get(taskID).put(type, "n/a");
-        }
+    public void setTaskPowerUsage(ProfilerType type, String taskID, long power) {
+        taskProfile(taskID).powerMetrics.set(type.ordinal(), power > 0 ? Long.toString(power) : "n/a");
+    }
+
+    @Override
+    public void sum(ProfilerType acc, long value) {
+        profilerTime.add(acc, value);
+        taskProfile(NO_TASK_NAME).histogram(acc).record(value);
     }
 
     @Override
-    public synchronized void sum(ProfilerType acc, long value) {
-        long sum = getTimer(acc) + value;
-        profilerTime.put(acc, sum);
+    public LatencyHistogram getHistogram(ProfilerType type, String taskName) {
+        TaskProfile profile = taskProfiles.get(taskName != null ? taskName : NO_TASK_NAME);
+        LatencyHistogram histogram = profile != null ? profile.histograms.get(type.ordinal()) : null;
+        return histogram != null ? histogram : new LatencyHistogram();
+    }
+
+    @Override
+    public void clearHistograms() {
+        taskProfiles.values().forEach(profile -> {
+            for (int i = 0; i < PROFILER_TYPES.length; i++) {
+                profile.histograms.set(i, null);
+            }
+        });
     }
 
 }
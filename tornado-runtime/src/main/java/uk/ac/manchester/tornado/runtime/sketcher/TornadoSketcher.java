@@ -70,6 +70,7 @@ import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoCompilerIdentifier;
 import uk.ac.manchester.tornado.runtime.graal.compiler.TornadoSketchTier;
 import uk.ac.manchester.tornado.runtime.graal.phases.TornadoSketchTierContext;
+import uk.ac.manchester.tornado.runtime.jfr.SketchEvent;
 
 public class TornadoSketcher {
 
@@ -138,6 +139,8 @@ public class TornadoSketcher {
     private static Sketch buildSketch(ResolvedJavaMethod resolvedMethod, Providers providers, PhaseSuite<HighTierContext> graphBuilderSuite, TornadoSketchTier sketchTier, int backendIndex,
             int deviceIndex) {
         logger.info("Building sketch of %s", resolvedMethod.getName());
+        final SketchEvent sketchEvent = new SketchEvent();
+        sketchEvent.begin();
         TornadoCompilerIdentifier id = new TornadoCompilerIdentifier("sketch-" + resolvedMethod.getName(), sketchId.getAndIncrement());
         Builder builder = new Builder(getOptions(), getDebugContext(), AllowAssumptions.YES);
         builder.method(resolvedMethod);
@@ -180,6 +183,13 @@ public class TornadoSketcher {
                 mergeAccesses(methodAccesses, invoke.callTarget(), sketch.getArgumentsAccess());
             });
 
+            if (sketchEvent.shouldCommit()) {
+                sketchEvent.method = resolvedMethod.format("%H.%n(%p)");
+                sketchEvent.backendIndex = backendIndex;
+                sketchEvent.deviceIndex = deviceIndex;
+                sketchEvent.nodes = graph.getNodeCount();
+                sketchEvent.commit();
+            }
             return new Sketch(graph.copy(TornadoCoreRuntime.getDebugContext()), methodAccesses, highTierContext.getBatchWriteThreadIndex());
 
         } catch (Throwable e) {
@@ -45,6 +45,7 @@ public class CompilableTask implements SchedulableTask {
     private long batchNumThreads;
     private int batchNumber;
     private long batchSize;
+    private long batchNumElements;
 
     private TornadoProfiler profiler;
     private boolean forceCompiler;
@@ -166,6 +167,16 @@ public class CompilableTask implements SchedulableTask {
         return this.batchSize;
     }
 
+    @Override
+    public void setBatchNumElements(long batchNumElements) {
+        this.batchNumElements = batchNumElements;
+    }
+
+    @Override
+    public long getBatchNumElements() {
+        return this.batchNumElements;
+    }
+
     @Override
     public void attachProfiler(TornadoProfiler tornadoProfiler) {
         this.profiler = tornadoProfiler;
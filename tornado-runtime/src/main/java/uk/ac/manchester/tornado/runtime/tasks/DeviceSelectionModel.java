@@ -0,0 +1,303 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tasks;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import uk.ac.manchester.tornado.api.TornadoBackend;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+
+/**
+ * Cost model used by the dynamic reconfiguration to select the device of each
+ * task without running the task-graph on every device.
+ *
+ * <p>
+ * For each task signature (the policy and the method of the task) and each
+ * candidate (every device of every backend, plus the Java sequential version),
+ * the model fits the execution time as a linear function of the input size in
+ * bytes, with least squares over the recorded executions. The weight of an
+ * execution decays exponentially with the number of newer executions
+ * ({@link TornadoOptions#DYNAMIC_RECONFIGURATION_WINDOW}), so the fit follows
+ * changes in the load of the devices. A candidate without recorded executions
+ * is selected first, so each device is measured once. Afterwards, the candidate
+ * with the lowest predicted time for the current input size is selected, except
+ * for a percentage of the executions
+ * ({@link TornadoOptions#DYNAMIC_RECONFIGURATION_EXPLORATION}) that select a
+ * random candidate, so slower candidates are measured again.
+ * </p>
+ *
+ * <p>
+ * The sufficient statistics of the fits are persisted in
+ * {@link TornadoOptions#DYNAMIC_RECONFIGURATION_HISTORY} when the JVM exits, and
+ * loaded by the next JVM. Candidates are identified by the backend and device
+ * indexes and by the device name, so the history of a different machine
+ * configuration is ignored.
+ * </p>
+ */
+public final class DeviceSelectionModel {
+
+    /**
+     * Name of the candidate that runs the Java sequential version of the task.
+     */
+    public static final String SEQUENTIAL = "JVM";
+
+    private static final TornadoLogger logger = new TornadoLogger(DeviceSelectionModel.class);
+    private static final String SEPARATOR = "\t";
+
+    private static DeviceSelectionModel instance;
+
+    private final Path historyFile;
+    private final double decay;
+    private final int exploration;
+    private final Map<String, Map<String, Fit>> fits = new HashMap<>();
+    private boolean dirty;
+
+    private DeviceSelectionModel(Path historyFile, int window, int exploration) {
+        this.historyFile = historyFile;
+        this.decay = window > 0 ? 1.0 - 1.0 / window : 1.0;
+        this.exploration = exploration;
+    }
+
+    static synchronized DeviceSelectionModel getInstance() {
+        if (instance == null) {
+            instance = open(Paths.get(TornadoOptions.DYNAMIC_RECONFIGURATION_HISTORY), TornadoOptions.DYNAMIC_RECONFIGURATION_WINDOW, TornadoOptions.DYNAMIC_RECONFIGURATION_EXPLORATION);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::save, "tornado-dynamic-history"));
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a model with the history stored in the given file, instead of the
+     * one set in {@link TornadoOptions}.
+     *
+     * @param historyFile
+     *     File of the execution history.
+     * @param window
+     *     Number of executions after which the weight of an execution decays by a
+     *     factor of e. 0 keeps all the executions with the same weight.
+     * @param exploration
+     *     Percentage of the selections that return a random candidate.
+     * @return {@link DeviceSelectionModel}
+     */
+    public static DeviceSelectionModel open(Path historyFile, int window, int exploration) {
+        DeviceSelectionModel model = new DeviceSelectionModel(historyFile, window, exploration);
+        model.load();
+        return model;
+    }
+
+    /**
+     * Lists the candidates of the current machine: every device of every backend,
+     * as {@code <backend>:<device>:<device name>}, followed by
+     * {@link #SEQUENTIAL}.
+     *
+     * @return List of candidates.
+     */
+    static List<String> getCandidates() {
+        List<String> candidates = new ArrayList<>();
+        int numBackends = TornadoRuntime.getTornadoRuntime().getNumBackends();
+        for (int backendIndex = 0; backendIndex < numBackends; backendIndex++) {
+            TornadoBackend backend = TornadoRuntime.getTornadoRuntime().getBackend(backendIndex);
+            for (int deviceIndex = 0; deviceIndex < backend.getDeviceCount(); deviceIndex++) {
+                candidates.add(STR."\{backendIndex}:\{deviceIndex}:\{backend.getDevice(deviceIndex).getDeviceName()}");
+            }
+        }
+        candidates.add(SEQUENTIAL);
+        return candidates;
+    }
+
+    /**
+     * Selects the candidate on which to run the next execution of a task.
+     *
+     * @param signature
+     *     Signature of the task.
+     * @param candidates
+     *     Candidates of the current machine.
+     * @param inputBytes
+     *     Size of the input data of the execution.
+     * @return The selected candidate.
+     */
+    public synchronized String select(String signature, List<String> candidates, long inputBytes) {
+        Map<String, Fit> signatureFits = fits.computeIfAbsent(signature, key -> new HashMap<>());
+        for (String candidate : candidates) {
+            if (!signatureFits.containsKey(candidate)) {
+                return candidate;
+            }
+        }
+        if (ThreadLocalRandom.current().nextInt(100) < exploration) {
+            return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+        }
+        String best = null;
+        double bestTime = Double.MAX_VALUE;
+        for (String candidate : candidates) {
+            double predicted = signatureFits.get(candidate).predict(inputBytes);
+            if (predicted < bestTime) {
+                bestTime = predicted;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Records the execution time of a task on a candidate.
+     *
+     * @param signature
+     *     Signature of the task.
+     * @param candidate
+     *     Candidate on which the task ran.
+     * @param inputBytes
+     *     Size of the input data of the execution.
+     * @param time
+     *     Execution time.
+     */
+    public synchronized void record(String signature, String candidate, long inputBytes, long time) {
+        fits.computeIfAbsent(signature, key -> new HashMap<>()).computeIfAbsent(candidate, key -> new Fit()).add(inputBytes, time, decay);
+        dirty = true;
+    }
+
+    /**
+     * Predicts the execution time of a task on a candidate.
+     *
+     * @param signature
+     *     Signature of the task.
+     * @param candidate
+     *     Candidate.
+     * @param inputBytes
+     *     Size of the input data of the execution.
+     * @return The predicted time, or {@link Double#NaN} if there are no recorded
+     *     executions of the task on the candidate.
+     */
+    public synchronized double predict(String signature, String candidate, long inputBytes) {
+        Fit fit = fits.getOrDefault(signature, Map.of()).get(candidate);
+        return fit != null ? fit.predict(inputBytes) : Double.NaN;
+    }
+
+    private void load() {
+        if (!Files.exists(historyFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(historyFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(SEPARATOR);
+                if (fields.length != 7) {
+                    continue;
+                }
+                Fit fit = new Fit();
+                fit.weight = Double.parseDouble(fields[2]);
+                fit.sumX = Double.parseDouble(fields[3]);
+                fit.sumY = Double.parseDouble(fields[4]);
+                fit.sumXX = Double.parseDouble(fields[5]);
+                fit.sumXY = Double.parseDouble(fields[6]);
+                fits.computeIfAbsent(fields[0], key -> new HashMap<>()).put(fields[1], fit);
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Unable to read the dynamic reconfiguration history %s: %s", historyFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Stores the execution history, if there are new executions.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            Path directory = historyFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, historyFile.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Map<String, Fit>> signature : fits.entrySet()) {
+                    for (Map.Entry<String, Fit> candidate : signature.getValue().entrySet()) {
+                        Fit fit = candidate.getValue();
+                        writer.write(String.join(SEPARATOR, signature.getKey(), candidate.getKey(), Double.toString(fit.weight), Double.toString(fit.sumX), Double.toString(fit.sumY), Double.toString(
+                                fit.sumXX), Double.toString(fit.sumXY)));
+                        writer.newLine();
+                    }
+                }
+            }
+            try {
+                Files.move(tmp, historyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, historyFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            logger.warn("Unable to store the dynamic reconfiguration history %s: %s", historyFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Weighted least-squares fit of the execution time (y) against the input size
+     * (x), kept as sufficient statistics.
+     */
+    private static final class Fit {
+        private double weight;
+        private double sumX;
+        private double sumY;
+        private double sumXX;
+        private double sumXY;
+
+        /**
+         * Adds an execution with weight 1, after scaling the weight of the previous
+         * executions by the decay.
+         */
+        private void add(long x, long y, double decay) {
+            weight = weight * decay + 1;
+            sumX = sumX * decay + x;
+            sumY = sumY * decay + y;
+            sumXX = sumXX * decay + (double) x * x;
+            sumXY = sumXY * decay + (double) x * y;
+        }
+
+        private double predict(long x) {
+            double meanX = sumX / weight;
+            double meanY = sumY / weight;
+            double variance = sumXX - sumX * meanX;
+            // With a single input size the slope is unknown, so the mean time is used
+            if (variance <= 1e-9 * sumXX) {
+                return meanY;
+            }
+            double slope = (sumXY - sumX * meanY) / variance;
+            double intercept = meanY - slope * meanX;
+            return Math.max(0, intercept + slope * x);
+        }
+    }
+}
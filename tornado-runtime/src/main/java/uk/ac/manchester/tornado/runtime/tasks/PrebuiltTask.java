@@ -45,6 +45,7 @@ public class PrebuiltTask implements SchedulableTask {
     protected long batchThreads;
     protected int batchNumber;
     protected long batchSize;
+    protected long batchNumElements;
 
     private TornadoProfiler profiler;
     private boolean forceCompiler;
@@ -190,6 +191,16 @@ public class PrebuiltTask implements SchedulableTask {
         return this.batchSize;
     }
 
+    @Override
+    public void setBatchNumElements(long batchNumElements) {
+        this.batchNumElements = batchNumElements;
+    }
+
+    @Override
+    public long getBatchNumElements() {
+        return this.batchNumElements;
+    }
+
     @Override
     public void attachProfiler(TornadoProfiler tornadoProfiler) {
         this.profiler = tornadoProfiler;
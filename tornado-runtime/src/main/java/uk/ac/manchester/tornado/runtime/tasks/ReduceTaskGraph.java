@@ -30,10 +30,12 @@ import static uk.ac.manchester.tornado.runtime.TornadoCoreRuntime.getDebugContex
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.graalvm.compiler.graph.Graph;
@@ -50,6 +52,7 @@ import uk.ac.manchester.tornado.api.common.TaskPackage;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoTaskRuntimeException;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
@@ -64,6 +67,8 @@ import uk.ac.manchester.tornado.runtime.analyzer.MetaReduceTasks;
 import uk.ac.manchester.tornado.runtime.analyzer.ReduceCodeAnalysis;
 import uk.ac.manchester.tornado.runtime.analyzer.ReduceCodeAnalysis.REDUCE_OPERATION;
 import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.common.TornadoSchedulingStrategy;
+import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.tasks.meta.MetaDataUtils;
 import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
 
@@ -97,6 +102,7 @@ class ReduceTaskGraph {
     private Map<Object, List<Integer>> reduceOperandTable;
     private boolean hybridMode;
     private Map<Object, REDUCE_OPERATION> hybridMergeTable;
+    private Set<Object> singleLaunchArrays = new HashSet<>();
     private boolean hybridInitialized;
     private TornadoExecutionPlan executionPlan;
 
@@ -137,6 +143,20 @@ class ReduceTaskGraph {
         };
     }
 
+    /**
+     * Only the OpenCL reduction kernels of the GPU scheduler can finish the
+     * reduction on the device. Otherwise, the final sequential task is still added.
+     */
+    private static boolean isSingleLaunch(int driverIndex, int device) {
+        if (!TornadoOptions.REDUCE_SINGLE_LAUNCH) {
+            return false;
+        }
+        TornadoDevice deviceToRun = TornadoCoreRuntime.getTornadoRuntime().getBackend(driverIndex).getDevice(device);
+        return deviceToRun.getTornadoVMBackend() == TornadoVMBackendType.OPENCL //
+                && deviceToRun instanceof TornadoXPUDevice xpuDevice //
+                && xpuDevice.getPreferredSchedule() == TornadoSchedulingStrategy.PER_ACCELERATOR_ITERATION;
+    }
+
     /**
      * It computes the right local work group size for GPUs/FPGAs.
      *
@@ -234,6 +254,24 @@ class ReduceTaskGraph {
         }
     }
 
+    /**
+     * Resets the work-group counter of a single-launch reduction, stored in the last
+     * element of the array. The kernel increments it as a 32-bit integer.
+     */
+    private void clearCounter(Object reduceArray) {
+        switch (reduceArray) {
+            case int[] ints -> ints[ints.length - 1] = 0;
+            case float[] floats -> floats[floats.length - 1] = 0.0f;
+            case double[] doubles -> doubles[doubles.length - 1] = 0.0;
+            case long[] longs -> longs[longs.length - 1] = 0L;
+            case IntArray intArray -> intArray.set(intArray.getSize() - 1, 0);
+            case FloatArray floatArray -> floatArray.set(floatArray.getSize() - 1, 0.0f);
+            case DoubleArray doubleArray -> doubleArray.set(doubleArray.getSize() - 1, 0.0);
+            case LongArray longArray -> longArray.set(longArray.getSize() - 1, 0L);
+            case null, default -> throw new TornadoRuntimeException(EXCEPTION_MESSAGE_ERROR + reduceArray.getClass());
+        }
+    }
+
     private Object createNewReduceArray(Object reduceVariable, int size) {
         if (size == 1) {
             return reduceVariable;
@@ -389,7 +427,8 @@ class ReduceTaskGraph {
     /**
      * Compose and execute the new reduction. It dynamically creates a new
      * task-schedule expression that contains: a) the parallel reduction; b) the
-     * final sequential reduction.
+     * final sequential reduction, unless the reduction kernel finishes the
+     * reduction itself ({@link TornadoOptions#REDUCE_SINGLE_LAUNCH}).
      * <p>
      * It also creates a new thread in the case the input size for the reduction is
      * not power of two and the target device is either the FPGA or the GPU. In this
@@ -472,11 +511,20 @@ class ReduceTaskGraph {
                         }
                     }
 
-                    // Set the new array size
+                    // Set the new array size. With a single launch, the last element is the
+                    // counter of the work-groups that have written their partial result.
+                    boolean singleLaunch = isSingleLaunch(driverToRun, deviceToRun);
                     int sizeReductionArray = obtainSizeArrayResult(driverToRun, deviceToRun, inputSize);
+                    if (singleLaunch) {
+                        sizeReductionArray++;
+                    }
                     Object newDeviceArray = createNewReduceArray(originalReduceArray, sizeReductionArray);
                     Object neutralElement = getNeutralElement(originalReduceArray);
                     fillOutputArrayWithNeutral(newDeviceArray, neutralElement);
+                    if (singleLaunch) {
+                        singleLaunchArrays.add(newDeviceArray);
+                        clearCounter(newDeviceArray);
+                    }
 
                     neutralElementsNew.put(newDeviceArray, neutralElement);
                     neutralElementsOriginal.put(originalReduceArray, neutralElement);
@@ -493,6 +541,15 @@ class ReduceTaskGraph {
 
                 streamReduceTable.put(taskNumber, streamReduceList);
 
+                // The reduction kernel only finishes the reduction when all its reduce
+                // arrays have the counter of the work-groups
+                boolean taskSingleLaunch = !listOfReduceIndexParameters.isEmpty();
+                for (Integer paramIndex : listOfReduceIndexParameters) {
+                    Object originalReduceArray = taskPackage.getTaskParameters()[paramIndex + 1];
+                    taskSingleLaunch &= singleLaunchArrays.contains(originalReduceVariables.get(originalReduceArray));
+                }
+                taskPackage.setReduceSingleLaunch(taskSingleLaunch);
+
                 if (hybridMode) {
                     ReduceCompilationThread compilationThread = createCompilationThread(taskPackage, inputSize);
                     compilationThread.start();
@@ -567,17 +624,21 @@ class ReduceTaskGraph {
                     Object newArray = streamUpdateList.get(i);
                     int sizeReduceArray = sizesReductionArray.get(i);
                     for (REDUCE_OPERATION operation : operations) {
-                        final String newTaskSequentialName = SEQUENTIAL_TASK_REDUCE_NAME + counterSeqName.get();
-                        String fullName = STR."\{rewrittenTaskGraph.getTaskGraphName()}.\{newTaskSequentialName}";
-                        TornadoRuntime.setProperty(STR."\{fullName}.device", driverToRun + ":" + deviceToRun);
-                        inspectBinariesFPGA(taskScheduleReduceName, graphName, taskPackage.getId(), true);
-
-                        switch (operation) {
-                            case SUM -> ReduceFactory.handleAdd(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
-                            case MUL -> ReduceFactory.handleMul(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
-                            case MAX -> ReduceFactory.handleMax(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
-                            case MIN -> ReduceFactory.handleMin(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
-                            default -> throw new TornadoRuntimeException("[ERROR] Reduce operation not supported yet.");
+                        // With a single launch, the last work-group of the reduction kernel
+                        // combines the partial results on the device
+                        if (!singleLaunchArrays.contains(newArray)) {
+                            final String newTaskSequentialName = SEQUENTIAL_TASK_REDUCE_NAME + counterSeqName.get();
+                            String fullName = STR."\{rewrittenTaskGraph.getTaskGraphName()}.\{newTaskSequentialName}";
+                            TornadoRuntime.setProperty(STR."\{fullName}.device", driverToRun + ":" + deviceToRun);
+                            inspectBinariesFPGA(taskScheduleReduceName, graphName, taskPackage.getId(), true);
+
+                            switch (operation) {
+                                case SUM -> ReduceFactory.handleAdd(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
+                                case MUL -> ReduceFactory.handleMul(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
+                                case MAX -> ReduceFactory.handleMax(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
+                                case MIN -> ReduceFactory.handleMin(newArray, rewrittenTaskGraph, sizeReduceArray, newTaskSequentialName);
+                                default -> throw new TornadoRuntimeException("[ERROR] Reduce operation not supported yet.");
+                            }
                         }
 
                         if (hybridMode) {
@@ -670,6 +731,9 @@ class ReduceTaskGraph {
             Object newArray = pair.getKey();
             Object neutralElement = pair.getValue();
             fillOutputArrayWithNeutral(newArray, neutralElement);
+            if (singleLaunchArrays.contains(newArray)) {
+                clearCounter(newArray);
+            }
 
             // Hybrid Execution
             if (hostHybridVariables != null && hostHybridVariables.containsKey(newArray)) {
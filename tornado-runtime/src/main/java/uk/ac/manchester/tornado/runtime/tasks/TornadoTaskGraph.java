@@ -43,7 +43,10 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -61,6 +64,7 @@ import uk.ac.manchester.tornado.api.TaskGraph;
 import uk.ac.manchester.tornado.api.TornadoBackend;
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
 import uk.ac.manchester.tornado.api.TornadoTaskGraphInterface;
+import uk.ac.manchester.tornado.api.WorkerGrid;
 import uk.ac.manchester.tornado.api.common.Event;
 import uk.ac.manchester.tornado.api.common.PrebuiltTaskPackage;
 import uk.ac.manchester.tornado.api.common.SchedulableTask;
@@ -87,8 +91,10 @@ import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
 import uk.ac.manchester.tornado.api.exceptions.TornadoBailoutRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoDynamicReconfigurationException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoRuntimeException;
 import uk.ac.manchester.tornado.api.exceptions.TornadoTaskRuntimeException;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
 import uk.ac.manchester.tornado.api.profiler.ProfilerType;
 import uk.ac.manchester.tornado.api.profiler.TornadoProfiler;
 import uk.ac.manchester.tornado.api.runtime.ExecutorFrame;
@@ -98,6 +104,9 @@ import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.runtime.JVMMapping;
+import uk.ac.manchester.tornado.runtime.JVMParallelExecutor;
 import uk.ac.manchester.tornado.runtime.TornadoCoreRuntime;
 import uk.ac.manchester.tornado.runtime.TornadoVM;
 import uk.ac.manchester.tornado.runtime.analyzer.MetaReduceCodeAnalysis;
@@ -179,6 +188,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private ConcurrentHashMap<Integer, ArrayList<Object>> multiHeapManagerOutputs = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Integer, ArrayList<Object>> multiHeapManagerInputs = new ConcurrentHashMap<>();
     private ConcurrentHashMap<Integer, TaskGraph> taskGraphIndex = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, TornadoExecutionPlan> modelExecutionPlans = new ConcurrentHashMap<>();
+    private Set<String> modelWarmCandidates = ConcurrentHashMap.newKeySet();
     private StringBuilder bufferLogProfiler = new StringBuilder();
     private Graph compilationGraph;
     /**
@@ -189,8 +200,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private boolean reduceAnalysis = false;
     private TornadoProfiler timeProfiler;
     private boolean updateData;
-    private boolean isFinished;
+    private volatile boolean isFinished;
     private GridScheduler gridScheduler;
+    private boolean runOnJVMDevice;
 
     private ProfilerMode profilerMode;
 
@@ -198,6 +210,16 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     private long executionPlanId;
     private boolean bailout;
 
+    /**
+     * Tiered execution: the Java code of the tasks runs while the task-graph is
+     * compiled by {@link #tieredCompilation} in a background thread.
+     */
+    private boolean tieredExecution;
+    private FutureTask<Void> tieredCompilation;
+    private volatile boolean lastExecutionInJavaTier;
+    private final AtomicLong javaTierExecutions = new AtomicLong();
+    private final AtomicLong deviceTierExecutions = new AtomicLong();
+
     /**
      * Task Schedule implementation that uses GPU/FPGA and multicore backends. This constructor must be public. It is invoked using the reflection API.
      *
@@ -413,6 +435,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
         newTaskGraph.timeProfiler = this.timeProfiler;
         newTaskGraph.gridScheduler = this.gridScheduler;
+        newTaskGraph.runOnJVMDevice = this.runOnJVMDevice;
 
         // Pass the profiler to the execution context
         newTaskGraph.executionContext.withProfiler(timeProfiler);
@@ -455,6 +478,26 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         this.isConcurrentDevicesEnabled = false;
     }
 
+    @Override
+    public void withTieredExecution() {
+        this.tieredExecution = true;
+    }
+
+    @Override
+    public void withoutTieredExecution() {
+        this.tieredExecution = false;
+    }
+
+    @Override
+    public long getJavaTierExecutions() {
+        return javaTierExecutions.get();
+    }
+
+    @Override
+    public long getDeviceTierExecutions() {
+        return deviceTierExecutions.get();
+    }
+
     @Override
     public void withThreadInfo() {
         meta().enableThreadInfo();
@@ -500,6 +543,12 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     @Override
     public void setDevice(TornadoDevice device) {
 
+        // The JVM device runs the Java code of the tasks, so it does not need sketches or device buffers
+        runOnJVMDevice = device instanceof JVMMapping;
+        if (runOnJVMDevice) {
+            return;
+        }
+
         TornadoDevice oldDevice = meta().getLogicDevice();
 
         // prevent to set again the same device as it invalidates its state
@@ -549,6 +598,10 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     @Override
     public void setDevice(String taskName, TornadoDevice device) {
 
+        if (device instanceof JVMMapping) {
+            throw new TornadoRuntimeException("[ERROR] The JVM device can only be selected for all tasks of a task-graph");
+        }
+
         TornadoDevice oldDevice = meta().getLogicDevice();
 
         // Make sure that a sketch is available for the device.
@@ -754,7 +807,10 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             timeProfiler.start(ProfilerType.TOTAL_BYTE_CODE_GENERATION);
             executionContext.scheduleTaskToDevices();
             TornadoVM tornadoVM = compileGraphAndBuildVM(compileInfo.updateDevice);
-            vmTable.put(meta().getLogicDevice(), tornadoVM);
+            TornadoVM previousVM = vmTable.put(meta().getLogicDevice(), tornadoVM);
+            if (previousVM != null) {
+                previousVM.close();
+            }
             timeProfiler.stop(ProfilerType.TOTAL_BYTE_CODE_GENERATION);
         }
         executionContext.addLastDevice(meta().getLogicDevice());
@@ -900,6 +956,9 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     @Override
     public void clearProfiles() {
         vm.clearProfiles();
+        if (timeProfiler != null) {
+            timeProfiler.clearHistograms();
+        }
     }
 
     @Override
@@ -1046,6 +1105,27 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     @Override
     public void freeDeviceMemory() {
         free();
+        modelExecutionPlans.values().forEach(TornadoExecutionPlan::freeDeviceMemory);
+    }
+
+    @Override
+    public void close() {
+        awaitTieredCompilation();
+        free();
+        vmTable.values().forEach(TornadoVM::close);
+        closeModelExecutionPlans();
+    }
+
+    private void closeModelExecutionPlans() {
+        for (TornadoExecutionPlan executionPlan : modelExecutionPlans.values()) {
+            try {
+                executionPlan.close();
+            } catch (TornadoExecutionPlanException e) {
+                throw new TornadoRuntimeException(e);
+            }
+        }
+        modelExecutionPlans.clear();
+        modelWarmCandidates.clear();
     }
 
     private void free() {
@@ -1054,11 +1134,15 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
         inputModesObjects.forEach(inputStreamObject -> freeDeviceMemoryObject(inputStreamObject.getObject()));
         outputModeObjects.forEach(outputStreamObject -> freeDeviceMemoryObject(outputStreamObject.getObject()));
+        vmTable.values().forEach(TornadoVM::freeBatchBuffers);
     }
 
     private void freeDeviceMemoryObject(Object object) {
         final LocalObjectState localState = executionContext.getLocalStateObject(object);
         releaseObjectFromDeviceMemory(localState, meta().getLogicDevice());
+        if (object instanceof TornadoNativeArray nativeArray && nativeArray.isReleasedWithDeviceMemory()) {
+            nativeArray.release();
+        }
     }
 
     private void releaseObjectFromDeviceMemory(final LocalObjectState localState, final TornadoDevice device) {
@@ -1119,15 +1203,14 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         Event eventParameter = null;
         if (batchSizeBytes != TornadoExecutionContext.INIT_VALUE) {
             BatchConfiguration batchConfiguration = BatchConfiguration.computeChunkSizes(executionContext, batchSizeBytes);
-            long hostOffset = 0;
-            for (int i = 0; i < batchConfiguration.getTotalChunks(); i++) {
-                hostOffset = (batchSizeBytes * i);
-                eventParameter = syncObjectInnerLazy(object, hostOffset, batchSizeBytes);
-            }
-            // Last chunk
-            if (batchConfiguration.getRemainingChunkSize() != 0) {
-                hostOffset += batchSizeBytes;
-                eventParameter = syncObjectInnerLazy(object, hostOffset, batchConfiguration.getRemainingChunkSize());
+            final int objectIndex = executionContext.getObjects().indexOf(object);
+            if (objectIndex == -1 || batchConfiguration.getChunkSize(objectIndex, 0) == 0) {
+                // Resident objects are copied in full
+                eventParameter = syncObjectInner(object);
+            } else {
+                for (int i = 0; i < batchConfiguration.getNumChunks(); i++) {
+                    eventParameter = syncObjectInnerLazy(object, batchConfiguration.getOffset(objectIndex, i), batchConfiguration.getChunkSize(objectIndex, i));
+                }
             }
         } else {
             eventParameter = syncObjectInner(object);
@@ -1148,7 +1231,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void syncRuntimeTransferToHost(Object... objects) {
-        if (vm == null) {
+        if (vm == null || lastExecutionInJavaTier) {
+            // The Java tier writes the results in the host objects
             return;
         }
 
@@ -1175,10 +1259,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
                 if (eventParameter == null) {
                     continue;
                 }
-                long value = timeProfiler.getTimer(ProfilerType.COPY_OUT_TIME_SYNC);
                 eventParameter.waitForEvents(executionPlanId);
-                value += eventParameter.getElapsedTime();
-                timeProfiler.setTimer(ProfilerType.COPY_OUT_TIME_SYNC, value);
+                timeProfiler.sum(ProfilerType.COPY_OUT_TIME_SYNC, eventParameter.getElapsedTime());
                 LocalObjectState localState = executionContext.getLocalStateObject(objects[i]);
                 XPUDeviceBufferState deviceObjectState = localState.getDataObjectState().getDeviceBufferState(meta().getLogicDevice());
                 timeProfiler.addValueToMetric(ProfilerType.COPY_OUT_SIZE_BYTES_SYNC, TimeProfiler.NO_TASK_NAME, deviceObjectState.getXPUBuffer().size());
@@ -1190,7 +1272,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     @Override
     public void syncRuntimeTransferToHost(Object object, long offset, long partialCopySize) {
 
-        if (vm == null) {
+        if (vm == null || lastExecutionInJavaTier) {
             return;
         }
 
@@ -1206,10 +1288,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         if (TornadoOptions.isProfilerEnabled()) {
             timeProfiler.clean();
             if (event != null) {
-                long value = timeProfiler.getTimer(ProfilerType.COPY_OUT_TIME_SYNC);
                 event.waitForEvents(executionPlanId);
-                value += event.getElapsedTime();
-                timeProfiler.setTimer(ProfilerType.COPY_OUT_TIME_SYNC, value);
+                timeProfiler.sum(ProfilerType.COPY_OUT_TIME_SYNC, event.getElapsedTime());
                 LocalObjectState localState = executionContext.getLocalStateObject(object);
                 XPUDeviceBufferState deviceObjectState = localState.getDataObjectState().getDeviceBufferState(meta().getLogicDevice());
                 timeProfiler.addValueToMetric(ProfilerType.COPY_OUT_SIZE_BYTES_SYNC, TimeProfiler.NO_TASK_NAME, deviceObjectState.getXPUBuffer().size());
@@ -1310,7 +1390,10 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     private void setupProfiler() {
         if (isProfilerEnabled()) {
-            this.timeProfiler = new TimeProfiler();
+            // The profiler is kept across executions to accumulate its histograms
+            if (!(timeProfiler instanceof TimeProfiler)) {
+                this.timeProfiler = new TimeProfiler();
+            }
         } else {
             this.timeProfiler = new EmptyProfiler();
         }
@@ -1328,6 +1411,70 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
+    /**
+     * In tiered execution, the first execution of a task-graph that has not been
+     * compiled starts its compilation in a background thread. The task-graph is
+     * compiled with the warm-up, which installs the code of all tasks without
+     * running them. The executions run the Java code of the tasks until the
+     * compilation finishes, and then they switch to the device.
+     *
+     * @return true if the compilation is still in progress.
+     */
+    private boolean isCompilingInBackground() {
+        if (tieredCompilation == null) {
+            if (vm != null) {
+                // Compiled by a previous execution or warm-up
+                return false;
+            }
+            executionContext.setExecutionPlanId(executionPlanId);
+            tieredCompilation = new FutureTask<>(this::warmup, null);
+            Thread.ofPlatform().daemon().name(STR."TornadoTieredCompilation-\{taskGraphName}").start(tieredCompilation);
+        }
+        return !tieredCompilation.isDone();
+    }
+
+    /**
+     * The Java tier runs each task once on the calling thread. Tasks written
+     * with the {@link KernelContext} API, such as the scan, compaction and
+     * reduction primitives, and tasks launched with a {@link WorkerGrid}
+     * compute their result across the threads of the grid, so the task-graphs
+     * that contain them wait for the compilation instead.
+     *
+     * @return true if all the tasks can run in the Java tier.
+     */
+    private boolean isJavaTierSupported() {
+        for (TaskPackage taskPackage : taskPackages) {
+            if (Arrays.stream(taskPackage.getTaskParameters()).anyMatch(KernelContext.class::isInstance)) {
+                return false;
+            }
+            if (gridScheduler != null && gridScheduler.contains(taskGraphName, taskPackage.getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Waits for the background compilation of tiered execution. If it failed,
+     * the task-graph is compiled again on the calling thread, which reports the
+     * error as in a non-tiered execution.
+     */
+    private void awaitTieredCompilation() {
+        if (tieredCompilation == null) {
+            return;
+        }
+        try {
+            tieredCompilation.get();
+        } catch (ExecutionException e) {
+            if (TornadoOptions.DEBUG) {
+                System.err.println(STR."[DEBUG] Background compilation of \{taskGraphName} failed: \{e.getCause()}");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TornadoRuntimeException(e);
+        }
+    }
+
     private TornadoTaskGraphInterface execute() {
 
         // check if bailout due to task-rewriting
@@ -1335,6 +1482,24 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
             bailout();
         }
 
+        if (runOnJVMDevice || meta().getLogicDevice() instanceof JVMMapping) {
+            runAllTasksOnJVMDevice();
+            return this;
+        }
+
+        if (tieredExecution && isJavaTierSupported() && isCompilingInBackground()) {
+            runAllTasksJavaSequential();
+            javaTierExecutions.incrementAndGet();
+            lastExecutionInJavaTier = true;
+            isFinished = true;
+            return this;
+        }
+        awaitTieredCompilation();
+        if (tieredExecution) {
+            deviceTierExecutions.incrementAndGet();
+        }
+        lastExecutionInJavaTier = false;
+
         isFinished = false;
         setupProfiler();
         timeProfiler.clean();
@@ -1376,6 +1541,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         executionPlanId = executionPackage.getExecutionPlanId();
         if (executionPackage.getDynamicReconfigurationPolicy() == null) {
             return execute();
+        } else if (TornadoOptions.DYNAMIC_RECONFIGURATION_MODEL) {
+            return scheduleDynamicReconfigurationWithModel(executionPackage.getDynamicReconfigurationPolicy());
         } else {
             if (executionPackage.getDRMode() == DRMode.SERIAL) {
                 return scheduleDynamicReconfigurationSequential(executionPackage.getDynamicReconfigurationPolicy());
@@ -1559,11 +1726,28 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
 
     private void runAllTasksJavaSequential() {
+        if (TornadoOptions.JVM_PARALLEL) {
+            runAllTasksOnJVMDevice();
+            return;
+        }
         for (TaskPackage taskPackage : taskPackages) {
             runSequentialCodeInThread(taskPackage);
         }
     }
 
+    /**
+     * Runs the tasks with the threads of the JVM device. The tasks that cannot be
+     * partitioned across threads run sequentially.
+     */
+    private void runAllTasksOnJVMDevice() {
+        for (TaskPackage taskPackage : taskPackages) {
+            WorkerGrid workerGrid = gridScheduler != null ? gridScheduler.get(STR."\{taskGraphName}.\{taskPackage.getId()}") : null;
+            if (!JVMParallelExecutor.execute(taskPackage, workerGrid)) {
+                runSequentialCodeInThread(taskPackage);
+            }
+        }
+    }
+
     private void runThreadSequentialVersion(Policy policy, Thread[] threads, int indexSequential, Timer timer, long[] totalTimers) {
         // Last Thread runs the sequential code
         threads[indexSequential] = new Thread(() -> {
@@ -1691,9 +1875,7 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
     }
 
     private void runSequential() {
-        for (TaskPackage taskPackage : taskPackages) {
-            runSequentialCodeInThread(taskPackage);
-        }
+        runAllTasksJavaSequential();
     }
 
     private TaskGraph recompileTask(int deviceWinnerIndex) {
@@ -2023,6 +2205,118 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         return this;
     }
 
+    /**
+     * Runs each task on the device selected by the {@link DeviceSelectionModel}
+     * and records the execution time of the task in the model. Each task runs in
+     * its own execution plan, which copies the data of the task to the device and
+     * back, so the next task can run on any device and the time of every task is
+     * measured separately. The first execution of a task on each device of this
+     * JVM includes the JIT compilation, so it is only recorded for the
+     * {@link Policy#END_2_END} policy.
+     *
+     * @param policy
+     *     Dynamic reconfiguration policy.
+     * @return {@link TornadoTaskGraphInterface}
+     */
+    private TornadoTaskGraphInterface scheduleDynamicReconfigurationWithModel(Policy policy) {
+        DeviceSelectionModel model = DeviceSelectionModel.getInstance();
+        List<String> candidates = DeviceSelectionModel.getCandidates();
+        for (TaskPackage taskPackage : taskPackages) {
+            String signature = getDynamicReconfigurationSignature(policy, taskPackage);
+            List<Object> taskData = getTaskData(taskPackage);
+            long inputBytes = getSizeInBytes(taskData);
+            String candidate = model.select(signature, candidates, inputBytes);
+
+            if (TornadoOptions.DEBUG) {
+                System.out.println(STR."Dynamic reconfiguration model selected for \{taskPackage.getId()}: \{candidate}");
+            }
+
+            final String planKey = STR."\{taskPackage.getId()}|\{candidate}";
+            final long start = System.nanoTime();
+            if (candidate.equals(DeviceSelectionModel.SEQUENTIAL)) {
+                runSequentialCodeInThread(taskPackage);
+            } else {
+                modelExecutionPlans.computeIfAbsent(planKey, key -> createExecutionPlanForTask(taskPackage, taskData, candidate)).execute();
+            }
+            final long end = System.nanoTime();
+
+            if (!modelWarmCandidates.add(planKey) || policy == Policy.END_2_END) {
+                model.record(signature, candidate, inputBytes, end - start);
+            }
+        }
+        return this;
+    }
+
+    private TornadoExecutionPlan createExecutionPlanForTask(TaskPackage taskPackage, List<Object> taskData, String candidate) {
+        String[] indexes = candidate.split(":", 3);
+        String newTaskGraphName = STR."\{TASK_GRAPH_PREFIX}\{taskPackage.getId()}_\{indexes[0]}_\{indexes[1]}";
+        TaskGraph task = new TaskGraph(newTaskGraphName);
+        performStreamInObject(task, taskData, DataTransferMode.EVERY_EXECUTION);
+        TornadoRuntime.setProperty(STR."\{newTaskGraphName}.\{taskPackage.getId()}.device", STR."\{indexes[0]}:\{indexes[1]}");
+        task.addTask(taskPackage);
+        performStreamOutThreads(DataTransferMode.EVERY_EXECUTION, task, taskData);
+        return new TornadoExecutionPlan(task.snapshot());
+    }
+
+    /**
+     * It obtains the objects that a task reads or writes, excluding the scalar
+     * parameters.
+     *
+     * @param taskPackage
+     *     Task.
+     * @return List of distinct objects.
+     */
+    private static List<Object> getTaskData(TaskPackage taskPackage) {
+        Object[] taskParameters = taskPackage.getTaskParameters();
+        List<Object> taskData = new ArrayList<>();
+        // Note: the first element in the object list is a lambda expression (computation)
+        for (int i = 1; i < taskParameters.length; i++) {
+            Object parameter = taskParameters[i];
+            if (parameter == null || parameter instanceof Number || parameter instanceof Boolean || parameter instanceof Character || parameter instanceof KernelContext) {
+                continue;
+            }
+            if (taskData.stream().noneMatch(object -> object == parameter)) {
+                taskData.add(parameter);
+            }
+        }
+        return taskData;
+    }
+
+    private String getDynamicReconfigurationSignature(Policy policy, TaskPackage taskPackage) {
+        Method method = TaskUtils.resolveMethodHandle(taskPackage.getTaskParameters()[0]);
+        return STR."\{policy.name()};\{method.toGenericString()}";
+    }
+
+    /**
+     * It obtains the size in bytes of a list of objects.
+     *
+     * @param objects
+     *     List of objects.
+     * @return size in bytes of all the arrays of the list.
+     */
+    private static long getSizeInBytes(List<Object> objects) {
+        long size = 0;
+        for (Object object : objects) {
+            if (object instanceof TornadoNativeArray nativeArray) {
+                size += nativeArray.getNumBytesOfSegment();
+            } else if (object != null && object.getClass().isArray() && object.getClass().getComponentType().isPrimitive()) {
+                size += (long) Array.getLength(object) * sizeOfPrimitive(object.getClass().getComponentType());
+            }
+        }
+        return size;
+    }
+
+    private static int sizeOfPrimitive(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
     private void addInner(int index, int type, Method method, ScheduleMetaData meta, String id, Object[] parameters) {
         switch (type) {
             case 0:
@@ -2165,6 +2459,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         // for example, when executing reductions in which the input size is not
         // power of two.
         meta.setNumThreads(taskPackage.getNumThreadsToRun());
+        meta.setCombineFunction(resolveCombineFunction(taskPackage));
+        meta.setReduceSingleLaunch(taskPackage.isReduceSingleLaunch());
 
         try {
             addInner(index, type, method, meta, id, parameters);
@@ -2177,6 +2473,11 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
+    private static Method resolveCombineFunction(TaskPackage taskPackage) {
+        Object combineFunction = taskPackage.getCombineFunction();
+        return combineFunction != null ? TaskUtils.resolveMethodHandle(combineFunction) : null;
+    }
+
     @Override
     public void addTask(TaskPackage taskPackage) {
         taskPackages.add(taskPackage);
@@ -2193,6 +2494,8 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         // for example, when executing reductions in which the input size is not
         // power of two.
         meta.setNumThreads(taskPackage.getNumThreadsToRun());
+        meta.setCombineFunction(resolveCombineFunction(taskPackage));
+        meta.setReduceSingleLaunch(taskPackage.isReduceSingleLaunch());
 
         try {
             addInner(type, method, meta, id, parameters);
@@ -2214,8 +2517,17 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
 
     @Override
     public void withBatch(String batchSize) {
+        withBatch(batchSize, 1);
+    }
+
+    @Override
+    public void withBatch(String batchSize, int numBuffers) {
+        if (numBuffers < 1) {
+            throw new TornadoRuntimeException(STR."[ERROR] The number of batch buffers must be at least 1. Found: \{numBuffers}");
+        }
         this.batchSizeBytes = parseSizeToBytes(batchSize);
         executionContext.setBatchSize(this.batchSizeBytes);
+        executionContext.setNumBatchBuffers(numBuffers);
     }
 
     @Override
@@ -2331,6 +2643,16 @@ public class TornadoTaskGraph implements TornadoTaskGraphInterface {
         }
     }
 
+    @Override
+    public LatencyHistogram getLatencyHistogram(ProfilerType type, String taskName) {
+        if (reduceTaskGraph != null) {
+            return reduceTaskGraph.getExecutionResult().getProfilerResult().getLatencyHistogram(type, taskName);
+        } else if (timeProfiler == null) {
+            return new LatencyHistogram();
+        }
+        return timeProfiler.getHistogram(type, taskName).copy();
+    }
+
     @Override
     public String getProfileLog() {
         return bufferLogProfiler.toString();
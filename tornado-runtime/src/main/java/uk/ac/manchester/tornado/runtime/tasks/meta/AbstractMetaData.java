@@ -26,6 +26,7 @@ import static java.lang.Boolean.parseBoolean;
 import static java.lang.Integer.parseInt;
 import static uk.ac.manchester.tornado.runtime.tasks.meta.MetaDataUtils.resolveDevice;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -101,6 +102,8 @@ public abstract class AbstractMetaData implements TaskMetaDataInterface {
     private int deviceIndex;
     private boolean deviceManuallySet;
     private long numThreads;
+    private Method combineFunction;
+    private boolean reduceSingleLaunch;
     private TornadoProfiler profiler;
     private GridScheduler gridScheduler;
     private long[] ptxBlockDim;
@@ -427,6 +430,31 @@ public abstract class AbstractMetaData implements TaskMetaDataInterface {
         this.numThreads = threads;
     }
 
+    /**
+     * Returns the combine function bound to the calls to the combine placeholders
+     * of {@link uk.ac.manchester.tornado.api.primitives.Reduction}, or
+     * {@code null} if the task does not have one.
+     */
+    public Method getCombineFunction() {
+        return combineFunction;
+    }
+
+    public void setCombineFunction(Method combineFunction) {
+        this.combineFunction = combineFunction;
+    }
+
+    /**
+     * Returns whether the reduce arrays of the task have room for the counter of
+     * the work-groups, so that the reduction kernel finishes the reduction.
+     */
+    public boolean isReduceSingleLaunch() {
+        return reduceSingleLaunch;
+    }
+
+    public void setReduceSingleLaunch(boolean reduceSingleLaunch) {
+        this.reduceSingleLaunch = reduceSingleLaunch;
+    }
+
     public void attachProfiler(TornadoProfiler profiler) {
         this.profiler = profiler;
     }
@@ -41,6 +41,7 @@ import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
 import uk.ac.manchester.tornado.runtime.EventSet;
 import uk.ac.manchester.tornado.runtime.common.TornadoXPUDevice;
 import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.DynamicLoopBounds;
 
 public class TaskMetaData extends AbstractMetaData {
 
@@ -52,6 +53,7 @@ public class TaskMetaData extends AbstractMetaData {
     private final int constantSize;
     protected Access[] argumentsAccess;
     protected DomainTree domain;
+    private DynamicLoopBounds dynamicLoopBounds;
     private long[] globalOffset;
     private long[] globalWork;
     private final int localSize;
@@ -74,6 +76,8 @@ public class TaskMetaData extends AbstractMetaData {
 
         // Set the number of threads to run (subset of the input space)
         setNumThreads(scheduleMetaData.getNumThreads());
+        setCombineFunction(scheduleMetaData.getCombineFunction());
+        setReduceSingleLaunch(scheduleMetaData.isReduceSingleLaunch());
     }
 
     public TaskMetaData(ScheduleMetaData scheduleMetaData, String id) {
@@ -314,6 +318,25 @@ public class TaskMetaData extends AbstractMetaData {
         return domain != null;
     }
 
+    /**
+     * Loop bounds read from the kernel context by a size-generic kernel. They
+     * are set while a size-generic kernel is compiled, and while the kernel of
+     * the task is size-generic.
+     *
+     * @return {@link DynamicLoopBounds}, or null if the kernel is specialised.
+     */
+    public DynamicLoopBounds getDynamicLoopBounds() {
+        return dynamicLoopBounds;
+    }
+
+    public void setDynamicLoopBounds(DynamicLoopBounds dynamicLoopBounds) {
+        this.dynamicLoopBounds = dynamicLoopBounds;
+    }
+
+    public boolean hasDynamicLoopBounds() {
+        return dynamicLoopBounds != null;
+    }
+
     @Override
     public boolean isDebug() {
         return super.isDebug() || scheduleMetaData.isDebug();
@@ -0,0 +1,353 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tuning;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import uk.ac.manchester.tornado.runtime.common.TornadoLogger;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+
+/**
+ * Auto-tuner of the local work size (block size in CUDA) of the kernels
+ * scheduled by the backends.
+ *
+ * <p>
+ * For each kernel, device and global work size, the tuner builds a list of
+ * candidate local sizes: the one chosen by the scheduler heuristics, followed
+ * by powers of two that divide the global work size and fit the limits of the
+ * device. The executions of the task run each candidate
+ * {@link TornadoOptions#WORK_GROUP_TUNING_RUNS} times, and the candidate with
+ * the lowest kernel time is used afterwards. Kernels are never launched more
+ * often than the application asks for, so the exploration happens during the
+ * first executions of the task.
+ * </p>
+ *
+ * <p>
+ * The best local size is persisted in {@link TornadoOptions#WORK_GROUP_TUNING_DB}
+ * when the JVM exits, and applied by the next JVM without exploring. Entries
+ * are indexed by the bytecodes of the kernel, the device and the global work
+ * size rounded up to a power of two, so the problem sizes of a bucket share the
+ * same local size whenever it divides their global work size.
+ * </p>
+ */
+public final class WorkGroupTuner {
+
+    /**
+     * Smallest local size explored: half a warp on NVIDIA GPUs.
+     */
+    private static final long MIN_WORK_GROUP_SIZE = 16;
+
+    /**
+     * Smallest number of threads of the multi-dimensional candidates.
+     */
+    private static final long MIN_WORK_GROUP_THREADS = 64;
+
+    /**
+     * Largest ratio between the dimensions of the multi-dimensional candidates.
+     */
+    private static final long MAX_ASPECT_RATIO = 4;
+
+    private static final TornadoLogger logger = new TornadoLogger(WorkGroupTuner.class);
+    private static final String SEPARATOR = "\t";
+
+    private static WorkGroupTuner instance;
+
+    private final Path databaseFile;
+    private final Map<String, long[]> database = new HashMap<>();
+    private final Map<String, WorkGroupTuning> tunings = new ConcurrentHashMap<>();
+    private final Map<ResolvedJavaMethod, String> kernelIds = new ConcurrentHashMap<>();
+    private boolean dirty;
+
+    private WorkGroupTuner(Path databaseFile) {
+        this.databaseFile = databaseFile;
+    }
+
+    public static boolean isEnabled() {
+        return TornadoOptions.WORK_GROUP_TUNING;
+    }
+
+    public static synchronized WorkGroupTuner getInstance() {
+        if (instance == null) {
+            instance = open(Paths.get(TornadoOptions.WORK_GROUP_TUNING_DB));
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::save, "tornado-work-group-tuning"));
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a tuner that reads the tuned local work sizes stored in a database
+     * file. The tuner returned by {@link #getInstance()} uses
+     * {@link TornadoOptions#WORK_GROUP_TUNING_DB}.
+     *
+     * @param databaseFile
+     *     Path of the database.
+     * @return {@link WorkGroupTuner}
+     */
+    public static WorkGroupTuner open(Path databaseFile) {
+        WorkGroupTuner tuner = new WorkGroupTuner(databaseFile);
+        tuner.load();
+        return tuner;
+    }
+
+    /**
+     * Returns the tuning of the local work size of a task. The global work size
+     * of the task must be set.
+     *
+     * @param meta
+     *     {@link TaskMetaData} of the task.
+     * @param device
+     *     Backend and name of the device.
+     * @param localWork
+     *     Local work size chosen by the scheduler heuristics, which is the first
+     *     candidate.
+     * @param maxWorkGroupSize
+     *     Maximum number of threads of a work-group for the kernel.
+     * @param maxWorkItemSizes
+     *     Maximum number of threads of a work-group in each dimension.
+     * @return {@link WorkGroupTuning}
+     */
+    public WorkGroupTuning lookup(TaskMetaData meta, String device, long[] localWork, long maxWorkGroupSize, long[] maxWorkItemSizes) {
+        final int dims = meta.getDims();
+        final long[] globalWork = Arrays.copyOf(meta.getGlobalWork(), dims);
+        final String kernel = getKernelId(meta);
+        final String key = STR."\{kernel}\{SEPARATOR}\{device}\{SEPARATOR}\{describe(globalWork)}";
+        WorkGroupTuning tuning = tunings.get(key);
+        if (tuning == null) {
+            final long[] heuristic = Arrays.copyOf(localWork, dims);
+            final String bucket = STR."\{kernel}\{SEPARATOR}\{device}\{SEPARATOR}\{describe(bucket(globalWork))}";
+            tuning = tunings.computeIfAbsent(key, k -> create(bucket, globalWork, heuristic, maxWorkGroupSize, maxWorkItemSizes));
+        }
+        return tuning;
+    }
+
+    private WorkGroupTuning create(String bucket, long[] globalWork, long[] heuristic, long maxWorkGroupSize, long[] maxWorkItemSizes) {
+        final long[] stored;
+        synchronized (this) {
+            stored = database.get(bucket);
+        }
+        if (stored != null && fits(stored, globalWork, maxWorkGroupSize, maxWorkItemSizes)) {
+            return new WorkGroupTuning(this, bucket, globalWork, List.of(stored), 0);
+        }
+        return new WorkGroupTuning(this, bucket, globalWork, getCandidates(globalWork, heuristic, maxWorkGroupSize, maxWorkItemSizes), TornadoOptions.WORK_GROUP_TUNING_RUNS);
+    }
+
+    /**
+     * Returns the tunings of the kernels compiled from a method, for every device
+     * and global work size seen by the tuner.
+     *
+     * @param method
+     *     Simple name of the class and name of the method, e.g.,
+     *     {@code MyKernels.saxpy}.
+     * @return List of {@link WorkGroupTuning}
+     */
+    public List<WorkGroupTuning> getTunings(String method) {
+        final String prefix = method + "@";
+        return tunings.entrySet().stream().filter(entry -> entry.getKey().startsWith(prefix)).map(Map.Entry::getValue).toList();
+    }
+
+    /**
+     * Returns the local work size stored for a bucket, or null if it has not been
+     * tuned.
+     *
+     * @param bucket
+     *     Bucket of a tuning, see {@link WorkGroupTuning#getBucket()}.
+     * @return long[]
+     */
+    public synchronized long[] getStoredLocalWork(String bucket) {
+        return database.get(bucket);
+    }
+
+    /**
+     * Builds the candidate local work sizes of a kernel: the one chosen by the
+     * scheduler heuristics first, followed by the powers of two that fit the
+     * global work size and the limits of the device.
+     *
+     * @param globalWork
+     *     Global work size of the kernel.
+     * @param heuristic
+     *     Local work size chosen by the scheduler heuristics.
+     * @param maxWorkGroupSize
+     *     Maximum number of threads of a work-group for the kernel.
+     * @param maxWorkItemSizes
+     *     Maximum number of threads of a work-group in each dimension.
+     * @return List of candidates.
+     */
+    public static List<long[]> getCandidates(long[] globalWork, long[] heuristic, long maxWorkGroupSize, long[] maxWorkItemSizes) {
+        final List<long[]> candidates = new ArrayList<>();
+        candidates.add(heuristic);
+        if (globalWork.length == 1) {
+            for (long x = MIN_WORK_GROUP_SIZE; x <= maxWorkGroupSize; x <<= 1) {
+                addCandidate(candidates, new long[] { x }, globalWork, maxWorkGroupSize, maxWorkItemSizes);
+            }
+        } else {
+            // The third dimension, if any, keeps a single thread, as in the scheduler heuristics
+            for (long x = 1; x <= maxWorkGroupSize; x <<= 1) {
+                for (long y = 1; x * y <= maxWorkGroupSize; y <<= 1) {
+                    if (x * y >= MIN_WORK_GROUP_THREADS && Math.max(x, y) <= MAX_ASPECT_RATIO * Math.min(x, y)) {
+                        long[] candidate = globalWork.length == 2 ? new long[] { x, y } : new long[] { x, y, 1 };
+                        addCandidate(candidates, candidate, globalWork, maxWorkGroupSize, maxWorkItemSizes);
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static void addCandidate(List<long[]> candidates, long[] candidate, long[] globalWork, long maxWorkGroupSize, long[] maxWorkItemSizes) {
+        if (fits(candidate, globalWork, maxWorkGroupSize, maxWorkItemSizes) && candidates.stream().noneMatch(c -> Arrays.equals(c, candidate))) {
+            candidates.add(candidate);
+        }
+    }
+
+    /**
+     * Whether a local work size can be used with a global work size: it has the
+     * same dimensions, divides the global work size and fits the limits of the
+     * device.
+     */
+    public static boolean fits(long[] localWork, long[] globalWork, long maxWorkGroupSize, long[] maxWorkItemSizes) {
+        if (localWork.length != globalWork.length) {
+            return false;
+        }
+        long threads = 1;
+        for (int i = 0; i < localWork.length; i++) {
+            if (localWork[i] < 1 || globalWork[i] % localWork[i] != 0 || (i < maxWorkItemSizes.length && localWork[i] > maxWorkItemSizes[i])) {
+                return false;
+            }
+            threads *= localWork[i];
+        }
+        return threads <= maxWorkGroupSize;
+    }
+
+    /**
+     * Rounds up each dimension of the global work size to a power of two.
+     */
+    public static long[] bucket(long[] globalWork) {
+        return Arrays.stream(globalWork).map(size -> size <= 1 ? 1 : Long.highestOneBit(size - 1) << 1).toArray();
+    }
+
+    private static String describe(long[] sizes) {
+        return Arrays.stream(sizes).mapToObj(Long::toString).collect(Collectors.joining(","));
+    }
+
+    private static long[] parse(String sizes) {
+        return Arrays.stream(sizes.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+
+    /**
+     * Identifies a kernel by the digest of the bytecodes of its method, so the
+     * tuning of a kernel is discarded when its code changes. Tasks compiled
+     * without a method, such as prebuilt tasks, are identified by their name.
+     */
+    private String getKernelId(TaskMetaData meta) {
+        if (meta.getCompiledResolvedJavaMethod() instanceof ResolvedJavaMethod method) {
+            return kernelIds.computeIfAbsent(method, m -> {
+                final MessageDigest digest;
+                try {
+                    digest = MessageDigest.getInstance("SHA-256");
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException(e);
+                }
+                digest.update(m.format("%H.%n(%P)%R").getBytes(StandardCharsets.UTF_8));
+                if (m.getCode() != null) {
+                    digest.update(m.getCode());
+                }
+                return STR."\{m.format("%h.%n")}@\{HexFormat.of().formatHex(digest.digest(), 0, 8)}";
+            });
+        }
+        return meta.getId();
+    }
+
+    synchronized void store(String bucket, long[] localWork, long time) {
+        database.put(bucket, localWork);
+        dirty = true;
+        logger.info("Work-group tuning of %s: local work %s in %d ns", bucket.replace(SEPARATOR, " | "), Arrays.toString(localWork), time);
+    }
+
+    private void load() {
+        if (!Files.exists(databaseFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(databaseFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(SEPARATOR);
+                if (fields.length != 4) {
+                    continue;
+                }
+                database.put(String.join(SEPARATOR, fields[0], fields[1], fields[2]), parse(fields[3]));
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Unable to read the work-group tuning database %s: %s", databaseFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the database file if a kernel was tuned since it was read. It is
+     * called when the JVM exits for the tuner returned by {@link #getInstance()}.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            Path directory = databaseFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, databaseFile.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, long[]> entry : database.entrySet()) {
+                    writer.write(String.join(SEPARATOR, entry.getKey(), describe(entry.getValue())));
+                    writer.newLine();
+                }
+            }
+            try {
+                Files.move(tmp, databaseFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, databaseFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            logger.warn("Unable to store the work-group tuning database %s: %s", databaseFile, e.getMessage());
+        }
+    }
+}
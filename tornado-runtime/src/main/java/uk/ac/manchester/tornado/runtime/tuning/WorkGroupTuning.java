@@ -0,0 +1,149 @@
+/*
+ * This file is part of Tornado: A heterogeneous programming framework:
+ * https://github.com/beehive-lab/tornadovm
+ *
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ */
+package uk.ac.manchester.tornado.runtime.tuning;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * State of the tuning of the local work size of a kernel, for a device and a
+ * global work size. The scheduler launches the kernel with
+ * {@link #getLocalWork()} and, while {@link #isTuning()} holds, reports the
+ * kernel time of the launch with {@link #record(long[], long)}.
+ */
+public final class WorkGroupTuning {
+
+    private final WorkGroupTuner tuner;
+    private final String bucket;
+    private final long[] globalWork;
+    private final List<long[]> candidates;
+    private final long[] times;
+    private final int runs;
+
+    private int candidate;
+    private int run;
+    private long[] best;
+
+    WorkGroupTuning(WorkGroupTuner tuner, String bucket, long[] globalWork, List<long[]> candidates, int runs) {
+        this.tuner = tuner;
+        this.bucket = bucket;
+        this.globalWork = globalWork;
+        this.candidates = candidates;
+        this.times = new long[candidates.size()];
+        this.runs = runs;
+        Arrays.fill(times, Long.MAX_VALUE);
+        if (candidates.size() == 1 || runs <= 0) {
+            best = candidates.getFirst();
+        }
+    }
+
+    /**
+     * Returns the local work size of the next launch: the candidate under
+     * evaluation while tuning, and the best candidate afterwards.
+     *
+     * @return long[]
+     */
+    public synchronized long[] getLocalWork() {
+        return best != null ? best : candidates.get(candidate);
+    }
+
+    public synchronized boolean isTuning() {
+        return best == null;
+    }
+
+    /**
+     * Returns the key of the tuning in the database: the kernel, the device and
+     * the global work size rounded up to a power of two.
+     *
+     * @return String
+     */
+    public String getBucket() {
+        return bucket;
+    }
+
+    public long[] getGlobalWork() {
+        return globalWork.clone();
+    }
+
+    /**
+     * Returns the candidate local work sizes, in the order they are explored. A
+     * tuning that reuses a stored local work size has a single candidate.
+     *
+     * @return List of candidates.
+     */
+    public List<long[]> getCandidates() {
+        return Collections.unmodifiableList(candidates);
+    }
+
+    /**
+     * Records the kernel time of a launch with a candidate. Launches of a
+     * candidate that is no longer under evaluation, e.g., from another thread,
+     * are ignored.
+     *
+     * @param localWork
+     *     Candidate returned by {@link #getLocalWork()}.
+     * @param time
+     *     Kernel time in ns.
+     */
+    public synchronized void record(long[] localWork, long time) {
+        if (best != null || localWork != candidates.get(candidate)) {
+            return;
+        }
+        times[candidate] = Math.min(times[candidate], time);
+        if (++run == runs) {
+            next();
+        }
+    }
+
+    /**
+     * Discards a candidate that the driver could not launch, e.g., because the
+     * kernel needs more resources per thread than the device limits assume.
+     *
+     * @param localWork
+     *     Candidate returned by {@link #getLocalWork()}.
+     */
+    public synchronized void reject(long[] localWork) {
+        if (best != null || localWork != candidates.get(candidate)) {
+            return;
+        }
+        times[candidate] = Long.MAX_VALUE;
+        next();
+    }
+
+    private void next() {
+        run = 0;
+        if (++candidate < candidates.size()) {
+            return;
+        }
+        int fastest = 0;
+        for (int i = 1; i < times.length; i++) {
+            if (times[i] < times[fastest]) {
+                fastest = i;
+            }
+        }
+        best = candidates.get(fastest);
+        tuner.store(bucket, best, times[fastest]);
+    }
+}
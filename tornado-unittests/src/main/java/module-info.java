@@ -1,9 +1,12 @@
 open module tornado.unittests {
     requires transitive junit;
     requires transitive tornado.api;
+    requires tornado.runtime;
+    requires tornado.drivers.common;
     requires lucene.core;
     requires java.desktop;
     requires jdk.incubator.vector;
+    requires jdk.jfr;
     requires com.microsoft.onnxruntime;
 
     exports uk.ac.manchester.tornado.unittests;
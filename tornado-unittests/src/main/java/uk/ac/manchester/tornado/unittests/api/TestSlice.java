@@ -18,6 +18,12 @@
 package uk.ac.manchester.tornado.unittests.api;
 
 import org.junit.Test;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
 import uk.ac.manchester.tornado.api.types.HalfFloat;
 import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
 import uk.ac.manchester.tornado.api.types.arrays.CharArray;
@@ -29,7 +35,9 @@ import uk.ac.manchester.tornado.api.types.arrays.LongArray;
 import uk.ac.manchester.tornado.api.types.arrays.ShortArray;
 import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * How to run?
@@ -203,4 +211,77 @@ public class TestSlice extends TornadoTestBase {
 
     }
 
+    public static void addOne(FloatArray array) {
+        for (@Parallel int i = 0; i < array.getSize(); i++) {
+            array.set(i, array.get(i) + 1.0f);
+        }
+    }
+
+    @Test
+    public void testSliceIsView() {
+        FloatArray array = new FloatArray(numElements * 2);
+        array.init(1.0f);
+
+        FloatArray slice = array.slice(numElements, numElements);
+        assertTrue(slice.isView());
+        slice.init(2.0f);
+
+        for (int i = 0; i < numElements; i++) {
+            assertEquals(1.0f, array.get(i), 0.0f);
+            assertEquals(2.0f, array.get(numElements + i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testSliceOnDevice() throws TornadoExecutionPlanException {
+        FloatArray array = new FloatArray(numElements * 3);
+        for (int i = 0; i < array.getSize(); i++) {
+            array.set(i, i);
+        }
+
+        // The elements before the slice share memory with the header of the view
+        FloatArray slice = array.slice(numElements + 1, numElements);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, slice) //
+                .task("t0", TestSlice::addOne, slice) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, slice);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < array.getSize(); i++) {
+            boolean inSlice = i > numElements && i <= 2 * numElements;
+            assertEquals(inSlice ? i + 1.0f : i, array.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testBulkCopies() {
+        float[] floats = new float[numElements];
+        int[] ints = new int[numElements];
+        short[] halfFloats = new short[numElements];
+        for (int i = 0; i < numElements; i++) {
+            floats[i] = i * 0.5f;
+            ints[i] = -i;
+            halfFloats[i] = new HalfFloat(i).getHalfFloatValue();
+        }
+
+        FloatArray floatArray = FloatArray.fromArray(floats);
+        IntArray intArray = IntArray.fromArray(ints);
+        HalfFloatArray halfFloatArray = HalfFloatArray.fromShortArray(halfFloats);
+        for (int i = 0; i < numElements; i++) {
+            assertEquals(floats[i], floatArray.get(i), 0.0f);
+            assertEquals(ints[i], intArray.get(i));
+            assertEquals(i, halfFloatArray.get(i).getFloat32(), 0.0f);
+        }
+
+        assertArrayEquals(floats, floatArray.toHeapArray(), 0.0f);
+        assertArrayEquals(ints, intArray.toHeapArray());
+        assertArrayEquals(halfFloats, halfFloatArray.toShortArray());
+        assertArrayEquals(new float[] { 10.0f, 10.5f }, floatArray.slice(20, 2).toHeapArray(), 0.0f);
+    }
+
 }
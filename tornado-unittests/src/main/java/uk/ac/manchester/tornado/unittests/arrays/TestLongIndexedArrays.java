@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.arrays;
+
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.ByteArray;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.api.types.arrays.TornadoNativeArray;
+import uk.ac.manchester.tornado.api.types.tensors.Shape;
+import uk.ac.manchester.tornado.api.types.tensors.TensorFP32;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
+
+/**
+ * How to test?
+ *
+ * <code>
+ *     tornado-test -V uk.ac.manchester.tornado.unittests.arrays.TestLongIndexedArrays
+ * </code>
+ */
+public class TestLongIndexedArrays extends TornadoTestBase {
+
+    private static final int SIZE = 8192;
+
+    private static final long LARGE_SIZE = (1L << 31) + 1024;
+
+    public static void copyWithLongIndex(FloatArray input, FloatArray output, long offset) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            long index = offset + i;
+            output.set(i, input.get(index) * 2.0f);
+        }
+    }
+
+    public static void writeTail(ByteArray array, long offset) {
+        for (@Parallel int i = 0; i < 1024; i++) {
+            long index = offset + i;
+            array.set(index, (byte) (i & 0x7F));
+        }
+    }
+
+    @Test
+    public void testLongAccessors() {
+        FloatArray floatArray = new FloatArray((long) SIZE);
+        DoubleArray doubleArray = new DoubleArray((long) SIZE);
+        IntArray intArray = new IntArray((long) SIZE);
+        LongArray longArray = new LongArray((long) SIZE);
+        for (long i = 0; i < SIZE; i++) {
+            floatArray.set(i, i);
+            doubleArray.set(i, i);
+            intArray.set(i, (int) i);
+            longArray.set(i, i << 32);
+        }
+
+        assertEquals(SIZE, floatArray.getSizeAsLong());
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i, floatArray.get(i), 0.0f);
+            assertEquals(i, doubleArray.get((long) i), 0.0);
+            assertEquals(i, intArray.get((long) i));
+            assertEquals((long) i << 32, longArray.get((long) i));
+        }
+    }
+
+    @Test
+    public void testSizeInHeader() {
+        FloatArray array = new FloatArray(SIZE);
+        assertEquals(SIZE, array.getSegmentWithHeader().get(JAVA_LONG, 0));
+        assertEquals(SIZE, array.getHeaderSegment().get(JAVA_LONG, 0));
+
+        FloatArray slice = array.slice(16, 128);
+        assertEquals(128, slice.getHeaderSegment().get(JAVA_LONG, 0));
+        assertEquals(SIZE, array.getSegmentWithHeader().get(JAVA_LONG, 0));
+    }
+
+    @Test
+    public void testTensorLongAccessors() {
+        TensorFP32 tensor = new TensorFP32(new Shape(64, 128));
+        for (long i = 0; i < tensor.getSizeAsLong(); i++) {
+            tensor.set(i, i);
+        }
+        assertEquals(64 * 128, tensor.getSizeAsLong());
+        assertEquals(100.0f, tensor.get(100L), 0.0f);
+    }
+
+    @Test
+    public void testSizeLargerThanIntRange() {
+        Shape shape = new Shape(1 << 16, 1 << 16);
+        assertEquals(1L << 32, shape.getSizeAsLong());
+        assertThrows(ArithmeticException.class, shape::getSize);
+    }
+
+    @Test
+    public void testLongIndexInKernel() throws TornadoExecutionPlanException {
+        FloatArray input = new FloatArray(SIZE * 2);
+        FloatArray output = new FloatArray(SIZE);
+        for (int i = 0; i < input.getSize(); i++) {
+            input.set(i, i);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestLongIndexedArrays::copyWithLongIndex, input, output, (long) SIZE) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals((SIZE + i) * 2.0f, output.get(i), 0.0f);
+        }
+    }
+
+    @Test
+    public void testArrayLargerThanIntRange() throws TornadoExecutionPlanException {
+        if (getTornadoRuntime().getDefaultDevice().getMaxAllocMemory() < LARGE_SIZE + TornadoNativeArray.ARRAY_HEADER) {
+            throw new UnsupportedConfigurationException("Not enough memory to run the test");
+        }
+
+        ByteArray array = new ByteArray(LARGE_SIZE);
+        long offset = LARGE_SIZE - 1024;
+        assertEquals(LARGE_SIZE, array.getSizeAsLong());
+        assertThrows(ArithmeticException.class, array::getSize);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, array) //
+                .task("t0", TestLongIndexedArrays::writeTail, array, offset) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, array);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < 1024; i++) {
+            assertEquals((byte) (i & 0x7F), array.get(offset + i));
+        }
+        assertEquals(0, array.get(offset - 1));
+    }
+}
@@ -162,6 +162,12 @@ public class TestBatches extends TornadoTestBase {
         }
     }
 
+    static void lookup(IntArray indexes, FloatArray table, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, table.get(indexes.get(i)));
+        }
+    }
+
     public static void compute(FloatArray data, float beta) {
         for (@Parallel int i = 0; i < data.getSize(); i++) {
             data.set(i, i * 20 + beta);
@@ -621,6 +627,68 @@ public class TestBatches extends TornadoTestBase {
         executionPlan.freeDeviceMemory();
     }
 
+    @Test
+    public void test50MBDoubleBuffered() {
+
+        long maxAllocMemory = checkMaxHeapAllocationOnDevice(50, MemoryUnit.MB);
+
+        // Fill 320MB of float array, which is not a multiple of the batch size
+        int size = 80000000;
+        // or as much as we can
+        if (size * 4 > maxAllocMemory) {
+            size = (int) ((maxAllocMemory / 4 / 3) * 0.9);
+        }
+        FloatArray arrayA = new FloatArray(size);
+        FloatArray arrayB = new FloatArray(size);
+        FloatArray arrayC = new FloatArray(size);
+
+        Random r = new Random();
+        IntStream.range(0, arrayA.getSize()).sequential().forEach(idx -> {
+            arrayA.set(idx, r.nextFloat());
+            arrayB.set(idx, r.nextFloat());
+        });
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, arrayA, arrayB) //
+                .task("t0", TestBatches::compute, arrayA, arrayB, arrayC) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, arrayC);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph);
+        executionPlan.withBatch("50MB", 2); // Slots of 50 MB, two of them in flight
+
+        // Run twice to check the reuse of the buffers across executions
+        for (int iteration = 0; iteration < 2; iteration++) {
+            executionPlan.execute();
+            for (int i = 0; i < arrayA.getSize(); i++) {
+                assertEquals(arrayA.get(i) + arrayB.get(i), arrayC.get(i), 0.01f);
+            }
+            arrayC.init(0);
+        }
+        executionPlan.freeDeviceMemory();
+    }
+
+    @Test
+    public void testTripleBufferedJavaArrays() {
+        checkMaxHeapAllocationOnDevice(8, MemoryUnit.MB);
+        int[] a0 = new int[10 * 1_000_000];
+        float[] a1 = new float[10 * 1_000_000];
+        IntStream.range(0, a0.length).forEach(i -> a0[i] = i);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a0) //
+                .task("t0", TestBatches::compute, a0, a1) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a1);
+        ImmutableTaskGraph snapshot = taskGraph.snapshot();
+        TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(snapshot);
+        executionPlan.withBatch("4MB", 3).execute();
+
+        for (int i = 0; i < a0.length; i++) {
+            assertEquals(a0[i], a1[i], 0.01f);
+        }
+        executionPlan.freeDeviceMemory();
+    }
+
     @Test
     public void testSameInputSizeAndTypeRestriction() {
         // total input size mismatch for IntArray
@@ -711,6 +779,78 @@ public class TestBatches extends TornadoTestBase {
         executionPlan.freeDeviceMemory();
     }
 
+    @Test
+    public void testUnevenBatchesExecutedMultipleTimes() {
+        // 2.5MB of floats in batches of 1MB: the last batch has a different size, so the
+        // kernel is specialised twice, and both versions are reused in the next executions
+        checkMaxHeapAllocationOnDevice(4, MemoryUnit.MB);
+        FloatArray arrayA = new FloatArray(640 * 1024);
+        FloatArray arrayB = new FloatArray(640 * 1024);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, arrayA) //
+                .task("t0", TestBatches::compute, arrayA, arrayB) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, arrayB);
+        TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot());
+        executionPlan.withBatch("1MB");
+
+        for (int iteration = 0; iteration < 3; iteration++) {
+            final int value = iteration;
+            IntStream.range(0, arrayA.getSize()).forEach(i -> arrayA.set(i, i + value));
+            executionPlan.execute();
+            for (int i = 0; i < arrayB.getSize(); i++) {
+                assertEquals(i + value + 100, arrayB.get(i), 0.01f);
+            }
+        }
+        executionPlan.freeDeviceMemory();
+    }
+
+    @Test
+    public void testDifferentElementSizes() {
+        // IntArray is compatible with LongArray for the same # of elements
+        checkMaxHeapAllocationOnDevice(4, MemoryUnit.MB);
+        IntArray a0 = new IntArray(2 * 1_000_000);
+        IntStream.range(0, a0.getSize()).forEach(i -> a0.set(i, i));
+        LongArray a1 = new LongArray(2 * 1_000_000);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a0) //
+                .task("t0", TestBatches::compute, a0, a1) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a1);
+        ImmutableTaskGraph snapshot = taskGraph.snapshot();
+        TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(snapshot);
+        executionPlan.withBatch("1MB").execute();
+
+        for (int i = 0; i < a1.getSize(); i++) {
+            assertEquals(a0.get(i), a1.get(i));
+        }
+        executionPlan.freeDeviceMemory();
+    }
+
+    @Test
+    public void testResidentLookupTable() {
+        // The lookup table is smaller than the batch, so it is kept on the device for all batches
+        checkMaxHeapAllocationOnDevice(4, MemoryUnit.MB);
+        IntArray indexes = new IntArray(2 * 1_000_000);
+        FloatArray table = new FloatArray(256);
+        FloatArray output = new FloatArray(2 * 1_000_000);
+        IntStream.range(0, indexes.getSize()).forEach(i -> indexes.set(i, i % table.getSize()));
+        IntStream.range(0, table.getSize()).forEach(i -> table.set(i, i * 0.5f));
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, indexes, table) //
+                .task("t0", TestBatches::lookup, indexes, table, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+        ImmutableTaskGraph snapshot = taskGraph.snapshot();
+        TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(snapshot);
+        executionPlan.withBatch("1MB").execute();
+
+        for (int i = 0; i < output.getSize(); i++) {
+            assertEquals(table.get(indexes.get(i)), output.get(i), 0.01f);
+        }
+        executionPlan.freeDeviceMemory();
+    }
+
     @Test
     public void testSameInputSizeJavaArrays() {
         // int[] is compatible with float[] for the same # of elements
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.DynamicLoopBounds;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
+
+/**
+ * Tests that a task executed with sizes that have no specialised kernel reuses
+ * its size-generic kernel, instead of being compiled again.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test --jvm="-Dtornado.kernel.variants.generic=True" -V uk.ac.manchester.tornado.unittests.cache.TestGenericKernelVariants
+ * </code>
+ */
+public class TestGenericKernelVariants extends TornadoTestBase {
+
+    public static void add(IntArray a, IntArray b, IntArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    public static void scale(int[] input, int[] output, int n) {
+        for (@Parallel int i = 0; i < n; i++) {
+            output[i] = input[i] * 2;
+        }
+    }
+
+    public static void transpose(IntArray input, IntArray output, int rows, int columns) {
+        for (@Parallel int i = 0; i < rows; i++) {
+            for (@Parallel int j = 0; j < columns; j++) {
+                output.set(j * rows + i, input.get(i * columns + j));
+            }
+        }
+    }
+
+    @Before
+    public void checkGenericVariants() {
+        if (!TornadoOptions.KERNEL_VARIANTS_GENERIC) {
+            throw new UnsupportedConfigurationException("Test requires -Dtornado.kernel.variants.generic=True");
+        }
+    }
+
+    private static long executeAdd(int numElements) throws TornadoExecutionPlanException {
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+        for (int i = 0; i < numElements; i++) {
+            a.set(i, i);
+            b.set(i, 2 * i);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("generic0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestGenericKernelVariants::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            long compilerTime = executionPlan.withProfiler(ProfilerMode.SILENT).execute().getProfilerResult().getTornadoCompilerTime();
+            for (int i = 0; i < numElements; i++) {
+                assertEquals(3 * i, c.get(i));
+            }
+            return compilerTime;
+        }
+    }
+
+    private static long executeScale(int n) throws TornadoExecutionPlanException {
+        int[] input = new int[n];
+        int[] output = new int[n];
+        for (int i = 0; i < n; i++) {
+            input[i] = i;
+        }
+
+        TaskGraph taskGraph = new TaskGraph("generic1") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestGenericKernelVariants::scale, input, output, n) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            long compilerTime = executionPlan.withProfiler(ProfilerMode.SILENT).execute().getProfilerResult().getTornadoCompilerTime();
+            for (int i = 0; i < n; i++) {
+                assertEquals(2 * i, output[i]);
+            }
+            return compilerTime;
+        }
+    }
+
+    private static long executeTranspose(int rows, int columns) throws TornadoExecutionPlanException {
+        IntArray input = new IntArray(rows * columns);
+        IntArray output = new IntArray(rows * columns);
+        for (int i = 0; i < rows * columns; i++) {
+            input.set(i, i);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("generic2") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestGenericKernelVariants::transpose, input, output, rows, columns) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            long compilerTime = executionPlan.withProfiler(ProfilerMode.SILENT).execute().getProfilerResult().getTornadoCompilerTime();
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns; j++) {
+                    assertEquals(i * columns + j, output.get(j * rows + i));
+                }
+            }
+            return compilerTime;
+        }
+    }
+
+    @Test
+    public void testNativeArrayLength() throws TornadoExecutionPlanException {
+        assertNotBackend(TornadoVMBackendType.PTX);
+        assertNotBackend(TornadoVMBackendType.SPIRV);
+        TornadoRuntime.getTornadoRuntime().getDefaultDevice().clean();
+
+        // The first size is specialised, and the second one is compiled into a size-generic kernel
+        assertTrue(executeAdd(1024) > 0);
+        assertTrue(executeAdd(4096) > 0);
+
+        // Other sizes reuse the size-generic kernel
+        assertEquals(0, executeAdd(2048));
+        assertEquals(0, executeAdd(333));
+        assertEquals(0, executeAdd(1024));
+    }
+
+    @Test
+    public void testScalarBound() throws TornadoExecutionPlanException {
+        assertNotBackend(TornadoVMBackendType.PTX);
+        assertNotBackend(TornadoVMBackendType.SPIRV);
+        TornadoRuntime.getTornadoRuntime().getDefaultDevice().clean();
+
+        assertTrue(executeScale(512) > 0);
+        assertTrue(executeScale(8192) > 0);
+        assertEquals(0, executeScale(100));
+        assertEquals(0, executeScale(65536));
+    }
+
+    @Test
+    public void testTwoDimensions() throws TornadoExecutionPlanException {
+        assertNotBackend(TornadoVMBackendType.PTX);
+        assertNotBackend(TornadoVMBackendType.SPIRV);
+        TornadoRuntime.getTornadoRuntime().getDefaultDevice().clean();
+
+        assertTrue(executeTranspose(64, 64) > 0);
+        assertTrue(executeTranspose(128, 32) > 0);
+        assertEquals(0, executeTranspose(32, 256));
+        assertEquals(0, executeTranspose(17, 5));
+    }
+
+    @Test
+    public void testResolveDomain() {
+        // transpose(input, output, rows, columns): both bounds are scalar arguments
+        DynamicLoopBounds dynamicLoopBounds = new DynamicLoopBounds(4);
+        assertEquals(0, dynamicLoopBounds.addBound(2, false, 64, new int[] { 0 }));
+        assertEquals(1, dynamicLoopBounds.addBound(3, false, 32, new int[] { 1 }));
+        dynamicLoopBounds.foldLength(0);
+        assertTrue(dynamicLoopBounds.isGeneric());
+        assertTrue(dynamicLoopBounds.isScalarBound(2));
+        assertFalse(dynamicLoopBounds.isScalarBound(0));
+        assertEquals(32, dynamicLoopBounds.getCompiledBound(1));
+
+        DomainTree domain = new DomainTree(2);
+        domain.set(0, new IntDomain(0, 1, 64));
+        domain.set(1, new IntDomain(0, 1, 32));
+        DomainTree resolved = dynamicLoopBounds.resolveDomain(domain, new Object[] { null, null, 17, 5 });
+        assertEquals(17, resolved.get(0).cardinality());
+        assertEquals(5, resolved.get(1).cardinality());
+
+        // A bound given by the length of an array that is also folded into the kernel
+        DynamicLoopBounds foldedLength = new DynamicLoopBounds(1);
+        foldedLength.addBound(0, true, 1024, new int[] { 0 });
+        foldedLength.foldLength(0);
+        assertFalse(foldedLength.isGeneric());
+        assertFalse(new DynamicLoopBounds(1).isGeneric());
+    }
+}
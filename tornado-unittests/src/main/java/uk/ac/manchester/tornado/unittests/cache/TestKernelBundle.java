@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.runtime.cache.KernelBundle;
+import uk.ac.manchester.tornado.runtime.cache.KernelCacheEntry;
+import uk.ac.manchester.tornado.runtime.cache.KernelCacheKey;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.tasks.meta.ScheduleMetaData;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
+
+/**
+ * Tests the generation and the lookups of ahead-of-time kernel bundles.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.cache.TestKernelBundle
+ * </code>
+ *
+ * <p>
+ * The end-to-end tests generate a bundle on the virtual device, and load it in
+ * another JVM:
+ * </p>
+ * <code>
+ * tornado-test --jvm="-Dtornado.virtual.device=True -Dtornado.device.desc=$TORNADO_SDK/examples/virtual-device-GPU.json -Dtornado.kernel.bundle=/tmp/bundle -Dtornado.kernel.bundle.generate=True" -V uk.ac.manchester.tornado.unittests.cache.TestKernelBundle#testGenerateOnVirtualDevice
+ * tornado-test --jvm="-Dtornado.kernel.bundle=/tmp/bundle" -V uk.ac.manchester.tornado.unittests.cache.TestKernelBundle#testLoadBundle
+ * </code>
+ */
+public class TestKernelBundle extends TornadoTestBase {
+
+    private static final String BACKEND = "OPENCL";
+    private static final String DEVICE = "Test Device";
+    private static final String RUNTIME = "tornado-runtime.jar:1024|tornado-drivers-opencl.jar:2048";
+    private static final byte[] CODE = "__kernel void kernel() {}".getBytes(StandardCharsets.UTF_8);
+    private static final String MANIFEST = "MANIFEST.properties";
+    private static final int SIZE = 1024;
+
+    private Path directory;
+
+    @Before
+    public void createBundleDirectory() throws IOException {
+        directory = Files.createTempDirectory("tornado-kernel-bundle");
+    }
+
+    @After
+    public void deleteBundleDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static KernelCacheKey createKey(String device, String runtime) {
+        return KernelCacheKey.create(BACKEND, device, runtime, "kernel", "FloatArray[1024]");
+    }
+
+    private static DomainTree createDomain(int size) {
+        DomainTree domain = new DomainTree(1);
+        domain.set(0, new IntDomain(0, 1, size));
+        return domain;
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            properties.load(inputStream);
+        }
+        return properties;
+    }
+
+    private static void update(Path file, String name, String value) throws IOException {
+        Properties properties = load(file);
+        properties.setProperty(name, value);
+        try (OutputStream outputStream = Files.newOutputStream(file)) {
+            properties.store(outputStream, null);
+        }
+    }
+
+    private KernelCacheKey generate() {
+        KernelCacheKey key = createKey(DEVICE, RUNTIME);
+        KernelBundle.open(directory, true).store(key, "kernel", CODE, createDomain(1024));
+        return key;
+    }
+
+    public static void saxpy(float alpha, FloatArray x, FloatArray y) {
+        for (@Parallel int i = 0; i < y.getSize(); i++) {
+            y.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        KernelCacheKey key = generate();
+
+        Properties manifest = load(directory.resolve(MANIFEST));
+        assertEquals("1", manifest.getProperty("format"));
+        assertEquals(STR."\{BACKEND}|\{DEVICE}|kernel", manifest.getProperty(STR."kernel.\{key.getBundleHash()}"));
+        assertTrue(Files.exists(directory.resolve(key.getBundleHash() + ".code")));
+        assertTrue(Files.exists(directory.resolve(key.getBundleHash() + ".properties")));
+
+        KernelBundle bundle = KernelBundle.open(directory, false);
+        KernelCacheEntry entry = bundle.lookup(key);
+        assertNotNull(entry);
+        assertEquals("kernel", entry.getEntryPoint());
+        assertArrayEquals(CODE, entry.getCode());
+        assertFalse(entry.hasBinary());
+        assertEquals(1, bundle.getHits());
+
+        TaskMetaData meta = new TaskMetaData(new ScheduleMetaData("s0"), "t0");
+        entry.restoreDomain(meta);
+        assertEquals(1024, meta.getDomain().get(0).cardinality());
+
+        // The bundle only describes the device by its backend and name
+        assertNull(bundle.lookup(KernelCacheKey.create(BACKEND, "Other Device", RUNTIME, "kernel", "FloatArray[1024]")));
+        assertNull(bundle.lookup(KernelCacheKey.create(BACKEND, DEVICE, RUNTIME, "kernel", "FloatArray[2048]")));
+        assertEquals(0, bundle.getRejections());
+    }
+
+    @Test
+    public void testLookupBypassedWhileGenerating() {
+        KernelCacheKey key = generate();
+
+        // Every kernel is compiled while a bundle is generated, so that it is complete
+        KernelBundle generating = KernelBundle.open(directory, true);
+        assertNull(generating.lookup(key));
+        assertEquals(0, generating.getHits());
+        assertNotNull(KernelBundle.open(directory, false).lookup(key));
+    }
+
+    @Test
+    public void testUnsupportedManifestFormat() throws IOException {
+        KernelCacheKey key = generate();
+        update(directory.resolve(MANIFEST), "format", "2");
+        assertNull(KernelBundle.open(directory, false).lookup(key));
+
+        Files.delete(directory.resolve(MANIFEST));
+        assertNull(KernelBundle.open(directory, false).lookup(key));
+    }
+
+    @Test
+    public void testDeviceMismatch() throws IOException {
+        KernelCacheKey key = generate();
+        update(directory.resolve(key.getBundleHash() + ".properties"), "device", STR."\{BACKEND}|Other Device");
+
+        KernelBundle bundle = KernelBundle.open(directory, false);
+        assertNull(bundle.lookup(key));
+        assertEquals(1, bundle.getRejections());
+    }
+
+    @Test
+    public void testRuntimeStampMismatch() throws IOException {
+        KernelCacheKey key = generate();
+        update(directory.resolve(key.getBundleHash() + ".properties"), "runtime", "tornado-runtime.jar:4096|tornado-drivers-opencl.jar:2048");
+
+        KernelBundle bundle = KernelBundle.open(directory, false);
+        assertNull(bundle.lookup(key));
+        assertEquals(1, bundle.getRejections());
+
+        // A different build of TornadoVM is also a different digest
+        KernelCacheKey otherRuntime = createKey(DEVICE, "tornado-runtime.jar:4096|tornado-drivers-opencl.jar:2048");
+        assertNotEquals(key.getBundleHash(), otherRuntime.getBundleHash());
+    }
+
+    @Test
+    public void testChecksum() throws IOException {
+        KernelCacheKey key = generate();
+        Files.write(directory.resolve(key.getBundleHash() + ".code"), "__kernel void other() {}".getBytes(StandardCharsets.UTF_8));
+
+        KernelBundle bundle = KernelBundle.open(directory, false);
+        assertNull(bundle.lookup(key));
+        assertEquals(1, bundle.getRejections());
+        // The bundle is read-only: rejected kernels are not removed
+        assertTrue(Files.exists(directory.resolve(key.getBundleHash() + ".code")));
+    }
+
+    private static void runSaxpy() throws TornadoExecutionPlanException {
+        FloatArray x = new FloatArray(SIZE);
+        FloatArray y = new FloatArray(SIZE);
+        x.init(2.0f);
+        y.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, x, y) //
+                .task("t0", TestKernelBundle::saxpy, 3.0f, x, y) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+        if (!TornadoOptions.VIRTUAL_DEVICE_ENABLED) {
+            for (int i = 0; i < SIZE; i++) {
+                assertEquals(7.0f, y.get(i), 0.001f);
+            }
+        }
+    }
+
+    private static List<String> getBundledKernels(Properties manifest) {
+        return manifest.stringPropertyNames().stream().filter(name -> name.startsWith("kernel.")).map(manifest::getProperty).toList();
+    }
+
+    @Test
+    public void testGenerateOnVirtualDevice() throws IOException, TornadoExecutionPlanException {
+        if (!TornadoOptions.VIRTUAL_DEVICE_ENABLED || !KernelBundle.isGenerating()) {
+            throw new UnsupportedConfigurationException("Test requires a virtual device and -Dtornado.kernel.bundle.generate=True");
+        }
+        runSaxpy();
+
+        Path bundleDirectory = KernelBundle.getInstance().getDirectory();
+        List<String> kernels = getBundledKernels(load(bundleDirectory.resolve(MANIFEST)));
+        assertTrue(kernels.stream().anyMatch(kernel -> kernel.startsWith("OPENCL|") && kernel.contains("saxpy")));
+    }
+
+    @Test
+    public void testLoadBundle() throws IOException, TornadoExecutionPlanException {
+        if (!KernelBundle.isEnabled() || KernelBundle.isGenerating() || TornadoOptions.VIRTUAL_DEVICE_ENABLED) {
+            throw new UnsupportedConfigurationException("Test requires -Dtornado.kernel.bundle with a generated bundle");
+        }
+        Path bundleDirectory = KernelBundle.getInstance().getDirectory();
+        if (!Files.exists(bundleDirectory.resolve(MANIFEST))) {
+            throw new UnsupportedConfigurationException("Test requires a bundle generated by testGenerateOnVirtualDevice");
+        }
+        List<String> kernels = getBundledKernels(load(bundleDirectory.resolve(MANIFEST)));
+        String bundledDevice = kernels.stream().filter(kernel -> kernel.contains("saxpy")).findFirst().orElseThrow();
+
+        runSaxpy();
+
+        // The kernel is installed from the bundle if it was generated for this device, and compiled otherwise
+        TornadoDevice device = getTornadoRuntime().getDefaultDevice();
+        boolean sameDevice = bundledDevice.startsWith(STR."\{device.getTornadoVMBackend().name()}|\{device.getPhysicalDevice().getDeviceName()}|");
+        KernelBundle bundle = KernelBundle.getInstance();
+        assertEquals(sameDevice ? 1 : 0, bundle.getHits());
+        assertEquals(0, bundle.getRejections());
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.matrix.Matrix2DFloat;
+import uk.ac.manchester.tornado.runtime.cache.KernelCacheEntry;
+import uk.ac.manchester.tornado.runtime.cache.KernelCacheKey;
+import uk.ac.manchester.tornado.runtime.cache.PersistentKernelCache;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.tasks.meta.ScheduleMetaData;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
+
+/**
+ * Tests the lookups, the validation and the eviction of the persistent kernel
+ * cache.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test --jvm="-Dtornado.kernel.cache=True -Dtornado.kernel.cache.dir=/tmp/kernel-cache" -V uk.ac.manchester.tornado.unittests.cache.TestPersistentKernelCache
+ * </code>
+ */
+public class TestPersistentKernelCache extends TornadoTestBase {
+
+    private static final String BACKEND = "OPENCL";
+    private static final String DEVICE = "Test Platform|Test Device|1.0";
+    private static final String RUNTIME = "tornado-runtime.jar:1024:0";
+    private static final byte[] CODE = "__kernel void kernel() {}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BINARY = { 0x7f, 'E', 'L', 'F', 1, 2, 3, 4 };
+
+    private static final String CODE_SUFFIX = ".code";
+    private static final String BINARY_SUFFIX = ".bin";
+    private static final String METADATA_SUFFIX = ".properties";
+
+    @Before
+    public void checkKernelCache() {
+        if (!TornadoOptions.PERSISTENT_KERNEL_CACHE) {
+            throw new UnsupportedConfigurationException("Test requires -Dtornado.kernel.cache=True");
+        }
+    }
+
+    @After
+    public void removeValidator() {
+        PersistentKernelCache.setValidator(null);
+    }
+
+    /**
+     * Each key is unique, so that the tests do not see the entries of other tests
+     * or of previous runs.
+     */
+    private static KernelCacheKey createKey(String... description) {
+        String[] unique = Stream.concat(Stream.of(Long.toString(System.nanoTime())), Stream.of(description)).toArray(String[]::new);
+        return KernelCacheKey.create(BACKEND, DEVICE, RUNTIME, unique);
+    }
+
+    private static DomainTree createDomain(int size) {
+        DomainTree domain = new DomainTree(1);
+        domain.set(0, new IntDomain(0, 1, size));
+        return domain;
+    }
+
+    private static Path resolve(KernelCacheKey key, String suffix) {
+        return PersistentKernelCache.getCacheDirectory().resolve(key.getHash() + suffix);
+    }
+
+    private static void updateMetadata(KernelCacheKey key, String name, String value) throws IOException {
+        Properties metadata = new Properties();
+        try (InputStream inputStream = Files.newInputStream(resolve(key, METADATA_SUFFIX))) {
+            metadata.load(inputStream);
+        }
+        metadata.setProperty(name, value);
+        try (OutputStream outputStream = Files.newOutputStream(resolve(key, METADATA_SUFFIX))) {
+            metadata.store(outputStream, null);
+        }
+    }
+
+    private static long sizeOf(Path file) throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    private static long getCacheSize() throws IOException {
+        Path directory = PersistentKernelCache.getCacheDirectory();
+        long size = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(METADATA_SUFFIX)).toList()) {
+                String hash = file.getFileName().toString().replace(METADATA_SUFFIX, "");
+                size += sizeOf(file) + sizeOf(directory.resolve(hash + CODE_SUFFIX)) + sizeOf(directory.resolve(hash + BINARY_SUFFIX));
+            }
+        }
+        return size;
+    }
+
+    private static void setLastAccess(KernelCacheKey key, long daysAgo) throws IOException {
+        Files.setLastModifiedTime(resolve(key, METADATA_SUFFIX), FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(daysAgo)));
+    }
+
+    public static void saxpy(float alpha, FloatArray x, FloatArray y) {
+        for (@Parallel int i = 0; i < y.getSize(); i++) {
+            y.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    public static void fillMatrix(Matrix2DFloat matrix) {
+        for (@Parallel int i = 0; i < matrix.getNumRows(); i++) {
+            for (@Parallel int j = 0; j < matrix.getNumColumns(); j++) {
+                matrix.set(i, j, i * matrix.getNumColumns() + j);
+            }
+        }
+    }
+
+    @Test
+    public void testHit() {
+        KernelCacheKey key = createKey("kernel", "FloatArray[1024]");
+        PersistentKernelCache.store(key, "kernel", CODE, BINARY, createDomain(1024));
+
+        KernelCacheEntry entry = PersistentKernelCache.lookup(key);
+        assertNotNull(entry);
+        assertEquals("kernel", entry.getEntryPoint());
+        assertArrayEquals(CODE, entry.getCode());
+        assertTrue(entry.hasBinary());
+        assertArrayEquals(BINARY, entry.getBinary());
+
+        // The parallel domain of the task is restored from the entry
+        TaskMetaData meta = new TaskMetaData(new ScheduleMetaData("s0"), "t0");
+        entry.restoreDomain(meta);
+        assertTrue(meta.hasDomain());
+        assertEquals(1, meta.getDomain().getDepth());
+        assertEquals(1024, meta.getDomain().get(0).cardinality());
+    }
+
+    @Test
+    public void testMiss() {
+        assertNull(PersistentKernelCache.lookup(createKey("kernel", "FloatArray[1024]")));
+    }
+
+    @Test
+    public void testKeyChange() {
+        String time = Long.toString(System.nanoTime());
+        KernelCacheKey key = KernelCacheKey.create(BACKEND, DEVICE, RUNTIME, time, "kernel", "FloatArray[1024]");
+        PersistentKernelCache.store(key, "kernel", CODE, null, createDomain(1024));
+
+        // A different size, device or build of TornadoVM is a different key
+        KernelCacheKey otherSize = KernelCacheKey.create(BACKEND, DEVICE, RUNTIME, time, "kernel", "FloatArray[2048]");
+        KernelCacheKey otherDevice = KernelCacheKey.create(BACKEND, "Test Platform|Test Device|2.0", RUNTIME, time, "kernel", "FloatArray[1024]");
+        KernelCacheKey otherRuntime = KernelCacheKey.create(BACKEND, DEVICE, "tornado-runtime.jar:1024:1", time, "kernel", "FloatArray[1024]");
+        for (KernelCacheKey other : new KernelCacheKey[] { otherSize, otherDevice, otherRuntime }) {
+            assertNotEquals(key.getHash(), other.getHash());
+            assertNull(PersistentKernelCache.lookup(other));
+        }
+        assertEquals(key.getHash(), KernelCacheKey.create(BACKEND, DEVICE, RUNTIME, time, "kernel", "FloatArray[1024]").getHash());
+        assertNotNull(PersistentKernelCache.lookup(key));
+    }
+
+    @Test
+    public void testStaleEntryIsRemoved() throws IOException {
+        KernelCacheKey key = createKey("kernel", "FloatArray[1024]");
+        PersistentKernelCache.store(key, "kernel", CODE, null, createDomain(1024));
+
+        // An entry written by another build of TornadoVM is rejected and removed
+        updateMetadata(key, "runtime", "tornado-runtime.jar:2048:0");
+        assertNull(PersistentKernelCache.lookup(key));
+        assertFalse(Files.exists(resolve(key, METADATA_SUFFIX)));
+        assertFalse(Files.exists(resolve(key, CODE_SUFFIX)));
+
+        PersistentKernelCache.store(key, "kernel", CODE, null, createDomain(1024));
+        updateMetadata(key, "device", "Test Platform|Other Device|1.0");
+        assertNull(PersistentKernelCache.lookup(key));
+        assertFalse(Files.exists(resolve(key, METADATA_SUFFIX)));
+    }
+
+    @Test
+    public void testChecksum() throws IOException {
+        KernelCacheKey key = createKey("kernel", "FloatArray[1024]");
+        PersistentKernelCache.store(key, "kernel", CODE, BINARY, createDomain(1024));
+
+        // A corrupted binary is dropped, and the code is built again
+        Files.write(resolve(key, BINARY_SUFFIX), new byte[] { 0, 0, 0, 0 });
+        KernelCacheEntry entry = PersistentKernelCache.lookup(key);
+        assertNotNull(entry);
+        assertFalse(entry.hasBinary());
+
+        // A corrupted code rejects the entry
+        Files.write(resolve(key, CODE_SUFFIX), "__kernel void other() {}".getBytes(StandardCharsets.UTF_8));
+        assertNull(PersistentKernelCache.lookup(key));
+        assertFalse(Files.exists(resolve(key, METADATA_SUFFIX)));
+        assertFalse(Files.exists(resolve(key, CODE_SUFFIX)));
+        assertFalse(Files.exists(resolve(key, BINARY_SUFFIX)));
+    }
+
+    @Test
+    public void testEvictionBySize() throws IOException {
+        KernelCacheKey oldest = createKey("kernel", "FloatArray[1]");
+        KernelCacheKey older = createKey("kernel", "FloatArray[2]");
+        KernelCacheKey recent = createKey("kernel", "FloatArray[3]");
+        PersistentKernelCache.store(oldest, "kernel", CODE, BINARY, createDomain(1));
+        PersistentKernelCache.store(older, "kernel", CODE, BINARY, createDomain(2));
+        PersistentKernelCache.store(recent, "kernel", CODE, BINARY, createDomain(3));
+        setLastAccess(oldest, 10);
+        setLastAccess(older, 9);
+        setLastAccess(recent, 8);
+
+        // The least recently used entry is evicted first
+        PersistentKernelCache.evict(getCacheSize() - 1, TornadoOptions.PERSISTENT_KERNEL_CACHE_MAX_AGE);
+        assertFalse(Files.exists(resolve(oldest, METADATA_SUFFIX)));
+        assertFalse(Files.exists(resolve(oldest, CODE_SUFFIX)));
+        assertFalse(Files.exists(resolve(oldest, BINARY_SUFFIX)));
+        assertTrue(Files.exists(resolve(older, METADATA_SUFFIX)));
+        assertTrue(Files.exists(resolve(recent, METADATA_SUFFIX)));
+
+        // A lookup records the access
+        assertNotNull(PersistentKernelCache.lookup(older));
+        PersistentKernelCache.evict(getCacheSize() - 1, TornadoOptions.PERSISTENT_KERNEL_CACHE_MAX_AGE);
+        assertTrue(Files.exists(resolve(older, METADATA_SUFFIX)));
+        assertFalse(Files.exists(resolve(recent, METADATA_SUFFIX)));
+        PersistentKernelCache.invalidate(older);
+    }
+
+    @Test
+    public void testEvictionByAge() throws IOException {
+        KernelCacheKey expired = createKey("kernel", "FloatArray[1]");
+        KernelCacheKey valid = createKey("kernel", "FloatArray[2]");
+        PersistentKernelCache.store(expired, "kernel", CODE, null, createDomain(1));
+        PersistentKernelCache.store(valid, "kernel", CODE, null, createDomain(2));
+        setLastAccess(expired, 31);
+        setLastAccess(valid, 29);
+
+        PersistentKernelCache.evict(Long.MAX_VALUE, 30);
+        assertFalse(Files.exists(resolve(expired, METADATA_SUFFIX)));
+        assertTrue(Files.exists(resolve(valid, METADATA_SUFFIX)));
+        PersistentKernelCache.invalidate(valid);
+    }
+
+    @Test
+    public void testValidator() {
+        KernelCacheKey key = createKey("kernel", "FloatArray[1024]");
+        PersistentKernelCache.store(key, "kernel", CODE, null, createDomain(1024));
+
+        // The validator is called with the key, the metadata and the code of the entry
+        AtomicReference<KernelCacheKey> validatedKey = new AtomicReference<>();
+        PersistentKernelCache.setValidator((k, metadata, code) -> {
+            validatedKey.set(k);
+            return "kernel".equals(metadata.getProperty("entryPoint")) && code.length == CODE.length;
+        });
+        assertNotNull(PersistentKernelCache.lookup(key));
+        assertSame(key, validatedKey.get());
+
+        // An entry rejected by the validator is removed
+        PersistentKernelCache.setValidator((k, metadata, code) -> false);
+        assertNull(PersistentKernelCache.lookup(key));
+        assertFalse(Files.exists(resolve(key, METADATA_SUFFIX)));
+
+        // The validator only applies after the built-in checks
+        PersistentKernelCache.setValidator(null);
+        PersistentKernelCache.store(key, "kernel", CODE, null, createDomain(1024));
+        assertNotNull(PersistentKernelCache.lookup(key));
+    }
+
+    @Test
+    public void testKernelIsStored() throws IOException, TornadoExecutionPlanException {
+        final int size = 1024;
+        FloatArray x = new FloatArray(size);
+        FloatArray y = new FloatArray(size);
+        x.init(2.0f);
+        y.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, x, y) //
+                .task("t0", TestPersistentKernelCache::saxpy, 3.0f, x, y) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, y);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+        for (int i = 0; i < size; i++) {
+            assertEquals(7.0f, y.get(i), 0.001f);
+        }
+
+        // The generated kernel has an entry, stored now or by a previous run
+        boolean stored = false;
+        try (Stream<Path> files = Files.list(PersistentKernelCache.getCacheDirectory())) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(METADATA_SUFFIX)).toList()) {
+                Properties metadata = new Properties();
+                try (InputStream inputStream = Files.newInputStream(file)) {
+                    metadata.load(inputStream);
+                }
+                stored |= metadata.getProperty("entryPoint", "").contains("saxpy");
+            }
+        }
+        assertTrue(stored);
+    }
+
+    /**
+     * The task specialisation folds the rows and columns of a matrix into the
+     * kernel, so a matrix of another size must not be run with the kernel
+     * cached for the first one.
+     */
+    @Test
+    public void testMatrixSizes() throws TornadoExecutionPlanException {
+        for (int size : new int[] { 16, 32 }) {
+            Matrix2DFloat matrix = new Matrix2DFloat(size, size);
+
+            TaskGraph taskGraph = new TaskGraph("s0") //
+                    .transferToDevice(DataTransferMode.FIRST_EXECUTION, matrix) //
+                    .task("t0", TestPersistentKernelCache::fillMatrix, matrix) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, matrix);
+
+            ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+                executionPlan.execute();
+            }
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    assertEquals(i * size + j, matrix.get(i, j), 0.001f);
+                }
+            }
+        }
+    }
+}
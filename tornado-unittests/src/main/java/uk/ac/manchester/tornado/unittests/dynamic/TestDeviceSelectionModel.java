@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.dynamic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.DRMode;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.Policy;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.tasks.DeviceSelectionModel;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
+
+/**
+ * Tests the cost model that selects the device of each task with dynamic
+ * reconfiguration: the least-squares fit, the decay of old executions, the
+ * selection of the candidates and the persistence of the history. The last
+ * test runs a task-graph with the model, which requires
+ * {@code -Dtornado.dynamic.model=True}.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test --jvm="-Dtornado.dynamic.model=True" -V uk.ac.manchester.tornado.unittests.dynamic.TestDeviceSelectionModel
+ * </code>
+ */
+public class TestDeviceSelectionModel extends TornadoTestBase {
+
+    private static final String SIGNATURE = "PERFORMANCE;task";
+    private static final String DEVICE_A = "0:0:Device A";
+    private static final String DEVICE_B = "0:1:Device B";
+    private static final List<String> CANDIDATES = List.of(DEVICE_A, DEVICE_B, DeviceSelectionModel.SEQUENTIAL);
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("tornado-dynamic-model");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private DeviceSelectionModel open(int window, int exploration) {
+        return DeviceSelectionModel.open(directory.resolve("history.tsv"), window, exploration);
+    }
+
+    @Test
+    public void testLinearFit() {
+        DeviceSelectionModel model = open(0, 0);
+        for (long size = 1000; size <= 8000; size += 1000) {
+            model.record(SIGNATURE, DEVICE_A, size, 500 + 2 * size);
+        }
+        assertEquals(20500, model.predict(SIGNATURE, DEVICE_A, 10000), 1e-6);
+        assertEquals(500, model.predict(SIGNATURE, DEVICE_A, 0), 1e-6);
+        assertTrue(Double.isNaN(model.predict(SIGNATURE, DEVICE_B, 1000)));
+    }
+
+    @Test
+    public void testSingleSize() {
+        DeviceSelectionModel model = open(0, 0);
+        model.record(SIGNATURE, DEVICE_A, 4096, 100);
+        model.record(SIGNATURE, DEVICE_A, 4096, 300);
+        // The slope is unknown, so the mean time is predicted for any size
+        assertEquals(200, model.predict(SIGNATURE, DEVICE_A, 4096), 1e-6);
+        assertEquals(200, model.predict(SIGNATURE, DEVICE_A, 1 << 20), 1e-6);
+    }
+
+    @Test
+    public void testDecay() {
+        DeviceSelectionModel decaying = open(4, 0);
+        DeviceSelectionModel uniform = open(0, 0);
+        for (int i = 0; i < 10; i++) {
+            decaying.record(SIGNATURE, DEVICE_A, 4096, 100);
+            uniform.record(SIGNATURE, DEVICE_A, 4096, 100);
+        }
+        // The device becomes ten times slower
+        for (int i = 0; i < 10; i++) {
+            decaying.record(SIGNATURE, DEVICE_A, 4096, 1000);
+            uniform.record(SIGNATURE, DEVICE_A, 4096, 1000);
+        }
+        assertEquals(550, uniform.predict(SIGNATURE, DEVICE_A, 4096), 1e-6);
+        assertTrue(decaying.predict(SIGNATURE, DEVICE_A, 4096) > 900);
+    }
+
+    @Test
+    public void testUnmeasuredCandidatesFirst() {
+        DeviceSelectionModel model = open(0, 0);
+        for (String candidate : CANDIDATES) {
+            assertEquals(candidate, model.select(SIGNATURE, CANDIDATES, 1024));
+            model.record(SIGNATURE, candidate, 1024, 100);
+        }
+        // Each signature is measured separately
+        assertEquals(DEVICE_A, model.select("PERFORMANCE;other", CANDIDATES, 1024));
+    }
+
+    @Test
+    public void testSelectPredictedBest() {
+        DeviceSelectionModel model = open(0, 0);
+        for (long size : new long[] { 1000, 2000 }) {
+            // Device A has a low latency and device B a high throughput
+            model.record(SIGNATURE, DEVICE_A, size, 100 + 10 * size);
+            model.record(SIGNATURE, DEVICE_B, size, 10000 + size);
+            model.record(SIGNATURE, DeviceSelectionModel.SEQUENTIAL, size, 1_000_000_000);
+        }
+        assertEquals(DEVICE_A, model.select(SIGNATURE, CANDIDATES, 10));
+        assertEquals(DEVICE_B, model.select(SIGNATURE, CANDIDATES, 10000));
+    }
+
+    @Test
+    public void testExploration() {
+        DeviceSelectionModel model = open(0, 100);
+        for (String candidate : CANDIDATES) {
+            model.record(SIGNATURE, candidate, 1024, candidate.equals(DEVICE_A) ? 1 : 1000);
+        }
+        boolean explored = false;
+        for (int i = 0; i < 100; i++) {
+            String candidate = model.select(SIGNATURE, CANDIDATES, 1024);
+            assertTrue(CANDIDATES.contains(candidate));
+            explored |= !candidate.equals(DEVICE_A);
+        }
+        assertTrue(explored);
+    }
+
+    @Test
+    public void testHistoryRoundTrip() throws IOException {
+        Path historyFile = directory.resolve("history.tsv");
+        DeviceSelectionModel model = open(8, 0);
+        model.save();
+        // Nothing is stored without new executions
+        assertFalse(Files.exists(historyFile));
+
+        for (long size = 1000; size <= 4000; size += 1000) {
+            model.record(SIGNATURE, DEVICE_A, size, 500 + 2 * size + size % 3000);
+            model.record(SIGNATURE, DEVICE_B, size, 700);
+        }
+        model.save();
+        assertTrue(Files.exists(historyFile));
+
+        // Malformed lines are ignored
+        Files.writeString(historyFile, "malformed\tline\n", StandardOpenOption.APPEND);
+
+        DeviceSelectionModel loaded = open(8, 0);
+        for (long size : new long[] { 0, 2500, 100000 }) {
+            assertEquals(model.predict(SIGNATURE, DEVICE_A, size), loaded.predict(SIGNATURE, DEVICE_A, size), 1e-6);
+            assertEquals(model.predict(SIGNATURE, DEVICE_B, size), loaded.predict(SIGNATURE, DEVICE_B, size), 1e-6);
+        }
+        assertEquals(DeviceSelectionModel.SEQUENTIAL, loaded.select(SIGNATURE, CANDIDATES, 1024));
+    }
+
+    public static void multiply(IntArray a, IntArray b) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            b.set(i, a.get(i) * 2);
+        }
+    }
+
+    public static void add(IntArray b, IntArray c) {
+        for (@Parallel int i = 0; i < b.getSize(); i++) {
+            c.set(i, b.get(i) + 10);
+        }
+    }
+
+    @Test
+    public void testTasksWithModel() throws TornadoExecutionPlanException {
+        if (!TornadoOptions.DYNAMIC_RECONFIGURATION_MODEL) {
+            throw new UnsupportedConfigurationException("Test requires -Dtornado.dynamic.model=True");
+        }
+        final int numElements = 4096;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+
+        TaskGraph taskGraph = new TaskGraph("model") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestDeviceSelectionModel::multiply, a, b) //
+                .task("t1", TestDeviceSelectionModel::add, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDynamicReconfiguration(Policy.PERFORMANCE, DRMode.SERIAL);
+            // Each task is measured on every candidate, and the results must be the
+            // same whatever the devices of the two tasks
+            for (int i = 0; i < 16; i++) {
+                a.init(i);
+                executionPlan.execute();
+                for (int j = 0; j < numElements; j++) {
+                    assertEquals(i * 2 + 10, c.get(j));
+                }
+            }
+        }
+    }
+}
@@ -19,16 +19,25 @@ package uk.ac.manchester.tornado.unittests.executor;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 
+import uk.ac.manchester.tornado.api.GridScheduler;
 import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.KernelContext;
 import uk.ac.manchester.tornado.api.TaskGraph;
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
 import uk.ac.manchester.tornado.api.TornadoExecutionResult;
 import uk.ac.manchester.tornado.api.TornadoProfilerResult;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
@@ -47,6 +56,17 @@ import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
  */
 public class TestExecutor extends TornadoTestBase {
     // CHECKSTYLE:OFF
+
+    public static void increment(IntArray a) {
+        for (@Parallel int i = 0; i < a.getSize(); i++) {
+            a.set(i, a.get(i) + 1);
+        }
+    }
+
+    public static void addKernelContext(KernelContext context, IntArray a, IntArray b, IntArray c) {
+        c.set(context.globalIdx, a.get(context.globalIdx) + b.get(context.globalIdx));
+    }
+
     @Test
     public void test01() {
         int numElements = 16;
@@ -238,5 +258,170 @@ public class TestExecutor extends TornadoTestBase {
         }
 
     }
+
+    /**
+     * Test to launch the same executor asynchronously from a virtual thread.
+     */
+    @Test
+    public void test05() throws Exception {
+        int numElements = 16;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+
+        a.init(1);
+        b.init(2);
+
+        TaskGraph tg = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+                .task("t0", TestHello::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = tg.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph); ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            // Submit the executions from a virtual thread and wait for the last one
+            CompletableFuture<TornadoExecutionResult> future = CompletableFuture.supplyAsync(() -> {
+                CompletableFuture<TornadoExecutionResult> last = null;
+                for (int i = 0; i < 10; i++) {
+                    last = executionPlan.executeAsync();
+                }
+                return last.join();
+            }, virtualThreads);
+
+            TornadoExecutionResult executionResult = future.get();
+            assertTrue(executionResult.isReady());
+        }
+
+        for (int i = 0; i < c.getSize(); i++) {
+            assertEquals(a.get(i) + b.get(i), c.get(i));
+        }
+    }
+
+    /**
+     * Test tiered execution: the first executions run the Java code of the task
+     * while the task-graph is compiled in the background, and the executions
+     * switch to the device once the code is installed.
+     */
+    @Test
+    public void test06() throws TornadoExecutionPlanException {
+        int numElements = 256;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+
+        a.init(1);
+        b.init(2);
+
+        TaskGraph tg = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestHello::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = tg.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withTieredExecution();
+
+            long executions = 0;
+            final long deadline = System.nanoTime() + 60_000_000_000L;
+            TornadoProfilerResult profilerResult;
+            do {
+                c.init(0);
+                profilerResult = executionPlan.execute().getProfilerResult();
+                executions++;
+                for (int i = 0; i < c.getSize(); i++) {
+                    assertEquals(3, c.get(i));
+                }
+            } while (profilerResult.getDeviceTierExecutions() == 0 && System.nanoTime() < deadline);
+
+            // The first execution starts the compilation, so it runs in the Java tier
+            assertTrue(profilerResult.getJavaTierExecutions() >= 1);
+            assertEquals(1, profilerResult.getDeviceTierExecutions());
+            assertEquals(executions, profilerResult.getJavaTierExecutions() + profilerResult.getDeviceTierExecutions());
+        }
+    }
+
+    /**
+     * Test that a synchronous execution waits for the pending asynchronous
+     * executions of the same plan, so the executions never overlap and run in the
+     * order in which they were requested.
+     */
+    @Test
+    public void test07() throws TornadoExecutionPlanException {
+        final int numElements = 4096;
+        final int numAsyncExecutions = 8;
+        IntArray a = new IntArray(numElements);
+        a.init(0);
+
+        TaskGraph tg = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a) //
+                .task("t0", TestExecutor::increment, a) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a);
+
+        ImmutableTaskGraph immutableTaskGraph = tg.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[numAsyncExecutions];
+            for (int i = 0; i < numAsyncExecutions; i++) {
+                futures[i] = executionPlan.executeAsync();
+            }
+
+            executionPlan.execute();
+            for (CompletableFuture<?> future : futures) {
+                assertTrue(future.isDone());
+            }
+            for (int i = 0; i < a.getSize(); i++) {
+                assertEquals(numAsyncExecutions + 1, a.get(i));
+            }
+
+            // An asynchronous execution after the synchronous one sees its result
+            executionPlan.executeAsync().join();
+            for (int i = 0; i < a.getSize(); i++) {
+                assertEquals(numAsyncExecutions + 2, a.get(i));
+            }
+        }
+    }
+
+    /**
+     * Test tiered execution of a task written with the {@link KernelContext}
+     * API. Its Java code computes a single element per call, so the execution
+     * waits for the compilation and runs on the device from the first one.
+     */
+    @Test
+    public void test08() throws TornadoExecutionPlanException {
+        final int numElements = 256;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+
+        a.init(1);
+        b.init(2);
+
+        WorkerGrid worker = new WorkerGrid1D(numElements);
+        GridScheduler gridScheduler = new GridScheduler("s0.t0", worker);
+        KernelContext context = new KernelContext();
+
+        TaskGraph tg = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestExecutor::addKernelContext, context, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = tg.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withGridScheduler(gridScheduler).withTieredExecution();
+
+            final int numExecutions = 4;
+            TornadoProfilerResult profilerResult = null;
+            for (int execution = 0; execution < numExecutions; execution++) {
+                c.init(0);
+                profilerResult = executionPlan.execute().getProfilerResult();
+                for (int i = 0; i < c.getSize(); i++) {
+                    assertEquals(3, c.get(i));
+                }
+            }
+
+            assertEquals(0, profilerResult.getJavaTierExecutions());
+            assertEquals(numExecutions, profilerResult.getDeviceTierExecutions());
+        }
+    }
     // CHECKSTYLE:ON
 }
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.grid;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.domain.DomainTree;
+import uk.ac.manchester.tornado.runtime.domain.IntDomain;
+import uk.ac.manchester.tornado.runtime.tasks.meta.ScheduleMetaData;
+import uk.ac.manchester.tornado.runtime.tasks.meta.TaskMetaData;
+import uk.ac.manchester.tornado.runtime.tuning.WorkGroupTuner;
+import uk.ac.manchester.tornado.runtime.tuning.WorkGroupTuning;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
+
+/**
+ * Tests the candidates, the exploration and the database of the auto-tuner of
+ * the local work size, without launching kernels.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.grid.TestWorkGroupTuner
+ * </code>
+ */
+public class TestWorkGroupTuner extends TornadoTestBase {
+
+    private static final String DEVICE = "OPENCL | Test Device";
+    private static final long MAX_WORK_GROUP_SIZE = 256;
+    private static final long[] MAX_WORK_ITEM_SIZES = { 256, 256, 64 };
+
+    private Path directory;
+    private Path databaseFile;
+
+    @Before
+    public void createDatabaseDirectory() throws IOException {
+        if (TornadoOptions.WORK_GROUP_TUNING_RUNS <= 0) {
+            throw new UnsupportedConfigurationException("Test requires tornado.autotune.runs > 0");
+        }
+        directory = Files.createTempDirectory("tornado-work-group-tuning");
+        databaseFile = directory.resolve("work-group-tuning.tsv");
+    }
+
+    @After
+    public void deleteDatabaseDirectory() throws IOException {
+        Files.deleteIfExists(databaseFile);
+        Files.deleteIfExists(directory);
+    }
+
+    private static TaskMetaData createTask(long... globalWork) {
+        TaskMetaData meta = new TaskMetaData(new ScheduleMetaData("s0"), "t0");
+        DomainTree domain = new DomainTree(globalWork.length);
+        for (int i = 0; i < globalWork.length; i++) {
+            domain.set(i, new IntDomain(0, 1, (int) globalWork[i]));
+        }
+        meta.setDomain(domain);
+        meta.setGlobalWork(globalWork);
+        return meta;
+    }
+
+    private static WorkGroupTuning lookup(WorkGroupTuner tuner, long... globalWork) {
+        return tuner.lookup(createTask(globalWork), DEVICE, new long[] { 256 }, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES);
+    }
+
+    /**
+     * Runs the exploration of a tuning, with a kernel time that is the lowest
+     * for the given local work size.
+     *
+     * @return Number of launches.
+     */
+    private static int explore(WorkGroupTuning tuning, long[] fastest) {
+        int launches = 0;
+        while (tuning.isTuning()) {
+            long[] localWork = tuning.getLocalWork();
+            tuning.record(localWork, localWork[0] == fastest[0] ? 100 : 1000);
+            launches++;
+        }
+        return launches;
+    }
+
+    @Test
+    public void testBucket() {
+        assertArrayEquals(new long[] { 1 }, WorkGroupTuner.bucket(new long[] { 1 }));
+        assertArrayEquals(new long[] { 1024 }, WorkGroupTuner.bucket(new long[] { 1000 }));
+        assertArrayEquals(new long[] { 1024 }, WorkGroupTuner.bucket(new long[] { 1024 }));
+        assertArrayEquals(new long[] { 2048, 4 }, WorkGroupTuner.bucket(new long[] { 1025, 3 }));
+    }
+
+    @Test
+    public void testFits() {
+        assertTrue(WorkGroupTuner.fits(new long[] { 64 }, new long[] { 1024 }, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES));
+        assertTrue(WorkGroupTuner.fits(new long[] { 16, 16 }, new long[] { 256, 256 }, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES));
+
+        // The local work size must divide the global work size
+        assertFalse(WorkGroupTuner.fits(new long[] { 48 }, new long[] { 1024 }, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES));
+        // Too many threads per work-group
+        assertFalse(WorkGroupTuner.fits(new long[] { 512 }, new long[] { 1024 }, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES));
+        assertFalse(WorkGroupTuner.fits(new long[] { 32, 16 }, new long[] { 256, 256 }, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES));
+        // Too many threads in a dimension
+        assertFalse(WorkGroupTuner.fits(new long[] { 1, 1, 128 }, new long[] { 128, 128, 128 }, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES));
+        // Different dimensions
+        assertFalse(WorkGroupTuner.fits(new long[] { 16 }, new long[] { 256, 256 }, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES));
+    }
+
+    @Test
+    public void testCandidates1D() {
+        long[] heuristic = { 256 };
+        List<long[]> candidates = WorkGroupTuner.getCandidates(new long[] { 1024 }, heuristic, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES);
+
+        // The heuristic comes first, and it is not repeated
+        assertEquals(5, candidates.size());
+        assertArrayEquals(heuristic, candidates.get(0));
+        assertArrayEquals(new long[] { 16 }, candidates.get(1));
+        assertArrayEquals(new long[] { 32 }, candidates.get(2));
+        assertArrayEquals(new long[] { 64 }, candidates.get(3));
+        assertArrayEquals(new long[] { 128 }, candidates.get(4));
+    }
+
+    @Test
+    public void testCandidates2D() {
+        long[] globalWork = { 256, 256 };
+        long[] heuristic = { 16, 16 };
+        List<long[]> candidates = WorkGroupTuner.getCandidates(globalWork, heuristic, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES);
+
+        assertArrayEquals(heuristic, candidates.get(0));
+        assertTrue(candidates.size() > 1);
+        for (int i = 1; i < candidates.size(); i++) {
+            long[] candidate = candidates.get(i);
+            assertTrue(WorkGroupTuner.fits(candidate, globalWork, MAX_WORK_GROUP_SIZE, MAX_WORK_ITEM_SIZES));
+            assertTrue(candidate[0] * candidate[1] >= 64);
+            assertTrue(Math.max(candidate[0], candidate[1]) <= 4 * Math.min(candidate[0], candidate[1]));
+            assertFalse(candidate[0] == heuristic[0] && candidate[1] == heuristic[1]);
+        }
+    }
+
+    @Test
+    public void testExploration() {
+        WorkGroupTuner tuner = WorkGroupTuner.open(databaseFile);
+        WorkGroupTuning tuning = lookup(tuner, 1024);
+        assertTrue(tuning.isTuning());
+        assertEquals(5, tuning.getCandidates().size());
+        assertArrayEquals(new long[] { 256 }, tuning.getLocalWork());
+
+        // Every candidate is measured the configured number of times
+        int launches = explore(tuning, new long[] { 64 });
+        assertEquals(tuning.getCandidates().size() * TornadoOptions.WORK_GROUP_TUNING_RUNS, launches);
+
+        assertFalse(tuning.isTuning());
+        assertArrayEquals(new long[] { 64 }, tuning.getLocalWork());
+        assertArrayEquals(new long[] { 64 }, tuner.getStoredLocalWork(tuning.getBucket()));
+
+        // The same task and size reuse the tuning
+        assertTrue(tuning == lookup(tuner, 1024));
+    }
+
+    @Test
+    public void testRejectedCandidate() {
+        WorkGroupTuner tuner = WorkGroupTuner.open(databaseFile);
+        WorkGroupTuning tuning = lookup(tuner, 1024);
+        while (tuning.isTuning()) {
+            long[] localWork = tuning.getLocalWork();
+            if (localWork[0] == 16) {
+                // A candidate that fails to launch is never selected
+                tuning.reject(localWork);
+            } else {
+                tuning.record(localWork, localWork[0] == 128 ? 100 : 1000);
+            }
+        }
+        assertArrayEquals(new long[] { 128 }, tuning.getLocalWork());
+    }
+
+    @Test
+    public void testDatabase() throws IOException {
+        WorkGroupTuner tuner = WorkGroupTuner.open(databaseFile);
+
+        // Nothing is written until a kernel is tuned
+        tuner.save();
+        assertFalse(Files.exists(databaseFile));
+
+        WorkGroupTuning tuning = lookup(tuner, 1024);
+        explore(tuning, new long[] { 64 });
+        long[] best = tuning.getLocalWork();
+        assertArrayEquals(new long[] { 64 }, best);
+        tuner.save();
+        assertTrue(Files.exists(databaseFile));
+
+        // A new tuner applies the stored size without exploring
+        WorkGroupTuner reloaded = WorkGroupTuner.open(databaseFile);
+        assertArrayEquals(best, reloaded.getStoredLocalWork(tuning.getBucket()));
+        WorkGroupTuning reapplied = lookup(reloaded, 1024);
+        assertFalse(reapplied.isTuning());
+        assertEquals(1, reapplied.getCandidates().size());
+        assertArrayEquals(best, reapplied.getLocalWork());
+
+        // Sizes of the same bucket share the stored size when it divides them
+        WorkGroupTuning sameBucket = lookup(reloaded, 768);
+        assertEquals(tuning.getBucket(), sameBucket.getBucket());
+        assertFalse(sameBucket.isTuning());
+        assertArrayEquals(best, sameBucket.getLocalWork());
+
+        // Other buckets are explored
+        WorkGroupTuning otherBucket = lookup(reloaded, 4096);
+        assertNull(reloaded.getStoredLocalWork(otherBucket.getBucket()));
+        assertTrue(otherBucket.isTuning());
+    }
+}
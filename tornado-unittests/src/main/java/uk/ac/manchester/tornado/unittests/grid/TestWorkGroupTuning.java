@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.grid;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.runtime.tuning.WorkGroupTuner;
+import uk.ac.manchester.tornado.runtime.tuning.WorkGroupTuning;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
+
+/**
+ * Tests that the auto-tuning of the local work size explores the candidates,
+ * selects and stores the fastest one, and reapplies it, without changing the
+ * results of the kernels.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test --jvm="-Dtornado.autotune=True" -V uk.ac.manchester.tornado.unittests.grid.TestWorkGroupTuning
+ * </code>
+ */
+public class TestWorkGroupTuning extends TornadoTestBase {
+
+    private static final int SIZE = 8192;
+    private static final int SIZE_2D = 256;
+
+    // Same bucket of the tuning database as SIZE
+    private static final int SIZE_SAME_BUCKET = 7168;
+
+    // Enough executions to measure every candidate with the default number of runs
+    private static final int EXECUTIONS = 64;
+
+    @Before
+    public void checkWorkGroupTuning() {
+        // The SPIR-V backend does not tune the local work size
+        assertNotBackend(TornadoVMBackendType.SPIRV);
+        if (!WorkGroupTuner.isEnabled() || TornadoOptions.WORK_GROUP_TUNING_RUNS <= 0) {
+            throw new UnsupportedConfigurationException("Test requires -Dtornado.autotune=True");
+        }
+    }
+
+    private static WorkGroupTuning getTuning(String method, long globalWork) {
+        List<WorkGroupTuning> tunings = WorkGroupTuner.getInstance().getTunings(method).stream() //
+                .filter(tuning -> tuning.getGlobalWork()[0] == globalWork) //
+                .toList();
+        assertEquals(1, tunings.size());
+        return tunings.getFirst();
+    }
+
+    private static void assertTuned(WorkGroupTuning tuning) {
+        assertTrue(tuning.getCandidates().size() > 1);
+        assertFalse(tuning.isTuning());
+        long[] best = tuning.getLocalWork();
+        assertTrue(tuning.getCandidates().stream().anyMatch(candidate -> Arrays.equals(candidate, best)));
+    }
+
+    private static void runSaxpy(int size) throws TornadoExecutionPlanException {
+        FloatArray x = new FloatArray(size);
+        FloatArray y = new FloatArray(size);
+        FloatArray output = new FloatArray(size);
+        for (int i = 0; i < size; i++) {
+            x.set(i, i);
+            y.set(i, 1.0f);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, x, y) //
+                .task("t0", TestWorkGroupTuning::saxpy, 2.0f, x, y, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int execution = 0; execution < EXECUTIONS; execution++) {
+                output.clear();
+                executionPlan.execute();
+                for (int i = 0; i < size; i++) {
+                    assertEquals(2.0f * x.get(i) + y.get(i), output.get(i), 0.001f);
+                }
+            }
+        }
+    }
+
+    public static void saxpy(float alpha, FloatArray x, FloatArray y, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    public static void add2D(FloatArray a, FloatArray b, FloatArray c, int size) {
+        for (@Parallel int i = 0; i < size; i++) {
+            for (@Parallel int j = 0; j < size; j++) {
+                c.set(i * size + j, a.get(i * size + j) + b.get(i * size + j));
+            }
+        }
+    }
+
+    public static void reduceAdd(FloatArray input, @Reduce FloatArray result) {
+        result.set(0, 0.0f);
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            result.set(0, result.get(0) + input.get(i));
+        }
+    }
+
+    @Test
+    public void test1D() throws TornadoExecutionPlanException {
+        runSaxpy(SIZE);
+
+        WorkGroupTuning tuning = getTuning("TestWorkGroupTuning.saxpy", SIZE);
+        assertTuned(tuning);
+        long[] best = tuning.getLocalWork();
+
+        // The selected local work size is persisted in the database
+        WorkGroupTuner.getInstance().save();
+        WorkGroupTuner stored = WorkGroupTuner.open(Paths.get(TornadoOptions.WORK_GROUP_TUNING_DB));
+        assertArrayEquals(best, stored.getStoredLocalWork(tuning.getBucket()));
+
+        // A global work size of the same bucket reuses it without exploring
+        runSaxpy(SIZE_SAME_BUCKET);
+        WorkGroupTuning reapplied = getTuning("TestWorkGroupTuning.saxpy", SIZE_SAME_BUCKET);
+        assertEquals(tuning.getBucket(), reapplied.getBucket());
+        assertEquals(1, reapplied.getCandidates().size());
+        assertFalse(reapplied.isTuning());
+        assertArrayEquals(best, reapplied.getLocalWork());
+    }
+
+    @Test
+    public void test2D() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(SIZE_2D * SIZE_2D);
+        FloatArray b = new FloatArray(SIZE_2D * SIZE_2D);
+        FloatArray c = new FloatArray(SIZE_2D * SIZE_2D);
+        for (int i = 0; i < a.getSize(); i++) {
+            a.set(i, i % 100);
+            b.set(i, 2.0f);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+                .task("t0", TestWorkGroupTuning::add2D, a, b, c, SIZE_2D) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int execution = 0; execution < EXECUTIONS; execution++) {
+                c.clear();
+                executionPlan.execute();
+                for (int i = 0; i < c.getSize(); i++) {
+                    assertEquals(a.get(i) + b.get(i), c.get(i), 0.001f);
+                }
+            }
+        }
+
+        WorkGroupTuning tuning = getTuning("TestWorkGroupTuning.add2D", SIZE_2D);
+        assertTuned(tuning);
+        assertEquals(2, tuning.getLocalWork().length);
+    }
+
+    /**
+     * Reductions depend on the local work size chosen by the scheduler, so they
+     * must not be tuned.
+     */
+    @Test
+    public void testReductionIsNotTuned() throws TornadoExecutionPlanException {
+        FloatArray input = new FloatArray(SIZE);
+        FloatArray result = new FloatArray(1);
+        input.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestWorkGroupTuning::reduceAdd, input, result) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int execution = 0; execution < EXECUTIONS / 4; execution++) {
+                executionPlan.execute();
+                assertEquals(SIZE, result.get(0), 0.01f);
+            }
+        }
+        assertTrue(WorkGroupTuner.getInstance().getTunings("TestWorkGroupTuning.reduceAdd").isEmpty());
+    }
+}
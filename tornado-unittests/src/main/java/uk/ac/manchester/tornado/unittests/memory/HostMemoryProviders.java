@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import java.lang.reflect.Proxy;
+
+import uk.ac.manchester.tornado.api.TornadoDeviceContext;
+import uk.ac.manchester.tornado.api.TornadoTargetDevice;
+import uk.ac.manchester.tornado.drivers.common.HostMemoryBufferProvider;
+
+/**
+ * Creates {@link HostMemoryBufferProvider}s for a device context that only
+ * provides the name and the maximum allocation size of the device, so that the
+ * allocation policies of the buffer providers are tested without a driver.
+ */
+final class HostMemoryProviders {
+
+    static final String DEVICE_NAME = "Host Memory";
+    static final long MAX_ALLOCATION_SIZE = 1L << 30;
+
+    private HostMemoryProviders() {
+    }
+
+    /**
+     * @param maxMemory
+     *     Bytes of memory that the provider can allocate.
+     * @param arenaRegionSize
+     *     Size in bytes of each arena region.
+     * @param maxArenaRegions
+     *     Maximum number of arena regions. 0 disables the arenas.
+     * @return {@link HostMemoryBufferProvider}
+     */
+    static HostMemoryBufferProvider create(long maxMemory, long arenaRegionSize, int maxArenaRegions) {
+        TornadoTargetDevice device = (TornadoTargetDevice) Proxy.newProxyInstance(HostMemoryProviders.class.getClassLoader(), new Class<?>[] { TornadoTargetDevice.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getDeviceName" -> DEVICE_NAME;
+                    case "getDeviceMaxAllocationSize" -> MAX_ALLOCATION_SIZE;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        TornadoDeviceContext deviceContext = (TornadoDeviceContext) Proxy.newProxyInstance(HostMemoryProviders.class.getClassLoader(), new Class<?>[] { TornadoDeviceContext.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getDevice" -> device;
+                    case "getDeviceName" -> DEVICE_NAME;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return new HostMemoryBufferProvider(deviceContext, maxMemory, arenaRegionSize, maxArenaRegions);
+    }
+}
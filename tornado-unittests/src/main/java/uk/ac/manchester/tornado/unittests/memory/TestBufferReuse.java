@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.drivers.common.HostMemoryBufferProvider;
+import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider.Statistics;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests that device buffers released by an execution plan are correctly reused
+ * by later execution plans, and the size classes, reuses and evictions of the
+ * buffer provider on host memory.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestBufferReuse
+ * </code>
+ */
+public class TestBufferReuse extends TornadoTestBase {
+
+    public static void addOne(IntArray input, IntArray output) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            output.set(i, input.get(i) + 1);
+        }
+    }
+
+    private static void runPlan(int size, int value) throws TornadoExecutionPlanException {
+        IntArray input = new IntArray(size);
+        IntArray output = new IntArray(size);
+        input.init(value);
+
+        TaskGraph taskGraph = new TaskGraph("reuse") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestBufferReuse::addOne, input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(value + 1, output.get(i));
+        }
+    }
+
+    /**
+     * Every plan requests buffers of the same size class as the previous one, so
+     * they are served from the buffers cached on the device.
+     */
+    @Test
+    public void testSameSizeClass() throws TornadoExecutionPlanException {
+        final int size = 1024 * 1024;
+        for (int i = 0; i < 8; i++) {
+            runPlan(size - i * 16, i);
+        }
+    }
+
+    /**
+     * Plans of increasing and decreasing sizes mix cached buffers with new
+     * allocations.
+     */
+    @Test
+    public void testMixedSizes() throws TornadoExecutionPlanException {
+        int[] sizes = { 256, 1024 * 1024, 4096, 3 * 1024 * 1024, 1000, 1024 * 1024 + 7, 100, 3 * 1024 * 1024 - 5 };
+        for (int i = 0; i < sizes.length; i++) {
+            runPlan(sizes[i], i);
+        }
+    }
+
+    @Test
+    public void testSizeClasses() {
+        HostMemoryBufferProvider provider = HostMemoryProviders.create(1024 * 1024, 0, 0);
+        final int subClasses = Integer.highestOneBit(Math.clamp(TornadoOptions.DEVICE_BUFFER_SIZE_CLASSES, 1, 64));
+
+        // Small sizes share the smallest class
+        assertEquals(0, provider.sizeClassOf(1));
+        assertEquals(0, provider.sizeClassOf(256));
+        assertEquals(256, provider.sizeOfClass(0));
+
+        // Powers of two are size classes
+        for (int log2 = 8; log2 < 40; log2++) {
+            long size = 1L << log2;
+            assertEquals(size, provider.sizeOfClass(provider.sizeClassOf(size)));
+        }
+
+        for (long size = 1; size < 64 * 1024; size += 7) {
+            int sizeClass = provider.sizeClassOf(size);
+            long classSize = provider.sizeOfClass(sizeClass);
+            // The class is the smallest one that fits the size
+            assertTrue(classSize >= size);
+            if (sizeClass > 0) {
+                assertTrue(provider.sizeOfClass(sizeClass - 1) < size);
+            }
+            // It wastes at most one sub-class of the power of two
+            assertTrue(size <= 256 || classSize - size < Long.highestOneBit(size - 1) / subClasses);
+        }
+    }
+
+    @Test
+    public void testReuseCounter() {
+        HostMemoryBufferProvider provider = HostMemoryProviders.create(1024 * 1024, 0, 0);
+        final long classSize = provider.sizeOfClass(provider.sizeClassOf(1000));
+
+        long buffer = provider.getOrAllocateBufferWithSize(1000);
+        Statistics statistics = provider.getStatistics();
+        assertEquals(1, statistics.allocations());
+        assertEquals(0, statistics.reuses());
+        assertEquals(1, statistics.buffersInUse());
+        assertEquals(classSize, statistics.bytesInUse());
+
+        // The released buffer is cached, not freed
+        provider.markBufferReleased(buffer);
+        statistics = provider.getStatistics();
+        assertEquals(0, statistics.buffersInUse());
+        assertEquals(classSize, statistics.bytesCached());
+        assertEquals(0, statistics.bytesInUse());
+
+        // A request of the same size class reuses it
+        assertEquals(buffer, provider.getOrAllocateBufferWithSize(classSize - 1));
+        statistics = provider.getStatistics();
+        assertEquals(1, statistics.allocations());
+        assertEquals(1, statistics.reuses());
+        assertEquals(0, statistics.bytesCached());
+
+        // A request of another size class allocates a new buffer
+        assertNotEquals(buffer, provider.getOrAllocateBufferWithSize(4 * classSize));
+        statistics = provider.getStatistics();
+        assertEquals(2, statistics.allocations());
+        assertEquals(1, statistics.reuses());
+        assertEquals(0, statistics.evictions());
+        provider.resetBuffers();
+    }
+
+    @Test
+    public void testEvictionCounter() {
+        HostMemoryBufferProvider provider = HostMemoryProviders.create(4096, 0, 0);
+
+        long older = provider.getOrAllocateBufferWithSize(1024);
+        long recent = provider.getOrAllocateBufferWithSize(1024);
+        provider.markBufferReleased(older);
+        provider.markBufferReleased(recent);
+        assertEquals(2048, provider.getStatistics().bytesCached());
+
+        // The least recently released buffer is freed to make room
+        long large = provider.getOrAllocateBufferWithSize(2560);
+        Statistics statistics = provider.getStatistics();
+        assertEquals(3, statistics.allocations());
+        assertEquals(1, statistics.evictions());
+        assertEquals(1024, statistics.bytesCached());
+        assertEquals(2560, statistics.bytesInUse());
+
+        // The buffer released last is still cached
+        assertEquals(recent, provider.getOrAllocateBufferWithSize(1024));
+        statistics = provider.getStatistics();
+        assertEquals(1, statistics.reuses());
+        assertEquals(1, statistics.evictions());
+        assertEquals(0, statistics.bytesCached());
+
+        provider.markBufferReleased(large);
+        provider.markBufferReleased(recent);
+        provider.resetBuffers();
+        assertEquals(0, provider.getStatistics().bytesCached());
+    }
+}
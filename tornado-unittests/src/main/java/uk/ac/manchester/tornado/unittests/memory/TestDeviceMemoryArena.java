@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.exceptions.TornadoOutOfMemoryException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.drivers.common.DeviceMemoryArena;
+import uk.ac.manchester.tornado.drivers.common.HostMemoryBufferProvider;
+import uk.ac.manchester.tornado.drivers.common.TornadoBufferProvider.Statistics;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests the sub-allocation of device buffers from memory arenas. Many small and
+ * short-lived task graphs are created while other task graphs keep their
+ * sub-buffers alive. The bump pointer, the free list and the coalescing of
+ * the arenas, and the release of empty regions by the buffer provider, are
+ * tested on host memory.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test --jvm="-Dtornado.device.arena=True" -V uk.ac.manchester.tornado.unittests.memory.TestDeviceMemoryArena
+ * </code>
+ */
+public class TestDeviceMemoryArena extends TornadoTestBase {
+
+    private static final long REGION_SIZE = 64 * 1024;
+
+    public static void saxpy(float alpha, FloatArray x, FloatArray y, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    private static TornadoExecutionPlan createPlan(FloatArray x, FloatArray y, FloatArray output) {
+        TaskGraph taskGraph = new TaskGraph("arena") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestDeviceMemoryArena::saxpy, 2.0f, x, y, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        return new TornadoExecutionPlan(immutableTaskGraph);
+    }
+
+    private static void check(FloatArray x, FloatArray y, FloatArray output) {
+        for (int i = 0; i < output.getSize(); i++) {
+            assertEquals(2.0f * x.get(i) + y.get(i), output.get(i), 0.001f);
+        }
+    }
+
+    private static FloatArray newArray(int size, float value) {
+        FloatArray array = new FloatArray(size);
+        array.init(value);
+        return array;
+    }
+
+    @Test
+    public void testShortLivedTaskGraphs() throws TornadoExecutionPlanException {
+        for (int i = 0; i < 64; i++) {
+            int size = 1024 + i * 37;
+            FloatArray x = newArray(size, i);
+            FloatArray y = newArray(size, 1.0f);
+            FloatArray output = new FloatArray(size);
+            try (TornadoExecutionPlan executionPlan = createPlan(x, y, output)) {
+                executionPlan.execute();
+            }
+            check(x, y, output);
+        }
+    }
+
+    @Test
+    public void testInterleavedLifetimes() throws TornadoExecutionPlanException {
+        final int size = 4096;
+        FloatArray x = newArray(size, 3.0f);
+        FloatArray y = newArray(size, 1.0f);
+        FloatArray output = new FloatArray(size);
+
+        // This plan keeps its sub-buffers while the other plans allocate and free theirs
+        try (TornadoExecutionPlan longLivedPlan = createPlan(x, y, output)) {
+            longLivedPlan.execute();
+            for (int i = 0; i < 16; i++) {
+                FloatArray a = newArray(size * (i % 4 + 1), i);
+                FloatArray b = newArray(size * (i % 4 + 1), 2.0f);
+                FloatArray c = new FloatArray(size * (i % 4 + 1));
+                try (TornadoExecutionPlan executionPlan = createPlan(a, b, c)) {
+                    executionPlan.execute();
+                }
+                check(a, b, c);
+
+                x.init(i);
+                longLivedPlan.execute();
+                check(x, y, output);
+            }
+        }
+    }
+
+    @Test
+    public void testBumpPointer() {
+        DeviceMemoryArena arena = new DeviceMemoryArena(0, 4096, 128);
+        assertEquals(0, arena.allocate(100));
+        assertEquals(128, arena.allocate(128));
+        assertEquals(256, arena.allocate(1));
+        assertEquals(384, arena.getBytesUsed());
+
+        assertEquals(384, arena.allocate(4096 - 384));
+        assertEquals(DeviceMemoryArena.NO_SPACE, arena.allocate(1));
+        assertEquals(4096, arena.getBytesUsed());
+    }
+
+    @Test
+    public void testAlignment() {
+        DeviceMemoryArena arena = new DeviceMemoryArena(0, 4100, 100);
+        assertEquals(128, arena.getAlignment());
+        assertEquals(4096, arena.getCapacity());
+        assertEquals(256, arena.alignedSize(129));
+        assertEquals(128, arena.alignedSize(128));
+    }
+
+    @Test
+    public void testFirstFit() {
+        DeviceMemoryArena arena = new DeviceMemoryArena(0, 4096, 128);
+        long a = arena.allocate(512);
+        arena.allocate(128);
+        long c = arena.allocate(256);
+        long top = arena.allocate(128) + 128;
+        arena.free(a, 512);
+        arena.free(c, 256);
+
+        // The first free range that fits is split
+        assertEquals(a, arena.allocate(128));
+        assertEquals(a + 128, arena.allocate(256));
+        // The remaining 128 bytes of the first range are still free
+        assertEquals(a + 384, arena.allocate(128));
+        // The second free range is used once the first one is full
+        assertEquals(c, arena.allocate(256));
+        assertEquals(top, arena.getBytesUsed());
+        assertEquals(top, arena.allocate(128));
+    }
+
+    @Test
+    public void testCoalescing() {
+        DeviceMemoryArena arena = new DeviceMemoryArena(0, 4096, 128);
+        long a = arena.allocate(128);
+        long b = arena.allocate(128);
+        long c = arena.allocate(128);
+        long d = arena.allocate(128);
+
+        arena.free(a, 128);
+        arena.free(c, 128);
+        // Neither free range fits 384 bytes, so the bump pointer serves it
+        assertEquals(d + 128, arena.allocate(384));
+        arena.free(d + 128, 384);
+
+        // Freeing b merges it with its two neighbours
+        arena.free(b, 128);
+        assertEquals(a, arena.allocate(384));
+        arena.free(a, 384);
+
+        // Freeing the range below the bump pointer moves it back
+        arena.free(d, 128);
+        assertTrue(arena.isEmpty());
+        assertEquals(0, arena.allocate(4096));
+    }
+
+    @Test
+    public void testProviderSubAllocation() {
+        HostMemoryBufferProvider provider = HostMemoryProviders.create(1024 * 1024, REGION_SIZE, 2);
+
+        long a = provider.getOrAllocateBufferWithSize(1000);
+        Statistics statistics = provider.getStatistics();
+        assertEquals(0, statistics.allocations());
+        assertEquals(1, statistics.subAllocations());
+        assertEquals(1, statistics.arenaRegions());
+        assertEquals(1, statistics.buffersInUse());
+        assertEquals(REGION_SIZE, statistics.bytesInUse());
+
+        // Sub-buffers are packed within the region
+        long b = provider.getOrAllocateBufferWithSize(1000);
+        assertEquals(a + 1024, b);
+        assertEquals(2, provider.getStatistics().buffersInUse());
+
+        // A released range is handed out again
+        provider.markBufferReleased(a);
+        assertEquals(a, provider.getOrAllocateBufferWithSize(900));
+        statistics = provider.getStatistics();
+        assertEquals(3, statistics.subAllocations());
+        assertEquals(1, statistics.arenaRegions());
+        assertEquals(2, statistics.buffersInUse());
+
+        // Requests larger than a quarter of the region are not sub-allocated
+        long large = provider.getOrAllocateBufferWithSize(REGION_SIZE / 2);
+        statistics = provider.getStatistics();
+        assertEquals(1, statistics.allocations());
+        assertEquals(3, statistics.subAllocations());
+
+        provider.markBufferReleased(a);
+        provider.markBufferReleased(b);
+        provider.markBufferReleased(large);
+        assertEquals(0, provider.getStatistics().buffersInUse());
+
+        // Empty regions are kept until the buffers are reset
+        assertEquals(1, provider.getStatistics().arenaRegions());
+        provider.resetBuffers();
+        statistics = provider.getStatistics();
+        assertEquals(0, statistics.arenaRegions());
+        assertEquals(0, statistics.bytesInUse());
+        assertEquals(0, statistics.bytesCached());
+    }
+
+    @Test
+    public void testProviderCoalescing() {
+        HostMemoryBufferProvider provider = HostMemoryProviders.create(1024 * 1024, REGION_SIZE, 1);
+        long a = provider.getOrAllocateBufferWithSize(1024);
+        long b = provider.getOrAllocateBufferWithSize(1024);
+        long c = provider.getOrAllocateBufferWithSize(1024);
+        long d = provider.getOrAllocateBufferWithSize(1024);
+
+        provider.markBufferReleased(a);
+        provider.markBufferReleased(c);
+        provider.markBufferReleased(b);
+
+        // The three released ranges are merged into one
+        long merged = provider.getOrAllocateBufferWithSize(3072);
+        assertEquals(a, merged);
+        Statistics statistics = provider.getStatistics();
+        assertEquals(5, statistics.subAllocations());
+        assertEquals(1, statistics.arenaRegions());
+        assertEquals(2, statistics.buffersInUse());
+
+        provider.markBufferReleased(merged);
+        provider.markBufferReleased(d);
+        provider.resetBuffers();
+        assertEquals(0, provider.getStatistics().arenaRegions());
+    }
+
+    @Test
+    public void testReleaseEmptyArena() {
+        final long largeSize = 100 * 1024;
+        HostMemoryBufferProvider provider = HostMemoryProviders.create(2 * REGION_SIZE, REGION_SIZE, 1);
+        provider.markBufferReleased(provider.getOrAllocateBufferWithSize(1000));
+        Statistics statistics = provider.getStatistics();
+        assertEquals(1, statistics.arenaRegions());
+        assertEquals(REGION_SIZE, statistics.bytesInUse());
+
+        // The empty region is freed to make room for a large buffer
+        long large = provider.getOrAllocateBufferWithSize(largeSize);
+        statistics = provider.getStatistics();
+        assertEquals(0, statistics.arenaRegions());
+        assertEquals(1, statistics.allocations());
+        assertEquals(0, statistics.evictions());
+        assertTrue(statistics.bytesInUse() >= largeSize);
+        provider.markBufferReleased(large);
+        provider.resetBuffers();
+    }
+
+    @Test
+    public void testArenaInUseIsNotReleased() {
+        HostMemoryBufferProvider provider = HostMemoryProviders.create(2 * REGION_SIZE, REGION_SIZE, 1);
+        long small = provider.getOrAllocateBufferWithSize(1000);
+
+        // The region holds a live sub-buffer, so the large buffer does not fit
+        assertThrows(TornadoOutOfMemoryException.class, () -> provider.getOrAllocateBufferWithSize(100 * 1024));
+        Statistics statistics = provider.getStatistics();
+        assertEquals(1, statistics.arenaRegions());
+        assertEquals(0, statistics.allocations());
+        assertEquals(1, statistics.buffersInUse());
+
+        provider.markBufferReleased(small);
+        provider.resetBuffers();
+        assertEquals(0, provider.getStatistics().arenaRegions());
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.NativeArrayPool;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests native arrays allocated from user arenas and from a
+ * {@link NativeArrayPool}.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.memory.TestNativeArrayPool
+ * </code>
+ */
+public class TestNativeArrayPool extends TornadoTestBase {
+
+    private static final int SIZE = 8192;
+
+    public static void saxpy(float alpha, FloatArray x, FloatArray y, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    private static void check(FloatArray x, FloatArray y, FloatArray output) {
+        for (int i = 0; i < output.getSize(); i++) {
+            assertEquals(2.0f * x.get(i) + y.get(i), output.get(i), 0.001f);
+        }
+    }
+
+    /**
+     * Resident set size of the JVM in bytes, or -1 if it is not available.
+     */
+    private static long residentSetSize() {
+        try {
+            String[] fields = Files.readString(Path.of("/proc/self/statm")).trim().split("\\s+");
+            return Long.parseLong(fields[1]) * 4096;
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    @Test
+    public void testPoolReuse() {
+        try (NativeArrayPool pool = new NativeArrayPool()) {
+            IntArray first = new IntArray(SIZE, pool);
+            first.init(7);
+            long allocated = pool.getAllocatedBytes();
+            first.release();
+            assertTrue(first.isReleased());
+            assertEquals(allocated, pool.getCachedBytes());
+
+            // A smaller array of the same size class reuses the block, zero-initialized
+            IntArray second = new IntArray(SIZE - 16, pool);
+            assertEquals(allocated, pool.getAllocatedBytes());
+            assertEquals(0, pool.getCachedBytes());
+            for (int i = 0; i < second.getSize(); i++) {
+                assertEquals(0, second.get(i));
+            }
+            second.release();
+        }
+    }
+
+    @Test
+    public void testPoolClose() {
+        NativeArrayPool pool = new NativeArrayPool();
+        FloatArray inUse = new FloatArray(SIZE, pool);
+        FloatArray released = new FloatArray(SIZE, pool);
+        released.release();
+        pool.close();
+        assertEquals(0, pool.getCachedBytes());
+        assertTrue(pool.getAllocatedBytes() > 0);
+
+        // Blocks in use are freed when they are released after the pool is closed
+        inUse.init(1.0f);
+        inUse.release();
+        assertEquals(0, pool.getAllocatedBytes());
+    }
+
+    @Test
+    public void testBoundedMemory() {
+        // 4GB of short-lived 32MB arrays
+        final int elements = 8 * 1024 * 1024;
+        final long residentSetBefore = residentSetSize();
+        try (NativeArrayPool pool = new NativeArrayPool()) {
+            long maxAllocated = 0;
+            for (int i = 0; i < 128; i++) {
+                FloatArray array = new FloatArray(elements, pool);
+                array.set(i, i);
+                array.set(elements - 1, i);
+                array.release();
+                maxAllocated = Math.max(maxAllocated, pool.getAllocatedBytes());
+            }
+            // A single block is allocated and reused
+            assertTrue(maxAllocated <= 2L * elements * Float.BYTES);
+        }
+        final long residentSetAfter = residentSetSize();
+        if (residentSetBefore > 0 && residentSetAfter > 0) {
+            assertTrue(residentSetAfter - residentSetBefore < 1024L * 1024 * 1024);
+        }
+    }
+
+    @Test
+    public void testArenaArrays() throws TornadoExecutionPlanException {
+        try (Arena arena = Arena.ofShared()) {
+            FloatArray x = new FloatArray(SIZE, arena);
+            FloatArray y = new FloatArray(SIZE, arena);
+            FloatArray output = new FloatArray(SIZE, arena);
+            x.init(3.0f);
+            y.init(1.0f);
+
+            TaskGraph taskGraph = new TaskGraph("s0") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                    .task("t0", TestNativeArrayPool::saxpy, 2.0f, x, y, output) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+            ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+                executionPlan.execute();
+            }
+            check(x, y, output);
+        }
+    }
+
+    @Test
+    public void testReleaseWithDeviceMemory() throws TornadoExecutionPlanException {
+        try (NativeArrayPool pool = new NativeArrayPool()) {
+            FloatArray x = new FloatArray(SIZE, pool);
+            FloatArray y = new FloatArray(SIZE, pool);
+            FloatArray output = new FloatArray(SIZE, pool);
+            x.init(3.0f);
+            y.init(1.0f);
+            x.setReleaseWithDeviceMemory(true);
+            y.setReleaseWithDeviceMemory(true);
+
+            TaskGraph taskGraph = new TaskGraph("s0") //
+                    .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                    .task("t0", TestNativeArrayPool::saxpy, 2.0f, x, y, output) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+            ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+                executionPlan.execute();
+                for (int i = 0; i < output.getSize(); i++) {
+                    assertEquals(7.0f, output.get(i), 0.001f);
+                }
+                executionPlan.freeDeviceMemory();
+            }
+
+            assertTrue(x.isReleased());
+            assertTrue(y.isReleased());
+            assertFalse(output.isReleased());
+            assertTrue(pool.getCachedBytes() > 0);
+            output.release();
+        }
+    }
+}
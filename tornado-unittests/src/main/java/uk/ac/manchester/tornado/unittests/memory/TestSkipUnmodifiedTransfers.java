@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.memory;
+
+import static java.lang.foreign.ValueLayout.JAVA_FLOAT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests that skipping the copies of unmodified native arrays does not change
+ * the results of task graphs that copy their data in every execution.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test --jvm="-Dtornado.transfer.skip.unmodified=True" -V uk.ac.manchester.tornado.unittests.memory.TestSkipUnmodifiedTransfers
+ * </code>
+ */
+public class TestSkipUnmodifiedTransfers extends TornadoTestBase {
+
+    private static final int SIZE = 4096;
+
+    private static final boolean SKIP_UNMODIFIED = Boolean.parseBoolean(System.getProperty("tornado.transfer.skip.unmodified", "False"));
+
+    public static void saxpy(float alpha, FloatArray x, FloatArray y, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, alpha * x.get(i) + y.get(i));
+        }
+    }
+
+    public static void increment(FloatArray array) {
+        for (@Parallel int i = 0; i < array.getSize(); i++) {
+            array.set(i, array.get(i) + 1.0f);
+        }
+    }
+
+    private static void check(FloatArray x, FloatArray y, FloatArray output) {
+        for (int i = 0; i < output.getSize(); i++) {
+            assertEquals(2.0f * x.get(i) + y.get(i), output.get(i), 0.001f);
+        }
+    }
+
+    private static void check(FloatArray array, float value) {
+        for (int i = 0; i < array.getSize(); i++) {
+            assertEquals(value, array.get(i), 0.001f);
+        }
+    }
+
+    @Test
+    public void testModificationCount() {
+        FloatArray array = new FloatArray(SIZE);
+        long count = array.getModificationCount();
+        array.set(0, 1.0f);
+        // Writes are only counted when unmodified copies are skipped
+        assertEquals(SKIP_UNMODIFIED, array.getModificationCount() > count);
+
+        count = array.getModificationCount();
+        array.init(2.0f);
+        assertEquals(SKIP_UNMODIFIED, array.getModificationCount() > count);
+
+        count = array.getModificationCount();
+        array.get(0);
+        assertEquals(count, array.getModificationCount());
+
+        assertTrue(array.isModificationTracked());
+        FloatArray slice = array.slice(0, 16);
+        assertFalse(array.isModificationTracked());
+        assertFalse(slice.isModificationTracked());
+    }
+
+    @Test
+    public void testUnmodifiedInputs() throws TornadoExecutionPlanException {
+        FloatArray x = new FloatArray(SIZE);
+        FloatArray y = new FloatArray(SIZE);
+        FloatArray output = new FloatArray(SIZE);
+        x.init(3.0f);
+        y.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestSkipUnmodifiedTransfers::saxpy, 2.0f, x, y, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int i = 0; i < 4; i++) {
+                output.clear();
+                executionPlan.execute();
+                check(x, y, output);
+            }
+
+            x.set(10, 100.0f);
+            executionPlan.execute();
+            check(x, y, output);
+
+            y.init(5.0f);
+            executionPlan.execute();
+            check(x, y, output);
+        }
+    }
+
+    @Test
+    public void testArrayUpdatedOnDevice() throws TornadoExecutionPlanException {
+        FloatArray array = new FloatArray(SIZE);
+        array.init(0.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, array) //
+                .task("t0", TestSkipUnmodifiedTransfers::increment, array) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, array);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int i = 1; i <= 4; i++) {
+                executionPlan.execute();
+                check(array, i);
+            }
+
+            array.init(10.0f);
+            executionPlan.execute();
+            check(array, 11.0f);
+        }
+    }
+
+    @Test
+    public void testArraySharedBetweenPlans() throws TornadoExecutionPlanException {
+        FloatArray shared = new FloatArray(SIZE);
+        FloatArray y = new FloatArray(SIZE);
+        FloatArray output = new FloatArray(SIZE);
+        shared.init(0.0f);
+        y.init(1.0f);
+
+        // Plan A updates the shared array on the device and copies it to the host
+        TaskGraph writer = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, shared) //
+                .task("t0", TestSkipUnmodifiedTransfers::increment, shared) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, shared);
+
+        // Plan B reads the shared array
+        TaskGraph reader = new TaskGraph("s1") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, shared, y) //
+                .task("t0", TestSkipUnmodifiedTransfers::saxpy, 2.0f, shared, y, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableWriter = writer.snapshot();
+        ImmutableTaskGraph immutableReader = reader.snapshot();
+        try (TornadoExecutionPlan writerPlan = new TornadoExecutionPlan(immutableWriter); //
+                TornadoExecutionPlan readerPlan = new TornadoExecutionPlan(immutableReader)) {
+            readerPlan.execute();
+            check(shared, y, output);
+
+            for (int i = 1; i <= 4; i++) {
+                writerPlan.execute();
+                check(shared, i);
+
+                // The copy of plan A to the host modified the array that plan B reads
+                readerPlan.execute();
+                check(shared, y, output);
+            }
+        }
+    }
+
+    @Test
+    public void testSegmentWrites() throws TornadoExecutionPlanException {
+        FloatArray x = new FloatArray(SIZE);
+        FloatArray y = new FloatArray(SIZE);
+        FloatArray output = new FloatArray(SIZE);
+        x.init(3.0f);
+        y.init(1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, x, y) //
+                .task("t0", TestSkipUnmodifiedTransfers::saxpy, 2.0f, x, y, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+            check(x, y, output);
+
+            // Writes through the segment are not tracked unless they are marked
+            for (int i = 0; i < SIZE; i++) {
+                x.getSegment().setAtIndex(JAVA_FLOAT, i, 7.0f);
+            }
+            x.markAsModified();
+            executionPlan.execute();
+            check(x, y, output);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.primitives;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.primitives.Reduction;
+import uk.ac.manchester.tornado.api.primitives.Scan;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.collections.VectorFloat2;
+import uk.ac.manchester.tornado.api.types.collections.VectorInt2;
+import uk.ac.manchester.tornado.api.types.vectors.Float2;
+import uk.ac.manchester.tornado.api.types.vectors.Int2;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests the {@link Reduction} primitives against sequential Java implementations.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.primitives.TestReduction
+ * </code>
+ */
+public class TestReduction extends TornadoTestBase {
+
+    // More work-groups than threads in a work-group, to combine the partial results in several steps
+    private static final int SIZE = Scan.BLOCK_SIZE * Scan.BLOCK_SIZE + 1000;
+
+    private static FloatArray randomFloats(int size) {
+        Random random = new Random(7);
+        FloatArray array = new FloatArray(size);
+        for (int i = 0; i < size; i++) {
+            array.set(i, random.nextFloat() * 100.0f);
+        }
+        return array;
+    }
+
+    private void execute(TaskGraph taskGraph, GridScheduler gridScheduler) throws TornadoExecutionPlanException {
+        // The last work-group to finish is detected with an atomic counter, currently supported by OpenCL
+        assertNotBackend(TornadoVMBackendType.PTX);
+        assertNotBackend(TornadoVMBackendType.SPIRV);
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            // The second execution checks that the kernel resets the counter of work-groups
+            executionPlan.withGridScheduler(gridScheduler).execute();
+            executionPlan.execute();
+        }
+    }
+
+    /**
+     * Combine of (min, max) pairs.
+     */
+    private static Float2 minMaxPair(Float2 a, Float2 b) {
+        return new Float2(Math.min(a.getX(), b.getX()), Math.max(a.getY(), b.getY()));
+    }
+
+    @Test
+    public void testArgMax() throws TornadoExecutionPlanException {
+        FloatArray input = randomFloats(SIZE);
+        // Ties resolve to the lowest index
+        input.set(SIZE - 10, 200.0f);
+        input.set(SIZE / 2, 200.0f);
+        FloatArray value = new FloatArray(1);
+        IntArray index = new IntArray(1);
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        Reduction.argMax(taskGraph, gridScheduler, "argmax", input, value, index);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, value, index);
+        execute(taskGraph, gridScheduler);
+
+        assertEquals(200.0f, value.get(0), DELTA);
+        assertEquals(SIZE / 2, index.get(0));
+    }
+
+    @Test
+    public void testArgMin() throws TornadoExecutionPlanException {
+        FloatArray input = randomFloats(SIZE);
+        int expectedIndex = 0;
+        for (int i = 1; i < SIZE; i++) {
+            if (input.get(i) < input.get(expectedIndex)) {
+                expectedIndex = i;
+            }
+        }
+        FloatArray value = new FloatArray(1);
+        IntArray index = new IntArray(1);
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        Reduction.argMin(taskGraph, gridScheduler, "argmin", input, value, index);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, value, index);
+        execute(taskGraph, gridScheduler);
+
+        assertEquals(input.get(expectedIndex), value.get(0), DELTA);
+        assertEquals(expectedIndex, index.get(0));
+    }
+
+    @Test
+    public void testMinMax() throws TornadoExecutionPlanException {
+        final int size = 3000;
+        FloatArray input = randomFloats(size);
+        float min = Float.MAX_VALUE;
+        float max = -Float.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, input.get(i));
+            max = Math.max(max, input.get(i));
+        }
+        FloatArray result = new FloatArray(2);
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        Reduction.minMax(taskGraph, gridScheduler, "minmax", input, result);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+        execute(taskGraph, gridScheduler);
+
+        assertEquals(min, result.get(0), DELTA);
+        assertEquals(max, result.get(1), DELTA);
+    }
+
+    @Test
+    public void testMeanVariance() throws TornadoExecutionPlanException {
+        FloatArray input = randomFloats(SIZE);
+        double sum = 0;
+        for (int i = 0; i < SIZE; i++) {
+            sum += input.get(i);
+        }
+        double mean = sum / SIZE;
+        double squares = 0;
+        for (int i = 0; i < SIZE; i++) {
+            squares += (input.get(i) - mean) * (input.get(i) - mean);
+        }
+        double variance = squares / SIZE;
+        FloatArray result = new FloatArray(2);
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        Reduction.meanVariance(taskGraph, gridScheduler, "stats", input, result);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+        execute(taskGraph, gridScheduler);
+
+        assertEquals(mean, result.get(0), 0.01);
+        assertEquals(variance, result.get(1), variance * 1e-3);
+    }
+
+    @Test
+    public void testReduceFloat2() throws TornadoExecutionPlanException {
+        FloatArray values = randomFloats(SIZE);
+        VectorFloat2 input = new VectorFloat2(SIZE);
+        float min = Float.MAX_VALUE;
+        float max = -Float.MAX_VALUE;
+        for (int i = 0; i < SIZE; i++) {
+            input.set(i, new Float2(values.get(i), values.get(i)));
+            min = Math.min(min, values.get(i));
+            max = Math.max(max, values.get(i));
+        }
+        VectorFloat2 result = new VectorFloat2(1);
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        Reduction.reduce(taskGraph, gridScheduler, "minmax", input, new Float2(Float.MAX_VALUE, -Float.MAX_VALUE), TestReduction::minMaxPair, result);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+        execute(taskGraph, gridScheduler);
+
+        assertEquals(min, result.get(0).getX(), DELTA);
+        assertEquals(max, result.get(0).getY(), DELTA);
+    }
+
+    @Test
+    public void testReduceInt2() throws TornadoExecutionPlanException {
+        // Sum of the values and number of odd values
+        VectorInt2 input = new VectorInt2(SIZE);
+        int sum = 0;
+        int odd = 0;
+        for (int i = 0; i < SIZE; i++) {
+            int value = i % 100;
+            input.set(i, new Int2(value, value & 1));
+            sum += value;
+            odd += value & 1;
+        }
+        VectorInt2 result = new VectorInt2(1);
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        Reduction.reduce(taskGraph, gridScheduler, "sums", input, new Int2(0, 0), (a, b) -> new Int2(a.getX() + b.getX(), a.getY() + b.getY()), result);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+        execute(taskGraph, gridScheduler);
+
+        assertEquals(sum, result.get(0).getX());
+        assertEquals(odd, result.get(0).getY());
+    }
+
+    /**
+     * The same task reduced with two combine functions runs two kernels, not the
+     * kernel compiled for the first function.
+     */
+    @Test
+    public void testReduceCombineFunctions() throws TornadoExecutionPlanException {
+        VectorInt2 input = new VectorInt2(SIZE);
+        int sum = 0;
+        int max = 0;
+        for (int i = 0; i < SIZE; i++) {
+            int value = i % 100;
+            input.set(i, new Int2(value, value));
+            sum += value;
+            max = Math.max(max, value);
+        }
+
+        VectorInt2 sums = new VectorInt2(1);
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        Reduction.reduce(taskGraph, gridScheduler, "combine", input, new Int2(0, 0), (a, b) -> new Int2(a.getX() + b.getX(), a.getY() + b.getY()), sums);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, sums);
+        execute(taskGraph, gridScheduler);
+
+        VectorInt2 maxima = new VectorInt2(1);
+        gridScheduler = new GridScheduler();
+        taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        Reduction.reduce(taskGraph, gridScheduler, "combine", input, new Int2(0, 0), (a, b) -> new Int2(Math.max(a.getX(), b.getX()), Math.max(a.getY(), b.getY())), maxima);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, maxima);
+        execute(taskGraph, gridScheduler);
+
+        assertEquals(sum, sums.get(0).getX());
+        assertEquals(max, maxima.get(0).getX());
+        assertEquals(max, maxima.get(0).getY());
+    }
+}
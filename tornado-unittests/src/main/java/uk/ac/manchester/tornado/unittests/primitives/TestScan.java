@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.primitives;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.primitives.Compaction;
+import uk.ac.manchester.tornado.api.primitives.Scan;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests the {@link Scan} and {@link Compaction} primitives against sequential Java implementations.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.primitives.TestScan
+ * </code>
+ */
+public class TestScan extends TornadoTestBase {
+
+    // More blocks than threads in a work-group, to scan the block sums in several chunks
+    private static final int SIZE = Scan.BLOCK_SIZE * Scan.BLOCK_SIZE + 1000;
+
+    private static void inclusiveScan(IntArray input, IntArray output) {
+        int acc = 0;
+        for (int i = 0; i < input.getSize(); i++) {
+            acc += input.get(i);
+            output.set(i, acc);
+        }
+    }
+
+    private static void segmentedScan(IntArray input, IntArray flags, IntArray output) {
+        int acc = 0;
+        for (int i = 0; i < input.getSize(); i++) {
+            acc = flags.get(i) != 0 ? input.get(i) : acc + input.get(i);
+            output.set(i, acc);
+        }
+    }
+
+    public static void selectEven(IntArray input, IntArray flags) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            flags.set(i, (input.get(i) & 1) == 0 ? 1 : 0);
+        }
+    }
+
+    private static IntArray randomInts(int size, int bound) {
+        Random random = new Random(7);
+        IntArray array = new IntArray(size);
+        for (int i = 0; i < size; i++) {
+            array.set(i, random.nextInt(bound));
+        }
+        return array;
+    }
+
+    private static void execute(TaskGraph taskGraph, GridScheduler gridScheduler) throws TornadoExecutionPlanException {
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withGridScheduler(gridScheduler).execute();
+        }
+    }
+
+    @Test
+    public void testInclusiveScanInt() throws TornadoExecutionPlanException {
+        IntArray input = randomInts(SIZE, 100);
+        IntArray output = new IntArray(SIZE);
+        IntArray expected = new IntArray(SIZE);
+        inclusiveScan(input, expected);
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        Scan.inclusive(taskGraph, gridScheduler, "scan", input, output);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+        execute(taskGraph, gridScheduler);
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(expected.get(i), output.get(i));
+        }
+    }
+
+    @Test
+    public void testExclusiveScanInt() throws TornadoExecutionPlanException {
+        IntArray input = randomInts(SIZE, 100);
+        IntArray output = new IntArray(SIZE);
+        IntArray expected = new IntArray(SIZE);
+        inclusiveScan(input, expected);
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        Scan.exclusive(taskGraph, gridScheduler, "scan", input, output);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+        execute(taskGraph, gridScheduler);
+
+        assertEquals(0, output.get(0));
+        for (int i = 1; i < SIZE; i++) {
+            assertEquals(expected.get(i - 1), output.get(i));
+        }
+    }
+
+    @Test
+    public void testInclusiveScanFloat() throws TornadoExecutionPlanException {
+        final int size = 5000;
+        FloatArray input = new FloatArray(size);
+        FloatArray output = new FloatArray(size);
+        input.init(0.5f);
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input);
+        Scan.inclusive(taskGraph, gridScheduler, "scan", input, output);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+        execute(taskGraph, gridScheduler);
+
+        for (int i = 0; i < size; i++) {
+            assertEquals((i + 1) * 0.5f, output.get(i), DELTA);
+        }
+    }
+
+    @Test
+    public void testSegmentedScanInt() throws TornadoExecutionPlanException {
+        IntArray input = randomInts(SIZE, 100);
+        IntArray flags = new IntArray(SIZE);
+        // Segments of different lengths, some of them spanning several blocks
+        Random random = new Random(11);
+        for (int i = 0; i < SIZE; i++) {
+            flags.set(i, random.nextInt(700) == 0 ? 1 : 0);
+        }
+        IntArray output = new IntArray(SIZE);
+        IntArray expected = new IntArray(SIZE);
+        segmentedScan(input, flags, expected);
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input, flags);
+        Scan.segmented(taskGraph, gridScheduler, "scan", input, flags, output);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+        execute(taskGraph, gridScheduler);
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(expected.get(i), output.get(i));
+        }
+    }
+
+    @Test
+    public void testCompactionInt() throws TornadoExecutionPlanException {
+        IntArray input = randomInts(SIZE, 1000);
+        IntArray flags = new IntArray(SIZE);
+        IntArray output = new IntArray(SIZE);
+        IntArray count = new IntArray(1);
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("filter", TestScan::selectEven, input, flags);
+        Compaction.compact(taskGraph, gridScheduler, "compact", input, flags, output, count);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, output, count);
+        execute(taskGraph, gridScheduler);
+
+        int expectedCount = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if ((input.get(i) & 1) == 0) {
+                assertEquals(input.get(i), output.get(expectedCount));
+                expectedCount++;
+            }
+        }
+        assertEquals(expectedCount, count.get(0));
+    }
+
+    @Test
+    public void testCompactionFloat() throws TornadoExecutionPlanException {
+        final int size = 3000;
+        FloatArray input = new FloatArray(size);
+        IntArray flags = new IntArray(size);
+        FloatArray output = new FloatArray(size);
+        IntArray count = new IntArray(1);
+        for (int i = 0; i < size; i++) {
+            input.set(i, i);
+            flags.set(i, i % 3 == 0 ? 1 : 0);
+        }
+
+        GridScheduler gridScheduler = new GridScheduler();
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.EVERY_EXECUTION, input, flags);
+        Compaction.compact(taskGraph, gridScheduler, "compact", input, flags, output, count);
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, output, count);
+        execute(taskGraph, gridScheduler);
+
+        assertEquals(size / 3, count.get(0));
+        for (int i = 0; i < size / 3; i++) {
+            assertEquals(i * 3.0f, output.get(i), 0.0f);
+        }
+    }
+}
@@ -20,11 +20,19 @@ package uk.ac.manchester.tornado.unittests.profiler;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Random;
 import java.util.stream.IntStream;
 
 import org.junit.Test;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
 import uk.ac.manchester.tornado.api.TaskGraph;
 import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
@@ -32,9 +40,12 @@ import uk.ac.manchester.tornado.api.TornadoExecutionResult;
 import uk.ac.manchester.tornado.api.TornadoProfilerResult;
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.enums.ProfilerMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.profiler.LatencyHistogram;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
 import uk.ac.manchester.tornado.api.types.arrays.IntArray;
 import uk.ac.manchester.tornado.unittests.TestHello;
@@ -56,6 +67,12 @@ public class TestProfiler extends TornadoTestBase {
         }
     }
 
+    public static void multiply(IntArray a, IntArray b, IntArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) * b.get(i));
+        }
+    }
+
     private boolean isBackendPTXOrSPIRV(int driverIndex) {
         TornadoVMBackendType type = TornadoRuntime.getTornadoRuntime().getBackend(driverIndex).getBackendType();
         return switch (type) {
@@ -377,4 +394,229 @@ public class TestProfiler extends TornadoTestBase {
         // disable print kernel
         executionPlan.withoutThreadInfo().execute();
     }
+
+    @Test
+    public void testLatencyHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(1000000, histogram.getMax());
+        assertEquals(500500.0, histogram.getMean(), 0.01);
+
+        // Buckets have a relative error below 6.25%
+        assertEquals(500000, histogram.getValueAtPercentile(50), 500000 * 0.0625);
+        assertEquals(990000, histogram.getValueAtPercentile(99), 990000 * 0.0625);
+        assertEquals(histogram.getMax(), histogram.getValueAtPercentile(100));
+        assertEquals(histogram.getMin(), histogram.getValueAtPercentile(0));
+
+        LatencyHistogram merged = histogram.copy();
+        merged.add(histogram);
+        assertEquals(2000, merged.getCount());
+        assertEquals(histogram.getValueAtPercentile(50), merged.getValueAtPercentile(50));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testLatencyHistogramsAcrossExecutions() {
+        final int numElements = 16;
+        final int iterations = 10;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+
+        a.init(1);
+        b.init(2);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b)//
+                .task("t0", TestHello::add, a, b, c)//
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot());
+        executionPlan.withProfiler(ProfilerMode.SILENT);
+
+        TornadoExecutionResult executionResult = null;
+        for (int i = 0; i < iterations; i++) {
+            executionResult = executionPlan.execute();
+        }
+
+        TornadoProfilerResult profilerResult = executionResult.getProfilerResult();
+        LatencyHistogram kernelTime = profilerResult.getDeviceKernelTimeHistogram("s0.t0");
+        assertEquals(iterations, kernelTime.getCount());
+        assertTrue(kernelTime.getMin() <= kernelTime.getValueAtPercentile(50));
+        assertTrue(kernelTime.getValueAtPercentile(50) <= kernelTime.getValueAtPercentile(99));
+        assertTrue(kernelTime.getValueAtPercentile(99) <= kernelTime.getMax());
+        assertTrue(profilerResult.getDeviceReadTimeHistogram().getCount() > 0);
+
+        executionPlan.clearProfiles();
+        assertEquals(0, profilerResult.getDeviceKernelTimeHistogram("s0.t0").getCount());
+
+        executionPlan.withoutProfiler();
+    }
+
+    @Test
+    public void testFlightRecorderEvents() throws IOException {
+        int numElements = 16;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+
+        a.init(1);
+        b.init(2);
+
+        // Force the compilation of the kernel, so it is installed in the code cache
+        TornadoRuntime.getTornadoRuntime().getDefaultDevice().clean();
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestHello::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        Path recordingFile = Files.createTempFile("tornado-test", ".jfr");
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("uk.ac.manchester.tornado.Launch");
+            recording.enable("uk.ac.manchester.tornado.Transfer");
+            recording.enable("uk.ac.manchester.tornado.KernelInstall");
+            recording.start();
+
+            TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot());
+            executionPlan.execute();
+            executionPlan.execute();
+
+            recording.stop();
+            recording.dump(recordingFile);
+            events = RecordingFile.readAllEvents(recordingFile);
+        } finally {
+            Files.deleteIfExists(recordingFile);
+        }
+
+        List<RecordedEvent> launches = events.stream().filter(event -> event.getEventType().getName().endsWith(".Launch")).toList();
+        assertEquals(2, launches.size());
+        assertTrue(launches.stream().allMatch(event -> "s0.t0".equals(event.getString("task"))));
+
+        long bytesIn = events.stream() //
+                .filter(event -> event.getEventType().getName().endsWith(".Transfer")) //
+                .filter(event -> event.getString("bytecode").startsWith("TRANSFER_HOST_TO_DEVICE")) //
+                .mapToLong(event -> event.getLong("bytes")) //
+                .sum();
+        assertTrue(bytesIn > 0);
+
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().endsWith(".KernelInstall") && event.getBoolean("success")));
+    }
+
+    private static TornadoExecutionResult executeAddWithSize(int numElements) {
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray c = new IntArray(numElements);
+        a.init(1);
+        b.init(2);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestHello::add, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+
+        TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot());
+        TornadoExecutionResult executionResult = executionPlan.withProfiler(ProfilerMode.SILENT).execute();
+        for (int i = 0; i < numElements; i++) {
+            assertEquals(3, c.get(i));
+        }
+        return executionResult;
+    }
+
+    @Test
+    public void testKernelVariantsAcrossSizes() {
+        TornadoRuntime.getTornadoRuntime().getDefaultDevice().clean();
+
+        // The first execution of each size compiles a kernel specialised for it
+        assertTrue(executeAddWithSize(1024).getProfilerResult().getTornadoCompilerTime() > 0);
+        assertTrue(executeAddWithSize(4096).getProfilerResult().getTornadoCompilerTime() > 0);
+
+        // Sizes seen before reuse their kernel
+        assertEquals(0, executeAddWithSize(1024).getProfilerResult().getTornadoCompilerTime());
+        assertEquals(0, executeAddWithSize(4096).getProfilerResult().getTornadoCompilerTime());
+    }
+
+    @Test
+    public void testConcurrentCompilationInWarmUp() {
+        final int numElements = 256;
+        final int numTasks = 4;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray[] outputs = new IntArray[numTasks];
+
+        a.init(1);
+        b.init(2);
+
+        TornadoRuntime.getTornadoRuntime().getDefaultDevice().clean();
+
+        TaskGraph taskGraph = new TaskGraph("s0").transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b);
+        for (int i = 0; i < numTasks; i++) {
+            outputs[i] = new IntArray(numElements);
+            taskGraph.task("t" + i, TestHello::add, a, b, outputs[i]);
+        }
+        taskGraph.transferToHost(DataTransferMode.EVERY_EXECUTION, (Object[]) outputs);
+
+        // All the tasks are compiled by the warm-up, before the first launch
+        TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot());
+        TornadoExecutionResult executionResult = executionPlan.withProfiler(ProfilerMode.SILENT).withWarmUp().execute();
+
+        TornadoProfilerResult profilerResult = executionResult.getProfilerResult();
+        for (int i = 0; i < numTasks; i++) {
+            assertTrue(profilerResult.getTaskTornadoCompilerTime("s0.t" + i) > 0);
+            assertTrue(profilerResult.getTaskDriverInstallTime("s0.t" + i) > 0);
+            for (int j = 0; j < numElements; j++) {
+                assertEquals(3, outputs[i].get(j));
+            }
+        }
+        assertEquals(0, profilerResult.getTornadoCompilerTime());
+
+        executionPlan.withoutProfiler();
+    }
+
+    /**
+     * Compiles a graph of two tasks on the default device of every backend. The
+     * backends that support it compile both tasks concurrently in the warm-up, the
+     * others compile each task when it is launched.
+     */
+    @Test
+    public void testTwoTaskCompilationPerBackend() throws TornadoExecutionPlanException {
+        final int numElements = 256;
+        IntArray a = new IntArray(numElements);
+        IntArray b = new IntArray(numElements);
+        IntArray added = new IntArray(numElements);
+        IntArray multiplied = new IntArray(numElements);
+
+        a.init(3);
+        b.init(5);
+
+        for (int backendIndex = 0; backendIndex < TornadoRuntime.getTornadoRuntime().getNumBackends(); backendIndex++) {
+            TornadoDevice device = TornadoRuntime.getTornadoRuntime().getBackend(backendIndex).getDevice(0);
+            added.init(0);
+            multiplied.init(0);
+
+            TaskGraph taskGraph = new TaskGraph("s" + backendIndex) //
+                    .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+                    .task("add", TestHello::add, a, b, added) //
+                    .task("multiply", TestProfiler::multiply, a, b, multiplied) //
+                    .transferToHost(DataTransferMode.EVERY_EXECUTION, added, multiplied);
+
+            try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+                executionPlan.withDevice(device).withWarmUp().execute();
+            }
+
+            for (int i = 0; i < numElements; i++) {
+                assertEquals(8, added.get(i));
+                assertEquals(15, multiplied.get(i));
+            }
+        }
+    }
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.reductions;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.TornadoExecutionResult;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.common.TornadoDevice;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.enums.ProfilerMode;
+import uk.ac.manchester.tornado.api.enums.TornadoDeviceType;
+import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.math.TornadoMath;
+import uk.ac.manchester.tornado.api.types.arrays.DoubleArray;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.api.types.arrays.LongArray;
+import uk.ac.manchester.tornado.runtime.common.TornadoOptions;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+import uk.ac.manchester.tornado.unittests.tools.Exceptions.UnsupportedConfigurationException;
+
+/**
+ * Tests the automatic reductions finished by the last work-group of the
+ * reduction kernel, with a single launch per execution. Each plan is executed
+ * several times, since the work-group counter must be reset between launches.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test --jvm="-Dtornado.reduce.single.launch=True" -V uk.ac.manchester.tornado.unittests.reductions.TestReductionsSingleLaunch
+ * </code>
+ */
+public class TestReductionsSingleLaunch extends TornadoTestBase {
+
+    private static final int SIZE = 8192;
+    private static final int LARGE_SIZE = 16777216;
+    private static final int EXECUTIONS = 3;
+
+    private static void reduceAddInts(IntArray input, @Reduce IntArray result) {
+        result.set(0, 0);
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            result.set(0, result.get(0) + input.get(i));
+        }
+    }
+
+    private static void reduceMultFloats(FloatArray input, @Reduce FloatArray result) {
+        result.set(0, 1.0f);
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            result.set(0, result.get(0) * input.get(i));
+        }
+    }
+
+    private static void reduceMaxLongs(LongArray input, @Reduce LongArray result) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            result.set(0, TornadoMath.max(result.get(0), input.get(i)));
+        }
+    }
+
+    private static void reduceMinDoubles(DoubleArray input, @Reduce DoubleArray result) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            result.set(0, TornadoMath.min(result.get(0), input.get(i)));
+        }
+    }
+
+    private static boolean isSingleLaunchDevice() {
+        TornadoDevice device = getTornadoRuntime().getDefaultDevice();
+        return device.getTornadoVMBackend() == TornadoVMBackendType.OPENCL && device.getDeviceType() != TornadoDeviceType.CPU;
+    }
+
+    @Before
+    public void checkSingleLaunch() {
+        if (!TornadoOptions.REDUCE_SINGLE_LAUNCH) {
+            throw new UnsupportedConfigurationException("Test requires -Dtornado.reduce.single.launch=True");
+        }
+    }
+
+    @Test
+    public void testSumInts() throws TornadoExecutionPlanException {
+        IntArray input = new IntArray(SIZE);
+        IntArray result = new IntArray(1);
+        Random r = new Random(31);
+        IntStream.range(0, SIZE).forEach(i -> input.set(i, r.nextInt(100)));
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestReductionsSingleLaunch::reduceAddInts, input, result) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+        IntArray sequential = new IntArray(1);
+        reduceAddInts(input, sequential);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            for (int i = 0; i < EXECUTIONS; i++) {
+                executionPlan.execute();
+                assertEquals(sequential.get(0), result.get(0));
+            }
+        }
+    }
+
+    @Test
+    public void testSumIntsManyGroups() throws TornadoExecutionPlanException {
+        // More work-groups than threads per work-group, so the last work-group
+        // accumulates several partial results per thread
+        IntArray input = new IntArray(LARGE_SIZE);
+        IntArray result = new IntArray(1);
+        input.init(1);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestReductionsSingleLaunch::reduceAddInts, input, result) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            for (int i = 0; i < EXECUTIONS; i++) {
+                executionPlan.execute();
+                assertEquals(LARGE_SIZE, result.get(0));
+            }
+        }
+    }
+
+    @Test
+    public void testMultFloats() throws TornadoExecutionPlanException {
+        FloatArray input = new FloatArray(SIZE);
+        FloatArray result = new FloatArray(1);
+        IntStream.range(0, SIZE).forEach(i -> input.set(i, (i % 7 == 0) ? -1.0f : 1.0f));
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestReductionsSingleLaunch::reduceMultFloats, input, result) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+        FloatArray sequential = new FloatArray(1);
+        reduceMultFloats(input, sequential);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            for (int i = 0; i < EXECUTIONS; i++) {
+                executionPlan.execute();
+                assertEquals(sequential.get(0), result.get(0), 0.0f);
+            }
+        }
+    }
+
+    @Test
+    public void testMaxLongs() throws TornadoExecutionPlanException {
+        LongArray input = new LongArray(SIZE);
+        LongArray result = new LongArray(1);
+        result.init(Long.MIN_VALUE);
+        Random r = new Random(31);
+        IntStream.range(0, SIZE).forEach(i -> input.set(i, r.nextLong()));
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestReductionsSingleLaunch::reduceMaxLongs, input, result) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+        LongArray sequential = new LongArray(1);
+        sequential.init(Long.MIN_VALUE);
+        reduceMaxLongs(input, sequential);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            for (int i = 0; i < EXECUTIONS; i++) {
+                executionPlan.execute();
+                assertEquals(sequential.get(0), result.get(0));
+            }
+        }
+    }
+
+    @Test
+    public void testMinDoubles() throws TornadoExecutionPlanException {
+        DoubleArray input = new DoubleArray(SIZE);
+        DoubleArray result = new DoubleArray(1);
+        result.init(Double.MAX_VALUE);
+        Random r = new Random(31);
+        IntStream.range(0, SIZE).forEach(i -> input.set(i, r.nextDouble() * 1000 - 500));
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestReductionsSingleLaunch::reduceMinDoubles, input, result) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+        DoubleArray sequential = new DoubleArray(1);
+        sequential.init(Double.MAX_VALUE);
+        reduceMinDoubles(input, sequential);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            for (int i = 0; i < EXECUTIONS; i++) {
+                executionPlan.execute();
+                assertEquals(sequential.get(0), result.get(0), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testSingleKernelLaunch() throws TornadoExecutionPlanException {
+        if (!isSingleLaunchDevice()) {
+            throw new UnsupportedConfigurationException("Test requires an OpenCL GPU or accelerator");
+        }
+        IntArray input = new IntArray(SIZE);
+        IntArray result = new IntArray(1);
+        input.init(2);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestReductionsSingleLaunch::reduceAddInts, input, result) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, result);
+
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(taskGraph.snapshot())) {
+            executionPlan.withProfiler(ProfilerMode.SILENT);
+            TornadoExecutionResult first = executionPlan.execute();
+            long before = first.getProfilerResult().getKernelDispatchTimeHistogram().getCount();
+            TornadoExecutionResult second = executionPlan.execute();
+            long after = second.getProfilerResult().getKernelDispatchTimeHistogram().getCount();
+
+            // The profiler records one kernel dispatch per launch
+            assertEquals(1, after - before);
+            assertEquals(2 * SIZE, result.get(0));
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.GridScheduler;
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.KernelContext;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.WorkerGrid;
+import uk.ac.manchester.tornado.api.WorkerGrid1D;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.annotations.Reduce;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.api.types.arrays.IntArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests task-graphs that run on the JVM device, with the iteration space of the
+ * tasks partitioned across Java threads.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test -V uk.ac.manchester.tornado.unittests.tasks.TestJVMDevice
+ * </code>
+ */
+public class TestJVMDevice extends TornadoTestBase {
+
+    private static final int SIZE = 8192;
+
+    public static void vectorAdd(FloatArray a, FloatArray b, FloatArray c) {
+        for (@Parallel int i = 0; i < c.getSize(); i++) {
+            c.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    public static void strided(IntArray output, int last) {
+        for (@Parallel int i = 1; i <= last; i += 3) {
+            output.set(i, i * 2);
+        }
+    }
+
+    public static void matrixAdd(FloatArray a, FloatArray b, FloatArray c, int n) {
+        for (@Parallel int i = 0; i < n; i++) {
+            for (@Parallel int j = 0; j < n; j++) {
+                c.set(i * n + j, a.get(i * n + j) + b.get(i * n + j));
+            }
+        }
+    }
+
+    public static void reduceSum(IntArray input, @Reduce IntArray result) {
+        result.set(0, 0);
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            result.set(0, result.get(0) + input.get(i));
+        }
+    }
+
+    public static void reduceMax(FloatArray input, @Reduce FloatArray result) {
+        for (@Parallel int i = 0; i < input.getSize(); i++) {
+            result.set(0, Math.max(result.get(0), input.get(i)));
+        }
+    }
+
+    public static void vectorAddContext(KernelContext context, IntArray a, IntArray b, IntArray c) {
+        int idx = context.globalIdx;
+        c.set(idx, a.get(idx) + b.get(idx) + context.localIdx);
+    }
+
+    private static int square(int value) {
+        return value * value;
+    }
+
+    public static void privateCall(IntArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, square(i));
+        }
+    }
+
+    public static void twoParallelLoops(IntArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, output.get(i) + 1);
+        }
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, output.get(i) + 10);
+        }
+    }
+
+    public static void writeAfterLoop(IntArray output, IntArray counter) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, i);
+        }
+        counter.set(0, counter.get(0) + 1);
+    }
+
+    private static void execute(TaskGraph taskGraph, GridScheduler gridScheduler) throws TornadoExecutionPlanException {
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withDevice(TornadoExecutionPlan.getJVMDevice());
+            if (gridScheduler != null) {
+                executionPlan.withGridScheduler(gridScheduler);
+            }
+            executionPlan.execute();
+        }
+    }
+
+    @Test
+    public void testParallelLoop() throws TornadoExecutionPlanException {
+        FloatArray a = new FloatArray(SIZE);
+        FloatArray b = new FloatArray(SIZE);
+        FloatArray c = new FloatArray(SIZE);
+        IntStream.range(0, SIZE).forEach(i -> {
+            a.set(i, i);
+            b.set(i, 2 * i);
+        });
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestJVMDevice::vectorAdd, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+        execute(taskGraph, null);
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(3.0f * i, c.get(i), 0.001f);
+        }
+    }
+
+    @Test
+    public void testStridedInclusiveLoop() throws TornadoExecutionPlanException {
+        IntArray output = new IntArray(SIZE);
+        final int last = SIZE - 10;
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .task("t0", TestJVMDevice::strided, output, last) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+        execute(taskGraph, null);
+
+        for (int i = 0; i < SIZE; i++) {
+            boolean written = i >= 1 && i <= last && (i - 1) % 3 == 0;
+            assertEquals(written ? i * 2 : 0, output.get(i));
+        }
+    }
+
+    @Test
+    public void testNestedParallelLoops() throws TornadoExecutionPlanException {
+        final int n = 128;
+        FloatArray a = new FloatArray(n * n);
+        FloatArray b = new FloatArray(n * n);
+        FloatArray c = new FloatArray(n * n);
+        a.init(1.0f);
+        b.init(2.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestJVMDevice::matrixAdd, a, b, c, n) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+        execute(taskGraph, null);
+
+        for (int i = 0; i < n * n; i++) {
+            assertEquals(3.0f, c.get(i), 0.001f);
+        }
+    }
+
+    @Test
+    public void testReductions() throws TornadoExecutionPlanException {
+        IntArray input = new IntArray(SIZE);
+        IntArray sum = new IntArray(1);
+        FloatArray floats = new FloatArray(SIZE);
+        FloatArray max = new FloatArray(1);
+        IntStream.range(0, SIZE).forEach(i -> {
+            input.set(i, i % 10);
+            floats.set(i, (i * 37) % 1000);
+        });
+        max.set(0, -1.0f);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input, floats) //
+                .task("t0", TestJVMDevice::reduceSum, input, sum) //
+                .task("t1", TestJVMDevice::reduceMax, floats, max) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, sum, max);
+        execute(taskGraph, null);
+
+        int expectedSum = 0;
+        float expectedMax = -1.0f;
+        for (int i = 0; i < SIZE; i++) {
+            expectedSum += input.get(i);
+            expectedMax = Math.max(expectedMax, floats.get(i));
+        }
+        assertEquals(expectedSum, sum.get(0));
+        assertEquals(expectedMax, max.get(0), 0.001f);
+    }
+
+    @Test
+    public void testKernelContext() throws TornadoExecutionPlanException {
+        IntArray a = new IntArray(SIZE);
+        IntArray b = new IntArray(SIZE);
+        IntArray c = new IntArray(SIZE);
+        a.init(10);
+        b.init(20);
+
+        WorkerGrid workerGrid = new WorkerGrid1D(SIZE);
+        workerGrid.setLocalWork(64, 1, 1);
+        GridScheduler gridScheduler = new GridScheduler("s0.t0", workerGrid);
+        KernelContext context = new KernelContext();
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, a, b) //
+                .task("t0", TestJVMDevice::vectorAddContext, context, a, b, c) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, c);
+        execute(taskGraph, gridScheduler);
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(30 + i % 64, c.get(i));
+        }
+    }
+
+    @Test
+    public void testSequentialFallback() throws TornadoExecutionPlanException {
+        IntArray output = new IntArray(SIZE);
+
+        // The task calls a private method, so it runs in a single Java thread
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .task("t0", TestJVMDevice::privateCall, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+        execute(taskGraph, null);
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i * i, output.get(i));
+        }
+    }
+
+    @Test
+    public void testTwoTopLevelLoops() throws TornadoExecutionPlanException {
+        IntArray output = new IntArray(SIZE);
+
+        // The second loop would run in full in every partition of the first one
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, output) //
+                .task("t0", TestJVMDevice::twoParallelLoops, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+        execute(taskGraph, null);
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(11, output.get(i));
+        }
+    }
+
+    @Test
+    public void testSideEffectOutsideLoop() throws TornadoExecutionPlanException {
+        IntArray output = new IntArray(SIZE);
+        IntArray counter = new IntArray(1);
+
+        // The write after the loop must run once, so the task runs sequentially
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, counter) //
+                .task("t0", TestJVMDevice::writeAfterLoop, output, counter) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output, counter);
+        execute(taskGraph, null);
+
+        assertEquals(1, counter.get(0));
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i, output.get(i));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2024, APT Group, Department of Computer Science,
+ * The University of Manchester.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package uk.ac.manchester.tornado.unittests.tasks;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import uk.ac.manchester.tornado.api.ImmutableTaskGraph;
+import uk.ac.manchester.tornado.api.TaskGraph;
+import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
+import uk.ac.manchester.tornado.api.annotations.Parallel;
+import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
+import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
+
+/**
+ * Tests that fusing consecutive element-wise tasks does not change the results
+ * of a task-graph, and that tasks that are not element-wise are still run one
+ * after the other.
+ *
+ * <p>
+ * How to run?
+ * </p>
+ * <code>
+ * tornado-test --jvm="-Dtornado.fusion=True" -V uk.ac.manchester.tornado.unittests.tasks.TestTaskFusion
+ * </code>
+ */
+public class TestTaskFusion extends TornadoTestBase {
+
+    private static final int SIZE = 8192;
+
+    public static void scale(FloatArray input, FloatArray output, float alpha) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, alpha * input.get(i));
+        }
+    }
+
+    public static void add(FloatArray a, FloatArray b, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            output.set(i, a.get(i) + b.get(i));
+        }
+    }
+
+    public static void clamp(FloatArray array, float min, float max) {
+        for (@Parallel int i = 0; i < array.getSize(); i++) {
+            array.set(i, Math.min(Math.max(array.get(i), min), max));
+        }
+    }
+
+    public static void shiftLeft(FloatArray input, FloatArray output) {
+        for (@Parallel int i = 0; i < output.getSize() - 1; i++) {
+            output.set(i, input.get(i + 1));
+        }
+    }
+
+    public static void scaleArrays(float[] input, float[] output, float alpha) {
+        for (@Parallel int i = 0; i < output.length; i++) {
+            output[i] = alpha * input[i];
+        }
+    }
+
+    public static void addArrays(float[] a, float[] b, float[] output) {
+        for (@Parallel int i = 0; i < output.length; i++) {
+            output[i] = a[i] + b[i];
+        }
+    }
+
+    public static void readNext(float[] input, float[] output) {
+        for (@Parallel int i = 0; i < output.length; i++) {
+            output[i] = input[(i + 1) % input.length];
+        }
+    }
+
+    @Test
+    public void testElementWiseChain() throws TornadoExecutionPlanException {
+        FloatArray input = new FloatArray(SIZE);
+        FloatArray bias = new FloatArray(SIZE);
+        FloatArray scaled = new FloatArray(SIZE);
+        FloatArray output = new FloatArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            input.set(i, i);
+            bias.set(i, -100.0f);
+        }
+
+        // scale -> add -> clamp over the same iteration space
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input, bias) //
+                .task("t0", TestTaskFusion::scale, input, scaled, 2.0f) //
+                .task("t1", TestTaskFusion::add, scaled, bias, output) //
+                .task("t2", TestTaskFusion::clamp, output, 0.0f, 1000.0f) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, scaled, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            for (int execution = 0; execution < 2; execution++) {
+                executionPlan.execute();
+                for (int i = 0; i < SIZE; i++) {
+                    assertEquals(2.0f * i, scaled.get(i), 0.001f);
+                    assertEquals(Math.min(Math.max(2.0f * i - 100.0f, 0.0f), 1000.0f), output.get(i), 0.001f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testJavaArrays() throws TornadoExecutionPlanException {
+        float[] input = new float[SIZE];
+        float[] scaled = new float[SIZE];
+        float[] output = new float[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            input[i] = i;
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestTaskFusion::scaleArrays, input, scaled, 3.0f) //
+                .task("t1", TestTaskFusion::addArrays, scaled, input, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(4.0f * i, output[i], 0.001f);
+        }
+    }
+
+    @Test
+    public void testNeighbourReadIsNotFused() throws TornadoExecutionPlanException {
+        float[] input = new float[SIZE];
+        float[] scaled = new float[SIZE];
+        float[] output = new float[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            input[i] = i;
+        }
+
+        // t1 reads an element of scaled that another thread of t0 writes
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestTaskFusion::scaleArrays, input, scaled, 2.0f) //
+                .task("t1", TestTaskFusion::readNext, scaled, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(2.0f * ((i + 1) % SIZE), output[i], 0.001f);
+        }
+    }
+
+    @Test
+    public void testDifferentIterationSpaces() throws TornadoExecutionPlanException {
+        FloatArray input = new FloatArray(SIZE);
+        FloatArray scaled = new FloatArray(SIZE);
+        FloatArray output = new FloatArray(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            input.set(i, i);
+        }
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, input) //
+                .task("t0", TestTaskFusion::scale, input, scaled, 2.0f) //
+                .task("t1", TestTaskFusion::shiftLeft, scaled, output) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.execute();
+        }
+
+        for (int i = 0; i < SIZE - 1; i++) {
+            assertEquals(2.0f * (i + 1), output.get(i), 0.001f);
+        }
+    }
+}
@@ -21,6 +21,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
 import org.junit.After;
@@ -34,6 +35,7 @@ import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.annotations.Reduce;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
 import uk.ac.manchester.tornado.api.enums.TornadoVMBackendType;
+import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
 
 /**
@@ -56,6 +58,13 @@ public class TestVirtualDeviceKernel extends TornadoTestBase {
         }
     }
 
+    private static void copyWithLongIndex(FloatArray input, FloatArray output, long offset) {
+        for (@Parallel int i = 0; i < output.getSize(); i++) {
+            long index = offset + i;
+            output.set(i, input.get(index));
+        }
+    }
+
     @After
     public void after() {
         // make sure the source file generated is deleted
@@ -100,6 +109,28 @@ public class TestVirtualDeviceKernel extends TornadoTestBase {
         Assert.assertTrue("There is a mismatch between pre-compiled and JIT compiled kernels.", fileEquivalent);
     }
 
+    @Test
+    public void testVirtualDeviceLongIndexKernel() throws IOException {
+        assertNotBackend(TornadoVMBackendType.PTX);
+        assertNotBackend(TornadoVMBackendType.SPIRV);
+
+        FloatArray input = new FloatArray(SIZE * 2);
+        FloatArray output = new FloatArray(SIZE);
+
+        TaskGraph taskGraph = new TaskGraph("s0") //
+                .transferToDevice(DataTransferMode.EVERY_EXECUTION, input) //
+                .task("t0", TestVirtualDeviceKernel::copyWithLongIndex, input, output, (long) SIZE) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, output);
+
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph);
+        executionPlan.execute();
+
+        // The byte offset of a 64-bit index must be computed with 64-bit arithmetic
+        String generatedKernel = Files.readString(new File(SOURCE_DIR).toPath());
+        Assert.assertTrue(Pattern.compile("l_\\d+\\s*=\\s*l_\\d+ << 2;").matcher(generatedKernel).find());
+    }
+
     @Test
     public void testVirtualDeviceKernelGPU() {
         assertNotBackend(TornadoVMBackendType.PTX);
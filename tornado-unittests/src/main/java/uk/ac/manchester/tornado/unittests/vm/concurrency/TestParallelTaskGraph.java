@@ -30,6 +30,7 @@ import uk.ac.manchester.tornado.api.TornadoExecutionPlan;
 import uk.ac.manchester.tornado.api.annotations.Parallel;
 import uk.ac.manchester.tornado.api.common.TornadoDevice;
 import uk.ac.manchester.tornado.api.enums.DataTransferMode;
+import uk.ac.manchester.tornado.api.exceptions.TornadoExecutionPlanException;
 import uk.ac.manchester.tornado.api.runtime.TornadoRuntime;
 import uk.ac.manchester.tornado.api.types.arrays.FloatArray;
 import uk.ac.manchester.tornado.unittests.common.TornadoTestBase;
@@ -331,4 +332,57 @@ public class TestParallelTaskGraph extends TornadoTestBase {
             assertEquals(refB.get(i), b.get(i), DELTA_05);
         }
     }
+
+    @Test
+    public void testTwoDevicesConcurrentMultipleExecutions() throws TornadoExecutionPlanException {
+
+        FloatArray a = new FloatArray(SIZE);
+        FloatArray b = new FloatArray(SIZE);
+        FloatArray refB = new FloatArray(SIZE);
+        float alpha = 0.12f;
+
+        Random r = new Random(31);
+        IntStream.range(0, SIZE).forEach(i -> {
+            a.set(i, r.nextFloat());
+            b.set(i, r.nextFloat());
+            refB.set(i, b.get(i));
+        });
+
+        TaskGraph taskGraph = new TaskGraph("graph") //
+                .transferToDevice(DataTransferMode.FIRST_EXECUTION, a, b) //
+                .task("task0", TestParallelTaskGraph::init, a) //
+                .task("task1", TestParallelTaskGraph::multiply, b, alpha) //
+                .transferToHost(DataTransferMode.EVERY_EXECUTION, a, b); //
+
+        // Assume that the first drivers finds, at least two devices
+        int deviceCount = TornadoRuntime.getTornadoRuntime().getBackend(0).getDeviceCount();
+        if (deviceCount < 2) {
+            throw new UnsupportedConfigurationException("Test requires at least two devices");
+        }
+
+        TornadoDevice device0 = TornadoRuntime.getTornadoRuntime().getBackend(0).getDevice(0);
+        TornadoDevice device1 = TornadoRuntime.getTornadoRuntime().getBackend(0).getDevice(1);
+
+        final int iterations = 10;
+        ImmutableTaskGraph immutableTaskGraph = taskGraph.snapshot();
+        try (TornadoExecutionPlan executionPlan = new TornadoExecutionPlan(immutableTaskGraph)) {
+            executionPlan.withConcurrentDevices() //
+                    .withDevice("graph.task0", device0) //
+                    .withDevice("graph.task1", device1);
+
+            // The Java threads that run each device are reused across executions
+            for (int i = 0; i < iterations; i++) {
+                executionPlan.execute();
+            }
+        }
+
+        for (int i = 0; i < iterations; i++) {
+            multiply(refB, alpha);
+        }
+
+        for (int i = 0; i < a.getSize(); i++) {
+            assertEquals(i, a.get(i), DELTA);
+            assertEquals(refB.get(i), b.get(i), DELTA_05);
+        }
+    }
 }